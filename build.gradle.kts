@@ -25,6 +25,11 @@ version = ""
 allprojects {
     apply(plugin = "java")
 
+    // Bytecode stays at Java 17 even when built with a newer JDK, so the same jar runs on 17 and on 21+ (virtual threads)
+    tasks.withType<JavaCompile>().configureEach {
+        options.release.set(17)
+    }
+
     repositories {
         mavenCentral()
         mavenLocal()
@@ -83,12 +88,68 @@ dependencies {
     implementation(project(":services"))
 
     implementation(project(":extensions:common:http:client"))
+    implementation(project(":extensions:common:http:compression"))
+    implementation(project(":extensions:common:virtual-threads"))
+    implementation(project(":extensions:presentation-cache"))
+    implementation(project(":spi:import-credentials"))
+    implementation(project(":extensions:did-cache"))
+    implementation(project(":extensions:jsonld-contexts"))
+    implementation(project(":extensions:sts-token-cache"))
+    implementation(project(":extensions:status-list-cache"))
+    implementation(project(":extensions:parallel-verification"))
+    implementation(project(":extensions:local-did-resolver"))
+    implementation(project(":extensions:common:training-run"))
+    implementation(project(":extensions:common:crac"))
+    implementation(project(":extensions:common:single-port"))
+    implementation(project(":extensions:sql-metrics"))
+    implementation(project(":extensions:read-replica"))
+    implementation(project(":extensions:sql-partitioning"))
+    implementation(project(":extensions:tracing"))
+    implementation(project(":extensions:change-outbox"))
+    implementation(libs.edc.jetty.core)
+    implementation(libs.edc.web.spi)
+    implementation(libs.okhttp.brotli)
+    implementation(libs.crac)
+    implementation(libs.edc.http.client)
+    implementation(libs.edc.jsonld.spi)
+    implementation(libs.edc.ih.spi.sts)
+    implementation(libs.edc.spi.identity.did)
+    implementation(libs.edc.spi.keys)
+    implementation(libs.edc.spi.token)
+    implementation(libs.edc.spi.verifiable.credentials)
+    implementation(libs.edc.lib.sql)
+    implementation(libs.edc.spi.transaction.datasource)
+    implementation(libs.edc.sql.bootstrapper)
+    implementation(libs.postgresql)
+    implementation(libs.jakarta.annotation)
+    implementation(libs.opentelemetry.api)
+    implementation(libs.opentelemetry.sdk)
+    implementation(libs.opentelemetry.exporter.otlp)
+    implementation(libs.opentelemetry.exporter.logging.otlp)
 
     testReportAggregation(project(":extensions:user-seeding"))
     testReportAggregation(project(":extensions:service-loader"))
     testReportAggregation(project(":extensions:superuser-seed"))
     testReportAggregation(project(":spi:manage-participant"))
     testReportAggregation(project(":services"))
+    testReportAggregation(project(":extensions:common:http:compression"))
+    testReportAggregation(project(":extensions:common:virtual-threads"))
+    testReportAggregation(project(":extensions:presentation-cache"))
+    testReportAggregation(project(":spi:import-credentials"))
+    testReportAggregation(project(":extensions:did-cache"))
+    testReportAggregation(project(":extensions:jsonld-contexts"))
+    testReportAggregation(project(":extensions:sts-token-cache"))
+    testReportAggregation(project(":extensions:status-list-cache"))
+    testReportAggregation(project(":extensions:parallel-verification"))
+    testReportAggregation(project(":extensions:local-did-resolver"))
+    testReportAggregation(project(":extensions:common:training-run"))
+    testReportAggregation(project(":extensions:common:crac"))
+    testReportAggregation(project(":extensions:common:single-port"))
+    testReportAggregation(project(":extensions:sql-metrics"))
+    testReportAggregation(project(":extensions:read-replica"))
+    testReportAggregation(project(":extensions:sql-partitioning"))
+    testReportAggregation(project(":extensions:tracing"))
+    testReportAggregation(project(":extensions:change-outbox"))
     
 }
 
@@ -126,6 +187,28 @@ tasks.withType<com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar> {
     archiveClassifier.set("")
 }
 
+// Boots the fat jar in training mode (see extensions/common/training-run) and writes an AppCDS archive next to it.
+// The archive is only valid for this jar path and JVM, the Docker image trains its own. The configured Postgres and
+// Vault must be reachable, the task fails with the training run: ./gradlew cdsArchive -Pcds.config=/path/to/config.properties
+// Run with: java -XX:SharedArchiveFile=build/libs/<name>.jsa -jar build/libs/<name>.jar
+tasks.register<Exec>("cdsArchive") {
+    group = "distribution"
+    description = "Trains an AppCDS archive for the fat jar."
+    val shadowJar = tasks.named<com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar>("shadowJar")
+    dependsOn(shadowJar)
+    doFirst {
+        val jar = shadowJar.get().archiveFile.get().asFile
+        val arguments = mutableListOf(
+            "java",
+            "-XX:ArchiveClassesAtExit=" + jar.path.removeSuffix(".jar") + ".jsa",
+            "-Dedc.runtime.training.enabled=true"
+        )
+        (findProperty("cds.config") as String?)?.let { arguments.add("-Dedc.fs.config=$it") }
+        arguments.addAll(listOf("-jar", jar.path))
+        commandLine(arguments)
+    }
+}
+
 tasks.withType<Checkstyle> {
     reports {
         xml.required.set(false)
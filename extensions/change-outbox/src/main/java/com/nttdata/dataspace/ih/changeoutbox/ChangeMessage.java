@@ -0,0 +1,13 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import com.nttdata.dataspace.ih.services.ResourceChange;
+
+/**
+ * A row of the change outbox, also the payload of its notification.
+ *
+ * @param id     ID of the outbox row
+ * @param origin the runtime that made the change, random per start and CRaC restore
+ * @param change what changed
+ */
+record ChangeMessage(long id, String origin, ResourceChange change) {
+}
@@ -0,0 +1,126 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import org.eclipse.edc.spi.EdcException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SQL of the change outbox: every change is appended as a row and announced with {@code pg_notify} on the same
+ * connection. Postgres delivers notifications only when the transaction commits, so listeners never see a change that
+ * was rolled back, and the row stays for replicas that missed the notification.
+ */
+class ChangeOutbox {
+
+    static final String TABLE = "edc_ih_change_outbox";
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "origin VARCHAR NOT NULL, " +
+            "change_type VARCHAR NOT NULL, " +
+            "participant_context_id VARCHAR, " +
+            "resource_id VARCHAR, " +
+            "created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now())";
+    static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS " + TABLE + "_created_at_idx ON " + TABLE + " (created_at)";
+
+    private static final String INSERT = "INSERT INTO " + TABLE +
+            " (origin, change_type, participant_context_id, resource_id) VALUES (?, ?, ?, ?) RETURNING id";
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+    private static final String SINCE = "SELECT id, origin, change_type, participant_context_id, resource_id FROM " + TABLE +
+            " WHERE created_at >= ? ORDER BY id";
+    private static final String PURGE = "DELETE FROM " + TABLE + " WHERE created_at < ?";
+
+    private final String channel;
+    private final ObjectMapper mapper;
+
+    ChangeOutbox(String channel, ObjectMapper mapper) {
+        this.channel = channel;
+        this.mapper = mapper;
+    }
+
+    String channel() {
+        return channel;
+    }
+
+    void createTable(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            statement.execute(CREATE_INDEX);
+        }
+    }
+
+    /**
+     * Appends a change and notifies the listeners of the channel, within the transaction of the connection.
+     */
+    void append(Connection connection, String origin, ResourceChange change) throws SQLException {
+        long id;
+        try (var insert = connection.prepareStatement(INSERT)) {
+            insert.setString(1, origin);
+            insert.setString(2, change.type().name());
+            insert.setString(3, change.participantContextId());
+            insert.setString(4, change.resourceId());
+            try (var result = insert.executeQuery()) {
+                result.next();
+                id = result.getLong(1);
+            }
+        }
+        try (var notify = connection.prepareStatement(NOTIFY)) {
+            notify.setString(1, channel);
+            notify.setString(2, serialize(new ChangeMessage(id, origin, change)));
+            notify.executeQuery().close();
+        }
+    }
+
+    /**
+     * Returns the changes recorded since a point in time, in the order they were recorded.
+     */
+    List<ChangeMessage> since(Connection connection, Instant since) throws SQLException {
+        try (var query = connection.prepareStatement(SINCE)) {
+            query.setTimestamp(1, Timestamp.from(since));
+            try (var result = query.executeQuery()) {
+                var messages = new ArrayList<ChangeMessage>();
+                while (result.next()) {
+                    var change = new ResourceChange(ResourceChange.Type.valueOf(result.getString("change_type")),
+                            result.getString("participant_context_id"), result.getString("resource_id"));
+                    messages.add(new ChangeMessage(result.getLong("id"), result.getString("origin"), change));
+                }
+                return messages;
+            }
+        }
+    }
+
+    /**
+     * Deletes the changes recorded before a point in time.
+     *
+     * @return the number of deleted rows
+     */
+    int purge(Connection connection, Instant before) throws SQLException {
+        try (var delete = connection.prepareStatement(PURGE)) {
+            delete.setTimestamp(1, Timestamp.from(before));
+            return delete.executeUpdate();
+        }
+    }
+
+    ChangeMessage parse(String payload) {
+        try {
+            return mapper.readValue(payload, ChangeMessage.class);
+        } catch (JsonProcessingException e) {
+            throw new EdcException("Invalid change notification: " + payload, e);
+        }
+    }
+
+    private String serialize(ChangeMessage message) {
+        try {
+            return mapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new EdcException(e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import com.nttdata.dataspace.ih.services.StoreDecorator;
+import org.crac.Core;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentEvent;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairEvent;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.configuration.Config;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Shares changes of participant contexts, DID documents, key pairs and credentials between the replicas through a
+ * Postgres outbox table and {@code LISTEN/NOTIFY}, provided as {@link ResourceChangeFeed} to the caches.
+ * <p>
+ * Participant context, DID document and key pair events are recorded synchronously, in the transaction of the change
+ * where the Identity Hub publishes the event in one, so a change is either committed together with its outbox row and
+ * notification or not at all. Credential writes are recorded the same way by the {@link CredentialStoreRecorder},
+ * applied through the {@link StoreDecorator} hook of the tracing module and chaining the decorator of another
+ * extension (e.g. read-replica routing), which therefore must not inject a {@link StoreDecorator} itself.
+ * Every replica listens over a dedicated connection to the primary, see {@link ChangeSubscriber}, and passes the
+ * changes of the other replicas to the subscribed caches. Before a CRaC checkpoint the connection is closed, see
+ * {@link ChangeOutboxResource}.
+ * </p>
+ */
+@Extension(value = ChangeOutboxExtension.NAME)
+@Provides({ ResourceChangeFeed.class, StoreDecorator.class })
+public class ChangeOutboxExtension implements ServiceExtension {
+
+    public static final String NAME = "Change Outbox Extension";
+    public static final String DEFAULT_DATASOURCE = "default";
+    public static final String DEFAULT_CHANNEL = "edc_ih_changes";
+    public static final long DEFAULT_POLL_MILLIS = 500;
+    public static final long DEFAULT_REPLAY_MARGIN_SECONDS = 60;
+    public static final long DEFAULT_RETENTION_MINUTES = 60;
+
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Setting(description = "Record changes in an outbox table and notify the other replicas over Postgres LISTEN/NOTIFY", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.ih.change.outbox.enabled";
+
+    @Setting(description = "Name of the datasource holding the outbox table, must be the Postgres primary", defaultValue = DEFAULT_DATASOURCE)
+    public static final String DATASOURCE_SETTING = "edc.ih.change.outbox.datasource";
+
+    @Setting(description = "Postgres notification channel of the changes", defaultValue = DEFAULT_CHANNEL)
+    public static final String CHANNEL_SETTING = "edc.ih.change.outbox.channel";
+
+    @Setting(description = "Milliseconds a poll for notifications waits, also the delay until a lost connection is noticed", defaultValue = "500")
+    public static final String POLL_SETTING = "edc.ih.change.outbox.poll.millis";
+
+    @Setting(description = "Seconds before the last successful poll from which the outbox is replayed after a reconnect", defaultValue = "60")
+    public static final String REPLAY_MARGIN_SETTING = "edc.ih.change.outbox.replay.margin.seconds";
+
+    @Setting(description = "Minutes changes are kept in the outbox table", defaultValue = "60")
+    public static final String RETENTION_SETTING = "edc.ih.change.outbox.retention.minutes";
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Inject
+    private TransactionContext transactionContext;
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject
+    private TypeManager typeManager;
+
+    @Inject(required = false)
+    private StoreDecorator storeDecorator;
+
+    private ChangeOutbox outbox;
+    private OutboxChangeFeed feed;
+    private ChangeSubscriber subscriber;
+    // CRaC may only keep weak references to resources, the extension keeps it alive
+    private ChangeOutboxResource checkpointResource;
+    private Thread listener;
+    private String dataSourceName;
+    private Monitor monitor;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("ChangeOutbox");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, false)) {
+            return;
+        }
+        dataSourceName = config.getString(DATASOURCE_SETTING, DEFAULT_DATASOURCE);
+        var channel = config.getString(CHANNEL_SETTING, DEFAULT_CHANNEL);
+        var pollInterval = Duration.ofMillis(config.getLong(POLL_SETTING, DEFAULT_POLL_MILLIS));
+        var replayMargin = Duration.ofSeconds(config.getLong(REPLAY_MARGIN_SETTING, DEFAULT_REPLAY_MARGIN_SECONDS));
+        var retention = Duration.ofMinutes(config.getLong(RETENTION_SETTING, DEFAULT_RETENTION_MINUTES));
+        if (!IDENTIFIER.matcher(channel).matches()) {
+            throw new EdcException("Invalid %s: %s".formatted(CHANNEL_SETTING, channel));
+        }
+        if (pollInterval.isZero() || pollInterval.isNegative() || pollInterval.toMillis() > Integer.MAX_VALUE) {
+            throw new EdcException("%s must be a positive number of milliseconds".formatted(POLL_SETTING));
+        }
+        if (retention.compareTo(replayMargin) <= 0) {
+            throw new EdcException("%s must be longer than %s".formatted(RETENTION_SETTING, REPLAY_MARGIN_SETTING));
+        }
+
+        outbox = new ChangeOutbox(channel, typeManager.getMapper());
+        feed = new OutboxChangeFeed(outbox, () -> dataSourceRegistry.resolve(dataSourceName), transactionContext, monitor);
+        context.registerService(ResourceChangeFeed.class, feed);
+
+        subscribe(ParticipantContextEvent.class, feed, event -> ResourceChange.participantContext(event.getParticipantContextId()));
+        subscribe(DidDocumentEvent.class, feed, event -> ResourceChange.didDocument(event.getParticipantContextId(), event.getDid()));
+        subscribe(KeyPairEvent.class, feed, event -> ResourceChange.keyPair(event.getParticipantContextId(), event.getKeyPairResourceId()));
+        context.registerService(StoreDecorator.class, new CredentialStoreRecorder(feed, transactionContext, storeDecorator));
+
+        subscriber = new ChangeSubscriber(connector(config, dataSourceName), outbox, feed, pollInterval, replayMargin,
+                retention, RECONNECT_DELAY, Clock.systemUTC(), monitor);
+        checkpointResource = new ChangeOutboxResource(subscriber, feed, monitor);
+        Core.getGlobalContext().register(checkpointResource);
+        monitor.info("Change outbox ENABLED (datasource '%s', channel %s)".formatted(dataSourceName, channel));
+    }
+
+    @Override
+    public void prepare() {
+        if (outbox == null) {
+            return;
+        }
+        var dataSource = dataSourceRegistry.resolve(dataSourceName);
+        if (dataSource == null) {
+            throw new EdcException("No datasource '%s' for the change outbox".formatted(dataSourceName));
+        }
+        transactionContext.execute(() -> {
+            try (var connection = dataSource.getConnection()) {
+                outbox.createTable(connection);
+            } catch (SQLException e) {
+                throw new EdcException("Failed to create the change outbox table", e);
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        if (subscriber == null) {
+            return;
+        }
+        monitor.debug("Publishing changes as origin %s".formatted(feed.renewOrigin()));
+        listener = new Thread(subscriber, "change-outbox-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void shutdown() {
+        if (subscriber == null) {
+            return;
+        }
+        subscriber.stop();
+        if (listener != null) {
+            try {
+                listener.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private <T extends Event> void subscribe(Class<T> type, ResourceChangeFeed feed, Function<T, ResourceChange> change) {
+        eventRouter.registerSync(type, new EventSubscriber() {
+            @Override
+            public <E extends Event> void on(EventEnvelope<E> event) {
+                if (type.isInstance(event.getPayload())) {
+                    feed.publish(change.apply(type.cast(event.getPayload())));
+                }
+            }
+        });
+    }
+
+    /**
+     * Notifications are bound to a session, so the subscriber holds a connection of its own instead of a pooled one.
+     * It connects with the settings of the datasource, bypassing any routing to a read replica, which does not receive
+     * notifications.
+     */
+    private static ChangeSubscriber.Connector connector(Config config, String dataSourceName) {
+        var prefix = "edc.datasource.%s.".formatted(dataSourceName);
+        var url = config.getString(prefix + "url");
+        var properties = new Properties();
+        var user = config.getString(prefix + "user", null);
+        if (user != null) {
+            properties.setProperty("user", user);
+        }
+        var password = config.getString(prefix + "password", null);
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "identity-hub-change-outbox");
+        return () -> DriverManager.getConnection(url, properties);
+    }
+}
@@ -0,0 +1,41 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Duration;
+
+/**
+ * Closes the {@code LISTEN} connection of the {@link ChangeSubscriber} before a CRaC checkpoint and reconnects after
+ * the restore, which replays the changes recorded in the meantime. The restored process gets a new origin, since all
+ * replicas restored from the same image would otherwise share one and skip each other's changes.
+ */
+class ChangeOutboxResource implements Resource {
+
+    static final Duration SUSPEND_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ChangeSubscriber subscriber;
+    private final OutboxChangeFeed feed;
+    private final Monitor monitor;
+
+    ChangeOutboxResource(ChangeSubscriber subscriber, OutboxChangeFeed feed, Monitor monitor) {
+        this.subscriber = subscriber;
+        this.feed = feed;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        if (!subscriber.suspend(SUSPEND_TIMEOUT)) {
+            monitor.warning("Change outbox connection still open after %s, the checkpoint may fail".formatted(SUSPEND_TIMEOUT));
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        var origin = feed.renewOrigin();
+        subscriber.resume();
+        monitor.info("Restored, listening for changes again as origin %s".formatted(origin));
+    }
+}
@@ -0,0 +1,228 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Listens on the notification channel of the {@link ChangeOutbox} over a dedicated connection and passes the changes
+ * to the {@link OutboxChangeFeed}.
+ * <p>
+ * Notifications sent while the connection is down are lost. After a reconnect, the changes recorded since the last
+ * successful poll, less the replay margin, are read from the outbox and passed on again; dropping a cache entry twice
+ * is harmless. The margin covers transactions that started before, but committed after, the connection was lost, and
+ * clock differences between the database and this runtime. The subscriber also deletes changes older than the
+ * retention from the outbox.
+ * </p>
+ * <p>
+ * For a CRaC checkpoint the subscriber is suspended: it closes its connection and waits, and reconnects with a replay
+ * when resumed after the restore.
+ * </p>
+ */
+class ChangeSubscriber implements Runnable {
+
+    static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    private static final long SUSPEND_CHECK_MILLIS = 10;
+
+    @FunctionalInterface
+    interface Connector {
+        Connection connect() throws SQLException;
+    }
+
+    private final Connector connector;
+    private final ChangeOutbox outbox;
+    private final OutboxChangeFeed feed;
+    private final Duration pollInterval;
+    private final Duration replayMargin;
+    private final Duration retention;
+    private final Duration reconnectDelay;
+    private final Clock clock;
+    private final Monitor monitor;
+
+    private volatile boolean running = true;
+    private volatile boolean suspended;
+    private volatile boolean connected;
+    private volatile Connection current;
+    private boolean failing;
+    private Instant lastContact;
+    private Instant lastPurge = Instant.EPOCH;
+
+    ChangeSubscriber(Connector connector, ChangeOutbox outbox, OutboxChangeFeed feed, Duration pollInterval,
+                     Duration replayMargin, Duration retention, Duration reconnectDelay, Clock clock, Monitor monitor) {
+        this.connector = connector;
+        this.outbox = outbox;
+        this.feed = feed;
+        this.pollInterval = pollInterval;
+        this.replayMargin = replayMargin;
+        this.retention = retention;
+        this.reconnectDelay = reconnectDelay;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            awaitResume();
+            if (!running) {
+                return;
+            }
+            // announced before the suspended flag is read again, see suspend()
+            connected = true;
+            if (suspended) {
+                connected = false;
+                continue;
+            }
+            try (var connection = connector.connect()) {
+                current = connection;
+                if (suspended) {
+                    continue;
+                }
+                listen(connection);
+                if (lastContact != null) {
+                    replay(connection, lastContact.minus(replayMargin));
+                }
+                if (failing || lastContact == null) {
+                    failing = false;
+                    monitor.info("Listening for changes of other replicas on channel %s".formatted(outbox.channel()));
+                }
+                receive(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                if (suspended) {
+                    continue;
+                }
+                if (!failing) {
+                    failing = true;
+                    monitor.warning("Change notifications interrupted, reconnecting every %s".formatted(reconnectDelay), e);
+                }
+                pause();
+            } finally {
+                current = null;
+                connected = false;
+            }
+        }
+    }
+
+    /**
+     * Stops listening, also interrupting a poll in progress by closing the connection.
+     */
+    void stop() {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        closeCurrent();
+    }
+
+    /**
+     * Closes the connection and keeps the subscriber from reconnecting until {@link #resume()}. Returns once no
+     * connection is open, or after the timeout.
+     * @return whether the connection was closed within the timeout
+     */
+    boolean suspend(Duration timeout) throws InterruptedException {
+        suspended = true;
+        var deadline = System.nanoTime() + timeout.toNanos();
+        // a connection may still be opened while suspending, the loop closes it as soon as it is current
+        while (connected) {
+            closeCurrent();
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(SUSPEND_CHECK_MILLIS);
+        }
+        return true;
+    }
+
+    /**
+     * Reconnects after {@link #suspend(Duration)}, replaying the changes recorded in the meantime.
+     */
+    void resume() {
+        synchronized (this) {
+            suspended = false;
+            notifyAll();
+        }
+    }
+
+    private synchronized void awaitResume() {
+        while (suspended && running) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    private void closeCurrent() {
+        var connection = current;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // closing anyway
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            // the channel name was validated as identifier, LISTEN does not take parameters
+            statement.execute("LISTEN " + outbox.channel());
+        }
+    }
+
+    private void replay(Connection connection, Instant since) throws SQLException {
+        var missed = outbox.since(connection, since);
+        missed.forEach(feed::dispatch);
+        monitor.info("Reconnected, replayed %d changes recorded since %s".formatted(missed.size(), since));
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        var notifications = connection.unwrap(PGConnection.class);
+        while (running) {
+            var polledAt = clock.instant();
+            var received = notifications.getNotifications((int) pollInterval.toMillis());
+            lastContact = polledAt;
+            if (received != null) {
+                for (var notification : received) {
+                    try {
+                        feed.dispatch(outbox.parse(notification.getParameter()));
+                    } catch (RuntimeException e) {
+                        monitor.warning("Ignoring change notification", e);
+                    }
+                }
+            }
+            purge(connection, polledAt);
+        }
+    }
+
+    private void purge(Connection connection, Instant now) throws SQLException {
+        if (Duration.between(lastPurge, now).compareTo(PURGE_INTERVAL) < 0) {
+            return;
+        }
+        lastPurge = now;
+        var deleted = outbox.purge(connection, now.minus(retention));
+        if (deleted > 0) {
+            monitor.debug("Deleted %d changes older than %s from the outbox".formatted(deleted, retention));
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import com.nttdata.dataspace.ih.services.StoreDecorator;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Records credential writes, which the Identity Hub does not signal with an event: decorates the
+ * {@link CredentialStore} so that a successful {@code create}, {@code update} or {@code deleteById} appends a
+ * credentials change in the transaction of the write. If the change cannot be recorded, the write is rolled back.
+ * <p>
+ * Chains the {@link StoreDecorator} of another extension (e.g. read-replica routing), which is applied first.
+ * </p>
+ */
+class CredentialStoreRecorder implements StoreDecorator {
+
+    private final ResourceChangeFeed feed;
+    private final TransactionContext transactionContext;
+    private final StoreDecorator next;
+
+    /**
+     * @param next the decorator of another extension, or {@code null}
+     */
+    CredentialStoreRecorder(ResourceChangeFeed feed, TransactionContext transactionContext, StoreDecorator next) {
+        this.feed = feed;
+        this.transactionContext = transactionContext;
+        this.next = next;
+    }
+
+    @Override
+    public <T> T decorate(Class<T> storeType, T store) {
+        var decorated = next != null ? next.decorate(storeType, store) : store;
+        if (storeType != CredentialStore.class) {
+            return decorated;
+        }
+        return storeType.cast(record(CredentialStore.class.cast(decorated)));
+    }
+
+    CredentialStore record(CredentialStore store) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "create", "update" -> write(store, method, args, ((VerifiableCredentialResource) args[0]).getParticipantContextId());
+            case "deleteById" -> transactionContext.execute(() -> write(store, method, args, owner(store, (String) args[0])));
+            default -> invoke(store, method, args);
+        };
+        return (CredentialStore) Proxy.newProxyInstance(CredentialStore.class.getClassLoader(), new Class<?>[]{ CredentialStore.class }, handler);
+    }
+
+    private Object write(CredentialStore store, Method method, Object[] args, String participantContextId) {
+        return transactionContext.execute(() -> {
+            var result = invoke(store, method, args);
+            if (participantContextId != null && result instanceof StoreResult<?> storeResult && storeResult.succeeded()) {
+                feed.publish(ResourceChange.credentials(participantContextId));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Looks up the participant of a credential before it is deleted, in the transaction of the delete.
+     */
+    private static String owner(CredentialStore store, String credentialId) {
+        var query = QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", credentialId)).build();
+        var result = store.query(query);
+        if (result.failed()) {
+            return null;
+        }
+        return result.getContent().stream().findFirst().map(VerifiableCredentialResource::getParticipantContextId).orElse(null);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new EdcException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new EdcException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import com.nttdata.dataspace.ih.services.ResourceChangeListener;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the changes of this runtime to the {@link ChangeOutbox} and passes the changes of other replicas, as
+ * received by the {@link ChangeSubscriber}, to the subscribed listeners.
+ * <p>
+ * The changes are tagged with a random origin, so that the feed skips its own. The runtime ID is often the same on
+ * all replicas of a deployment, and replicas restored from one CRaC checkpoint share the whole state of the process,
+ * so the origin is renewed on every start and restore.
+ * </p>
+ */
+class OutboxChangeFeed implements ResourceChangeFeed {
+
+    private volatile String origin;
+    private final ChangeOutbox outbox;
+    private final Supplier<DataSource> dataSource;
+    private final TransactionContext transactionContext;
+    private final Monitor monitor;
+    private final List<ResourceChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    OutboxChangeFeed(ChangeOutbox outbox, Supplier<DataSource> dataSource, TransactionContext transactionContext, Monitor monitor) {
+        this.origin = UUID.randomUUID().toString();
+        this.outbox = outbox;
+        this.dataSource = dataSource;
+        this.transactionContext = transactionContext;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Appends the change in the current transaction, or in a new one. A failure is thrown, so that a change made in
+     * the same transaction is rolled back instead of going unnoticed by the other replicas.
+     */
+    @Override
+    public void publish(ResourceChange change) {
+        transactionContext.execute(() -> {
+            try (var connection = dataSource.get().getConnection()) {
+                outbox.append(connection, origin, change);
+            } catch (SQLException e) {
+                throw new EdcException("Failed to record %s in the change outbox".formatted(change), e);
+            }
+        });
+    }
+
+    /**
+     * Tags the changes published from now on with a new origin.
+     * @return the new origin
+     */
+    String renewOrigin() {
+        origin = UUID.randomUUID().toString();
+        return origin;
+    }
+
+    String origin() {
+        return origin;
+    }
+
+    @Override
+    public void subscribe(ResourceChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Passes a change to the listeners, unless this runtime made it.
+     */
+    void dispatch(ChangeMessage message) {
+        if (origin.equals(message.origin())) {
+            return;
+        }
+        for (var listener : listeners) {
+            try {
+                listener.changed(message.change());
+            } catch (RuntimeException e) {
+                monitor.warning("Change listener failed on %s".formatted(message.change()), e);
+            }
+        }
+    }
+}
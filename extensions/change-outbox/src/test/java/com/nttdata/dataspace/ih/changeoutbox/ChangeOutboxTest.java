@@ -0,0 +1,269 @@
+package com.nttdata.dataspace.ih.changeoutbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import com.nttdata.dataspace.ih.services.StoreDecorator;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.eclipse.edc.transaction.spi.NoopTransactionContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChangeOutboxTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+    private static final Duration REPLAY_MARGIN = Duration.ofSeconds(60);
+
+    private final Monitor monitor = mock(Monitor.class);
+    private final List<ResourceChange> received = new ArrayList<>();
+
+    @Test
+    void append_shouldNotifyWithRowIdAndChange() throws SQLException {
+        var outbox = new ChangeOutbox("edc_ih_changes", new ObjectMapper());
+        var connection = mock(Connection.class);
+        var insert = mock(PreparedStatement.class);
+        var notify = mock(PreparedStatement.class);
+        var generatedId = mock(ResultSet.class);
+        when(connection.prepareStatement(startsWith("INSERT"))).thenReturn(insert);
+        when(connection.prepareStatement(startsWith("SELECT pg_notify"))).thenReturn(notify);
+        when(insert.executeQuery()).thenReturn(generatedId);
+        when(notify.executeQuery()).thenReturn(mock(ResultSet.class));
+        when(generatedId.next()).thenReturn(true);
+        when(generatedId.getLong(1)).thenReturn(42L);
+        var change = ResourceChange.didDocument("participant-1", "did:web:example.com:participant-1");
+
+        outbox.append(connection, "replica-a", change);
+
+        var payload = ArgumentCaptor.forClass(String.class);
+        verify(notify).setString(eq(1), eq("edc_ih_changes"));
+        verify(notify).setString(eq(2), payload.capture());
+        assertThat(outbox.parse(payload.getValue())).isEqualTo(new ChangeMessage(42, "replica-a", change));
+    }
+
+    @Test
+    void dispatch_shouldSkipOwnChanges_andIsolateFailingListeners() {
+        var feed = feed();
+        feed.subscribe(change -> {
+            throw new IllegalStateException("listener failed");
+        });
+
+        feed.dispatch(new ChangeMessage(1, feed.origin(), ResourceChange.credentials("participant-1")));
+        feed.dispatch(new ChangeMessage(2, "other", ResourceChange.credentials("participant-2")));
+
+        assertThat(received).containsExactly(ResourceChange.credentials("participant-2"));
+    }
+
+    @Test
+    void renewOrigin_shouldPassChangesOfPreviousOrigin() {
+        var feed = feed();
+        var previous = feed.origin();
+
+        var renewed = feed.renewOrigin();
+        feed.dispatch(new ChangeMessage(1, previous, ResourceChange.credentials("participant-1")));
+
+        assertThat(renewed).isNotEqualTo(previous).isEqualTo(feed.origin());
+        assertThat(received).containsExactly(ResourceChange.credentials("participant-1"));
+    }
+
+    @Test
+    void run_shouldDispatchNotifications_andReplayOutboxAfterReconnect() throws SQLException {
+        var outbox = mock(ChangeOutbox.class);
+        when(outbox.channel()).thenReturn("edc_ih_changes");
+        var feed = feed();
+        var fromOther = new ChangeMessage(1, "other", ResourceChange.keyPair("participant-1", "key-1"));
+        var fromSelf = new ChangeMessage(2, feed.origin(), ResourceChange.keyPair("participant-2", "key-2"));
+        var missed = new ChangeMessage(3, "other", ResourceChange.participantContext("participant-3"));
+        when(outbox.parse("1")).thenReturn(fromOther);
+        when(outbox.parse("2")).thenReturn(fromSelf);
+
+        var first = connection();
+        var second = connection();
+        when(outbox.since(any(), any())).thenReturn(List.of(missed));
+        var polls = new AtomicInteger();
+        when(first.unwrap(PGConnection.class).getNotifications(anyInt())).thenAnswer(i -> {
+            if (polls.getAndIncrement() == 0) {
+                return new PGNotification[]{ notification("1"), notification("2") };
+            }
+            throw new SQLException("connection lost");
+        });
+        var connections = List.of(first, second).iterator();
+        var subscriber = new ChangeSubscriber(connections::next, outbox, feed, Duration.ofMillis(10), REPLAY_MARGIN,
+                Duration.ofMinutes(60), Duration.ofMillis(1), Clock.fixed(NOW, ZoneOffset.UTC), monitor);
+        when(second.unwrap(PGConnection.class).getNotifications(anyInt())).thenAnswer(i -> {
+            subscriber.stop();
+            return null;
+        });
+
+        subscriber.run();
+
+        verify(outbox).since(second, NOW.minus(REPLAY_MARGIN));
+        assertThat(received).containsExactly(fromOther.change(), missed.change());
+    }
+
+    @Test
+    void suspend_shouldCloseConnection_andReconnectWithReplayOnResume() throws Exception {
+        var outbox = mock(ChangeOutbox.class);
+        when(outbox.channel()).thenReturn("edc_ih_changes");
+        var missed = new ChangeMessage(1, "other", ResourceChange.participantContext("participant-1"));
+        when(outbox.since(any(), any())).thenReturn(List.of(missed));
+        var first = connection();
+        var second = connection();
+        var closed = new CountDownLatch(1);
+        var polling = new CountDownLatch(1);
+        var polls = new AtomicInteger();
+        when(first.unwrap(PGConnection.class).getNotifications(anyInt())).thenAnswer(i -> {
+            if (polls.getAndIncrement() == 0) {
+                return null;
+            }
+            polling.countDown();
+            closed.await();
+            throw new SQLException("connection closed");
+        });
+        doAnswer(i -> {
+            closed.countDown();
+            return null;
+        }).when(first).close();
+        var reconnected = new CountDownLatch(1);
+        when(second.unwrap(PGConnection.class).getNotifications(anyInt())).thenAnswer(i -> {
+            reconnected.countDown();
+            Thread.sleep(10);
+            return null;
+        });
+        var connects = new AtomicInteger();
+        var connections = List.of(first, second).iterator();
+        var subscriber = new ChangeSubscriber(() -> {
+            connects.incrementAndGet();
+            return connections.next();
+        }, outbox, feed(), Duration.ofMillis(10), REPLAY_MARGIN, Duration.ofMinutes(60), Duration.ofMillis(1),
+                Clock.fixed(NOW, ZoneOffset.UTC), monitor);
+        var listener = new Thread(subscriber);
+        listener.start();
+        try {
+            assertThat(polling.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(subscriber.suspend(Duration.ofSeconds(5))).isTrue();
+            verify(first).close();
+            Thread.sleep(50);
+            assertThat(connects).hasValue(1);
+
+            subscriber.resume();
+            assertThat(reconnected.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            subscriber.stop();
+            listener.join(5000);
+        }
+        verify(outbox).since(second, NOW.minus(REPLAY_MARGIN));
+        assertThat(received).containsExactly(missed.change());
+    }
+
+    @Test
+    void credentialStoreRecorder_shouldPublishSuccessfulWrites() {
+        var changeFeed = mock(ResourceChangeFeed.class);
+        var store = mock(CredentialStore.class);
+        var credential = mock(VerifiableCredentialResource.class);
+        when(credential.getParticipantContextId()).thenReturn("participant-1");
+        when(store.create(credential)).thenReturn(StoreResult.success());
+        when(store.update(credential)).thenReturn(StoreResult.notFound("credential-1"));
+        when(store.query(any(QuerySpec.class))).thenReturn(StoreResult.success(List.of(credential)));
+        when(store.deleteById("credential-1")).thenReturn(StoreResult.success());
+        var recorded = new CredentialStoreRecorder(changeFeed, new NoopTransactionContext(), null)
+                .decorate(CredentialStore.class, store);
+
+        recorded.create(credential);
+        recorded.update(credential);
+        recorded.deleteById("credential-1");
+
+        verify(store).update(credential);
+        verify(changeFeed, times(2)).publish(ResourceChange.credentials("participant-1"));
+    }
+
+    @Test
+    void credentialStoreRecorder_shouldFailWrite_whenChangeCannotBeRecorded() {
+        var changeFeed = mock(ResourceChangeFeed.class);
+        doAnswer(i -> {
+            throw new IllegalStateException("outbox unavailable");
+        }).when(changeFeed).publish(any());
+        var store = mock(CredentialStore.class);
+        var credential = mock(VerifiableCredentialResource.class);
+        when(credential.getParticipantContextId()).thenReturn("participant-1");
+        when(store.create(credential)).thenReturn(StoreResult.success());
+        var recorded = new CredentialStoreRecorder(changeFeed, new NoopTransactionContext(), null)
+                .decorate(CredentialStore.class, store);
+
+        assertThatThrownBy(() -> recorded.create(credential)).hasMessageContaining("outbox unavailable");
+    }
+
+    @Test
+    void credentialStoreRecorder_shouldChainDecorator_andPassOtherStores() {
+        var changeFeed = mock(ResourceChangeFeed.class);
+        var store = mock(CredentialStore.class);
+        var routed = mock(CredentialStore.class);
+        when(routed.query(any(QuerySpec.class))).thenReturn(StoreResult.success(List.of()));
+        var recorder = new CredentialStoreRecorder(changeFeed, new NoopTransactionContext(), new StoreDecorator() {
+            @Override
+            public <T> T decorate(Class<T> storeType, T target) {
+                return storeType == CredentialStore.class ? storeType.cast(routed) : target;
+            }
+        });
+        var other = mock(Runnable.class);
+
+        recorder.decorate(CredentialStore.class, store).query(QuerySpec.none());
+
+        verify(routed).query(any(QuerySpec.class));
+        assertThat(recorder.decorate(Runnable.class, other)).isSameAs(other);
+        verify(changeFeed, never()).publish(any());
+    }
+
+    private OutboxChangeFeed feed() {
+        var feed = new OutboxChangeFeed(mock(ChangeOutbox.class), () -> null, null, monitor);
+        feed.subscribe(received::add);
+        return feed;
+    }
+
+    private static Connection connection() throws SQLException {
+        var connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(connection.unwrap(PGConnection.class)).thenReturn(mock(PGConnection.class));
+        return connection;
+    }
+
+    private static PGNotification notification(String payload) {
+        var notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+}
@@ -0,0 +1,19 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    implementation(libs.edc.core.runtime)
+    implementation(libs.edc.jetty.core)
+    implementation(libs.edc.http.client)
+    implementation(libs.crac)
+    implementation(project(":extensions:common:training-run"))
+    implementation(project(":services"))
+
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly(libs.junit.jupiter.engine)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.mockito.core)
+    testImplementation(libs.mockito.junit.jupiter)
+    testImplementation(libs.assertj.core)
+}
@@ -0,0 +1,107 @@
+package com.nttdata.dataspace.ih.crac;
+
+import com.nttdata.dataspace.ih.services.ConnectionObserver;
+import com.nttdata.dataspace.ih.trainingrun.TrainingRun;
+import okhttp3.OkHttpClient;
+import org.crac.Core;
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.web.jetty.JettyService;
+
+import java.util.List;
+
+/**
+ * Checkpoint/restore (CRaC) support.
+ * <p>
+ * The Jetty connectors, the outbound HTTP connections (also those of the Vault client) and the database connections
+ * of the pools are registered as CRaC resources, so they are closed before a checkpoint and reopened on restore. The
+ * database connections are learned through the {@link ConnectionObserver} this extension provides. With checkpoint
+ * mode enabled, the runtime warms up with requests to its own APIs after start and then takes the checkpoint; a JVM
+ * started with {@code -XX:CRaCCheckpointTo} writes the image and exits, and replicas start from it with
+ * {@code -XX:CRaCRestoreFrom}. Without a CRaC JVM the resources are never called and checkpoint mode only logs a
+ * warning.
+ * </p>
+ */
+@Extension(value = CracExtension.NAME)
+@Provides(ConnectionObserver.class)
+public class CracExtension implements ServiceExtension {
+
+    public static final String NAME = "CRaC Extension";
+    public static final int DEFAULT_WARMUP_ROUNDS = 200;
+
+    @Setting(description = "Warm up after start and take a CRaC checkpoint (requires a CRaC JVM started with -XX:CRaCCheckpointTo)", defaultValue = "false")
+    public static final String CHECKPOINT_SETTING = "edc.runtime.crac.checkpoint";
+
+    @Setting(description = "Number of times every warm-up URL is requested before the checkpoint, URLs as for the training run", defaultValue = "200")
+    public static final String WARMUP_ROUNDS_SETTING = "edc.runtime.crac.warmup.rounds";
+
+    @Inject
+    private JettyService jettyService;
+
+    @Inject
+    private OkHttpClient okHttpClient;
+
+    @Inject
+    private EdcHttpClient httpClient;
+
+    // CRaC may only keep weak references to resources, the extension keeps them alive
+    private final JettyConnectorResource connectorResource = new JettyConnectorResource();
+    private OkHttpConnectionResource httpResource;
+    private JdbcConnectionResource jdbcResource;
+    private Monitor monitor;
+    private boolean checkpoint;
+    private List<String> warmupUrls;
+    private int warmupRounds;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("CRaC");
+        var config = context.getConfig();
+
+        jettyService.addConnectorConfigurationCallback(connectorResource::add);
+        httpResource = new OkHttpConnectionResource(okHttpClient);
+        jdbcResource = new JdbcConnectionResource(monitor);
+        Core.getGlobalContext().register(connectorResource);
+        Core.getGlobalContext().register(httpResource);
+        Core.getGlobalContext().register(jdbcResource);
+        context.registerService(ConnectionObserver.class, jdbcResource);
+
+        checkpoint = config.getBoolean(CHECKPOINT_SETTING, false);
+        warmupUrls = TrainingRun.urls(config);
+        warmupRounds = config.getInteger(WARMUP_ROUNDS_SETTING, DEFAULT_WARMUP_ROUNDS);
+    }
+
+    @Override
+    public void start() {
+        if (!checkpoint) {
+            return;
+        }
+        var thread = new Thread(new TrainingRun(warmupUrls, warmupRounds, TrainingRun.httpSender(httpClient), this::checkpoint, monitor), "crac-checkpoint");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void checkpoint() {
+        monitor.info("Taking CRaC checkpoint");
+        var start = System.nanoTime();
+        try {
+            Core.checkpointRestore();
+            monitor.info("Restored from CRaC checkpoint, resources reopened in %d ms".formatted((System.nanoTime() - start) / 1_000_000));
+        } catch (UnsupportedOperationException e) {
+            monitor.warning("This JVM does not support CRaC, continuing without checkpoint");
+        } catch (Exception e) {
+            monitor.severe("CRaC checkpoint failed, continuing without checkpoint", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nttdata.dataspace.ih.crac;
+
+import com.nttdata.dataspace.ih.services.ConnectionObserver;
+import org.crac.Context;
+import org.crac.Resource;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Closes the physical database connections of the connection pools before a checkpoint, since a checkpoint fails while
+ * sockets to the database are open and the restored process could not use them anyway.
+ * <p>
+ * The connections are learned from the connection factory as they are opened. Pools validate connections on borrow
+ * ({@code edc.datasource.<name>.pool.connection.test.on-borrow}, on by default), so after restore they discard the
+ * closed ones and open new connections on demand. The checkpoint is taken after the warm-up, when no request holds a
+ * connection; a statement still running on a closed connection fails.
+ * </p>
+ */
+public class JdbcConnectionResource implements Resource, ConnectionObserver {
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Monitor monitor;
+
+    public JdbcConnectionResource(Monitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void opened(Connection connection) {
+        // connections the pool closed itself are dropped here, so the set stays at the size of the pools
+        connections.removeIf(JdbcConnectionResource::isClosed);
+        connections.add(connection);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        var closed = 0;
+        for (var connection : connections) {
+            try {
+                if (!connection.isClosed()) {
+                    connection.close();
+                    closed++;
+                }
+            } catch (SQLException e) {
+                monitor.warning("Failed to close a database connection before the checkpoint", e);
+            }
+        }
+        connections.clear();
+        monitor.debug("Closed %d database connections before the checkpoint".formatted(closed));
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        // the pools open new connections on demand
+    }
+
+    int size() {
+        return connections.size();
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
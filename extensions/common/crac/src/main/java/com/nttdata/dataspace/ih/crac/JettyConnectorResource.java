@@ -0,0 +1,45 @@
+package com.nttdata.dataspace.ih.crac;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.eclipse.jetty.server.ServerConnector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Closes the listening sockets of all Jetty connectors (default, identity, credentials, DID API) before a checkpoint and
+ * opens them again on restore. A checkpoint fails while sockets are open, and the restored process must bind the
+ * ports itself.
+ */
+public class JettyConnectorResource implements Resource {
+
+    private final List<ServerConnector> connectors = new CopyOnWriteArrayList<>();
+    private final List<ServerConnector> stopped = new CopyOnWriteArrayList<>();
+
+    /**
+     * Connector configuration callback, called by Jetty for every connector it creates.
+     */
+    public void add(ServerConnector connector) {
+        connectors.add(connector);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        // connectors closed since start (e.g. in single-port mode) stay closed after restore
+        for (var connector : connectors) {
+            if (connector.isStarted()) {
+                connector.stop();
+                stopped.add(connector);
+            }
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws Exception {
+        for (var connector : stopped) {
+            connector.start();
+        }
+        stopped.clear();
+    }
+}
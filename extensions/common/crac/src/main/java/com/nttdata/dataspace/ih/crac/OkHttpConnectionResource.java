@@ -0,0 +1,29 @@
+package com.nttdata.dataspace.ih.crac;
+
+import okhttp3.OkHttpClient;
+import org.crac.Context;
+import org.crac.Resource;
+
+/**
+ * Closes the pooled connections of the outbound HTTP client, also used by the Vault client, before a checkpoint.
+ * Connections are opened again on demand after restore, and TLS sessions are renegotiated with the restored hosts.
+ */
+public class OkHttpConnectionResource implements Resource {
+
+    private final OkHttpClient client;
+
+    public OkHttpConnectionResource(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        client.dispatcher().cancelAll();
+        client.connectionPool().evictAll();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        // connections are created lazily
+    }
+}
@@ -0,0 +1,118 @@
+package com.nttdata.dataspace.ih.crac;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.jetty.server.ServerConnector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CheckpointResourcesTest {
+
+    @Mock
+    private ServerConnector defaultConnector;
+
+    @Mock
+    private ServerConnector identityConnector;
+
+    @Test
+    void jettyConnectors_shouldStopBeforeCheckpoint_andStartAfterRestore() throws Exception {
+        var resource = new JettyConnectorResource();
+        resource.add(defaultConnector);
+        resource.add(identityConnector);
+        when(defaultConnector.isStarted()).thenReturn(true);
+        when(identityConnector.isStarted()).thenReturn(true);
+
+        resource.beforeCheckpoint(null);
+        resource.afterRestore(null);
+
+        InOrder order = inOrder(defaultConnector, identityConnector);
+        order.verify(defaultConnector).stop();
+        order.verify(identityConnector).stop();
+        order.verify(defaultConnector).start();
+        order.verify(identityConnector).start();
+    }
+
+    @Test
+    void jettyConnectors_shouldStayClosed_whenClosedBeforeCheckpoint() throws Exception {
+        var resource = new JettyConnectorResource();
+        resource.add(defaultConnector);
+        resource.add(identityConnector);
+        when(defaultConnector.isStarted()).thenReturn(true);
+        when(identityConnector.isStarted()).thenReturn(false);
+
+        resource.beforeCheckpoint(null);
+        resource.afterRestore(null);
+
+        verify(defaultConnector).start();
+        verify(identityConnector, never()).stop();
+        verify(identityConnector, never()).start();
+    }
+
+    @Test
+    void okHttpConnections_shouldBeEvictedBeforeCheckpoint() {
+        var client = mock(OkHttpClient.class);
+        var pool = mock(ConnectionPool.class);
+        var dispatcher = mock(Dispatcher.class);
+        when(client.connectionPool()).thenReturn(pool);
+        when(client.dispatcher()).thenReturn(dispatcher);
+        var resource = new OkHttpConnectionResource(client);
+
+        resource.beforeCheckpoint(null);
+
+        verify(dispatcher).cancelAll();
+        verify(pool).evictAll();
+    }
+
+    @Test
+    void okHttpConnections_shouldNotReconnectEagerly_afterRestore() {
+        var client = mock(OkHttpClient.class);
+
+        new OkHttpConnectionResource(client).afterRestore(null);
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void jdbcConnections_shouldBeClosedBeforeCheckpoint() throws Exception {
+        var resource = new JdbcConnectionResource(mock(Monitor.class));
+        var open = mock(Connection.class);
+        var closedByPool = mock(Connection.class);
+        when(closedByPool.isClosed()).thenReturn(true);
+        resource.opened(open);
+        resource.opened(closedByPool);
+
+        resource.beforeCheckpoint(null);
+
+        verify(open).close();
+        verify(closedByPool, never()).close();
+        assertThat(resource.size()).isZero();
+    }
+
+    @Test
+    void jdbcConnections_shouldForgetConnectionsClosedByThePool() throws Exception {
+        var resource = new JdbcConnectionResource(mock(Monitor.class));
+        var first = mock(Connection.class);
+        resource.opened(first);
+        when(first.isClosed()).thenReturn(true);
+
+        resource.opened(mock(Connection.class));
+
+        assertThat(resource.size()).isEqualTo(1);
+    }
+}
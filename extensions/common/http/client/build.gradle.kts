@@ -1,13 +1,32 @@
 plugins {
     `java-library`
+    `java-test-fixtures`
 }
 
 dependencies {
     implementation(libs.edc.http.client)
+    implementation(project(":extensions:common:virtual-threads"))
+    implementation(project(":services"))
+    implementation(libs.okhttp.brotli)
     testImplementation(libs.edc.junit)
     testImplementation(libs.junit.jupiter.api)
     testRuntimeOnly(libs.junit.jupiter.engine)
     testRuntimeOnly(libs.junit.platform.launcher)
     testImplementation(libs.assertj.core)
     testImplementation(libs.mockito.core)
+
+    // embedded did:web stand-in server and outbound load driver
+    testFixturesApi(libs.edc.http.client)
+}
+
+// Runs the outbound load test against the embedded stand-in server, e.g.
+// ./gradlew :extensions:common:http:client:outboundLoadTest -Dloadtest.concurrency=64 -Dedc.http.hedging.enabled=true
+tasks.register<JavaExec>("outboundLoadTest") {
+    group = "verification"
+    description = "Runs the outbound HTTP client against the embedded did:web stand-in and reports latency percentiles."
+    classpath = sourceSets["testFixtures"].runtimeClasspath
+    mainClass.set("com.nttdata.dataspace.edc.fc.web.http.client.fixtures.OutboundLoadTest")
+    systemProperties(System.getProperties()
+            .filterKeys { it.toString().startsWith("loadtest.") || it.toString().startsWith("edc.http.") }
+            .mapKeys { it.key.toString() })
 }
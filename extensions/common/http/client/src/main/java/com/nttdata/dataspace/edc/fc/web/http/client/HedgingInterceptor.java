@@ -0,0 +1,213 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedges idempotent requests: if the first attempt has not answered within the hedging delay, a second, identical
+ * attempt is sent and whichever answers first wins. The other attempt is cancelled.
+ * <p>
+ * The delay follows the observed tail latency of each host (a configurable percentile over a sliding window), so only
+ * the slowest few percent of requests are hedged. Hedges draw from the same {@link RetryBudget} as retries; this
+ * interceptor records every idempotent request in the budget, so hedging keeps working with retries disabled.
+ * </p>
+ * <p>
+ * This interceptor short-circuits the chain and executes the attempts on the given delegate client, which must not
+ * contain this interceptor itself. The first attempt runs synchronously on the calling thread, so only hedges go
+ * through the dispatcher and its per-host limit. Cancelling the original call cancels both attempts.
+ * </p>
+ */
+public class HedgingInterceptor implements Interceptor {
+
+    private static final int WINDOW_SIZE = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final long CANCEL_CHECK_MILLIS = 50;
+
+    // schedules the hedges and the cancellation checks of all clients, the attempts themselves run elsewhere
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "http-hedging-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final OkHttpClient delegate;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final long initialDelayMillis;
+    private final RetryBudget budget;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    public HedgingInterceptor(OkHttpClient delegate, double percentile, long minDelayMillis, long initialDelayMillis, RetryBudget budget) {
+        this.delegate = delegate;
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.initialDelayMillis = initialDelayMillis;
+        this.budget = budget;
+    }
+
+    /**
+     * Marks the requests of hedged attempts, whose original request is already recorded in the retry budget.
+     */
+    static boolean isAttempt(Request request) {
+        return request.tag(Attempt.class) != null;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var request = chain.request();
+        if (!RetryInterceptor.isIdempotent(request)) {
+            return chain.proceed(request);
+        }
+
+        var host = request.url().host();
+        budget.recordRequest(host);
+        var tracker = trackers.computeIfAbsent(host, h -> new LatencyTracker(WINDOW_SIZE));
+        var start = System.nanoTime();
+
+        var attempts = new Attempts(chain.call(), request.newBuilder().tag(Attempt.class, Attempt.INSTANCE).build(), host);
+        var hedge = SCHEDULER.schedule(attempts::hedge, hedgingDelay(tracker), TimeUnit.MILLISECONDS);
+        var cancellation = SCHEDULER.scheduleWithFixedDelay(attempts::propagateCancel, CANCEL_CHECK_MILLIS, CANCEL_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        try {
+            attempts.runPrimary();
+            var response = attempts.winner.get();
+            tracker.record(elapsedMillis(start));
+            return response;
+        } catch (ExecutionException e) {
+            throw asIoException(e.getCause());
+        } catch (InterruptedException e) {
+            attempts.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } finally {
+            hedge.cancel(false);
+            cancellation.cancel(false);
+        }
+    }
+
+    /**
+     * Delay after which a hedge is sent: the configured percentile of the recent latencies of the host, but never less
+     * than the minimum delay. Until enough samples exist, the initial delay is used.
+     */
+    long hedgingDelay(LatencyTracker tracker) {
+        if (tracker.count() < MIN_SAMPLES) {
+            return initialDelayMillis;
+        }
+        return Math.max(minDelayMillis, tracker.percentile(percentile));
+    }
+
+    private static IOException asIoException(Throwable throwable) {
+        return throwable instanceof IOException ioException ? ioException : new IOException(throwable);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private enum Attempt {
+        INSTANCE
+    }
+
+    /**
+     * The attempts of one request: the first successful response wins and cancels the other attempt, a late response
+     * is closed, and the request only fails once every started attempt has failed.
+     */
+    private final class Attempts {
+        private final Call original;
+        private final Request request;
+        private final String host;
+        private final Call primary;
+        private final CompletableFuture<Response> winner = new CompletableFuture<>();
+        private Call hedge;
+        private int failures;
+
+        private Attempts(Call original, Request request, String host) {
+            this.original = original;
+            this.request = request;
+            this.host = host;
+            this.primary = delegate.newCall(request);
+        }
+
+        void runPrimary() {
+            try {
+                var response = primary.execute();
+                if (winner.complete(response)) {
+                    cancelHedge();
+                } else {
+                    response.close();
+                }
+            } catch (IOException e) {
+                failed(e);
+            } catch (RuntimeException e) {
+                // the caller gets the exception and no response, so a hedge must not keep one open
+                cancel();
+                if (!winner.completeExceptionally(e) && !winner.isCompletedExceptionally()) {
+                    winner.join().close();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Sends the hedge, unless the request is already answered or cancelled or the host's budget is exhausted.
+         */
+        synchronized void hedge() {
+            if (winner.isDone() || failures > 0 || original.isCanceled() || !budget.tryAcquire(host)) {
+                return;
+            }
+            hedge = delegate.newCall(request);
+            hedge.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    failed(e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    if (winner.complete(response)) {
+                        primary.cancel();
+                    } else {
+                        response.close();
+                    }
+                }
+            });
+        }
+
+        synchronized void failed(IOException e) {
+            failures++;
+            if (hedge == null || failures == 2) {
+                winner.completeExceptionally(e);
+            }
+        }
+
+        void propagateCancel() {
+            if (original.isCanceled()) {
+                cancel();
+            }
+        }
+
+        void cancel() {
+            primary.cancel();
+            cancelHedge();
+        }
+
+        private synchronized void cancelHedge() {
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+}
@@ -1,19 +1,82 @@
 package com.nttdata.dataspace.edc.fc.web.http.client;
 
+import com.nttdata.dataspace.ih.services.HttpClientDecorator;
+import com.nttdata.dataspace.ih.virtualthreads.VirtualThreads;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.brotli.BrotliInterceptor;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.configuration.Config;
 
-import javax.net.ssl.*;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Extension(value = "Configurable HTTP Client Extension")
 public class HttpClientExtension implements ServiceExtension {
 
     private static final String DISABLE_TLS_CONFIG = "edc.http.disable.tls";
+    private static final String TRUSTSTORE_PATH_CONFIG = "edc.http.tls.truststore.path";
+    private static final String TRUSTSTORE_TYPE_CONFIG = "edc.http.tls.truststore.type";
+    private static final String TRUSTSTORE_PASSWORD_CONFIG = "edc.http.tls.truststore.password";
+    private static final String TRUSTSTORE_INCLUDE_DEFAULTS_CONFIG = "edc.http.tls.truststore.include.defaults";
+    private static final String SESSION_CACHE_SIZE_CONFIG = "edc.http.tls.session.cache.size";
+    private static final String SESSION_TIMEOUT_CONFIG = "edc.http.tls.session.timeout.seconds";
+
+    private static final String COMPRESSION_BROTLI_CONFIG = "edc.http.compression.brotli.enabled";
+
+    private static final String CONNECT_TIMEOUT_CONFIG = "edc.http.timeout.connect.ms";
+    private static final String READ_TIMEOUT_CONFIG = "edc.http.timeout.read.ms";
+    private static final String WRITE_TIMEOUT_CONFIG = "edc.http.timeout.write.ms";
+    private static final String CALL_TIMEOUT_CONFIG = "edc.http.timeout.call.ms";
+    private static final String POOL_MAX_IDLE_CONFIG = "edc.http.pool.max.idle";
+    private static final String POOL_KEEP_ALIVE_CONFIG = "edc.http.pool.keep.alive.seconds";
+
+    private static final String DISPATCHER_MAX_REQUESTS_CONFIG = "edc.http.dispatcher.max.requests";
+    private static final String DISPATCHER_MAX_REQUESTS_PER_HOST_CONFIG = "edc.http.dispatcher.max.requests.per.host";
+
+    private static final String RETRY_MAX_CONFIG = "edc.http.retry.max";
+    private static final String RETRY_BACKOFF_CONFIG = "edc.http.retry.backoff.ms";
+    private static final String RETRY_MAX_BACKOFF_CONFIG = "edc.http.retry.backoff.max.ms";
+    private static final String RETRY_BUDGET_PERCENT_CONFIG = "edc.http.retry.budget.percent";
+    private static final String RETRY_BUDGET_MAX_CONFIG = "edc.http.retry.budget.max";
+    private static final String HEDGING_ENABLED_CONFIG = "edc.http.hedging.enabled";
+    private static final String HEDGING_PERCENTILE_CONFIG = "edc.http.hedging.percentile";
+    private static final String HEDGING_MIN_DELAY_CONFIG = "edc.http.hedging.delay.min.ms";
+    private static final String HEDGING_INITIAL_DELAY_CONFIG = "edc.http.hedging.delay.initial.ms";
+
+    private static final int DEFAULT_SESSION_CACHE_SIZE = 1000;
+    private static final int DEFAULT_SESSION_TIMEOUT_SECONDS = 3600;
+    private static final int DEFAULT_RETRY_MAX = 0;
+    private static final long DEFAULT_RETRY_BACKOFF_MS = 100;
+    private static final long DEFAULT_RETRY_MAX_BACKOFF_MS = 2000;
+    private static final int DEFAULT_RETRY_BUDGET_PERCENT = 10;
+    private static final int DEFAULT_RETRY_BUDGET_MAX = 10;
+    private static final int DEFAULT_HEDGING_PERCENTILE = 95;
+    private static final long DEFAULT_HEDGING_MIN_DELAY_MS = 50;
+    private static final long DEFAULT_HEDGING_INITIAL_DELAY_MS = 500;
+
+    @Inject(required = false)
+    private HttpClientDecorator decorator;
+
+    // Built once and shared by every client handed out by the provider, so that TLS sessions can be resumed
+    private SSLContext sslContext;
+    private X509TrustManager trustManager;
+    private RetryBudget retryBudget;
+    private Dispatcher dispatcher;
+    private ConnectionPool connectionPool;
 
     @Override
     public void initialize(ServiceExtensionContext context) {
@@ -24,23 +87,203 @@ public class HttpClientExtension implements ServiceExtension {
             monitor.warning("WARNING: TLS and hostname verification are DISABLED for HTTP clients! This should only be used in development or testing environments, and NEVER in production.");
         } else {
             monitor.info("TLS and hostname verification are ENABLED for HTTP clients.");
+            var trustStorePath = context.getConfig().getString(TRUSTSTORE_PATH_CONFIG, null);
+            if (trustStorePath != null) {
+                monitor.info("Using custom trust store for HTTP clients: " + trustStorePath);
+            }
+        }
+
+        int maxRetries = context.getConfig().getInteger(RETRY_MAX_CONFIG, DEFAULT_RETRY_MAX);
+        if (maxRetries > 0) {
+            monitor.info("Idempotent HTTP requests are retried up to %d times".formatted(maxRetries));
+        }
+        if (context.getConfig().getBoolean(HEDGING_ENABLED_CONFIG, false)) {
+            monitor.info("Request hedging is ENABLED for idempotent HTTP requests.");
+        }
+        if (context.getConfig().getBoolean(VirtualThreads.ENABLED_SETTING, false)) {
+            if (VirtualThreads.isSupported()) {
+                monitor.info("Asynchronous HTTP calls will run on virtual threads.");
+            } else {
+                monitor.warning("Virtual threads requested but not supported by this JVM, HTTP clients keep platform threads.");
+            }
         }
     }
 
     @Provider
     public OkHttpClient createHttpClient(ServiceExtensionContext context) {
-        boolean disableTls = context.getConfig().getBoolean(DISABLE_TLS_CONFIG, false);
+        var client = createHttpClient(context.getConfig());
+        return decorator != null ? decorator.decorate(client) : client;
+    }
+
+    /**
+     * Builds a client from the given configuration. Also used by the outbound load-test harness, which runs without a
+     * full runtime.
+     */
+    public OkHttpClient createHttpClient(Config config) {
+        boolean disableTls = config.getBoolean(DISABLE_TLS_CONFIG, false);
 
+        OkHttpClient client;
         if (disableTls) {
             try {
-                return createInsecureClient();
+                client = createInsecureClient(config);
             } catch (GeneralSecurityException e) {
                 throw new IllegalStateException("Failed to initialize insecure HTTP client", e);
             }
         } else {
-            // Default secure client
-            return new OkHttpClient();
+            try {
+                if (sslContext == null) {
+                    initSslContext(config, trustManager(config));
+                }
+            } catch (IOException | GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize TLS for HTTP client", e);
+            }
+            client = new OkHttpClient.Builder()
+                    .sslSocketFactory(sslContext.getSocketFactory(), trustManager)
+                    .build();
+        }
+        return withResilience(withDispatcher(withCompression(withConnectionSettings(client, config), config), config), config);
+    }
+
+    /**
+     * Applies the configured timeouts and connection pool sizing. Unset or non-positive values keep the OkHttp defaults
+     * (10 s connect, read and write timeouts, no call timeout, 5 idle connections kept for 5 minutes).
+     */
+    private OkHttpClient withConnectionSettings(OkHttpClient client, Config config) {
+        var builder = client.newBuilder();
+        long connectTimeout = config.getLong(CONNECT_TIMEOUT_CONFIG, 0L);
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+        long readTimeout = config.getLong(READ_TIMEOUT_CONFIG, 0L);
+        if (readTimeout > 0) {
+            builder.readTimeout(Duration.ofMillis(readTimeout));
+        }
+        long writeTimeout = config.getLong(WRITE_TIMEOUT_CONFIG, 0L);
+        if (writeTimeout > 0) {
+            builder.writeTimeout(Duration.ofMillis(writeTimeout));
+        }
+        long callTimeout = config.getLong(CALL_TIMEOUT_CONFIG, 0L);
+        if (callTimeout > 0) {
+            builder.callTimeout(Duration.ofMillis(callTimeout));
+        }
+        int maxIdle = config.getInteger(POOL_MAX_IDLE_CONFIG, 0);
+        long keepAlive = config.getLong(POOL_KEEP_ALIVE_CONFIG, 0L);
+        if (maxIdle > 0 || keepAlive > 0) {
+            builder.connectionPool(connectionPool(maxIdle > 0 ? maxIdle : 5, keepAlive > 0 ? keepAlive : 300));
+        }
+        return builder.build();
+    }
+
+    /**
+     * A configured pool is shared by all provided clients, like the dispatcher, so idle connections are reused across
+     * them.
+     */
+    private synchronized ConnectionPool connectionPool(int maxIdle, long keepAliveSeconds) {
+        if (connectionPool == null) {
+            connectionPool = new ConnectionPool(maxIdle, keepAliveSeconds, TimeUnit.SECONDS);
+        }
+        return connectionPool;
+    }
+
+    /**
+     * Negotiates brotli in addition to gzip for responses, unless disabled.
+     * <p>
+     * OkHttp already requests and transparently decodes gzip when the caller sets no {@code Accept-Encoding}. The
+     * brotli interceptor replaces that with {@code Accept-Encoding: br,gzip} and decodes both. It is added before the
+     * resilience interceptors are set up, so every retried or hedged attempt negotiates compression as well.
+     * </p>
+     */
+    private OkHttpClient withCompression(OkHttpClient client, Config config) {
+        if (!config.getBoolean(COMPRESSION_BROTLI_CONFIG, true)) {
+            return client;
+        }
+        return client.newBuilder()
+                .addInterceptor(BrotliInterceptor.INSTANCE)
+                .build();
+    }
+
+    /**
+     * Replaces the per-client dispatcher with a shared one if virtual threads or dispatcher limits are configured.
+     * <p>
+     * Synchronous calls run on the calling thread, so they already benefit from virtual request threads. The dispatcher
+     * executor is only used for asynchronous calls, e.g. the hedges of the hedging interceptor.
+     * </p>
+     */
+    private OkHttpClient withDispatcher(OkHttpClient client, Config config) {
+        boolean virtualThreads = config.getBoolean(VirtualThreads.ENABLED_SETTING, false) && VirtualThreads.isSupported();
+        int maxRequests = config.getInteger(DISPATCHER_MAX_REQUESTS_CONFIG, 0);
+        int maxRequestsPerHost = config.getInteger(DISPATCHER_MAX_REQUESTS_PER_HOST_CONFIG, 0);
+        if (!virtualThreads && maxRequests <= 0 && maxRequestsPerHost <= 0) {
+            return client;
+        }
+        return client.newBuilder()
+                .dispatcher(dispatcher(virtualThreads, maxRequests, maxRequestsPerHost))
+                .build();
+    }
+
+    private synchronized Dispatcher dispatcher(boolean virtualThreads, int maxRequests, int maxRequestsPerHost) {
+        if (dispatcher == null) {
+            dispatcher = virtualThreads
+                    ? VirtualThreads.newVirtualThreadPerTaskExecutor("okhttp-vt-").map(Dispatcher::new).orElseGet(Dispatcher::new)
+                    : new Dispatcher();
+            if (maxRequests > 0) {
+                dispatcher.setMaxRequests(maxRequests);
+            }
+            if (maxRequestsPerHost > 0) {
+                dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+            }
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Adds retries and request hedging for idempotent requests, if configured. Both are disabled by default.
+     * <p>
+     * The hedging interceptor has to run first: it short-circuits the chain and sends its attempts through a client
+     * that only contains the retry interceptor, so that every attempt is retried individually.
+     * </p>
+     */
+    private OkHttpClient withResilience(OkHttpClient client, Config config) {
+        int maxRetries = config.getInteger(RETRY_MAX_CONFIG, DEFAULT_RETRY_MAX);
+        boolean hedgingEnabled = config.getBoolean(HEDGING_ENABLED_CONFIG, false);
+        if (maxRetries <= 0 && !hedgingEnabled) {
+            return client;
+        }
+
+        var budget = retryBudget(config);
+        var builder = client.newBuilder();
+        if (maxRetries > 0) {
+            builder.addInterceptor(new RetryInterceptor(
+                    maxRetries,
+                    config.getLong(RETRY_BACKOFF_CONFIG, DEFAULT_RETRY_BACKOFF_MS),
+                    config.getLong(RETRY_MAX_BACKOFF_CONFIG, DEFAULT_RETRY_MAX_BACKOFF_MS),
+                    budget));
+        }
+        if (!hedgingEnabled) {
+            return builder.build();
+        }
+
+        var delegate = builder.build();
+        var hedgingBuilder = delegate.newBuilder();
+        hedgingBuilder.interceptors().add(0, new HedgingInterceptor(
+                delegate,
+                config.getInteger(HEDGING_PERCENTILE_CONFIG, DEFAULT_HEDGING_PERCENTILE),
+                config.getLong(HEDGING_MIN_DELAY_CONFIG, DEFAULT_HEDGING_MIN_DELAY_MS),
+                config.getLong(HEDGING_INITIAL_DELAY_CONFIG, DEFAULT_HEDGING_INITIAL_DELAY_MS),
+                budget));
+        return hedgingBuilder.build();
+    }
+
+    /**
+     * The retry budget is shared by all provided clients, so the per-host limit holds across the whole runtime.
+     */
+    private synchronized RetryBudget retryBudget(Config config) {
+        if (retryBudget == null) {
+            retryBudget = new RetryBudget(
+                    config.getInteger(RETRY_BUDGET_PERCENT_CONFIG, DEFAULT_RETRY_BUDGET_PERCENT) / 100.0,
+                    config.getInteger(RETRY_BUDGET_MAX_CONFIG, DEFAULT_RETRY_BUDGET_MAX));
         }
+        return retryBudget;
     }
 
     /**
@@ -52,35 +295,74 @@ public class HttpClientExtension implements ServiceExtension {
      * </p>
      */
     @SuppressWarnings({"java:S4830", "java:S5527"})  // Suppresses SonarQube rule for insecure SSL/TLS usage and hostname validation
-    private OkHttpClient createInsecureClient() throws GeneralSecurityException {
+    private OkHttpClient createInsecureClient(Config config) throws GeneralSecurityException {
         // Trust manager that does not validate certificate chains
-        TrustManager[] trustAllCerts = new TrustManager[]{
-            new X509TrustManager() {
-                @Override
-                public void checkClientTrusted(X509Certificate[] chain, String authType) {
-                    // Intentionally left blank: skip client check
-                }
+        X509TrustManager trustAllCerts = new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                // Intentionally left blank: skip client check
+            }
 
-                @Override
-                public void checkServerTrusted(X509Certificate[] chain, String authType) {
-                    // Intentionally left blank: skip server check
-                }
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                // Intentionally left blank: skip server check
+            }
 
-                @Override
-                public X509Certificate[] getAcceptedIssuers() {
-                    return new X509Certificate[0];
-                }
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
             }
         };
 
         // Install the all-trusting trust manager
-        SSLContext sslContext = SSLContext.getInstance("TLS");
-        sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-        SSLSocketFactory sslSocketFactory = sslContext.getSocketFactory();
+        initSslContext(config, trustAllCerts);
 
         return new OkHttpClient.Builder()
-                .sslSocketFactory(sslSocketFactory, (X509TrustManager) trustAllCerts[0])
+                .sslSocketFactory(sslContext.getSocketFactory(), trustManager)
                 .hostnameVerifier((hostname, session) -> true)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves the trust manager for secure clients: the configured trust store if there is one, the JVM default
+     * otherwise.
+     */
+    private X509TrustManager trustManager(Config config) throws IOException, GeneralSecurityException {
+        var trustStorePath = config.getString(TRUSTSTORE_PATH_CONFIG, null);
+        if (trustStorePath == null || trustStorePath.isBlank()) {
+            return TrustStoreLoader.defaultTrustManager();
+        }
+        return TrustStoreLoader.load(
+                Path.of(trustStorePath),
+                config.getString(TRUSTSTORE_TYPE_CONFIG, null),
+                config.getString(TRUSTSTORE_PASSWORD_CONFIG, null),
+                config.getBoolean(TRUSTSTORE_INCLUDE_DEFAULTS_CONFIG, true));
+    }
+
+    /**
+     * Builds the shared SSLContext on first use and tunes its client session cache for TLS session resumption.
+     * Subsequent calls reuse the context, so the trust store is only read once.
+     */
+    private synchronized void initSslContext(Config config, X509TrustManager candidate) throws GeneralSecurityException {
+        if (sslContext != null) {
+            return;
+        }
+
+        var context = SSLContext.getInstance("TLS");
+        context.init(null, new TrustManager[]{candidate}, new SecureRandom());
+
+        // A value of 0 or less keeps the JDK default
+        var sessionContext = context.getClientSessionContext();
+        int cacheSize = config.getInteger(SESSION_CACHE_SIZE_CONFIG, DEFAULT_SESSION_CACHE_SIZE);
+        if (cacheSize > 0) {
+            sessionContext.setSessionCacheSize(cacheSize);
+        }
+        int sessionTimeout = config.getInteger(SESSION_TIMEOUT_CONFIG, DEFAULT_SESSION_TIMEOUT_SECONDS);
+        if (sessionTimeout > 0) {
+            sessionContext.setSessionTimeout(sessionTimeout);
+        }
+
+        trustManager = candidate;
+        sslContext = context;
+    }
+}
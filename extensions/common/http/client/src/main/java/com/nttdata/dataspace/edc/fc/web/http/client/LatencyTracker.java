@@ -0,0 +1,49 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the latencies of the most recent requests to one host in a fixed-size ring buffer and answers percentile
+ * queries over that window. Used to derive the hedging delay from the observed tail latency.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.samples = new long[windowSize];
+    }
+
+    public synchronized void record(long latencyMillis) {
+        samples[next] = latencyMillis;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Returns the latency below which the given percentage of the recorded samples fall.
+     * @param percentile value between 0 and 100
+     * @return the percentile in milliseconds, or -1 if nothing has been recorded yet
+     */
+    public long percentile(double percentile) {
+        long[] snapshot;
+        synchronized (this) {
+            if (count == 0) {
+                return -1;
+            }
+            snapshot = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(snapshot);
+        var rank = (int) Math.ceil(percentile / 100.0 * snapshot.length) - 1;
+        return snapshot[Math.max(0, Math.min(rank, snapshot.length - 1))];
+    }
+}
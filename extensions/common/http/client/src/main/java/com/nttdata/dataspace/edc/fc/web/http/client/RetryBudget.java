@@ -0,0 +1,63 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host token bucket limiting how many extra attempts (retries and hedges) are sent to a host.
+ * <p>
+ * Every original request deposits {@code ratio} tokens, every extra attempt withdraws one. With a ratio of 0.1 a host
+ * therefore never receives more than roughly 10% additional load, no matter how badly it behaves. The bucket is capped
+ * so that a long quiet period does not allow a retry storm afterwards.
+ * </p>
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * Records an original (non-retry) request to the host.
+     */
+    public void recordRequest(String host) {
+        bucket(host).deposit(ratio, maxTokens);
+    }
+
+    /**
+     * Tries to take one token for an extra attempt to the host.
+     * @return true if the attempt may be sent
+     */
+    public boolean tryAcquire(String host) {
+        return bucket(host).withdraw();
+    }
+
+    private Bucket bucket(String host) {
+        return buckets.computeIfAbsent(host, h -> new Bucket(maxTokens));
+    }
+
+    private static class Bucket {
+        private double tokens;
+
+        Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        synchronized void deposit(double amount, double max) {
+            tokens = Math.min(max, tokens + amount);
+        }
+
+        synchronized boolean withdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries idempotent requests on I/O errors and on transient server responses (429, 502, 503, 504).
+ * <p>
+ * Retries use exponential backoff with jitter and are limited both by a maximum number of attempts per request and by
+ * a per-host {@link RetryBudget}, so a failing host does not receive a multiple of its normal load.
+ * </p>
+ */
+public class RetryInterceptor implements Interceptor {
+
+    public static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(429, 502, 503, 504);
+
+    private final int maxRetries;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final RetryBudget budget;
+
+    public RetryInterceptor(int maxRetries, long backoffMillis, long maxBackoffMillis, RetryBudget budget) {
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.budget = budget;
+    }
+
+    public static boolean isIdempotent(Request request) {
+        return IDEMPOTENT_METHODS.contains(request.method());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var request = chain.request();
+        if (!isIdempotent(request)) {
+            return chain.proceed(request);
+        }
+
+        var host = request.url().host();
+        // the attempts of a hedged request are recorded once, by the hedging interceptor
+        if (!HedgingInterceptor.isAttempt(request)) {
+            budget.recordRequest(host);
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                var response = chain.proceed(request);
+                if (!RETRYABLE_STATUS_CODES.contains(response.code()) || !mayRetry(chain, host, attempt)) {
+                    return response;
+                }
+                response.close();
+            } catch (IOException e) {
+                if (!mayRetry(chain, host, attempt)) {
+                    throw e;
+                }
+            }
+            sleep(backoff(attempt));
+        }
+    }
+
+    private boolean mayRetry(Chain chain, String host, int attempt) {
+        return attempt < maxRetries && !chain.call().isCanceled() && budget.tryAcquire(host);
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the delay is fixed, the other half is random.
+     */
+    private long backoff(int attempt) {
+        var delay = Math.min(maxBackoffMillis, backoffMillis * (1L << Math.min(attempt, 20)));
+        if (delay <= 1) {
+            return delay;
+        }
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for retry");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Locale;
+
+/**
+ * Loads a trust store from disk and turns it into an {@link X509TrustManager}.
+ * <p>
+ * Two formats are supported: a PEM bundle with one or more {@code CERTIFICATE} blocks, and a PKCS12 key store.
+ * Optionally, the JVM default trust anchors are merged in, so that a private CA can be trusted in addition to the
+ * public ones instead of replacing them.
+ * </p>
+ */
+public class TrustStoreLoader {
+
+    public static final String TYPE_PEM = "PEM";
+    public static final String TYPE_PKCS12 = "PKCS12";
+
+    private TrustStoreLoader() {
+    }
+
+    /**
+     * Loads the trust store at the given path.
+     * @param path location of the trust store file
+     * @param type {@link #TYPE_PEM} or {@link #TYPE_PKCS12}, if null the type is derived from the file extension
+     * @param password password of a PKCS12 store, ignored for PEM
+     * @param includeDefaults whether the JVM default trust anchors should be trusted as well
+     * @return a trust manager backed by the loaded certificates
+     */
+    public static X509TrustManager load(Path path, String type, String password, boolean includeDefaults) throws IOException, GeneralSecurityException {
+        var resolvedType = type != null ? type.toUpperCase(Locale.ROOT) : typeFromFileName(path);
+
+        KeyStore keyStore;
+        if (TYPE_PEM.equals(resolvedType)) {
+            keyStore = loadPem(path);
+        } else if (TYPE_PKCS12.equals(resolvedType)) {
+            keyStore = loadPkcs12(path, password);
+        } else {
+            throw new GeneralSecurityException("Unsupported trust store type: " + resolvedType);
+        }
+
+        if (includeDefaults) {
+            var index = 0;
+            for (X509Certificate certificate : defaultTrustManager().getAcceptedIssuers()) {
+                keyStore.setCertificateEntry("jvm-default-" + index++, certificate);
+            }
+        }
+
+        return trustManagerFor(keyStore);
+    }
+
+    /**
+     * Returns the trust manager of the JVM, i.e. the one used by a plain {@code new OkHttpClient()}.
+     */
+    public static X509TrustManager defaultTrustManager() throws GeneralSecurityException {
+        return trustManagerFor(null);
+    }
+
+    private static KeyStore loadPem(Path path) throws IOException, GeneralSecurityException {
+        var keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null, null);
+
+        var certificateFactory = CertificateFactory.getInstance("X.509");
+        try (InputStream in = Files.newInputStream(path)) {
+            var index = 0;
+            for (var certificate : certificateFactory.generateCertificates(in)) {
+                keyStore.setCertificateEntry("custom-" + index++, certificate);
+            }
+            if (index == 0) {
+                throw new GeneralSecurityException("No certificates found in PEM trust store " + path);
+            }
+        }
+        return keyStore;
+    }
+
+    private static KeyStore loadPkcs12(Path path, String password) throws IOException, GeneralSecurityException {
+        var keyStore = KeyStore.getInstance(TYPE_PKCS12);
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, password != null ? password.toCharArray() : null);
+        }
+        return keyStore;
+    }
+
+    private static X509TrustManager trustManagerFor(KeyStore keyStore) throws GeneralSecurityException {
+        var factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init(keyStore);
+        for (TrustManager trustManager : factory.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager x509TrustManager) {
+                return x509TrustManager;
+            }
+        }
+        throw new GeneralSecurityException("No X509TrustManager available");
+    }
+
+    private static String typeFromFileName(Path path) {
+        var fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return fileName.endsWith(".p12") || fileName.endsWith(".pfx") ? TYPE_PKCS12 : TYPE_PEM;
+    }
+}
@@ -0,0 +1,197 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingInterceptorTest {
+
+    private static final long SLOW_MILLIS = 1500;
+
+    private final Queue<Long> delays = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failedAttempts = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private OkHttpClient delegate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // every request takes the next delay of the queue, the response body is the request number
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                var number = requests.incrementAndGet();
+                var delay = delays.poll();
+                if (delay != null && delay > 0) {
+                    Thread.sleep(delay);
+                }
+                var body = String.valueOf(number).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // the client cancelled the attempt
+            }
+        });
+        server.start();
+        delegate = new OkHttpClient.Builder()
+                .eventListener(new EventListener() {
+                    @Override
+                    public void callFailed(Call call, IOException ioe) {
+                        failedAttempts.incrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void intercept_shouldHedgeAfterDelay_andCancelLoser() throws Exception {
+        delays.addAll(List.of(SLOW_MILLIS, 0L));
+        var client = hedgingClient(new RetryBudget(0.1, 10), 100);
+
+        var start = System.nanoTime();
+        try (var response = client.newCall(request()).execute()) {
+            assertThat(response.body().string()).isEqualTo("2");
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(100L, SLOW_MILLIS - 1);
+        assertThat(requests).hasValue(2);
+        awaitFailedAttempts(1);
+    }
+
+    @Test
+    void intercept_shouldNotHedge_fastResponses() throws Exception {
+        var client = hedgingClient(new RetryBudget(0.1, 10), 500);
+
+        try (var response = client.newCall(request()).execute()) {
+            assertThat(response.body().string()).isEqualTo("1");
+        }
+
+        Thread.sleep(600);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void intercept_shouldStopHedging_whenBudgetIsExhausted_andResumeWhenRefilled() throws Exception {
+        // one token to start with, every request deposits half a token: hedge, no hedge, hedge
+        var client = hedgingClient(new RetryBudget(0.5, 1), 50);
+
+        delays.addAll(List.of(300L, 0L));
+        client.newCall(request()).execute().close();
+        assertThat(requests).hasValue(2);
+
+        delays.add(300L);
+        client.newCall(request()).execute().close();
+        assertThat(requests).hasValue(3);
+
+        delays.addAll(List.of(300L, 0L));
+        try (var response = client.newCall(request()).execute()) {
+            assertThat(response.body().string()).isEqualTo("5");
+        }
+    }
+
+    @Test
+    void intercept_shouldCancelAttempts_whenCallIsCancelled() throws Exception {
+        delays.addAll(List.of(SLOW_MILLIS, SLOW_MILLIS));
+        var client = hedgingClient(new RetryBudget(0.1, 10), 100);
+        var call = client.newCall(request());
+
+        var result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.execute().code();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(300);
+        call.cancel();
+
+        assertThatThrownBy(() -> result.get(SLOW_MILLIS / 2, TimeUnit.MILLISECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        awaitFailedAttempts(2);
+    }
+
+    @Test
+    void intercept_shouldCancelHedge_whenPrimaryThrows() throws Exception {
+        delays.add(SLOW_MILLIS);
+        var attempts = new AtomicInteger();
+        var cancelledHedges = new AtomicInteger();
+        delegate = delegate.newBuilder()
+                .addInterceptor(chain -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        // the primary fails after the hedge was sent
+                        try {
+                            Thread.sleep(300);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IllegalStateException("primary failed");
+                    }
+                    try {
+                        return chain.proceed(chain.request());
+                    } catch (IOException e) {
+                        cancelledHedges.incrementAndGet();
+                        throw e;
+                    }
+                })
+                .build();
+        var client = hedgingClient(new RetryBudget(0.1, 10), 100);
+
+        assertThatThrownBy(() -> client.newCall(request()).execute()).isInstanceOf(IllegalStateException.class);
+
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS / 2);
+        while (cancelledHedges.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(attempts).hasValue(2);
+        assertThat(cancelledHedges).hasValue(1);
+    }
+
+    private OkHttpClient hedgingClient(RetryBudget budget, long initialDelayMillis) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(new HedgingInterceptor(delegate, 95, 10, initialDelayMillis, budget))
+                .build();
+    }
+
+    private Request request() {
+        return new Request.Builder().url("http://localhost:%d/did.json".formatted(server.getAddress().getPort())).get().build();
+    }
+
+    private void awaitFailedAttempts(int expected) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (failedAttempts.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(failedAttempts).hasValue(expected);
+    }
+}
@@ -1,12 +1,17 @@
 package com.nttdata.dataspace.edc.fc.web.http.client;
 
 import okhttp3.OkHttpClient;
+import okhttp3.brotli.BrotliInterceptor;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.system.configuration.Config;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
@@ -70,6 +75,23 @@ class HttpClientExtensionTest {
         // Secure client uses default hostname verifier
     }
 
+    @Test
+    void createHttpClient_shouldApplyTimeoutsAndPool_whenConfigured() {
+        when(config.getLong("edc.http.timeout.connect.ms", 0L)).thenReturn(2000L);
+        when(config.getLong("edc.http.timeout.read.ms", 0L)).thenReturn(3000L);
+        when(config.getLong("edc.http.timeout.call.ms", 0L)).thenReturn(9000L);
+        when(config.getInteger("edc.http.pool.max.idle", 0)).thenReturn(32);
+
+        var first = extension.createHttpClient(config);
+        var second = extension.createHttpClient(config);
+
+        assertThat(first.connectTimeoutMillis()).isEqualTo(2000);
+        assertThat(first.readTimeoutMillis()).isEqualTo(3000);
+        assertThat(first.writeTimeoutMillis()).isEqualTo(10_000);
+        assertThat(first.callTimeoutMillis()).isEqualTo(9000);
+        assertThat(first.connectionPool()).isSameAs(second.connectionPool());
+    }
+
     @Test
     void createHttpClient_shouldReturnInsecureClient_whenTlsIsDisabled() {
         when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(true);
@@ -106,4 +128,109 @@ class HttpClientExtensionTest {
         assertThat(client.hostnameVerifier().verify("example.com", null)).isTrue();
         assertThat(client.hostnameVerifier().verify("192.168.1.1", null)).isTrue();
     }
+
+    @Test
+    void createHttpClient_shouldTrustPemTrustStore_whenConfigured() throws URISyntaxException {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+        when(config.getString("edc.http.tls.truststore.path", null)).thenReturn(resource("tls/private-ca.pem"));
+
+        OkHttpClient client = extension.createHttpClient(context);
+
+        assertThat(client.x509TrustManager()).isNotNull();
+        assertThat(Arrays.stream(client.x509TrustManager().getAcceptedIssuers()).map(c -> c.getSubjectX500Principal().getName()))
+                .containsExactly("CN=Test Private CA");
+    }
+
+    @Test
+    void createHttpClient_shouldTrustPkcs12TrustStore_whenConfigured() throws URISyntaxException {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+        when(config.getString("edc.http.tls.truststore.path", null)).thenReturn(resource("tls/private-ca.p12"));
+        when(config.getString("edc.http.tls.truststore.password", null)).thenReturn("changeit");
+
+        OkHttpClient client = extension.createHttpClient(context);
+
+        assertThat(client.x509TrustManager().getAcceptedIssuers()).hasSize(1);
+    }
+
+    @Test
+    void createHttpClient_shouldMergeDefaultTrustAnchors_whenRequested() throws URISyntaxException {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+        when(config.getString("edc.http.tls.truststore.path", null)).thenReturn(resource("tls/private-ca.pem"));
+        when(config.getBoolean("edc.http.tls.truststore.include.defaults", true)).thenReturn(true);
+
+        OkHttpClient client = extension.createHttpClient(context);
+
+        assertThat(client.x509TrustManager().getAcceptedIssuers().length).isGreaterThan(1);
+    }
+
+    @Test
+    void createHttpClient_shouldShareSslContext_whenCalledMultipleTimes() {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+
+        OkHttpClient client1 = extension.createHttpClient(context);
+        OkHttpClient client2 = extension.createHttpClient(context);
+
+        assertThat(client1.sslSocketFactory()).isSameAs(client2.sslSocketFactory());
+    }
+
+    @Test
+    void createHttpClient_shouldThrow_whenTrustStoreDoesNotExist() {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+        when(config.getString("edc.http.tls.truststore.path", null)).thenReturn("/does/not/exist.pem");
+
+        assertThatThrownBy(() -> extension.createHttpClient(context))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Failed to initialize TLS for HTTP client");
+    }
+
+    @Test
+    void createHttpClient_shouldNotAddInterceptors_byDefault() {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+
+        OkHttpClient client = extension.createHttpClient(context);
+
+        assertThat(client.interceptors()).isEmpty();
+    }
+
+    @Test
+    void createHttpClient_shouldPutHedgingBeforeRetries_whenBothEnabled() {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+        when(config.getInteger("edc.http.retry.max", 0)).thenReturn(2);
+        when(config.getBoolean("edc.http.hedging.enabled", false)).thenReturn(true);
+
+        OkHttpClient client = extension.createHttpClient(context);
+
+        assertThat(client.interceptors()).hasSize(2);
+        assertThat(client.interceptors().get(0)).isInstanceOf(HedgingInterceptor.class);
+        assertThat(client.interceptors().get(1)).isInstanceOf(RetryInterceptor.class);
+    }
+
+    @Test
+    void createHttpClient_shouldNegotiateBrotli_whenCompressionEnabled() {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+        when(config.getBoolean("edc.http.compression.brotli.enabled", true)).thenReturn(true);
+
+        OkHttpClient client = extension.createHttpClient(context);
+
+        assertThat(client.interceptors()).containsExactly(BrotliInterceptor.INSTANCE);
+    }
+
+    @Test
+    void createHttpClient_shouldNegotiateBrotliPerAttempt_whenHedgingEnabled() {
+        when(config.getBoolean("edc.http.disable.tls", false)).thenReturn(false);
+        when(config.getBoolean("edc.http.compression.brotli.enabled", true)).thenReturn(true);
+        when(config.getInteger("edc.http.retry.max", 0)).thenReturn(2);
+        when(config.getBoolean("edc.http.hedging.enabled", false)).thenReturn(true);
+
+        OkHttpClient client = extension.createHttpClient(context);
+
+        assertThat(client.interceptors()).hasSize(3);
+        assertThat(client.interceptors().get(0)).isInstanceOf(HedgingInterceptor.class);
+        assertThat(client.interceptors().get(1)).isSameAs(BrotliInterceptor.INSTANCE);
+        assertThat(client.interceptors().get(2)).isInstanceOf(RetryInterceptor.class);
+    }
+
+    private String resource(String name) throws URISyntaxException {
+        return Path.of(getClass().getClassLoader().getResource(name).toURI()).toString();
+    }
 }
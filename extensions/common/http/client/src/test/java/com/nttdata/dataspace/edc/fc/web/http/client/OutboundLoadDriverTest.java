@@ -0,0 +1,61 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import com.nttdata.dataspace.edc.fc.web.http.client.fixtures.DidWebStandInServer;
+import com.nttdata.dataspace.edc.fc.web.http.client.fixtures.OutboundLoadDriver;
+import com.nttdata.dataspace.edc.fc.web.http.client.fixtures.StandInOptions;
+import okhttp3.Request;
+import org.eclipse.edc.spi.system.configuration.ConfigFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboundLoadDriverTest {
+
+    @Test
+    void run_shouldResolveDidDocumentsOverTls_withCustomTrustStore() throws IOException, InterruptedException {
+        try (var server = DidWebStandInServer.start(StandInOptions.Builder.newInstance().https(true).verificationMethods(3).build())) {
+            var client = new HttpClientExtension().createHttpClient(ConfigFactory.fromMap(Map.of(
+                    "edc.http.tls.truststore.path", DidWebStandInServer.trustStorePath().toString())));
+
+            var report = new OutboundLoadDriver(client, 8).run(20, 200,
+                    i -> new Request.Builder().url(server.didDocumentUrl("participant-" + i % 10)).get().build());
+
+            assertThat(report.requests()).isEqualTo(200);
+            assertThat(report.errors()).isZero();
+            assertThat(report.p50()).isPositive().isLessThanOrEqualTo(report.p99());
+            assertThat(server.requestCount()).isEqualTo(220);
+        }
+    }
+
+    @Test
+    void run_shouldReportInjectedErrors_withoutRetries() throws IOException, InterruptedException {
+        try (var server = DidWebStandInServer.start(StandInOptions.Builder.newInstance().errorRate(1).build())) {
+            var client = new HttpClientExtension().createHttpClient(ConfigFactory.fromMap(Map.of()));
+
+            var report = new OutboundLoadDriver(client, 4).run(0, 50,
+                    i -> new Request.Builder().url(server.didDocumentUrl("participant")).get().build());
+
+            assertThat(report.errors()).isEqualTo(50);
+            assertThat(report.errorRate()).isEqualTo(1.0);
+        }
+    }
+
+    @Test
+    void run_shouldMaskInjectedErrors_withRetries() throws IOException, InterruptedException {
+        try (var server = DidWebStandInServer.start(StandInOptions.Builder.newInstance().errorRate(0.2).build())) {
+            var client = new HttpClientExtension().createHttpClient(ConfigFactory.fromMap(Map.of(
+                    "edc.http.retry.max", "5",
+                    "edc.http.retry.backoff.ms", "1",
+                    "edc.http.retry.budget.percent", "100")));
+
+            var report = new OutboundLoadDriver(client, 4).run(0, 200,
+                    i -> new Request.Builder().url(server.didDocumentUrl("participant")).get().build());
+
+            assertThat(report.errorRate()).isLessThan(0.05);
+            assertThat(server.requestCount()).isGreaterThan(200);
+        }
+    }
+}
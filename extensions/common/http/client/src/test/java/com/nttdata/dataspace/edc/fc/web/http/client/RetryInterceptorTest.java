@@ -0,0 +1,107 @@
+package com.nttdata.dataspace.edc.fc.web.http.client;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetryInterceptorTest {
+
+    private static final String URL = "https://did.example.com/.well-known/did.json";
+
+    private Interceptor.Chain chain;
+    private Call call;
+
+    @BeforeEach
+    void setUp() {
+        chain = mock(Interceptor.Chain.class);
+        call = mock(Call.class);
+        when(chain.call()).thenReturn(call);
+    }
+
+    @Test
+    void intercept_shouldRetryTransientStatus_untilSuccess() throws IOException {
+        var request = new Request.Builder().url(URL).get().build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenReturn(response(request, 503), response(request, 200));
+
+        var response = new RetryInterceptor(3, 0, 0, new RetryBudget(0.1, 10)).intercept(chain);
+
+        assertThat(response.code()).isEqualTo(200);
+        verify(chain, times(2)).proceed(request);
+    }
+
+    @Test
+    void intercept_shouldRetryIoException_andRethrowWhenExhausted() throws IOException {
+        var request = new Request.Builder().url(URL).get().build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenThrow(new IOException("connection reset"));
+
+        assertThatThrownBy(() -> new RetryInterceptor(2, 0, 0, new RetryBudget(0.1, 10)).intercept(chain))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+        verify(chain, times(3)).proceed(request);
+    }
+
+    @Test
+    void intercept_shouldNotRetry_nonIdempotentRequests() throws IOException {
+        var request = new Request.Builder().url(URL).post(RequestBody.create(new byte[0])).build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenReturn(response(request, 503));
+
+        var response = new RetryInterceptor(3, 0, 0, new RetryBudget(0.1, 10)).intercept(chain);
+
+        assertThat(response.code()).isEqualTo(503);
+        verify(chain, times(1)).proceed(request);
+    }
+
+    @Test
+    void intercept_shouldStopRetrying_whenBudgetIsExhausted() throws IOException {
+        var request = new Request.Builder().url(URL).get().build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenReturn(response(request, 503));
+
+        // one token available: one retry, then the budget is empty
+        var response = new RetryInterceptor(5, 0, 0, new RetryBudget(0, 1)).intercept(chain);
+
+        assertThat(response.code()).isEqualTo(503);
+        verify(chain, times(2)).proceed(request);
+    }
+
+    @Test
+    void latencyTracker_shouldReturnPercentileOfWindow() {
+        var tracker = new LatencyTracker(100);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertThat(tracker.percentile(50)).isEqualTo(50);
+        assertThat(tracker.percentile(95)).isEqualTo(95);
+        assertThat(tracker.percentile(100)).isEqualTo(100);
+    }
+
+    private static Response response(Request request, int code) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("status " + code)
+                .body(ResponseBody.create(new byte[0], null))
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.nttdata.dataspace.edc.fc.web.http.client.fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded stand-in for remote dataspace participants. Serves synthetic {@code did:web} documents and credential
+ * service responses from {@code localhost}, with configurable latency and error injection, so that outbound
+ * resolution can be load-tested without real remote hosts.
+ * <p>
+ * Served endpoints:
+ * <ul>
+ *     <li>{@code GET /{participant}/did.json} - DID document of {@code did:web:localhost%3A{port}:{participant}}</li>
+ *     <li>{@code POST /v1/participants/{participant}/presentations/query} - presentation response</li>
+ * </ul>
+ * </p>
+ */
+public class DidWebStandInServer implements AutoCloseable {
+
+    private static final String KEYSTORE_RESOURCE = "standin/localhost.p12";
+    private static final String CERTIFICATE_RESOURCE = "standin/localhost.pem";
+    private static final String KEYSTORE_PASSWORD = "changeit";
+    private static final Pattern PRESENTATION_QUERY = Pattern.compile("^/v1/participants/([^/]+)/presentations/query$");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StandInOptions options;
+    private final AtomicLong requests = new AtomicLong();
+
+    private DidWebStandInServer(HttpServer server, ExecutorService executor, StandInOptions options) {
+        this.server = server;
+        this.executor = executor;
+        this.options = options;
+    }
+
+    /**
+     * Starts a stand-in server on a free port of the loopback interface.
+     */
+    public static DidWebStandInServer start(StandInOptions options) throws IOException {
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        HttpServer server;
+        if (options.https()) {
+            var httpsServer = HttpsServer.create(address, 0);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(serverSslContext()));
+            server = httpsServer;
+        } else {
+            server = HttpServer.create(address, 0);
+        }
+
+        var executor = Executors.newFixedThreadPool(options.workerThreads());
+        server.setExecutor(executor);
+
+        var standIn = new DidWebStandInServer(server, executor, options);
+        server.createContext("/", standIn::handle);
+        server.start();
+        return standIn;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "%s://localhost:%d".formatted(options.https() ? "https" : "http", port());
+    }
+
+    public String did(String participant) {
+        return "did:web:localhost%%3A%d:%s".formatted(port(), participant);
+    }
+
+    public String didDocumentUrl(String participant) {
+        return "%s/%s/did.json".formatted(baseUrl(), participant);
+    }
+
+    public String presentationQueryUrl(String participant) {
+        return "%s/v1/participants/%s/presentations/query".formatted(baseUrl(), participant);
+    }
+
+    /**
+     * Number of requests received so far, including failed and dropped ones.
+     */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Writes the certificate of the HTTPS endpoint to a temporary PEM file, to be used as
+     * {@code edc.http.tls.truststore.path}.
+     */
+    public static Path trustStorePath() throws IOException {
+        var file = Files.createTempFile("standin-", ".pem");
+        file.toFile().deleteOnExit();
+        try (InputStream in = resource(CERTIFICATE_RESOURCE)) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            delay();
+
+            var dice = ThreadLocalRandom.current().nextDouble();
+            if (dice < options.dropRate()) {
+                // close without response, the client sees a connection failure
+                return;
+            }
+            if (dice < options.dropRate() + options.errorRate()) {
+                send(exchange, 503, "{\"error\":\"injected failure\"}");
+                return;
+            }
+
+            var path = exchange.getRequestURI().getPath();
+            var presentationQuery = PRESENTATION_QUERY.matcher(path);
+            if ("GET".equals(exchange.getRequestMethod()) && path.endsWith("/did.json")) {
+                var participant = path.substring(1, path.length() - "/did.json".length()).replace('/', ':');
+                send(exchange, 200, didDocument(participant));
+            } else if ("POST".equals(exchange.getRequestMethod()) && presentationQuery.matches()) {
+                exchange.getRequestBody().readAllBytes();
+                send(exchange, 200, presentationResponse(presentationQuery.group(1)));
+            } else {
+                send(exchange, 404, "{\"error\":\"not found\"}");
+            }
+        }
+    }
+
+    private String didDocument(String participant) {
+        var did = did(participant);
+        var methods = new StringBuilder();
+        for (int i = 0; i < options.verificationMethods(); i++) {
+            if (i > 0) {
+                methods.append(',');
+            }
+            methods.append("""
+                    {"id":"%1$s#key-%2$d","type":"JsonWebKey2020","controller":"%1$s",\
+                    "publicKeyJwk":{"kty":"OKP","crv":"Ed25519","x":"%3$s"}}""".formatted(did, i, syntheticKey(participant, i)));
+        }
+        return """
+                {"@context":["https://www.w3.org/ns/did/v1"],"id":"%1$s",\
+                "verificationMethod":[%2$s],\
+                "service":[{"id":"%1$s#CredentialService","type":"CredentialService","serviceEndpoint":"%3$s/v1/participants/%4$s"},\
+                {"id":"%1$s#ProtocolEndpoint","type":"ProtocolEndpoint","serviceEndpoint":"%3$s/api/dsp"}]}""".formatted(did, methods, baseUrl(), participant);
+    }
+
+    private String presentationResponse(String participant) {
+        var payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"iss\":\"%s\",\"vp\":{\"type\":[\"VerifiablePresentation\"]}}".formatted(did(participant)).getBytes(StandardCharsets.UTF_8));
+        return """
+                {"@context":["https://w3id.org/dspace-dcp/v1.0/dcp.jsonld"],"type":"PresentationResponseMessage",\
+                "presentation":["eyJhbGciOiJFZERTQSJ9.%s.c3RhbmQtaW4"]}""".formatted(payload);
+    }
+
+    /**
+     * Deterministic, syntactically valid but meaningless Ed25519 public key.
+     */
+    private static String syntheticKey(String participant, int index) {
+        var bytes = new byte[32];
+        var seed = (participant + "#" + index).hashCode();
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (seed >>> (i % 4 * 8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private void delay() {
+        var millis = options.latency().toMillis();
+        var jitter = options.jitter().toMillis();
+        if (jitter > 0) {
+            millis += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static SSLContext serverSslContext() throws IOException {
+        try (InputStream in = resource(KEYSTORE_RESOURCE)) {
+            var keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, KEYSTORE_PASSWORD.toCharArray());
+            var keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(keyStore, KEYSTORE_PASSWORD.toCharArray());
+            var sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to set up TLS for the stand-in server", e);
+        }
+    }
+
+    private static InputStream resource(String name) throws IOException {
+        var in = DidWebStandInServer.class.getClassLoader().getResourceAsStream(name);
+        if (in == null) {
+            throw new IOException("Missing resource " + name);
+        }
+        return in;
+    }
+}
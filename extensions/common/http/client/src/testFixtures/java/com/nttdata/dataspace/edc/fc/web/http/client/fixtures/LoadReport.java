@@ -0,0 +1,49 @@
+package com.nttdata.dataspace.edc.fc.web.http.client.fixtures;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Result of an {@link OutboundLoadDriver} run. Latencies are in microseconds and only cover successful requests.
+ */
+public record LoadReport(int requests, int errors, Duration elapsed, double throughput, long p50, long p95, long p99, long max) {
+
+    /**
+     * Builds a report from the recorded latencies.
+     * @param latenciesNanos latencies of the successful requests, may be modified by this method
+     * @param errors number of failed requests
+     * @param elapsed wall clock time of the whole run
+     */
+    public static LoadReport of(long[] latenciesNanos, int errors, Duration elapsed) {
+        Arrays.sort(latenciesNanos);
+        var requests = latenciesNanos.length + errors;
+        var seconds = Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+        return new LoadReport(
+                requests,
+                errors,
+                elapsed,
+                requests / seconds,
+                percentileMicros(latenciesNanos, 50),
+                percentileMicros(latenciesNanos, 95),
+                percentileMicros(latenciesNanos, 99),
+                latenciesNanos.length == 0 ? 0 : latenciesNanos[latenciesNanos.length - 1] / 1000);
+    }
+
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "requests=%d errors=%d elapsed=%dms throughput=%.1f req/s p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms".formatted(
+                requests, errors, elapsed.toMillis(), throughput, p50 / 1000.0, p95 / 1000.0, p99 / 1000.0, max / 1000.0);
+    }
+
+    private static long percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))] / 1000;
+    }
+}
@@ -0,0 +1,102 @@
+package com.nttdata.dataspace.edc.fc.web.http.client.fixtures;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Pushes an {@link OkHttpClient} at a fixed concurrency: a fixed number of workers send requests back to back until the
+ * requested total is reached. Every request counts as an error unless it returns a 2xx status, or one of the expected
+ * statuses passed to {@link #run(int, int, IntFunction, IntPredicate)}.
+ */
+public class OutboundLoadDriver {
+
+    private final OkHttpClient client;
+    private final int concurrency;
+
+    public OutboundLoadDriver(OkHttpClient client, int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        this.client = client;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sends {@code warmup} requests that are not measured, followed by {@code requests} measured ones.
+     * @param requestFactory creates the request with the given sequence number
+     * @return throughput and latency percentiles of the measured requests
+     */
+    public LoadReport run(int warmup, int requests, IntFunction<Request> requestFactory) throws InterruptedException {
+        return run(warmup, requests, requestFactory, status -> status >= 200 && status < 300);
+    }
+
+    /**
+     * Like {@link #run(int, int, IntFunction)}, for endpoints whose measured path does not answer with a 2xx status.
+     * @param expectedStatus tells whether a response status counts as success
+     */
+    public LoadReport run(int warmup, int requests, IntFunction<Request> requestFactory, IntPredicate expectedStatus) throws InterruptedException {
+        if (warmup > 0) {
+            execute(warmup, requestFactory, expectedStatus);
+        }
+        return execute(requests, requestFactory, expectedStatus);
+    }
+
+    private LoadReport execute(int requests, IntFunction<Request> requestFactory, IntPredicate expectedStatus) throws InterruptedException {
+        var latencies = new long[requests];
+        var succeeded = new boolean[requests];
+        var sequence = new AtomicInteger();
+
+        var executor = Executors.newFixedThreadPool(concurrency);
+        var start = System.nanoTime();
+        try {
+            var workers = new ArrayList<Future<?>>();
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    int index;
+                    while ((index = sequence.getAndIncrement()) < requests) {
+                        var begin = System.nanoTime();
+                        succeeded[index] = send(requestFactory.apply(index), expectedStatus);
+                        latencies[index] = System.nanoTime() - begin;
+                    }
+                }));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load driver worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        var successful = new long[requests];
+        var count = 0;
+        for (int i = 0; i < requests; i++) {
+            if (succeeded[i]) {
+                successful[count++] = latencies[i];
+            }
+        }
+        return LoadReport.of(Arrays.copyOf(successful, count), requests - count, elapsed);
+    }
+
+    private boolean send(Request request, IntPredicate expectedStatus) {
+        try (var response = client.newCall(request).execute()) {
+            response.body().bytes();
+            return expectedStatus.test(response.code());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.nttdata.dataspace.edc.fc.web.http.client.fixtures;
+
+import com.nttdata.dataspace.edc.fc.web.http.client.HttpClientExtension;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.eclipse.edc.spi.system.configuration.ConfigFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+
+/**
+ * Command line entry point of the outbound load test, run through {@code ./gradlew :extensions:common:http:client:outboundLoadTest}.
+ * <p>
+ * Starts a {@link DidWebStandInServer}, builds the client exactly like {@link HttpClientExtension} does in the runtime
+ * and drives it with an {@link OutboundLoadDriver}. All {@code edc.http.*} system properties are passed to the client,
+ * so pool, timeout, retry and hedging settings can be compared offline. The test itself is configured with:
+ * <ul>
+ *     <li>{@code loadtest.requests} (default 10000), {@code loadtest.warmup} (default 1000)</li>
+ *     <li>{@code loadtest.concurrency} (default 32), {@code loadtest.participants} (default 100)</li>
+ *     <li>{@code loadtest.latency.ms}, {@code loadtest.jitter.ms}, {@code loadtest.error.rate}, {@code loadtest.drop.rate}</li>
+ *     <li>{@code loadtest.https} (default true), {@code loadtest.verification.methods} (default 1)</li>
+ *     <li>{@code loadtest.mix.presentations} - share of presentation queries vs. DID document fetches (default 0)</li>
+ * </ul>
+ * </p>
+ */
+public class OutboundLoadTest {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private OutboundLoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var https = Boolean.parseBoolean(System.getProperty("loadtest.https", "true"));
+        var options = StandInOptions.Builder.newInstance()
+                .https(https)
+                .latency(Duration.ofMillis(Long.getLong("loadtest.latency.ms", 0)))
+                .jitter(Duration.ofMillis(Long.getLong("loadtest.jitter.ms", 0)))
+                .errorRate(Double.parseDouble(System.getProperty("loadtest.error.rate", "0")))
+                .dropRate(Double.parseDouble(System.getProperty("loadtest.drop.rate", "0")))
+                .verificationMethods(Integer.getInteger("loadtest.verification.methods", 1))
+                .build();
+
+        var participants = Integer.getInteger("loadtest.participants", 100);
+        var presentationShare = Double.parseDouble(System.getProperty("loadtest.mix.presentations", "0"));
+
+        try (var server = DidWebStandInServer.start(options)) {
+            var settings = new HashMap<String, String>();
+            System.getProperties().stringPropertyNames().stream()
+                    .filter(name -> name.startsWith("edc.http."))
+                    .forEach(name -> settings.put(name, System.getProperty(name)));
+            if (https) {
+                settings.putIfAbsent("edc.http.tls.truststore.path", DidWebStandInServer.trustStorePath().toString());
+            }
+
+            var client = new HttpClientExtension().createHttpClient(ConfigFactory.fromMap(settings));
+            var driver = new OutboundLoadDriver(client, Integer.getInteger("loadtest.concurrency", 32));
+
+            var report = driver.run(Integer.getInteger("loadtest.warmup", 1000), Integer.getInteger("loadtest.requests", 10000), i -> {
+                var participant = "participant-" + (i % participants);
+                if (i % 100 < presentationShare * 100) {
+                    return new Request.Builder()
+                            .url(server.presentationQueryUrl(participant))
+                            .post(RequestBody.create("{\"scope\":[\"org.eclipse.edc.vc.type:MembershipCredential:read\"]}", JSON))
+                            .build();
+                }
+                return new Request.Builder().url(server.didDocumentUrl(participant)).get().build();
+            });
+
+            System.out.println("Outbound load test with " + settings);
+            System.out.println(report);
+            System.out.println("Requests received by stand-in: " + server.requestCount());
+
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.nttdata.dataspace.edc.fc.web.http.client.fixtures;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of a {@link DidWebStandInServer}: TLS, artificial latency and injected errors.
+ */
+public class StandInOptions {
+
+    private boolean https;
+    private Duration latency = Duration.ZERO;
+    private Duration jitter = Duration.ZERO;
+    private double errorRate;
+    private double dropRate;
+    private int verificationMethods = 1;
+    private int workerThreads = 64;
+
+    private StandInOptions() {
+    }
+
+    public boolean https() {
+        return https;
+    }
+
+    public Duration latency() {
+        return latency;
+    }
+
+    public Duration jitter() {
+        return jitter;
+    }
+
+    public double errorRate() {
+        return errorRate;
+    }
+
+    public double dropRate() {
+        return dropRate;
+    }
+
+    public int verificationMethods() {
+        return verificationMethods;
+    }
+
+    public int workerThreads() {
+        return workerThreads;
+    }
+
+    public static final class Builder {
+        private final StandInOptions options = new StandInOptions();
+
+        private Builder() {
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        /**
+         * Serve over HTTPS with the bundled {@code localhost} certificate, see {@link DidWebStandInServer#trustStorePath()}.
+         */
+        public Builder https(boolean https) {
+            options.https = https;
+            return this;
+        }
+
+        /**
+         * Fixed delay added to every response.
+         */
+        public Builder latency(Duration latency) {
+            options.latency = latency;
+            return this;
+        }
+
+        /**
+         * Upper bound of a uniformly distributed random delay added on top of the fixed latency.
+         */
+        public Builder jitter(Duration jitter) {
+            options.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Share of requests (0..1) answered with {@code 503 Service Unavailable}.
+         */
+        public Builder errorRate(double errorRate) {
+            options.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Share of requests (0..1) for which the connection is closed without any response.
+         */
+        public Builder dropRate(double dropRate) {
+            options.dropRate = dropRate;
+            return this;
+        }
+
+        /**
+         * Number of verification methods in every served DID document, to simulate large documents.
+         */
+        public Builder verificationMethods(int verificationMethods) {
+            options.verificationMethods = verificationMethods;
+            return this;
+        }
+
+        public Builder workerThreads(int workerThreads) {
+            options.workerThreads = workerThreads;
+            return this;
+        }
+
+        public StandInOptions build() {
+            if (options.errorRate + options.dropRate > 1) {
+                throw new IllegalArgumentException("errorRate and dropRate must not add up to more than 1");
+            }
+            return options;
+        }
+    }
+}
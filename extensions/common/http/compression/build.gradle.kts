@@ -0,0 +1,16 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    implementation(libs.edc.core.runtime)
+    implementation(libs.edc.web.spi)
+    implementation(libs.jakarta.annotation)
+
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly(libs.junit.jupiter.engine)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.mockito.core)
+    testImplementation(libs.mockito.junit.jupiter)
+    testImplementation(libs.assertj.core)
+}
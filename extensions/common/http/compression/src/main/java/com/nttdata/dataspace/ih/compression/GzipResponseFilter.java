@@ -0,0 +1,179 @@
+package com.nttdata.dataspace.ih.compression;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Compresses JSON and text responses with gzip if the client accepts it and the entity is larger than a threshold.
+ * <p>
+ * The response filter decides whether a response is eligible (client sends {@code Accept-Encoding: gzip}, compressible
+ * media type, no encoding set yet) and marks the request. The writer interceptor then buffers the serialized entity up
+ * to the threshold, so small responses such as status replies are sent as they are and only large ones, e.g.
+ * presentation responses or DID documents with many verification methods, pay for compression.
+ * </p>
+ * <p>
+ * A strong ETag identifies one representation (RFC 9110, 8.8.3), so the ETag of a compressed response gets a
+ * {@value #ETAG_SUFFIX} suffix. When a client that accepts gzip sends such a tag back in {@code If-None-Match}, the
+ * pre-matching request filter strips the suffix, so resources compare it with their own tag, and a resulting
+ * {@code 304} carries the suffixed tag again. Weak ETags are left as they are.
+ * </p>
+ */
+@PreMatching
+@Priority(Priorities.ENTITY_CODER)
+public class GzipResponseFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    static final String GZIP = "gzip";
+    static final String ETAG_SUFFIX = "-gzip";
+    static final String COMPRESS_PROPERTY = GzipResponseFilter.class.getName() + ".compress";
+    static final String ETAG_STRIPPED_PROPERTY = GzipResponseFilter.class.getName() + ".etagStripped";
+
+    private final int minSize;
+
+    public GzipResponseFilter(int minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        var ifNoneMatch = requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !ifNoneMatch.contains(ETAG_SUFFIX + "\"")
+                || !acceptsGzip(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            return;
+        }
+        requestContext.getHeaders().putSingle(HttpHeaders.IF_NONE_MATCH, Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(GzipResponseFilter::identityTag)
+                .collect(Collectors.joining(", ")));
+        requestContext.setProperty(ETAG_STRIPPED_PROPERTY, Boolean.TRUE);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (responseContext.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            // the client holds the compressed representation, confirm its tag
+            if (Boolean.TRUE.equals(requestContext.getProperty(ETAG_STRIPPED_PROPERTY))) {
+                gzipEtag(responseContext.getHeaders());
+            }
+            return;
+        }
+        if (!responseContext.hasEntity()
+                || responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)
+                || !isCompressible(responseContext.getMediaType())) {
+            return;
+        }
+        // the representation depends on Accept-Encoding even if this particular request does not accept gzip
+        responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            requestContext.setProperty(COMPRESS_PROPERTY, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!Boolean.TRUE.equals(context.getProperty(COMPRESS_PROPERTY))) {
+            context.proceed();
+            return;
+        }
+
+        var headers = context.getHeaders();
+        var stream = new ThresholdGzipOutputStream(context.getOutputStream(), minSize, () -> {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            gzipEtag(headers);
+        });
+        var original = context.getOutputStream();
+        context.setOutputStream(stream);
+        try {
+            context.proceed();
+            stream.finish();
+        } finally {
+            context.setOutputStream(original);
+        }
+    }
+
+    /**
+     * Suffixes a strong ETag of the response, it now identifies the compressed representation.
+     */
+    static void gzipEtag(MultivaluedMap<String, Object> headers) {
+        var etag = headers.getFirst(HttpHeaders.ETAG);
+        if (etag instanceof EntityTag entityTag && !entityTag.isWeak()) {
+            headers.putSingle(HttpHeaders.ETAG, new EntityTag(entityTag.getValue() + ETAG_SUFFIX));
+        } else if (etag instanceof String value && value.startsWith("\"") && value.endsWith("\"") && value.length() > 1) {
+            headers.putSingle(HttpHeaders.ETAG, value.substring(0, value.length() - 1) + ETAG_SUFFIX + "\"");
+        }
+    }
+
+    /**
+     * The tag of the identity representation for a tag sent back by a client, {@code "abc-gzip"} becomes {@code "abc"}.
+     */
+    static String identityTag(String tag) {
+        var suffixed = ETAG_SUFFIX + "\"";
+        if (tag.startsWith("\"") && tag.endsWith(suffixed) && tag.length() > suffixed.length()) {
+            return tag.substring(0, tag.length() - suffixed.length()) + "\"";
+        }
+        return tag;
+    }
+
+    static boolean isCompressible(MediaType mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        var subtype = mediaType.getSubtype().toLowerCase(Locale.ROOT);
+        return "text".equalsIgnoreCase(mediaType.getType())
+                || subtype.equals("json") || subtype.endsWith("+json")
+                || subtype.equals("xml") || subtype.endsWith("+xml");
+    }
+
+    /**
+     * Parses an {@code Accept-Encoding} header, honouring {@code q=0} and the {@code *} wildcard.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (var entry : acceptEncoding.split(",")) {
+            var parts = entry.trim().split(";");
+            var coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            var accepted = quality(parts) > 0;
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            var parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
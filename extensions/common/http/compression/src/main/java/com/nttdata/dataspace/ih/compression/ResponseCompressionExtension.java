@@ -0,0 +1,59 @@
+package com.nttdata.dataspace.ih.compression;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.util.Arrays;
+
+/**
+ * Registers gzip response compression on the Identity Hub web contexts that serve large JSON documents: the
+ * credentials API (verifiable presentations) and the DID API (DID documents) by default.
+ */
+@Extension(value = ResponseCompressionExtension.NAME)
+public class ResponseCompressionExtension implements ServiceExtension {
+
+    public static final String NAME = "Response Compression Extension";
+    public static final int DEFAULT_MIN_SIZE = 1024;
+    public static final String DEFAULT_CONTEXTS = "credentials,did";
+
+    @Setting(description = "Compress responses with gzip if the client accepts it", defaultValue = "true")
+    public static final String ENABLED_SETTING = "edc.web.compression.enabled";
+
+    @Setting(description = "Minimum response size in bytes before a response is compressed", defaultValue = "1024")
+    public static final String MIN_SIZE_SETTING = "edc.web.compression.min.size";
+
+    @Setting(description = "Comma separated list of web contexts whose responses are compressed", defaultValue = DEFAULT_CONTEXTS)
+    public static final String CONTEXTS_SETTING = "edc.web.compression.contexts";
+
+    @Inject
+    private WebService webService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("Compression");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, true)) {
+            monitor.info("Response compression is DISABLED.");
+            return;
+        }
+
+        int minSize = Math.max(0, config.getInteger(MIN_SIZE_SETTING, DEFAULT_MIN_SIZE));
+        var filter = new GzipResponseFilter(minSize);
+        var contexts = Arrays.stream(config.getString(CONTEXTS_SETTING, DEFAULT_CONTEXTS).split(","))
+                .map(String::trim)
+                .filter(alias -> !alias.isEmpty())
+                .distinct()
+                .toList();
+        contexts.forEach(alias -> webService.registerResource(alias, filter));
+        monitor.info("gzip response compression enabled for contexts %s (min size %d bytes)".formatted(contexts, minSize));
+    }
+}
@@ -0,0 +1,90 @@
+package com.nttdata.dataspace.ih.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffers the first {@code threshold} bytes of an entity and only switches to gzip once the entity grows beyond it.
+ * <p>
+ * Nothing reaches the target stream before that decision is made, so the response headers are still uncommitted when
+ * {@code onCompress} runs and can be changed there. Small entities are written through unchanged by {@link #finish()}.
+ * The target stream is never closed, it belongs to the container.
+ * </p>
+ */
+class ThresholdGzipOutputStream extends OutputStream {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final OutputStream target;
+    private final int threshold;
+    private final Runnable onCompress;
+    private ByteArrayOutputStream buffer;
+    private GZIPOutputStream gzip;
+    private boolean finished;
+
+    ThresholdGzipOutputStream(OutputStream target, int threshold, Runnable onCompress) {
+        this.target = target;
+        this.threshold = threshold;
+        this.onCompress = onCompress;
+        this.buffer = new ByteArrayOutputStream(Math.min(threshold, GZIP_BUFFER_SIZE));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (gzip != null) {
+            gzip.write(b, off, len);
+            return;
+        }
+        if (buffer.size() + len <= threshold) {
+            buffer.write(b, off, len);
+            return;
+        }
+        onCompress.run();
+        gzip = new GZIPOutputStream(target, GZIP_BUFFER_SIZE);
+        buffer.writeTo(gzip);
+        buffer = null;
+        gzip.write(b, off, len);
+    }
+
+    /**
+     * Only flushes once compression has started, flushing the buffer would commit the headers too early.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (gzip != null) {
+            gzip.flush();
+        }
+    }
+
+    /**
+     * Writes out what is left: the uncompressed buffer or the gzip trailer.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (gzip != null) {
+            gzip.finish();
+        } else {
+            buffer.writeTo(target);
+        }
+        target.flush();
+    }
+
+    boolean isCompressed() {
+        return gzip != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+}
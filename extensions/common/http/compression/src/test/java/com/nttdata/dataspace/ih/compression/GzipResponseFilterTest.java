@@ -0,0 +1,227 @@
+package com.nttdata.dataspace.ih.compression;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GzipResponseFilterTest {
+
+    private static final int MIN_SIZE = 64;
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @Mock
+    private ContainerResponseContext responseContext;
+
+    @Mock
+    private WriterInterceptorContext writerContext;
+
+    private final GzipResponseFilter filter = new GzipResponseFilter(MIN_SIZE);
+    private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+    private final ByteArrayOutputStream wire = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(responseContext.getHeaders()).thenReturn(headers);
+        lenient().when(responseContext.hasEntity()).thenReturn(true);
+        lenient().when(responseContext.getMediaType()).thenReturn(MediaType.APPLICATION_JSON_TYPE);
+        lenient().when(writerContext.getHeaders()).thenReturn(headers);
+
+        var current = new AtomicReference<OutputStream>(wire);
+        lenient().when(writerContext.getOutputStream()).thenAnswer(i -> current.get());
+        lenient().doAnswer(i -> {
+            current.set(i.getArgument(0));
+            return null;
+        }).when(writerContext).setOutputStream(any());
+    }
+
+    @Test
+    void filter_shouldMarkRequest_whenClientAcceptsGzip() {
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("br, gzip;q=0.8");
+
+        filter.filter(requestContext, responseContext);
+
+        verify(requestContext).setProperty(GzipResponseFilter.COMPRESS_PROPERTY, Boolean.TRUE);
+        assertThat(headers.get(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void filter_shouldNotMarkRequest_whenGzipIsRefused() {
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip;q=0, *");
+
+        filter.filter(requestContext, responseContext);
+
+        verify(requestContext, never()).setProperty(any(), any());
+    }
+
+    @Test
+    void filter_shouldSkip_whenMediaTypeIsNotCompressible() {
+        when(responseContext.getMediaType()).thenReturn(MediaType.APPLICATION_OCTET_STREAM_TYPE);
+
+        filter.filter(requestContext, responseContext);
+
+        verify(requestContext, never()).setProperty(any(), any());
+        assertThat(headers).doesNotContainKey(HttpHeaders.VARY);
+    }
+
+    @Test
+    void filter_shouldSkip_whenAlreadyEncoded() {
+        headers.putSingle(HttpHeaders.CONTENT_ENCODING, "br");
+
+        filter.filter(requestContext, responseContext);
+
+        verify(requestContext, never()).setProperty(any(), any());
+    }
+
+    @Test
+    void aroundWriteTo_shouldCompress_whenEntityExceedsThreshold() throws IOException {
+        var entity = "{\"verificationMethod\":[" + "{\"type\":\"JsonWebKey2020\"},".repeat(50) + "{}]}";
+        when(writerContext.getProperty(GzipResponseFilter.COMPRESS_PROPERTY)).thenReturn(Boolean.TRUE);
+        headers.putSingle(HttpHeaders.CONTENT_LENGTH, entity.length());
+        writeOnProceed(entity);
+
+        filter.aroundWriteTo(writerContext);
+
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(headers).doesNotContainKey(HttpHeaders.CONTENT_LENGTH);
+        assertThat(wire.size()).isLessThan(entity.length());
+        assertThat(gunzip(wire.toByteArray())).isEqualTo(entity);
+        verify(writerContext).setOutputStream(eq(wire));
+    }
+
+    @Test
+    void aroundWriteTo_shouldSuffixStrongEtag_whenCompressing() throws IOException {
+        when(writerContext.getProperty(GzipResponseFilter.COMPRESS_PROPERTY)).thenReturn(Boolean.TRUE);
+        headers.putSingle(HttpHeaders.ETAG, "\"abc\"");
+        writeOnProceed("{\"id\":\"" + "x".repeat(2 * MIN_SIZE) + "\"}");
+
+        filter.aroundWriteTo(writerContext);
+
+        assertThat(headers.getFirst(HttpHeaders.ETAG)).isEqualTo("\"abc-gzip\"");
+    }
+
+    @Test
+    void aroundWriteTo_shouldKeepWeakEtag_whenCompressing() throws IOException {
+        when(writerContext.getProperty(GzipResponseFilter.COMPRESS_PROPERTY)).thenReturn(Boolean.TRUE);
+        headers.putSingle(HttpHeaders.ETAG, "W/\"abc\"");
+        writeOnProceed("{\"id\":\"" + "x".repeat(2 * MIN_SIZE) + "\"}");
+
+        filter.aroundWriteTo(writerContext);
+
+        assertThat(headers.getFirst(HttpHeaders.ETAG)).isEqualTo("W/\"abc\"");
+    }
+
+    @Test
+    void aroundWriteTo_shouldWriteThrough_whenEntityIsBelowThreshold() throws IOException {
+        var entity = "{\"status\":\"ok\"}";
+        when(writerContext.getProperty(GzipResponseFilter.COMPRESS_PROPERTY)).thenReturn(Boolean.TRUE);
+        headers.putSingle(HttpHeaders.ETAG, "\"abc\"");
+        writeOnProceed(entity);
+
+        filter.aroundWriteTo(writerContext);
+
+        assertThat(headers).doesNotContainKey(HttpHeaders.CONTENT_ENCODING);
+        assertThat(headers.getFirst(HttpHeaders.ETAG)).isEqualTo("\"abc\"");
+        assertThat(wire.toString(StandardCharsets.UTF_8)).isEqualTo(entity);
+    }
+
+    @Test
+    void aroundWriteTo_shouldNotWrapStream_whenRequestIsNotMarked() throws IOException {
+        filter.aroundWriteTo(writerContext);
+
+        verify(writerContext).proceed();
+        verify(writerContext, never()).setOutputStream(any());
+    }
+
+    @Test
+    void filter_shouldStripGzipSuffix_fromIfNoneMatch_whenClientAcceptsGzip() {
+        var requestHeaders = new MultivaluedHashMap<String, String>();
+        when(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"abc-gzip\", W/\"def\"");
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        when(requestContext.getHeaders()).thenReturn(requestHeaders);
+
+        filter.filter(requestContext);
+
+        assertThat(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"abc\", W/\"def\"");
+        verify(requestContext).setProperty(GzipResponseFilter.ETAG_STRIPPED_PROPERTY, Boolean.TRUE);
+    }
+
+    @Test
+    void filter_shouldKeepIfNoneMatch_whenGzipIsNotAccepted() {
+        when(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"abc-gzip\"");
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("identity");
+
+        filter.filter(requestContext);
+
+        verify(requestContext, never()).getHeaders();
+        verify(requestContext, never()).setProperty(any(), any());
+    }
+
+    @Test
+    void filter_shouldSuffixEtagOfNotModified_whenClientHoldsCompressedRepresentation() {
+        when(responseContext.getStatus()).thenReturn(304);
+        when(requestContext.getProperty(GzipResponseFilter.ETAG_STRIPPED_PROPERTY)).thenReturn(Boolean.TRUE);
+        headers.putSingle(HttpHeaders.ETAG, "\"abc\"");
+
+        filter.filter(requestContext, responseContext);
+
+        assertThat(headers.getFirst(HttpHeaders.ETAG)).isEqualTo("\"abc-gzip\"");
+        assertThat(headers).doesNotContainKey(HttpHeaders.VARY);
+    }
+
+    @Test
+    void acceptsGzip_shouldParseAcceptEncoding() {
+        assertThat(GzipResponseFilter.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(GzipResponseFilter.acceptsGzip("*")).isTrue();
+        assertThat(GzipResponseFilter.acceptsGzip("identity")).isFalse();
+        assertThat(GzipResponseFilter.acceptsGzip("GZIP;q=0.0")).isFalse();
+        assertThat(GzipResponseFilter.acceptsGzip(null)).isFalse();
+    }
+
+    private void writeOnProceed(String entity) throws IOException {
+        doAnswer(i -> {
+            var out = writerContext.getOutputStream();
+            // written in chunks like a JSON generator does
+            var bytes = entity.getBytes(StandardCharsets.UTF_8);
+            for (int off = 0; off < bytes.length; off += 10) {
+                out.write(bytes, off, Math.min(10, bytes.length - off));
+            }
+            out.flush();
+            return null;
+        }).when(writerContext).proceed();
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
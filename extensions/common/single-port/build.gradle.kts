@@ -0,0 +1,15 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    implementation(libs.edc.core.runtime)
+    implementation(libs.edc.jetty.core)
+
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly(libs.junit.jupiter.engine)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.mockito.core)
+    testImplementation(libs.mockito.junit.jupiter)
+    testImplementation(libs.assertj.core)
+}
@@ -0,0 +1,51 @@
+package com.nttdata.dataspace.ih.singleport;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Maps request paths to web contexts by their configured path ({@code web.http.<context>.path}). The longest path that
+ * is a prefix of the request path on a segment boundary wins, so {@code /api/identity/v1} goes to the identity
+ * context and not to the default context on {@code /api}, and a context on {@code /} catches everything else.
+ */
+class ContextRoutes {
+
+    private final List<Route> routes = new CopyOnWriteArrayList<>();
+
+    void add(String context, String path) {
+        routes.add(new Route(context, normalize(path)));
+        routes.sort(Comparator.comparingInt((Route route) -> route.path().length()).reversed());
+    }
+
+    /**
+     * Returns the context serving the path, or null if no context path matches.
+     */
+    String route(String path) {
+        var target = path == null || path.isEmpty() ? "/" : path;
+        for (var route : routes) {
+            if (matches(route.path(), target)) {
+                return route.context();
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String prefix, String path) {
+        if (prefix.equals("/")) {
+            return true;
+        }
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static String normalize(String path) {
+        if (path == null || path.isBlank()) {
+            return "/";
+        }
+        var normalized = path.startsWith("/") ? path : "/" + path;
+        return normalized.length() > 1 && normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+
+    private record Route(String context, String path) {
+    }
+}
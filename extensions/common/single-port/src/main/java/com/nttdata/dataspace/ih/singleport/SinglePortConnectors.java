@@ -0,0 +1,101 @@
+package com.nttdata.dataspace.ih.singleport;
+
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.server.ConnectionMetaData;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.ServerConnector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Serves all web contexts from the connector of one context.
+ * <p>
+ * The runtime creates one Jetty connector per context and binds every context to its connector by the virtual host
+ * {@code @<connector name>}. Requests on the shared connector are routed by path prefix: a customizer presents the
+ * request as arriving on the connector of the target context, so the context, with its servlet and its
+ * authentication filters, handles it unchanged. The other connectors are bound to an ephemeral loopback port
+ * during start and closed afterwards.
+ * </p>
+ */
+class SinglePortConnectors implements HttpConfiguration.Customizer {
+
+    private final String sharedContext;
+    private final Function<String, String> contextPath;
+    private final ContextRoutes routes = new ContextRoutes();
+    private final Map<String, ServerConnector> connectors = new ConcurrentHashMap<>();
+
+    /**
+     * @param sharedContext context whose connector serves all contexts
+     * @param contextPath   configured path of a context
+     */
+    SinglePortConnectors(String sharedContext, Function<String, String> contextPath) {
+        this.sharedContext = sharedContext;
+        this.contextPath = contextPath;
+    }
+
+    /**
+     * Connector configuration callback, called for every connector before the server starts.
+     */
+    void configure(ServerConnector connector) {
+        var context = connector.getName();
+        connectors.put(context, connector);
+        routes.add(context, contextPath.apply(context));
+        if (sharedContext.equals(context)) {
+            var factory = connector.getConnectionFactory(HttpConnectionFactory.class);
+            if (factory != null) {
+                factory.getHttpConfiguration().addCustomizer(this);
+            }
+        } else {
+            connector.setHost("127.0.0.1");
+            connector.setPort(0);
+        }
+    }
+
+    /**
+     * Closes and removes all connectors but the shared one, after the server has started.
+     * @return the names of the closed connectors
+     */
+    List<String> closeOthers() throws Exception {
+        var closed = connectors.values().stream().filter(connector -> !sharedContext.equals(connector.getName())).toList();
+        for (var connector : closed) {
+            connector.stop();
+            connector.getServer().removeConnector(connector);
+        }
+        return closed.stream().map(Connector::getName).sorted().toList();
+    }
+
+    boolean hasSharedConnector() {
+        return connectors.containsKey(sharedContext);
+    }
+
+    @Override
+    public Request customize(Request request, HttpFields.Mutable responseHeaders) {
+        var context = routes.route(request.getHttpURI().getPath());
+        var target = context != null ? connectors.get(context) : null;
+        if (target == null || target == request.getConnectionMetaData().getConnector()) {
+            return request;
+        }
+        var metaData = new ConnectionMetaData.Wrapper(request.getConnectionMetaData()) {
+            @Override
+            public Connector getConnector() {
+                return target;
+            }
+        };
+        return new Request.Wrapper(request) {
+            @Override
+            public ConnectionMetaData getConnectionMetaData() {
+                return metaData;
+            }
+        };
+    }
+
+    String route(String path) {
+        return routes.route(path);
+    }
+}
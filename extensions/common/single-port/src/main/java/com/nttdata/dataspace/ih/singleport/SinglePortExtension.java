@@ -0,0 +1,100 @@
+package com.nttdata.dataspace.ih.singleport;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.configuration.Config;
+import org.eclipse.edc.web.jetty.JettyService;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+/**
+ * Opt-in single-port mode for the web server.
+ * <p>
+ * When enabled, the default, identity, credentials and DID API are all served on the port of the default context
+ * ({@code web.http.port}), routed by their configured paths, instead of one connector per API. Each API keeps its own
+ * context and authentication. The other connectors, with their acceptor and selector threads, are closed after start,
+ * and the thread pool shared by all contexts can be sized for the pod.
+ * </p>
+ */
+@Extension(value = SinglePortExtension.NAME)
+public class SinglePortExtension implements ServiceExtension {
+
+    public static final String NAME = "Single Port Extension";
+    public static final String DEFAULT_CONTEXT = "default";
+    public static final String DEFAULT_PATH = "/api";
+
+    @Setting(description = "Serve all web contexts on the port of the default context, routed by path", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.web.single.port.enabled";
+
+    @Setting(description = "Maximum number of threads of the shared Jetty thread pool, 0 keeps the Jetty default", defaultValue = "0")
+    public static final String MAX_THREADS_SETTING = "edc.web.single.port.threads.max";
+
+    @Setting(description = "Minimum number of threads of the shared Jetty thread pool, 0 keeps the Jetty default", defaultValue = "0")
+    public static final String MIN_THREADS_SETTING = "edc.web.single.port.threads.min";
+
+    @Inject
+    private JettyService jettyService;
+
+    private Monitor monitor;
+    private SinglePortConnectors connectors;
+    private int maxThreads;
+    private int minThreads;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("SinglePort");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, false)) {
+            return;
+        }
+        maxThreads = Math.max(0, config.getInteger(MAX_THREADS_SETTING, 0));
+        minThreads = Math.max(0, config.getInteger(MIN_THREADS_SETTING, 0));
+
+        connectors = new SinglePortConnectors(DEFAULT_CONTEXT, name -> contextPath(config, name));
+        jettyService.addConnectorConfigurationCallback(this::configure);
+    }
+
+    @Override
+    public void start() {
+        if (connectors == null) {
+            return;
+        }
+        if (!connectors.hasSharedConnector()) {
+            throw new EdcException("Single-port mode requires the default web context (web.http.port)");
+        }
+        try {
+            var closed = connectors.closeOthers();
+            monitor.info("Serving all web contexts on the default port, closed the connectors of %s".formatted(closed));
+        } catch (Exception e) {
+            throw new EdcException("Could not close the connectors of the other web contexts", e);
+        }
+    }
+
+    private void configure(ServerConnector connector) {
+        connectors.configure(connector);
+        if (connector.getServer().getThreadPool() instanceof QueuedThreadPool pool) {
+            if (maxThreads > 0) {
+                pool.setMaxThreads(maxThreads);
+            }
+            if (minThreads > 0) {
+                pool.setMinThreads(Math.min(minThreads, pool.getMaxThreads()));
+            }
+        }
+    }
+
+    private static String contextPath(Config config, String context) {
+        return DEFAULT_CONTEXT.equals(context)
+                ? config.getString("web.http.path", DEFAULT_PATH)
+                : config.getString("web.http." + context + ".path", "/" + context);
+    }
+}
@@ -0,0 +1,100 @@
+package com.nttdata.dataspace.ih.singleport;
+
+import org.eclipse.jetty.http.HttpURI;
+import org.eclipse.jetty.server.ConnectionMetaData;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SinglePortConnectorsTest {
+
+    private static final Map<String, String> PATHS = Map.of(
+            "default", "/api",
+            "identity", "/api/identity",
+            "credentials", "/api/credentials/",
+            "did", "/");
+
+    private final Server server = new Server();
+    private final SinglePortConnectors connectors = new SinglePortConnectors("default", PATHS::get);
+    private ServerConnector shared;
+
+    @BeforeEach
+    void setUp() {
+        shared = connector("default", 8181);
+        connector("identity", 8182);
+        connector("credentials", 8183);
+        connector("did", 8184);
+    }
+
+    @Test
+    void route_shouldPickLongestPathPrefix_onSegmentBoundary() {
+        assertThat(connectors.route("/api/identity/v1alpha/participants")).isEqualTo("identity");
+        assertThat(connectors.route("/api/credentials")).isEqualTo("credentials");
+        assertThat(connectors.route("/api/check/health")).isEqualTo("default");
+        assertThat(connectors.route("/api/identityx")).isEqualTo("default");
+        assertThat(connectors.route("/participant/did.json")).isEqualTo("did");
+        assertThat(connectors.route("")).isEqualTo("did");
+    }
+
+    @Test
+    void configure_shouldKeepSharedPort_andMoveOthersToEphemeralLoopbackPort() {
+        assertThat(shared.getPort()).isEqualTo(8181);
+        assertThat(shared.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration().getCustomizers()).contains(connectors);
+        assertThat(server.getConnectors()).filteredOn(c -> c != shared)
+                .allSatisfy(c -> {
+                    assertThat(((ServerConnector) c).getPort()).isZero();
+                    assertThat(((ServerConnector) c).getHost()).isEqualTo("127.0.0.1");
+                });
+    }
+
+    @Test
+    void customize_shouldPresentRequestOnTargetConnector() {
+        var request = request("/api/identity/v1alpha/participants");
+
+        var customized = connectors.customize(request, null);
+
+        assertThat(customized.getConnectionMetaData().getConnector().getName()).isEqualTo("identity");
+    }
+
+    @Test
+    void customize_shouldReturnSameRequest_forSharedContext() {
+        var request = request("/api/check/health");
+
+        assertThat(connectors.customize(request, null)).isSameAs(request);
+    }
+
+    @Test
+    void closeOthers_shouldRemoveAllButSharedConnector() throws Exception {
+        var closed = connectors.closeOthers();
+
+        assertThat(closed).containsExactly("credentials", "did", "identity");
+        assertThat(server.getConnectors()).containsExactly(shared);
+    }
+
+    private ServerConnector connector(String name, int port) {
+        var connector = new ServerConnector(server);
+        connector.setName(name);
+        connector.setPort(port);
+        connectors.configure(connector);
+        server.addConnector(connector);
+        return connector;
+    }
+
+    private Request request(String path) {
+        var metaData = mock(ConnectionMetaData.class);
+        when(metaData.getConnector()).thenReturn(shared);
+        var request = mock(Request.class);
+        when(request.getHttpURI()).thenReturn(HttpURI.from("http://localhost:8181" + path));
+        when(request.getConnectionMetaData()).thenReturn(metaData);
+        return request;
+    }
+}
@@ -0,0 +1,113 @@
+package com.nttdata.dataspace.ih.trainingrun;
+
+import okhttp3.Request;
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.configuration.Config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exercises the started runtime with requests to its own APIs and then hands over to a final action: ending the process,
+ * so that a JVM started with {@code -XX:ArchiveClassesAtExit} writes a class-data sharing archive with the classes of
+ * boot and request handling, or taking a CRaC checkpoint of the warmed-up runtime.
+ */
+public class TrainingRun implements Runnable {
+
+    /**
+     * Sends one request and returns the HTTP status.
+     */
+    @FunctionalInterface
+    public interface RequestSender {
+        int send(String url) throws Exception;
+    }
+
+    private final List<String> urls;
+    private final int rounds;
+    private final RequestSender sender;
+    private final Runnable onFinished;
+    private final Monitor monitor;
+    private volatile int failures;
+
+    public TrainingRun(List<String> urls, int rounds, RequestSender sender, Runnable onFinished, Monitor monitor) {
+        this.urls = urls;
+        this.rounds = rounds;
+        this.sender = sender;
+        this.onFinished = onFinished;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void run() {
+        try {
+            int requests = 0;
+            for (int round = 0; round < rounds && !Thread.currentThread().isInterrupted(); round++) {
+                for (var url : urls) {
+                    try {
+                        var status = sender.send(url);
+                        if (status >= 500) {
+                            failures++;
+                        }
+                        if (round == 0) {
+                            monitor.info("Training request %s: HTTP %d".formatted(url, status));
+                        }
+                    } catch (Exception e) {
+                        // error paths load classes too, a failing endpoint does not end the run
+                        failures++;
+                        if (round == 0) {
+                            monitor.warning("Training request %s failed: %s".formatted(url, e.getMessage()));
+                        }
+                    }
+                    requests++;
+                }
+            }
+            monitor.info("Training run finished after %d requests, %d failed".formatted(requests, failures));
+        } finally {
+            onFinished.run();
+        }
+    }
+
+    /**
+     * The number of requests that could not be sent or were answered with a server error, e.g. because a backend of
+     * the runtime is not reachable.
+     */
+    public int failures() {
+        return failures;
+    }
+
+    /**
+     * Sends GET requests with the runtime HTTP client and reads the whole response.
+     */
+    public static RequestSender httpSender(EdcHttpClient httpClient) {
+        return url -> {
+            try (var response = httpClient.execute(new Request.Builder().url(url).get().build())) {
+                if (response.body() != null) {
+                    response.body().bytes();
+                }
+                return response.code();
+            }
+        };
+    }
+
+    /**
+     * The URLs configured with {@value TrainingRunExtension#URLS_SETTING}, by default the health and DID endpoints of
+     * this runtime, derived from the web configuration.
+     */
+    public static List<String> urls(Config config) {
+        var configured = config.getString(TrainingRunExtension.URLS_SETTING, "");
+        if (!configured.isBlank()) {
+            return Arrays.stream(configured.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        }
+        var apiPort = config.getString("web.http.port", "8181");
+        // in single-port mode (edc.web.single.port.enabled) the DID API is served on the default port
+        var didPort = config.getBoolean("edc.web.single.port.enabled", false) ? apiPort : config.getString("web.http.did.port", "8184");
+        var didBase = "http://localhost:%s%s".formatted(didPort, trimSlash(config.getString("web.http.did.path", "/")));
+        var apiBase = "http://localhost:%s%s".formatted(apiPort, trimSlash(config.getString("web.http.path", "/api")));
+        return List.of(apiBase + "/check/health", apiBase + "/check/readiness", didBase + "/training/did.json", didBase + "/.well-known/did.json");
+    }
+
+    private static String trimSlash(String path) {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
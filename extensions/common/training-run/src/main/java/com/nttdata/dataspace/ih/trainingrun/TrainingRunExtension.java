@@ -0,0 +1,102 @@
+package com.nttdata.dataspace.ih.trainingrun;
+
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Training mode used to build the AppCDS archive of the image (see Dockerfile and the {@code cdsArchive} Gradle task).
+ * <p>
+ * When enabled, the runtime sends requests to its own APIs once it has started and then exits. It exits with an error
+ * if requests failed, or after the timeout if the runtime did not finish starting, so that a build never ships an
+ * archive of a partial run. Never enable this in a deployment.
+ * </p>
+ */
+@Extension(value = TrainingRunExtension.NAME)
+public class TrainingRunExtension implements ServiceExtension {
+
+    public static final String NAME = "Training Run Extension";
+    public static final int DEFAULT_ROUNDS = 20;
+    public static final int DEFAULT_TIMEOUT_SECONDS = 120;
+
+    @Setting(description = "Exercise the APIs after start and exit, to train a class-data sharing archive", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.runtime.training.enabled";
+
+    @Setting(description = "Comma-separated URLs requested by the training run, defaults to the DID and default API of this runtime", defaultValue = "")
+    public static final String URLS_SETTING = "edc.runtime.training.urls";
+
+    @Setting(description = "Number of times every training URL is requested", defaultValue = "20")
+    public static final String ROUNDS_SETTING = "edc.runtime.training.rounds";
+
+    @Setting(description = "Seconds after which the training run exits even if the runtime did not finish starting", defaultValue = "120")
+    public static final String TIMEOUT_SETTING = "edc.runtime.training.timeout.seconds";
+
+    @Inject
+    private EdcHttpClient httpClient;
+
+    private Monitor monitor;
+    private boolean enabled;
+    private List<String> urls;
+    private int rounds;
+    private TrainingRun trainingRun;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("TrainingRun");
+        var config = context.getConfig();
+        enabled = config.getBoolean(ENABLED_SETTING, false);
+        if (!enabled) {
+            return;
+        }
+        urls = TrainingRun.urls(config);
+        rounds = config.getInteger(ROUNDS_SETTING, DEFAULT_ROUNDS);
+        int timeout = config.getInteger(TIMEOUT_SETTING, DEFAULT_TIMEOUT_SECONDS);
+
+        // boot may hang on unreachable backends during an image build, bound the whole run
+        var watchdog = new Thread(() -> {
+            try {
+                TimeUnit.SECONDS.sleep(timeout);
+                monitor.severe("Training run timed out after %d seconds, exiting".formatted(timeout));
+                System.exit(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "training-run-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+        monitor.warning("TRAINING RUN: the runtime exits after exercising %s".formatted(urls));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        trainingRun = new TrainingRun(urls, rounds, TrainingRun.httpSender(httpClient), this::exit, monitor);
+        var thread = new Thread(trainingRun, "training-run");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void exit() {
+        var failures = trainingRun.failures();
+        if (failures > 0) {
+            monitor.severe("Training run complete with %d failed requests, exiting".formatted(failures));
+            System.exit(1);
+        }
+        monitor.info("Training run complete, exiting");
+        System.exit(0);
+    }
+}
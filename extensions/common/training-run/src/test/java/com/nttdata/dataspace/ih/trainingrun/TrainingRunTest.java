@@ -0,0 +1,64 @@
+package com.nttdata.dataspace.ih.trainingrun;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingRunTest {
+
+    @Mock
+    private Monitor monitor;
+
+    @Test
+    void run_shouldRequestEveryUrlPerRound_andExit() {
+        var requested = new ArrayList<String>();
+        var exited = new AtomicBoolean();
+
+        var run = new TrainingRun(List.of("http://localhost/a", "http://localhost/b"), 3, url -> {
+            requested.add(url);
+            return url.endsWith("/a") ? 200 : 404;
+        }, () -> exited.set(true), monitor);
+        run.run();
+
+        assertThat(requested).hasSize(6).containsOnly("http://localhost/a", "http://localhost/b");
+        assertThat(exited).isTrue();
+        assertThat(run.failures()).isZero();
+    }
+
+    @Test
+    void run_shouldCountServerErrors() {
+        var run = new TrainingRun(List.of("http://localhost/a", "http://localhost/b"), 2,
+                url -> url.endsWith("/a") ? 200 : 503, () -> {
+                }, monitor);
+
+        run.run();
+
+        assertThat(run.failures()).isEqualTo(2);
+    }
+
+    @Test
+    void run_shouldContinueAndExit_whenRequestsFail() {
+        var attempts = new ArrayList<String>();
+        var exited = new AtomicBoolean();
+
+        var run = new TrainingRun(List.of("http://localhost/down"), 2, url -> {
+            attempts.add(url);
+            throw new IOException("connection refused");
+        }, () -> exited.set(true), monitor);
+        run.run();
+
+        assertThat(attempts).hasSize(2);
+        assertThat(exited).isTrue();
+        assertThat(run.failures()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,85 @@
+package com.nttdata.dataspace.ih.virtualthreads;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.web.jetty.JettyService;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.VirtualThreads.Configurable;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in virtual thread mode for the web server.
+ * <p>
+ * When enabled and running on JDK 21 or later, the thread pool shared by all Jetty connectors (default, identity,
+ * credentials and DID API) hands request handling over to virtual threads, so blocking Vault, database and remote
+ * calls no longer limit concurrency to the size of the pool. The outbound HTTP client reads the same setting, see
+ * {@code HttpClientExtension}.
+ * </p>
+ */
+@Extension(value = VirtualThreadExtension.NAME)
+public class VirtualThreadExtension implements ServiceExtension {
+
+    public static final String NAME = "Virtual Thread Extension";
+
+    @Setting(description = "Run web request handlers and outbound HTTP calls on virtual threads (requires JDK 21+)", defaultValue = "false")
+    public static final String ENABLED_SETTING = VirtualThreads.ENABLED_SETTING;
+
+    @Inject
+    private JettyService jettyService;
+
+    private Monitor monitor;
+    private ExecutorService executor;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("VirtualThreads");
+
+        if (!context.getConfig().getBoolean(ENABLED_SETTING, false)) {
+            return;
+        }
+        if (!VirtualThreads.isSupported()) {
+            monitor.warning("Virtual threads requested but not supported by Java %s, keeping platform threads. Run on JDK 21 or later."
+                    .formatted(Runtime.version().feature()));
+            return;
+        }
+
+        executor = VirtualThreads.newVirtualThreadPerTaskExecutor("jetty-vt-").orElse(null);
+        if (executor == null) {
+            monitor.warning("Could not create virtual thread executor, keeping platform threads.");
+            return;
+        }
+        jettyService.addConnectorConfigurationCallback(this::configure);
+        monitor.info("Web request handlers will run on virtual threads.");
+    }
+
+    @Override
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * All connectors share the server's thread pool, so configuring it once per connector is idempotent.
+     */
+    void configure(ServerConnector connector) {
+        var threadPool = connector.getServer().getThreadPool();
+        if (threadPool instanceof Configurable configurable) {
+            if (configurable.getVirtualThreadsExecutor() == null) {
+                configurable.setVirtualThreadsExecutor(executor);
+            }
+        } else {
+            monitor.warning("Thread pool %s does not support virtual threads".formatted(threadPool.getClass().getSimpleName()));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.nttdata.dataspace.ih.virtualthreads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads for code that is compiled for Java 17.
+ * <p>
+ * The runtime is built with {@code --release 17}, so the JDK 21 APIs ({@code Thread.ofVirtual()},
+ * {@code Executors.newThreadPerTaskExecutor}) are looked up reflectively. On older JVMs the methods simply report that
+ * virtual threads are not available and callers keep using their platform thread pools.
+ * </p>
+ */
+public class VirtualThreads {
+
+    public static final String ENABLED_SETTING = "edc.runtime.virtual.threads.enabled";
+
+    private static final int MIN_FEATURE_VERSION = 21;
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= MIN_FEATURE_VERSION;
+    }
+
+    /**
+     * Creates a thread factory for virtual threads named {@code prefix0}, {@code prefix1}, ...
+     * @param prefix prefix of the thread names
+     * @return the factory, or empty if virtual threads are not supported
+     */
+    public static Optional<ThreadFactory> newThreadFactory(String prefix) {
+        if (!isSupported()) {
+            return Optional.empty();
+        }
+        try {
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            var builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task.
+     * @param prefix prefix of the thread names
+     * @return the executor, or empty if virtual threads are not supported
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor(String prefix) {
+        return newThreadFactory(prefix).map(factory -> {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Whether the given thread is a virtual thread. Always false on JVMs without virtual threads.
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (!isSupported()) {
+            return false;
+        }
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.nttdata.dataspace.ih.virtualthreads;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.configuration.Config;
+import org.eclipse.edc.web.jetty.JettyService;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VirtualThreadExtensionTest {
+
+    @Mock
+    private ServiceExtensionContext context;
+
+    @Mock
+    private Monitor monitor;
+
+    @Mock
+    private Config config;
+
+    @Mock
+    private JettyService jettyService;
+
+    @InjectMocks
+    private VirtualThreadExtension extension;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(context.getMonitor()).thenReturn(monitor);
+        lenient().when(monitor.withPrefix(anyString())).thenReturn(monitor);
+        lenient().when(context.getConfig()).thenReturn(config);
+    }
+
+    @Test
+    void initializeShouldNotTouchJetty_whenDisabled() {
+        when(config.getBoolean(VirtualThreadExtension.ENABLED_SETTING, false)).thenReturn(false);
+
+        extension.initialize(context);
+
+        verify(jettyService, never()).addConnectorConfigurationCallback(any());
+    }
+
+    @Test
+    void initializeShouldWarn_whenJvmHasNoVirtualThreads() {
+        assumeFalse(VirtualThreads.isSupported());
+        when(config.getBoolean(VirtualThreadExtension.ENABLED_SETTING, false)).thenReturn(true);
+
+        extension.initialize(context);
+
+        verify(monitor).warning(anyString());
+        verify(jettyService, never()).addConnectorConfigurationCallback(any());
+    }
+
+    @Test
+    void configureShouldInstallVirtualThreadExecutor_onJdk21() throws ExecutionException, InterruptedException {
+        assumeTrue(VirtualThreads.isSupported());
+        when(config.getBoolean(VirtualThreadExtension.ENABLED_SETTING, false)).thenReturn(true);
+        var threadPool = new QueuedThreadPool();
+        var connector = new ServerConnector(new Server(threadPool));
+
+        extension.initialize(context);
+        extension.configure(connector);
+
+        verify(jettyService).addConnectorConfigurationCallback(any());
+        assertThat(threadPool.getVirtualThreadsExecutor()).isNotNull();
+        var isVirtual = new CompletableFuture<Boolean>();
+        threadPool.getVirtualThreadsExecutor().execute(() -> isVirtual.complete(VirtualThreads.isVirtual(Thread.currentThread())));
+        assertThat(isVirtual.get()).isTrue();
+    }
+
+    @Test
+    void newVirtualThreadPerTaskExecutorShouldMatchJvmSupport() {
+        assertThat(VirtualThreads.newVirtualThreadPerTaskExecutor("test-").isPresent()).isEqualTo(VirtualThreads.isSupported());
+    }
+}
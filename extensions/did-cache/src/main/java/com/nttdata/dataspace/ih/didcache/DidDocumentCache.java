@@ -0,0 +1,134 @@
+package com.nttdata.dataspace.ih.didcache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized DID documents keyed by the URL they are served under, with a strong ETag per document.
+ * <p>
+ * Entries are dropped when the document, the keys or the participant change, and expire after the TTL as a bound for
+ * changes made through another runtime. A generation counter makes sure a document read before an invalidation is not
+ * stored after it.
+ * </p>
+ */
+public class DidDocumentCache {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, Entry> entries;
+
+    public DidDocumentCache(Duration ttl, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > DidDocumentCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the current generation, to be passed to {@link #put} for a document read afterwards.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public Entry get(String url) {
+        synchronized (entries) {
+            var entry = entries.get(url);
+            if (entry != null && !clock.instant().isBefore(entry.expiresAt())) {
+                entries.remove(url);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Stores a serialized document unless the cache was invalidated since {@code readGeneration}.
+     * @return the entry holding the document and its ETag
+     */
+    public Entry put(String url, String did, byte[] document, long readGeneration) {
+        var entry = new Entry(did, document, etag(document), clock.instant().plus(ttl));
+        synchronized (entries) {
+            if (generation.get() == readGeneration) {
+                entries.put(url, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Drops the document of a DID from all the URLs it is cached under.
+     */
+    public void invalidate(String did) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.values().removeIf(entry -> entry.did().equals(did));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    static String etag(byte[] document) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(document);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Entry(String did, byte[] document, String etag, Instant expiresAt) {
+
+        /**
+         * Evaluates an {@code If-None-Match} header with the weak comparison RFC 9110 prescribes for it.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (var tag : ifNoneMatch.split(",")) {
+                var candidate = tag.trim();
+                if (candidate.equals("*")) {
+                    return true;
+                }
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry[did=%s, etag=%s, size=%d]".formatted(did, etag, document.length);
+        }
+    }
+}
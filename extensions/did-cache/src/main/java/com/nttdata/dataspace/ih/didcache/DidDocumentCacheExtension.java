@@ -0,0 +1,120 @@
+package com.nttdata.dataspace.ih.didcache;
+
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentEvent;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairEvent;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Serves the DID documents of the DID API ({@code web.http.did}) as pre-serialized bytes with strong ETags.
+ * <p>
+ * A document is serialized on the first request after it changed. Document events (published, unpublished, updated,
+ * deleted) drop that DID; key pair and participant context events drop the documents of that participant, since key
+ * rotation and participant changes rewrite their verification methods and services. With a {@link ResourceChangeFeed}, the same changes
+ * made by other replicas are applied too, so the TTL only bounds changes that bypass the Identity Hub.
+ * </p>
+ */
+@Extension(value = DidDocumentCacheExtension.NAME)
+public class DidDocumentCacheExtension implements ServiceExtension {
+
+    public static final String NAME = "DID Document Cache Extension";
+    public static final int DEFAULT_TTL_SECONDS = 300;
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final int DEFAULT_MAX_AGE_SECONDS = 0;
+
+    @Setting(description = "Serve DID documents from a cache of serialized documents with ETags", defaultValue = "true")
+    public static final String ENABLED_SETTING = "edc.ih.did.cache.enabled";
+
+    @Setting(description = "Time in seconds a serialized DID document is served before it is read again, bounds changes made by other replicas", defaultValue = "300")
+    public static final String TTL_SETTING = "edc.ih.did.cache.ttl.seconds";
+
+    @Setting(description = "Maximum number of cached DID documents", defaultValue = "10000")
+    public static final String MAX_ENTRIES_SETTING = "edc.ih.did.cache.max.entries";
+
+    @Setting(description = "max-age in seconds of the Cache-Control header of DID documents, 0 sends no-cache so clients revalidate with the ETag", defaultValue = "0")
+    public static final String MAX_AGE_SETTING = "edc.ih.did.cache.max.age.seconds";
+
+    private static final String DID_CONTEXT = "did";
+
+    @Inject
+    private WebService webService;
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject
+    private TypeManager typeManager;
+
+    @Inject
+    private DidResourceStore didResourceStore;
+
+    @Inject(required = false)
+    private ResourceChangeFeed changeFeed;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("DidDocumentCache");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, true)) {
+            monitor.info("DID document cache DISABLED");
+            return;
+        }
+
+        var ttl = Duration.ofSeconds(config.getInteger(TTL_SETTING, DEFAULT_TTL_SECONDS));
+        int maxEntries = config.getInteger(MAX_ENTRIES_SETTING, DEFAULT_MAX_ENTRIES);
+        int maxAge = config.getInteger(MAX_AGE_SETTING, DEFAULT_MAX_AGE_SECONDS);
+        var cache = new DidDocumentCache(ttl, maxEntries, Clock.systemUTC());
+
+        webService.registerResource(DID_CONTEXT, new DidDocumentCacheFilter(cache, typeManager.getMapper(), maxAge, monitor));
+        var invalidator = new DidDocumentCacheInvalidator(cache, didResourceStore, monitor);
+        eventRouter.registerSync(DidDocumentEvent.class, new EventSubscriber() {
+            @Override
+            public <E extends Event> void on(EventEnvelope<E> event) {
+                if (event.getPayload() instanceof DidDocumentEvent didEvent) {
+                    invalidator.didChanged(didEvent.getDid());
+                }
+            }
+        });
+        eventRouter.registerSync(KeyPairEvent.class, new EventSubscriber() {
+            @Override
+            public <E extends Event> void on(EventEnvelope<E> event) {
+                if (event.getPayload() instanceof KeyPairEvent keyPairEvent) {
+                    invalidator.participantChanged(keyPairEvent.getParticipantContextId());
+                }
+            }
+        });
+        eventRouter.registerSync(ParticipantContextEvent.class, new EventSubscriber() {
+            @Override
+            public <E extends Event> void on(EventEnvelope<E> event) {
+                if (event.getPayload() instanceof ParticipantContextEvent participantEvent) {
+                    invalidator.participantChanged(participantEvent.getParticipantContextId());
+                }
+            }
+        });
+        if (changeFeed != null) {
+            changeFeed.subscribe(invalidator::changed);
+        }
+
+        monitor.info("DID document cache ENABLED (ttl %s, max %d entries)".formatted(ttl, maxEntries));
+    }
+}
@@ -0,0 +1,97 @@
+package com.nttdata.dataspace.ih.didcache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+/**
+ * Serves DID documents on the DID API from {@link DidDocumentCache}.
+ * <p>
+ * A cache miss goes to the Identity Hub DID controller as usual; the document it returns is serialized here once,
+ * stored and sent with a strong ETag. Later requests for the same URL are answered with the stored bytes before the
+ * controller runs, or with {@code 304 Not Modified} if the client already holds the current version.
+ * </p>
+ */
+public class DidDocumentCacheFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String GENERATION_PROPERTY = DidDocumentCacheFilter.class.getName() + ".generation";
+
+    private final DidDocumentCache cache;
+    private final ObjectMapper mapper;
+    private final String cacheControl;
+    private final Monitor monitor;
+
+    /**
+     * @param maxAgeSeconds max-age sent to clients and shared caches; 0 makes them revalidate every time
+     */
+    public DidDocumentCacheFilter(DidDocumentCache cache, ObjectMapper mapper, int maxAgeSeconds, Monitor monitor) {
+        this.cache = cache;
+        this.mapper = mapper;
+        this.cacheControl = maxAgeSeconds > 0 ? "public, max-age=" + maxAgeSeconds : "no-cache";
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!HttpMethod.GET.equals(requestContext.getMethod())) {
+            return;
+        }
+        var url = url(requestContext);
+        var entry = cache.get(url);
+        if (entry == null) {
+            requestContext.setProperty(GENERATION_PROPERTY, cache.generation());
+            return;
+        }
+        if (entry.matches(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH))) {
+            requestContext.abortWith(Response.notModified()
+                    .header(HttpHeaders.ETAG, entry.etag())
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build());
+            return;
+        }
+        requestContext.abortWith(Response.ok(entry.document(), MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.ETAG, entry.etag())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .build());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (!(requestContext.getProperty(GENERATION_PROPERTY) instanceof Long generation)
+                || responseContext.getStatus() != Response.Status.OK.getStatusCode()
+                || !(responseContext.getEntity() instanceof DidDocument document)) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = mapper.writeValueAsBytes(document);
+        } catch (JsonProcessingException e) {
+            monitor.warning("Failed to serialize DID document %s, serving it uncached".formatted(document.getId()), e);
+            return;
+        }
+        var entry = cache.put(url(requestContext), document.getId(), bytes, generation);
+
+        responseContext.getHeaders().putSingle(HttpHeaders.ETAG, entry.etag());
+        responseContext.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (entry.matches(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH))) {
+            responseContext.setStatus(Response.Status.NOT_MODIFIED.getStatusCode());
+            responseContext.setEntity(null);
+        } else {
+            responseContext.setEntity(bytes, null, MediaType.APPLICATION_JSON_TYPE);
+        }
+    }
+
+    private static String url(ContainerRequestContext requestContext) {
+        // the DID is derived from host, port and path, so the query does not select a different document
+        return requestContext.getUriInfo().getAbsolutePath().toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.nttdata.dataspace.ih.didcache;
+
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+
+/**
+ * Translates changes to DID documents, key pairs and participant contexts into invalidations of the
+ * {@link DidDocumentCache}.
+ * <p>
+ * Key pair and participant changes rewrite the verification methods and services of the documents of that participant
+ * only, so just its DIDs are dropped. They are looked up in the {@link DidResourceStore}; if that fails, the whole
+ * cache is dropped rather than risking a stale document. The DIDs of a deleted participant are removed with their own
+ * document events. Changes of other replicas, received from the {@link ResourceChangeFeed}, are handled the same way.
+ * </p>
+ */
+class DidDocumentCacheInvalidator {
+
+    private static final String PARTICIPANT_PROPERTY = "participantContextId";
+
+    private final DidDocumentCache cache;
+    private final DidResourceStore didResourceStore;
+    private final Monitor monitor;
+
+    DidDocumentCacheInvalidator(DidDocumentCache cache, DidResourceStore didResourceStore, Monitor monitor) {
+        this.cache = cache;
+        this.didResourceStore = didResourceStore;
+        this.monitor = monitor;
+    }
+
+    void changed(ResourceChange change) {
+        switch (change.type()) {
+            case DID_DOCUMENT -> didChanged(change.resourceId());
+            case KEY_PAIR, PARTICIPANT_CONTEXT -> participantChanged(change.participantContextId());
+            case CREDENTIALS -> {
+                // credentials are not part of DID documents
+            }
+        }
+    }
+
+    void didChanged(String did) {
+        cache.invalidate(did);
+    }
+
+    void participantChanged(String participantContextId) {
+        if (participantContextId == null) {
+            cache.invalidateAll();
+            return;
+        }
+        var query = QuerySpec.Builder.newInstance()
+                .filter(new Criterion(PARTICIPANT_PROPERTY, "=", participantContextId))
+                .build();
+        try {
+            didResourceStore.query(query).stream()
+                    .map(DidResource::getDid)
+                    .forEach(cache::invalidate);
+        } catch (RuntimeException e) {
+            monitor.warning("Could not look up the DIDs of participant %s, dropping all cached DID documents".formatted(participantContextId), e);
+            cache.invalidateAll();
+        }
+    }
+}
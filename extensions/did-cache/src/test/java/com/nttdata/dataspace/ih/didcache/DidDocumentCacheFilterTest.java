@@ -0,0 +1,172 @@
+package com.nttdata.dataspace.ih.didcache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DidDocumentCacheFilterTest {
+
+    private static final String URL = "https://example.com/participant/did.json";
+    private static final String DID = "did:web:example.com:participant";
+
+    @Mock
+    private Monitor monitor;
+
+    private final DidDocumentCache cache = new DidDocumentCache(Duration.ofSeconds(60), 100, Clock.systemUTC());
+    private DidDocumentCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DidDocumentCacheFilter(cache, new ObjectMapper(), 0, monitor);
+    }
+
+    @Test
+    void filter_shouldCacheDocument_onMiss() {
+        var request = request(null);
+        var response = response(Response.Status.OK, document());
+
+        filter.filter(request);
+        filter.filter(request, response.context);
+
+        var entry = cache.get(URL);
+        assertThat(entry).isNotNull();
+        assertThat(entry.did()).isEqualTo(DID);
+        assertThat(response.headers.getFirst(HttpHeaders.ETAG)).isEqualTo(entry.etag());
+        assertThat(response.headers.getFirst(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        verify(response.context).setEntity(eq(entry.document()), isNull(), eq(MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    @Test
+    void filter_shouldServeCachedBytes_onHit() {
+        var entry = cache.put(URL, DID, "{\"id\":\"%s\"}".formatted(DID).getBytes(), cache.generation());
+        var request = request(null);
+
+        filter.filter(request);
+
+        var response = aborted(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getEntity()).isSameAs(entry.document());
+        assertThat(response.getHeaderString(HttpHeaders.ETAG)).isEqualTo(entry.etag());
+    }
+
+    @Test
+    void filter_shouldAnswerNotModified_whenIfNoneMatchHitsCachedEtag() {
+        var entry = cache.put(URL, DID, "{}".getBytes(), cache.generation());
+        var request = request(entry.etag());
+
+        filter.filter(request);
+
+        var response = aborted(request);
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.hasEntity()).isFalse();
+        assertThat(response.getHeaderString(HttpHeaders.ETAG)).isEqualTo(entry.etag());
+    }
+
+    @Test
+    void filter_shouldAnswerNotModified_whenIfNoneMatchHitsFreshDocument() throws Exception {
+        var etag = DidDocumentCache.etag(new ObjectMapper().writeValueAsBytes(document()));
+        var request = request(etag);
+        var response = response(Response.Status.OK, document());
+
+        filter.filter(request);
+        filter.filter(request, response.context);
+
+        verify(response.context).setStatus(304);
+        verify(response.context).setEntity(null);
+    }
+
+    @Test
+    void filter_shouldNotCache_documentReadBeforeInvalidation() {
+        var request = request(null);
+        var response = response(Response.Status.OK, document());
+
+        filter.filter(request);
+        // the document changes while the controller is still serializing the old version
+        cache.invalidate(DID);
+        filter.filter(request, response.context);
+
+        assertThat(cache.get(URL)).isNull();
+        assertThat(response.headers.getFirst(HttpHeaders.ETAG)).isNotNull();
+    }
+
+    @Test
+    void filter_shouldIgnore_nonGetRequests_andErrors() {
+        var post = request(null);
+        when(post.getMethod()).thenReturn(HttpMethod.POST);
+        filter.filter(post);
+        verify(post, never()).abortWith(any());
+
+        var request = request(null);
+        filter.filter(request);
+        filter.filter(request, response(Response.Status.NOT_FOUND, null).context);
+        assertThat(cache.size()).isZero();
+    }
+
+    private ContainerRequestContext request(String ifNoneMatch) {
+        var request = mock(ContainerRequestContext.class);
+        var uriInfo = mock(UriInfo.class);
+        Map<String, Object> properties = new HashMap<>();
+        lenient().when(uriInfo.getAbsolutePath()).thenReturn(URI.create(URL));
+        lenient().when(request.getUriInfo()).thenReturn(uriInfo);
+        lenient().when(request.getMethod()).thenReturn(HttpMethod.GET);
+        lenient().when(request.getHeaderString(HttpHeaders.IF_NONE_MATCH)).thenReturn(ifNoneMatch);
+        lenient().doAnswer(i -> properties.put(i.getArgument(0), i.getArgument(1))).when(request).setProperty(anyString(), any());
+        lenient().when(request.getProperty(anyString())).thenAnswer(i -> properties.get(i.<String>getArgument(0)));
+        return request;
+    }
+
+    private static TestResponse response(Response.Status status, Object entity) {
+        var context = mock(ContainerResponseContext.class);
+        var headers = new MultivaluedHashMap<String, Object>();
+        lenient().when(context.getStatus()).thenReturn(status.getStatusCode());
+        lenient().when(context.getEntity()).thenReturn(entity);
+        lenient().when(context.getHeaders()).thenReturn(headers);
+        return new TestResponse(context, headers);
+    }
+
+    private static Response aborted(ContainerRequestContext request) {
+        var response = ArgumentCaptor.forClass(Response.class);
+        verify(request).abortWith(response.capture());
+        return response.getValue();
+    }
+
+    private static DidDocument document() {
+        return DidDocument.Builder.newInstance().id(DID).build();
+    }
+
+    private record TestResponse(ContainerResponseContext context, MultivaluedMap<String, Object> headers) {
+    }
+}
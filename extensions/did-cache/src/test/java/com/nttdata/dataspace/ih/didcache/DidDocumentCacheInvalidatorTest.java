@@ -0,0 +1,96 @@
+package com.nttdata.dataspace.ih.didcache;
+
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DidDocumentCacheInvalidatorTest {
+
+    @Mock
+    private DidResourceStore didResourceStore;
+
+    @Mock
+    private Monitor monitor;
+
+    private final DidDocumentCache cache = new DidDocumentCache(Duration.ofSeconds(60), 100, Clock.systemUTC());
+
+    @Test
+    void participantChanged_shouldDropOnlyDocumentsOfParticipant() {
+        cache.put("https://example.com/p1/did.json", "did:web:example.com:p1", new byte[0], cache.generation());
+        cache.put("https://example.com/p2/did.json", "did:web:example.com:p2", new byte[0], cache.generation());
+        when(didResourceStore.query(any())).thenReturn(List.of(didResource("did:web:example.com:p1")));
+
+        invalidator().participantChanged("p1");
+
+        assertThat(cache.get("https://example.com/p1/did.json")).isNull();
+        assertThat(cache.get("https://example.com/p2/did.json")).isNotNull();
+        var query = ArgumentCaptor.forClass(QuerySpec.class);
+        verify(didResourceStore).query(query.capture());
+        assertThat(query.getValue().getFilterExpression()).containsExactly(new Criterion("participantContextId", "=", "p1"));
+    }
+
+    @Test
+    void participantChanged_shouldDropAll_whenLookupFails() {
+        cache.put("https://example.com/p2/did.json", "did:web:example.com:p2", new byte[0], cache.generation());
+        when(didResourceStore.query(any())).thenThrow(new IllegalStateException("database down"));
+
+        invalidator().participantChanged("p1");
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void didChanged_shouldDropDocument() {
+        cache.put("https://example.com/p1/did.json", "did:web:example.com:p1", new byte[0], cache.generation());
+
+        invalidator().didChanged("did:web:example.com:p1");
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void changed_shouldDropOnlyAffectedDocuments_ofOtherReplicaChanges() {
+        cache.put("https://example.com/p1/did.json", "did:web:example.com:p1", new byte[0], cache.generation());
+        cache.put("https://example.com/p2/did.json", "did:web:example.com:p2", new byte[0], cache.generation());
+        cache.put("https://example.com/p3/did.json", "did:web:example.com:p3", new byte[0], cache.generation());
+        when(didResourceStore.query(any())).thenReturn(List.of(didResource("did:web:example.com:p2")));
+        var invalidator = invalidator();
+
+        invalidator.changed(ResourceChange.didDocument("p1", "did:web:example.com:p1"));
+        invalidator.changed(ResourceChange.keyPair("p2", "key-1"));
+        invalidator.changed(ResourceChange.credentials("p3"));
+
+        assertThat(cache.get("https://example.com/p1/did.json")).isNull();
+        assertThat(cache.get("https://example.com/p2/did.json")).isNull();
+        assertThat(cache.get("https://example.com/p3/did.json")).isNotNull();
+    }
+
+    private DidDocumentCacheInvalidator invalidator() {
+        return new DidDocumentCacheInvalidator(cache, didResourceStore, monitor);
+    }
+
+    private static DidResource didResource(String did) {
+        var resource = mock(DidResource.class);
+        when(resource.getDid()).thenReturn(did);
+        return resource;
+    }
+}
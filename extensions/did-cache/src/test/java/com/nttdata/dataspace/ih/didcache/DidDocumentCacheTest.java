@@ -0,0 +1,104 @@
+package com.nttdata.dataspace.ih.didcache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DidDocumentCacheTest {
+
+    private static final String URL = "https://example.com/participant/did.json";
+    private static final String DID = "did:web:example.com:participant";
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private Clock clock;
+
+    private DidDocumentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.instant()).thenReturn(NOW);
+        cache = new DidDocumentCache(Duration.ofSeconds(60), 2, clock);
+    }
+
+    @Test
+    void put_shouldStoreDocument_withStrongEtag() {
+        cache.put(URL, DID, bytes("{\"id\":\"did:web:example.com:participant\"}"), cache.generation());
+
+        var entry = cache.get(URL);
+        assertThat(entry).isNotNull();
+        assertThat(entry.etag()).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+        assertThat(entry.etag()).isEqualTo(DidDocumentCache.etag(bytes("{\"id\":\"did:web:example.com:participant\"}")));
+        assertThat(entry.etag()).isNotEqualTo(DidDocumentCache.etag(bytes("{\"id\":\"did:web:other\"}")));
+    }
+
+    @Test
+    void matches_shouldEvaluateIfNoneMatch() {
+        var entry = cache.put(URL, DID, bytes("{}"), cache.generation());
+
+        assertThat(entry.matches(entry.etag())).isTrue();
+        assertThat(entry.matches("\"other\", " + entry.etag())).isTrue();
+        assertThat(entry.matches("W/" + entry.etag())).isTrue();
+        assertThat(entry.matches("*")).isTrue();
+        assertThat(entry.matches("\"other\"")).isFalse();
+        assertThat(entry.matches(null)).isFalse();
+    }
+
+    @Test
+    void invalidate_shouldDropAllUrlsOfDid() {
+        cache.put(URL, DID, bytes("{}"), cache.generation());
+        cache.put("https://example.com/participant/.well-known/did.json", DID, bytes("{}"), cache.generation());
+
+        cache.invalidate(DID);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldNotStore_whenInvalidatedWhileReading() {
+        var generation = cache.generation();
+        cache.invalidate(DID);
+
+        cache.put(URL, DID, bytes("{}"), generation);
+
+        assertThat(cache.get(URL)).isNull();
+    }
+
+    @Test
+    void get_shouldExpireEntries_afterTtl() {
+        cache.put(URL, DID, bytes("{}"), cache.generation());
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+
+        assertThat(cache.get(URL)).isNull();
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsed_whenFull() {
+        cache.put("a", "did:web:a", bytes("{}"), cache.generation());
+        cache.put("b", "did:web:b", bytes("{}"), cache.generation());
+        cache.get("a");
+
+        cache.put("c", "did:web:c", bytes("{}"), cache.generation());
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
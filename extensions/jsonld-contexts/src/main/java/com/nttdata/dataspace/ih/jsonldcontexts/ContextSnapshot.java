@@ -0,0 +1,103 @@
+package com.nttdata.dataspace.ih.jsonldcontexts;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Directory of JSON-LD context documents with an index mapping each context URL to its file.
+ * <p>
+ * The index ({@value #INDEX_FILE}) is a JSON object of {@code "<context URL>": "<file name>"}, so operators can
+ * provide contexts by mounting a directory, and contexts fetched by the preload are written next to them. Files are
+ * written to a temporary file first and moved into place, so a runtime never reads a half-written snapshot.
+ * </p>
+ */
+public class ContextSnapshot {
+
+    public static final String INDEX_FILE = "contexts.json";
+
+    private static final TypeReference<LinkedHashMap<String, String>> INDEX_TYPE = new TypeReference<>() {
+    };
+
+    private final Path directory;
+    private final ObjectMapper mapper;
+
+    public ContextSnapshot(Path directory, ObjectMapper mapper) {
+        this.directory = directory;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Reads the index. File names are resolved against the snapshot directory.
+     * @return the context URLs and their files, empty if there is no index
+     */
+    public Map<String, Path> load() throws IOException {
+        var index = directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(index)) {
+            return Map.of();
+        }
+        var contexts = new LinkedHashMap<String, Path>();
+        mapper.readValue(index.toFile(), INDEX_TYPE).forEach((url, file) -> contexts.put(url, directory.resolve(file).normalize()));
+        return contexts;
+    }
+
+    /**
+     * Writes a context document and adds it to the index.
+     * @return the file holding the document
+     */
+    public synchronized Path store(String url, byte[] document) throws IOException {
+        Files.createDirectories(directory);
+        var file = directory.resolve(fileName(url));
+        write(file, document);
+
+        var index = new LinkedHashMap<String, String>();
+        load().forEach((contextUrl, path) -> index.put(contextUrl, directory.relativize(path).toString()));
+        index.put(url, file.getFileName().toString());
+        write(directory.resolve(INDEX_FILE), mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(index));
+        return file;
+    }
+
+    /**
+     * Checks that the bytes are a JSON-LD context document, i.e. a JSON object with an {@code @context} member.
+     * @throws IllegalArgumentException if they are not
+     */
+    public void validate(String url, byte[] document) {
+        try {
+            var node = mapper.readTree(document);
+            if (node == null || !node.isObject() || !node.has("@context")) {
+                throw new IllegalArgumentException("%s is not a JSON-LD context document".formatted(url));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("%s is not valid JSON: %s".formatted(url, e.getMessage()), e);
+        }
+    }
+
+    private void write(Path target, byte[] content) throws IOException {
+        var temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static String fileName(String url) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16) + ".jsonld";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
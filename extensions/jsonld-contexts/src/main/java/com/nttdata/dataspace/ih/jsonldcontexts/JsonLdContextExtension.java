@@ -0,0 +1,127 @@
+package com.nttdata.dataspace.ih.jsonldcontexts;
+
+import okhttp3.Request;
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.jsonld.spi.JsonLd;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves JSON-LD contexts from local files instead of the network.
+ * <p>
+ * The contexts of the W3C credentials, ODRL, DCP and EDC vocabularies are bundled with the EDC and Identity Hub
+ * modules. Further contexts are read from a snapshot directory, which operators can provide (e.g. mounted from a
+ * ConfigMap), and contexts listed for preloading are fetched once into that directory when they are missing. Every
+ * document is parsed at startup, so a broken context fails here rather than on the first credential, and is then
+ * registered as a cached document of the {@link JsonLd} service.
+ * </p>
+ */
+@Extension(value = JsonLdContextExtension.NAME)
+public class JsonLdContextExtension implements ServiceExtension {
+
+    public static final String NAME = "JSON-LD Context Cache Extension";
+    public static final String DEFAULT_DIRECTORY = "jsonld-contexts";
+
+    @Setting(description = "Directory with the JSON-LD context snapshot: context files and a contexts.json index of context URL to file name", defaultValue = DEFAULT_DIRECTORY)
+    public static final String DIRECTORY_SETTING = "edc.ih.jsonld.contexts.dir";
+
+    @Setting(description = "Comma-separated context URLs fetched into the snapshot directory at startup when they are not in it yet", defaultValue = "")
+    public static final String PRELOAD_URLS_SETTING = "edc.ih.jsonld.preload.urls";
+
+    // owned by the EDC json-ld extension, read here to warn about remote fetches
+    private static final String HTTPS_ENABLED_SETTING = "edc.jsonld.https.enabled";
+
+    @Inject
+    private JsonLd jsonLd;
+
+    @Inject
+    private EdcHttpClient httpClient;
+
+    @Inject
+    private TypeManager typeManager;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("JsonLdContexts");
+        var config = context.getConfig();
+        var snapshot = new ContextSnapshot(Path.of(config.getString(DIRECTORY_SETTING, DEFAULT_DIRECTORY)), typeManager.getMapper());
+
+        Map<String, Path> contexts;
+        try {
+            contexts = new LinkedHashMap<>(snapshot.load());
+        } catch (IOException e) {
+            monitor.severe("Failed to read the JSON-LD context index, no snapshot contexts are registered", e);
+            contexts = new LinkedHashMap<>();
+        }
+        preload(snapshot, contexts, config.getString(PRELOAD_URLS_SETTING, ""), monitor);
+
+        int registered = 0;
+        for (var entry : contexts.entrySet()) {
+            if (register(snapshot, entry.getKey(), entry.getValue(), monitor)) {
+                registered++;
+            }
+        }
+        monitor.info("Registered %d JSON-LD contexts from the local snapshot".formatted(registered));
+        if (config.getBoolean(HTTPS_ENABLED_SETTING, false)) {
+            monitor.warning("%s=true: contexts that are neither bundled nor in the snapshot are fetched remotely".formatted(HTTPS_ENABLED_SETTING));
+        }
+    }
+
+    private void preload(ContextSnapshot snapshot, Map<String, Path> contexts, String urls, Monitor monitor) {
+        Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty() && !contexts.containsKey(url))
+                .forEach(url -> {
+                    try {
+                        var document = fetch(url);
+                        snapshot.validate(url, document);
+                        contexts.put(url, snapshot.store(url, document));
+                        monitor.info("Preloaded JSON-LD context %s".formatted(url));
+                    } catch (IOException | IllegalArgumentException e) {
+                        monitor.warning("Failed to preload JSON-LD context %s".formatted(url), e);
+                    }
+                });
+    }
+
+    private byte[] fetch(String url) throws IOException {
+        var request = new Request.Builder()
+                .url(url)
+                .header("Accept", "application/ld+json, application/json")
+                .get()
+                .build();
+        try (var response = httpClient.execute(request)) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("HTTP %d".formatted(response.code()));
+            }
+            return response.body().bytes();
+        }
+    }
+
+    private boolean register(ContextSnapshot snapshot, String url, Path file, Monitor monitor) {
+        try {
+            snapshot.validate(url, Files.readAllBytes(file));
+        } catch (IOException | IllegalArgumentException e) {
+            monitor.warning("Skipping JSON-LD context %s from %s".formatted(url, file), e);
+            return false;
+        }
+        jsonLd.registerCachedDocument(url, file.toUri());
+        return true;
+    }
+}
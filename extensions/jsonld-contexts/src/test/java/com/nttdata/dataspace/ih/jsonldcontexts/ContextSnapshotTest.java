@@ -0,0 +1,66 @@
+package com.nttdata.dataspace.ih.jsonldcontexts;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContextSnapshotTest {
+
+    private static final String URL = "https://w3id.org/example/v1";
+    private static final byte[] CONTEXT = "{\"@context\":{\"ex\":\"https://example.com/ns#\"}}".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void load_shouldReturnEmpty_withoutIndex() throws IOException {
+        assertThat(new ContextSnapshot(directory.resolve("missing"), mapper).load()).isEmpty();
+    }
+
+    @Test
+    void store_shouldWriteDocumentAndIndex() throws IOException {
+        var snapshot = new ContextSnapshot(directory, mapper);
+
+        var file = snapshot.store(URL, CONTEXT);
+        snapshot.store("https://w3id.org/example/v2", CONTEXT);
+
+        assertThat(file).hasBinaryContent(CONTEXT);
+        assertThat(new ContextSnapshot(directory, mapper).load())
+                .containsEntry(URL, file)
+                .containsKey("https://w3id.org/example/v2");
+        try (var files = Files.list(directory)) {
+            assertThat(files).noneMatch(f -> f.toString().endsWith(".tmp"));
+        }
+    }
+
+    @Test
+    void load_shouldResolveOperatorProvidedIndex() throws IOException {
+        Files.write(directory.resolve("example.jsonld"), CONTEXT);
+        Files.writeString(directory.resolve(ContextSnapshot.INDEX_FILE), "{\"%s\": \"example.jsonld\"}".formatted(URL));
+
+        var contexts = new ContextSnapshot(directory, mapper).load();
+
+        assertThat(contexts).containsEntry(URL, directory.resolve("example.jsonld"));
+    }
+
+    @Test
+    void validate_shouldRejectDocumentsWithoutContext() {
+        var snapshot = new ContextSnapshot(directory, mapper);
+
+        snapshot.validate(URL, CONTEXT);
+        assertThatThrownBy(() -> snapshot.validate(URL, "{\"id\":\"x\"}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> snapshot.validate(URL, "<html>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
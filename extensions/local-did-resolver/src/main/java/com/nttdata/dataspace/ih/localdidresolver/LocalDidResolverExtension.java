@@ -0,0 +1,91 @@
+package com.nttdata.dataspace.ih.localdidresolver;
+
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.iam.did.web.resolution.WebDidResolver;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves {@code did:web} DIDs of participants hosted by this Identity Hub in-process, so co-hosted participants do
+ * not call each other's DID documents through the ingress.
+ * <p>
+ * It is only active when the hosts served by this hub are configured, since the local store cannot tell which DIDs
+ * are really published under this hub's URLs.
+ * </p>
+ * <p>
+ * The resolver replaces the {@code did:web} resolver of the registry in {@link #prepare()}, after the default one was
+ * registered, and uses a {@link WebDidResolver} for all other DIDs.
+ * </p>
+ */
+@Extension(value = LocalDidResolverExtension.NAME)
+public class LocalDidResolverExtension implements ServiceExtension {
+
+    public static final String NAME = "Local DID Resolver Extension";
+
+    @Setting(description = "Resolve did:web DIDs hosted by this hub from the local DID store", defaultValue = "true")
+    public static final String ENABLED_SETTING = "edc.ih.did.resolver.local.enabled";
+
+    @Setting(description = "Comma-separated did:web hosts (host[:port]) served by this hub; local resolution is off while empty", defaultValue = "")
+    public static final String HOSTS_SETTING = "edc.ih.did.resolver.local.hosts";
+
+    // owned by the EDC did:web extension, read to resolve remote DIDs the same way
+    private static final String USE_HTTPS_SETTING = "edc.iam.did.web.use.https";
+
+    @Inject
+    private DidResolverRegistry didResolverRegistry;
+
+    @Inject
+    private DidResourceStore didResourceStore;
+
+    @Inject
+    private EdcHttpClient httpClient;
+
+    @Inject
+    private TypeManager typeManager;
+
+    private LocalFirstWebDidResolver resolver;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("LocalDidResolver");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, true)) {
+            return;
+        }
+
+        var hosts = Arrays.stream(config.getString(HOSTS_SETTING, "").split(","))
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(host -> host.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        if (hosts.isEmpty()) {
+            monitor.info("No did:web hosts configured in %s, all DIDs are resolved remotely".formatted(HOSTS_SETTING));
+            return;
+        }
+        var remote = new WebDidResolver(httpClient, typeManager.getMapper(), config.getBoolean(USE_HTTPS_SETTING, true), monitor);
+        resolver = new LocalFirstWebDidResolver(didResourceStore, remote, hosts);
+        monitor.info("did:web DIDs hosted by this hub are resolved locally (%s)".formatted(String.join(", ", hosts)));
+    }
+
+    @Override
+    public void prepare() {
+        if (resolver != null) {
+            didResolverRegistry.register(resolver);
+        }
+    }
+}
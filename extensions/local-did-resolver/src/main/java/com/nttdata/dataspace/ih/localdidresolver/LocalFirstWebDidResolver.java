@@ -0,0 +1,84 @@
+package com.nttdata.dataspace.ih.localdidresolver;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.identityhub.spi.did.model.DidState;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.result.Result;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves {@code did:web} DIDs hosted by this Identity Hub from the local DID store, and all others over the network.
+ * <p>
+ * A DID is hosted here if its host is one of the configured hosts and it is in the {@link DidResourceStore}. The hosts
+ * are required: a DID under another host is resolved remotely even if the store holds it, so a locally created DID
+ * cannot shadow the document published under its URL.
+ * Only published documents are returned, as the DID API would; a hosted DID that is not published fails like its URL
+ * would. Everything else goes to the remote {@code did:web} resolver.
+ * </p>
+ */
+public class LocalFirstWebDidResolver implements DidResolver {
+
+    private static final String METHOD = "web";
+    private static final String PREFIX = "did:web:";
+
+    private final DidResourceStore didResourceStore;
+    private final DidResolver remote;
+    private final Set<String> hosts;
+    private final AtomicLong localResolutions = new AtomicLong();
+
+    /**
+     * @param hosts hosts (with {@code :port} if not default) whose DIDs this hub serves, not empty
+     */
+    public LocalFirstWebDidResolver(DidResourceStore didResourceStore, DidResolver remote, Set<String> hosts) {
+        if (hosts.isEmpty()) {
+            throw new IllegalArgumentException("At least one did:web host served by this hub is required");
+        }
+        this.didResourceStore = didResourceStore;
+        this.remote = remote;
+        this.hosts = hosts;
+    }
+
+    @Override
+    public String getMethod() {
+        return METHOD;
+    }
+
+    @Override
+    public Result<DidDocument> resolve(String did) {
+        if (!isLocalHost(did)) {
+            return remote.resolve(did);
+        }
+        var resource = didResourceStore.findById(did);
+        if (resource == null) {
+            return remote.resolve(did);
+        }
+        if (resource.getStateAsEnum() != DidState.PUBLISHED) {
+            return Result.failure("DID %s is not published".formatted(did));
+        }
+        localResolutions.incrementAndGet();
+        return Result.success(resource.getDocument());
+    }
+
+    /**
+     * Number of DIDs resolved from the local store.
+     */
+    public long localResolutions() {
+        return localResolutions.get();
+    }
+
+    private boolean isLocalHost(String did) {
+        if (did == null || !did.startsWith(PREFIX)) {
+            return false;
+        }
+        var identifier = did.substring(PREFIX.length());
+        var end = identifier.indexOf(':');
+        var host = URLDecoder.decode(end < 0 ? identifier : identifier.substring(0, end), StandardCharsets.UTF_8);
+        return hosts.contains(host.toLowerCase(Locale.ROOT));
+    }
+}
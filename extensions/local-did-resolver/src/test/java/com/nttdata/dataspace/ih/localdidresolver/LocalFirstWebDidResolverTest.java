@@ -0,0 +1,97 @@
+package com.nttdata.dataspace.ih.localdidresolver;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolver;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.model.DidState;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocalFirstWebDidResolverTest {
+
+    private static final String LOCAL_DID = "did:web:hub.example.com:participant-a";
+    private static final Set<String> HOSTS = Set.of("hub.example.com");
+
+    @Mock
+    private DidResourceStore didResourceStore;
+
+    @Mock
+    private DidResolver remote;
+
+    @Test
+    void resolve_shouldReturnPublishedLocalDocument_withoutRemoteCall() {
+        var document = mock(DidDocument.class);
+        when(didResourceStore.findById(LOCAL_DID)).thenReturn(resource(DidState.PUBLISHED, document));
+        var resolver = new LocalFirstWebDidResolver(didResourceStore, remote, HOSTS);
+
+        var result = resolver.resolve(LOCAL_DID);
+
+        assertThat(result.getContent()).isSameAs(document);
+        assertThat(resolver.localResolutions()).isEqualTo(1);
+        verify(remote, never()).resolve(anyString());
+    }
+
+    @Test
+    void resolve_shouldFail_whenLocalDidIsNotPublished() {
+        when(didResourceStore.findById(LOCAL_DID)).thenReturn(resource(DidState.UNPUBLISHED, mock(DidDocument.class)));
+
+        var result = new LocalFirstWebDidResolver(didResourceStore, remote, HOSTS).resolve(LOCAL_DID);
+
+        assertThat(result.failed()).isTrue();
+        verify(remote, never()).resolve(anyString());
+    }
+
+    @Test
+    void resolve_shouldResolveRemotely_whenDidIsNotInStore() {
+        var remoteDid = "did:web:other.example.com";
+        when(remote.resolve(remoteDid)).thenReturn(Result.success(mock(DidDocument.class)));
+
+        var result = new LocalFirstWebDidResolver(didResourceStore, remote, HOSTS).resolve(remoteDid);
+
+        assertThat(result.succeeded()).isTrue();
+        verify(remote).resolve(remoteDid);
+    }
+
+    @Test
+    void resolve_shouldOnlyUseStore_forConfiguredHosts() {
+        var resolver = new LocalFirstWebDidResolver(didResourceStore, remote, Set.of("hub.example.com", "localhost:8184"));
+        lenient().when(remote.resolve(anyString())).thenReturn(Result.failure("not found"));
+        when(didResourceStore.findById("did:web:localhost%3A8184:participant-b"))
+                .thenReturn(resource(DidState.PUBLISHED, mock(DidDocument.class)));
+
+        assertThat(resolver.resolve("did:web:localhost%3A8184:participant-b").succeeded()).isTrue();
+        resolver.resolve("did:web:elsewhere.example.com:participant-a");
+
+        verify(didResourceStore, never()).findById("did:web:elsewhere.example.com:participant-a");
+        verify(remote).resolve("did:web:elsewhere.example.com:participant-a");
+    }
+
+    @Test
+    void constructor_shouldRequireHosts() {
+        assertThatThrownBy(() -> new LocalFirstWebDidResolver(didResourceStore, remote, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DidResource resource(DidState state, DidDocument document) {
+        var resource = mock(DidResource.class);
+        lenient().when(resource.getStateAsEnum()).thenReturn(state);
+        lenient().when(resource.getDocument()).thenReturn(document);
+        return resource;
+    }
+}
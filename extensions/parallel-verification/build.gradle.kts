@@ -0,0 +1,19 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    implementation(libs.edc.core.runtime)
+    implementation(libs.edc.spi.identity.did)
+    implementation(libs.edc.spi.keys)
+    implementation(libs.edc.spi.token)
+    implementation(libs.edc.spi.verifiable.credentials)
+    implementation(project(":services"))
+
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly(libs.junit.jupiter.engine)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.mockito.core)
+    testImplementation(libs.mockito.junit.jupiter)
+    testImplementation(libs.assertj.core)
+}
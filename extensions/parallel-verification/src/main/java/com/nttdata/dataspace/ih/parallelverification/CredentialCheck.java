@@ -0,0 +1,19 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.keys.spi.PublicKeyResolver;
+import org.eclipse.edc.spi.result.Result;
+
+/**
+ * Verification of one credential of a presentation, run concurrently with the checks of the other credentials.
+ */
+@FunctionalInterface
+public interface CredentialCheck {
+
+    /**
+     * @param credential the credential to verify
+     * @param holder the DID the credential must be issued to, or {@code null} to not check it
+     * @param keyResolver resolver for issuer keys, shared by all credentials of the presentation
+     */
+    Result<Void> check(VerifiableCredentialContainer credential, String holder, PublicKeyResolver keyResolver);
+}
@@ -0,0 +1,89 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.RevocationServiceRegistry;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.keys.spi.PublicKeyResolver;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.token.spi.TokenValidationService;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Default {@link CredentialCheck} for JWT credentials: validates the signature with the issuer key referenced by the
+ * {@code kid} header and the claims of the token (the key belongs to the issuer, {@code exp}/{@code nbf}, the subject
+ * is the holder), then the validity period of the credential and its status.
+ */
+public class JwtCredentialCheck implements CredentialCheck {
+
+    public static final Duration DEFAULT_LEEWAY = Duration.ofSeconds(60);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final TokenValidationService tokenValidationService;
+    private final RevocationServiceRegistry revocationServiceRegistry;
+    private final Clock clock;
+    private final Duration leeway;
+
+    public JwtCredentialCheck(TokenValidationService tokenValidationService, RevocationServiceRegistry revocationServiceRegistry, Clock clock, Duration leeway) {
+        this.tokenValidationService = tokenValidationService;
+        this.revocationServiceRegistry = revocationServiceRegistry;
+        this.clock = clock;
+        this.leeway = leeway;
+    }
+
+    @Override
+    public Result<Void> check(VerifiableCredentialContainer credential, String holder, PublicKeyResolver keyResolver) {
+        if (credential.format() != CredentialFormat.VC1_0_JWT && credential.format() != CredentialFormat.VC2_0_JOSE) {
+            return Result.failure("Unsupported credential format " + credential.format());
+        }
+        var vc = credential.credential();
+        if (vc == null) {
+            return Result.failure("Credential container holds no parsed credential");
+        }
+        var keyId = keyId(credential.rawVc());
+        if (keyId.failed()) {
+            return keyId.mapEmpty();
+        }
+
+        var rules = List.of(
+                JwtCredentialRules.issuerKeyId(keyId.getContent()),
+                JwtCredentialRules.validityPeriod(clock, leeway),
+                JwtCredentialRules.subjectHolder(vc, holder));
+        var token = tokenValidationService.validate(credential.rawVc(), keyResolver, rules);
+        if (token.failed()) {
+            return Result.failure("Invalid credential token: " + token.getFailureDetail());
+        }
+
+        var now = clock.instant();
+        if (vc.getIssuanceDate() != null && now.isBefore(vc.getIssuanceDate().minus(leeway))) {
+            return Result.failure("Credential %s is not valid before %s".formatted(vc.getId(), vc.getIssuanceDate()));
+        }
+        if (vc.getExpirationDate() != null && !now.isBefore(vc.getExpirationDate().plus(leeway))) {
+            return Result.failure("Credential %s expired at %s".formatted(vc.getId(), vc.getExpirationDate()));
+        }
+        return revocationServiceRegistry.checkValidity(vc);
+    }
+
+    /**
+     * Reads the {@code kid} of the JOSE header, which the validation service resolves the key with.
+     */
+    private static Result<String> keyId(String jwt) {
+        var end = jwt.indexOf('.');
+        if (end <= 0) {
+            return Result.failure("Credential is not a JWT");
+        }
+        try {
+            var header = MAPPER.readTree(Base64.getUrlDecoder().decode(jwt.substring(0, end)));
+            var kid = header.path("kid").asText(null);
+            return kid != null ? Result.success(kid) : Result.failure("Credential header has no kid");
+        } catch (IOException | IllegalArgumentException e) {
+            return Result.failure("Malformed credential header: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.token.spi.TokenValidationRule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Claim rules of JWT credentials, applied by the {@code TokenValidationService} after the signature was verified.
+ */
+final class JwtCredentialRules {
+
+    private static final String ISSUER = "iss";
+    private static final String SUBJECT = "sub";
+    private static final String EXPIRES = "exp";
+    private static final String NOT_BEFORE = "nbf";
+
+    private JwtCredentialRules() {
+    }
+
+    /**
+     * The key that signed the credential must belong to its issuer: the DID of the {@code kid} header is the
+     * {@code iss} claim, as with the EDC {@code IssuerKeyIdValidationRule}. Otherwise anyone could sign a credential in
+     * the name of another issuer with a key of their own DID.
+     */
+    static TokenValidationRule issuerKeyId(String keyId) {
+        return (token, additional) -> {
+            var issuer = token.getStringClaim(ISSUER);
+            if (issuer == null) {
+                return Result.failure("Credential has no iss claim");
+            }
+            if (keyId == null || !keyId.startsWith(issuer + "#")) {
+                return Result.failure("Key ID %s does not belong to the issuer %s".formatted(keyId, issuer));
+            }
+            return Result.success();
+        };
+    }
+
+    /**
+     * The {@code exp} and {@code nbf} claims, where present, must include the current time.
+     */
+    static TokenValidationRule validityPeriod(Clock clock, Duration leeway) {
+        return (token, additional) -> {
+            var now = clock.instant();
+            var expires = token.getInstantClaim(EXPIRES);
+            if (expires != null && !now.isBefore(expires.plus(leeway))) {
+                return Result.failure("Credential token expired at " + expires);
+            }
+            var notBefore = token.getInstantClaim(NOT_BEFORE);
+            if (notBefore != null && now.isBefore(notBefore.minus(leeway))) {
+                return Result.failure("Credential token is not valid before " + notBefore);
+            }
+            return Result.success();
+        };
+    }
+
+    /**
+     * The credential must be issued to its holder: the holder is a subject of the credential and, where present, the
+     * {@code sub} claim. Without a holder, only the {@code sub} claim is checked against the credential subjects.
+     */
+    static TokenValidationRule subjectHolder(VerifiableCredential credential, String holder) {
+        return (token, additional) -> {
+            var subject = token.getStringClaim(SUBJECT);
+            var subjectIds = credential.getCredentialSubject().stream()
+                    .map(CredentialSubject::getId)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (subject != null && !subjectIds.contains(subject)) {
+                return Result.failure("sub claim %s is not a subject of credential %s".formatted(subject, credential.getId()));
+            }
+            if (holder != null && (!subjectIds.contains(holder) || subject != null && !subject.equals(holder))) {
+                return Result.failure("Credential %s is not issued to %s".formatted(credential.getId(), holder));
+            }
+            return Result.success();
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import com.nttdata.dataspace.ih.services.CredentialVerifier;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.keys.spi.PublicKeyResolver;
+import org.eclipse.edc.spi.result.Result;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies the credentials of a presentation concurrently: issuer key resolution, signature and status of every
+ * credential run as one {@link CredentialCheck} on a bounded pool, so the latency of a presentation approaches that of
+ * its slowest credential. The first failure is returned immediately and the checks still running are cancelled. Issuer
+ * keys are resolved once per presentation.
+ * <p>
+ * As a {@link CredentialVerifier} it checks credentials that do not form a presentation, e.g. an import batch, the same
+ * way but reports a result for each of them.
+ * </p>
+ */
+public class ParallelCredentialVerifier implements CredentialVerifier {
+
+    public static final int DEFAULT_WORKERS = 16;
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final int DEFAULT_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService executor;
+    private final PublicKeyResolver keyResolver;
+    private final CredentialCheck check;
+    private final Duration timeout;
+
+    public ParallelCredentialVerifier(ExecutorService executor, PublicKeyResolver keyResolver, CredentialCheck check, Duration timeout) {
+        this.executor = executor;
+        this.keyResolver = keyResolver;
+        this.check = check;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates the verification pool. When all workers are busy and the queue is full, the calling thread runs the
+     * check itself, which throttles callers instead of rejecting presentations.
+     * @param workers number of worker threads
+     * @param queueCapacity number of checks waiting for a worker
+     */
+    public static ExecutorService newWorkerPool(int workers, int queueCapacity) {
+        var threadNumber = new AtomicInteger();
+        var pool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            var thread = new Thread(runnable, "credential-verification-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Verifies all credentials of one presentation.
+     * @param holder the DID of the presentation holder, each credential must be issued to it
+     * @return success if every check succeeded, otherwise the first failure
+     */
+    public Result<Void> verify(String holder, List<VerifiableCredentialContainer> credentials) {
+        if (credentials == null || credentials.isEmpty()) {
+            return Result.success();
+        }
+        var presentationKeys = new PresentationKeyResolver(keyResolver);
+        if (credentials.size() == 1) {
+            return check.check(credentials.get(0), holder, presentationKeys);
+        }
+
+        var completion = new ExecutorCompletionService<Result<Void>>(executor);
+        var futures = new ArrayList<Future<Result<Void>>>(credentials.size());
+        try {
+            for (var credential : credentials) {
+                futures.add(completion.submit(() -> check.check(credential, holder, presentationKeys)));
+            }
+            var deadline = System.nanoTime() + timeout.toNanos();
+            for (int i = 0; i < credentials.size(); i++) {
+                var done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    return Result.failure("Credential verification timed out after %s".formatted(timeout));
+                }
+                var result = done.get();
+                if (result.failed()) {
+                    return result;
+                }
+            }
+            return Result.success();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failure("Credential verification was interrupted");
+        } catch (ExecutionException e) {
+            return Result.failure("Credential verification failed: " + e.getCause().getMessage());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public List<Result<Void>> verifyEach(List<HeldCredential> credentials) {
+        var keys = new PresentationKeyResolver(keyResolver);
+        var futures = new ArrayList<Future<Result<Void>>>(credentials.size());
+        try {
+            for (var credential : credentials) {
+                futures.add(executor.submit(() -> check.check(credential.credential(), credential.holder(), keys)));
+            }
+            var deadline = System.nanoTime() + timeout.toNanos();
+            var results = new ArrayList<Result<Void>>(credentials.size());
+            for (var future : futures) {
+                results.add(await(future, deadline));
+            }
+            return results;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Result<Void> await(Future<Result<Void>> future, long deadline) {
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return Result.failure("Credential verification timed out after %s".formatted(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failure("Credential verification was interrupted");
+        } catch (ExecutionException e) {
+            return Result.failure("Credential verification failed: " + e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import com.nttdata.dataspace.ih.services.CredentialVerifier;
+import org.eclipse.edc.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.RevocationServiceRegistry;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.token.spi.TokenValidationService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Provides the {@link ParallelCredentialVerifier} for components that verify presentations with several credentials,
+ * and as the {@link CredentialVerifier} of the bulk import. Worker threads are only started by the first verification.
+ */
+@Extension(value = ParallelVerificationExtension.NAME)
+@Provides({ParallelCredentialVerifier.class, CredentialVerifier.class})
+public class ParallelVerificationExtension implements ServiceExtension {
+
+    public static final String NAME = "Parallel Credential Verification Extension";
+
+    @Setting(description = "Number of threads verifying credentials of presentations concurrently", defaultValue = "16")
+    public static final String WORKERS_SETTING = "edc.ih.verification.workers";
+
+    @Setting(description = "Number of credential checks waiting for a verification thread before callers verify inline", defaultValue = "256")
+    public static final String QUEUE_CAPACITY_SETTING = "edc.ih.verification.queue.capacity";
+
+    @Setting(description = "Maximum time in seconds to verify the credentials of one presentation", defaultValue = "30")
+    public static final String TIMEOUT_SETTING = "edc.ih.verification.timeout.seconds";
+
+    @Setting(description = "Clock skew in seconds tolerated when checking the validity period of credentials", defaultValue = "60")
+    public static final String LEEWAY_SETTING = "edc.ih.verification.leeway.seconds";
+
+    @Inject
+    private TokenValidationService tokenValidationService;
+
+    @Inject
+    private RevocationServiceRegistry revocationServiceRegistry;
+
+    @Inject
+    private DidPublicKeyResolver didPublicKeyResolver;
+
+    private ExecutorService workers;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var config = context.getConfig();
+        workers = ParallelCredentialVerifier.newWorkerPool(
+                config.getInteger(WORKERS_SETTING, ParallelCredentialVerifier.DEFAULT_WORKERS),
+                config.getInteger(QUEUE_CAPACITY_SETTING, ParallelCredentialVerifier.DEFAULT_QUEUE_CAPACITY));
+        var check = new JwtCredentialCheck(tokenValidationService, revocationServiceRegistry, Clock.systemUTC(),
+                Duration.ofSeconds(config.getLong(LEEWAY_SETTING, JwtCredentialCheck.DEFAULT_LEEWAY.toSeconds())));
+        var verifier = new ParallelCredentialVerifier(workers, didPublicKeyResolver, check,
+                Duration.ofSeconds(config.getInteger(TIMEOUT_SETTING, ParallelCredentialVerifier.DEFAULT_TIMEOUT_SECONDS)));
+        context.registerService(ParallelCredentialVerifier.class, verifier);
+        context.registerService(CredentialVerifier.class, verifier);
+    }
+
+    @Override
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+}
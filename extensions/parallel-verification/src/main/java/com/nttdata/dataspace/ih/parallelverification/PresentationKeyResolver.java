@@ -0,0 +1,40 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import org.eclipse.edc.keys.spi.PublicKeyResolver;
+import org.eclipse.edc.spi.result.Result;
+
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves every key ID once per presentation. Credentials of the same issuer that are checked concurrently wait for
+ * the first resolution instead of resolving the issuer DID again.
+ */
+class PresentationKeyResolver implements PublicKeyResolver {
+
+    private final PublicKeyResolver delegate;
+    private final Map<String, CompletableFuture<Result<PublicKey>>> keys = new ConcurrentHashMap<>();
+
+    PresentationKeyResolver(PublicKeyResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Result<PublicKey> resolveKey(String id) {
+        var future = new CompletableFuture<Result<PublicKey>>();
+        var existing = keys.putIfAbsent(id, future);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            var key = delegate.resolveKey(id);
+            future.complete(key);
+            return key;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
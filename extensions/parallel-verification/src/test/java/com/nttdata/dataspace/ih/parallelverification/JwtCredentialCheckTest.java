@@ -0,0 +1,149 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.RevocationServiceRegistry;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.keys.spi.PublicKeyResolver;
+import org.eclipse.edc.spi.iam.ClaimToken;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.token.spi.TokenValidationRule;
+import org.eclipse.edc.token.spi.TokenValidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtCredentialCheckTest {
+
+    private static final Instant NOW = Instant.parse("2026-06-01T00:00:00Z");
+    private static final String ISSUER = "did:web:issuer";
+    private static final String HOLDER = "did:web:holder";
+
+    @Mock
+    private TokenValidationService tokenValidationService;
+
+    @Mock
+    private RevocationServiceRegistry revocationServiceRegistry;
+
+    @Mock
+    private PublicKeyResolver keyResolver;
+
+    private JwtCredentialCheck check;
+
+    @BeforeEach
+    void setUp() {
+        check = new JwtCredentialCheck(tokenValidationService, revocationServiceRegistry, Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(60));
+        lenient().when(revocationServiceRegistry.checkValidity(any())).thenReturn(Result.success());
+    }
+
+    @Test
+    void check_shouldSucceed_forValidCredentialOfHolder() {
+        validatedClaims(Map.of("iss", ISSUER, "sub", HOLDER, "exp", Date.from(NOW.plusSeconds(3600))));
+
+        var result = check.check(credential(ISSUER + "#key-1", HOLDER), HOLDER, keyResolver);
+
+        assertThat(result.succeeded()).isTrue();
+        verify(revocationServiceRegistry).checkValidity(any());
+    }
+
+    @Test
+    void check_shouldFail_whenKeyDoesNotBelongToIssuer() {
+        validatedClaims(Map.of("iss", ISSUER, "sub", HOLDER));
+
+        var result = check.check(credential("did:web:attacker#key-1", HOLDER), HOLDER, keyResolver);
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).contains("does not belong to the issuer");
+        verify(revocationServiceRegistry, never()).checkValidity(any());
+    }
+
+    @Test
+    void check_shouldFail_whenTokenExpired() {
+        validatedClaims(Map.of("iss", ISSUER, "sub", HOLDER, "exp", Date.from(NOW.minusSeconds(120))));
+
+        var result = check.check(credential(ISSUER + "#key-1", HOLDER), HOLDER, keyResolver);
+
+        assertThat(result.getFailureDetail()).contains("expired");
+    }
+
+    @Test
+    void check_shouldFail_whenTokenNotYetValid() {
+        validatedClaims(Map.of("iss", ISSUER, "sub", HOLDER, "nbf", Date.from(NOW.plusSeconds(120))));
+
+        var result = check.check(credential(ISSUER + "#key-1", HOLDER), HOLDER, keyResolver);
+
+        assertThat(result.getFailureDetail()).contains("not valid before");
+    }
+
+    @Test
+    void check_shouldFail_whenCredentialIsIssuedToAnotherHolder() {
+        validatedClaims(Map.of("iss", ISSUER, "sub", "did:web:other"));
+
+        var result = check.check(credential(ISSUER + "#key-1", "did:web:other"), HOLDER, keyResolver);
+
+        assertThat(result.getFailureDetail()).contains("is not issued to " + HOLDER);
+    }
+
+    @Test
+    void check_shouldFail_whenSubClaimIsNotCredentialSubject() {
+        validatedClaims(Map.of("iss", ISSUER, "sub", "did:web:other"));
+
+        var result = check.check(credential(ISSUER + "#key-1", HOLDER), null, keyResolver);
+
+        assertThat(result.getFailureDetail()).contains("is not a subject");
+    }
+
+    /**
+     * Lets the validation service accept the signature and apply the rules to the given claims.
+     */
+    private void validatedClaims(Map<String, Object> claims) {
+        var builder = ClaimToken.Builder.newInstance();
+        claims.forEach(builder::claim);
+        var token = builder.build();
+        when(tokenValidationService.validate(anyString(), any(PublicKeyResolver.class), anyList())).thenAnswer(i -> {
+            List<TokenValidationRule> rules = i.getArgument(2);
+            for (var rule : rules) {
+                var result = rule.checkRule(token, null);
+                if (result.failed()) {
+                    return Result.failure(result.getFailureDetail());
+                }
+            }
+            return Result.success(token);
+        });
+    }
+
+    private static VerifiableCredentialContainer credential(String keyId, String subjectId) {
+        var subject = mock(CredentialSubject.class);
+        lenient().when(subject.getId()).thenReturn(subjectId);
+        var credential = mock(VerifiableCredential.class);
+        lenient().when(credential.getId()).thenReturn("urn:uuid:credential");
+        lenient().when(credential.getCredentialSubject()).thenReturn(List.of(subject));
+        var header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"EdDSA\",\"kid\":\"%s\"}".formatted(keyId).getBytes(StandardCharsets.UTF_8));
+        return new VerifiableCredentialContainer(header + ".e30.c2ln", CredentialFormat.VC1_0_JWT, credential);
+    }
+}
@@ -0,0 +1,172 @@
+package com.nttdata.dataspace.ih.parallelverification;
+
+import com.nttdata.dataspace.ih.services.CredentialVerifier;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.keys.spi.PublicKeyResolver;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelCredentialVerifierTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String HOLDER = "did:web:holder";
+
+    @Mock
+    private PublicKeyResolver keyResolver;
+
+    private final ExecutorService workers = ParallelCredentialVerifier.newWorkerPool(4, 16);
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void verify_shouldRunChecksConcurrently() {
+        var started = new CountDownLatch(4);
+        CredentialCheck check = (credential, holder, keys) -> {
+            started.countDown();
+            // only returns if all four checks run at the same time
+            return await(started) ? Result.success() : Result.failure("checks ran sequentially");
+        };
+
+        var result = new ParallelCredentialVerifier(workers, keyResolver, check, TIMEOUT).verify(HOLDER, credentials(4));
+
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void verify_shouldReturnFirstFailure_withoutWaitingForSlowChecks() {
+        var release = new CountDownLatch(1);
+        var credentials = credentials(3);
+        CredentialCheck check = (credential, holder, keys) -> {
+            if (credential == credentials.get(1)) {
+                return Result.failure("revoked");
+            }
+            await(release);
+            return Result.success();
+        };
+
+        var start = System.nanoTime();
+        var result = new ParallelCredentialVerifier(workers, keyResolver, check, TIMEOUT).verify(HOLDER, credentials);
+
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).isEqualTo("revoked");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(TIMEOUT);
+        release.countDown();
+    }
+
+    @Test
+    void verify_shouldResolveIssuerKeyOnce_perPresentation() {
+        when(keyResolver.resolveKey(anyString())).thenReturn(Result.success(mock(PublicKey.class)));
+        CredentialCheck check = (credential, holder, keys) -> keys.resolveKey("did:web:issuer#key-1").mapEmpty();
+
+        var result = new ParallelCredentialVerifier(workers, keyResolver, check, TIMEOUT).verify(HOLDER, credentials(8));
+
+        assertThat(result.succeeded()).isTrue();
+        verify(keyResolver, times(1)).resolveKey("did:web:issuer#key-1");
+    }
+
+    @Test
+    void verify_shouldFail_whenChecksExceedTimeout() {
+        var release = new CountDownLatch(1);
+        CredentialCheck check = (credential, holder, keys) -> {
+            await(release);
+            return Result.success();
+        };
+
+        var result = new ParallelCredentialVerifier(workers, keyResolver, check, Duration.ofMillis(50)).verify(HOLDER, credentials(2));
+
+        assertThat(result.failed()).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    void verify_shouldRunCallerThread_whenPoolIsSaturated() {
+        var pool = ParallelCredentialVerifier.newWorkerPool(1, 1);
+        var checks = new AtomicInteger();
+        CredentialCheck check = (credential, holder, keys) -> {
+            checks.incrementAndGet();
+            return Result.success();
+        };
+
+        var result = new ParallelCredentialVerifier(pool, keyResolver, check, TIMEOUT).verify(HOLDER, credentials(10));
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(checks.get()).isEqualTo(10);
+        pool.shutdownNow();
+    }
+
+    @Test
+    void verifyEach_shouldReportEveryCredential_withItsHolder() {
+        var credentials = credentials(3);
+        CredentialCheck check = (credential, holder, keys) -> credential == credentials.get(1)
+                ? Result.failure("not issued to " + holder)
+                : Result.success();
+
+        var results = new ParallelCredentialVerifier(workers, keyResolver, check, TIMEOUT).verifyEach(List.of(
+                new CredentialVerifier.HeldCredential(credentials.get(0), "did:web:a"),
+                new CredentialVerifier.HeldCredential(credentials.get(1), "did:web:b"),
+                new CredentialVerifier.HeldCredential(credentials.get(2), "did:web:c")));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).succeeded()).isTrue();
+        assertThat(results.get(1).getFailureDetail()).isEqualTo("not issued to did:web:b");
+        assertThat(results.get(2).succeeded()).isTrue();
+    }
+
+    @Test
+    void verifyEach_shouldFailUnfinishedChecks_whenTimeoutExpires() {
+        var release = new CountDownLatch(1);
+        var credentials = credentials(2);
+        CredentialCheck check = (credential, holder, keys) -> {
+            if (credential == credentials.get(1)) {
+                await(release);
+            }
+            return Result.success();
+        };
+
+        var results = new ParallelCredentialVerifier(workers, keyResolver, check, Duration.ofMillis(100)).verifyEach(List.of(
+                new CredentialVerifier.HeldCredential(credentials.get(0), HOLDER),
+                new CredentialVerifier.HeldCredential(credentials.get(1), HOLDER)));
+
+        assertThat(results.get(0).succeeded()).isTrue();
+        assertThat(results.get(1).getFailureDetail()).contains("timed out");
+        release.countDown();
+    }
+
+    private static List<VerifiableCredentialContainer> credentials(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new VerifiableCredentialContainer("raw-" + i, CredentialFormat.VC1_0_JWT, null)).toList();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
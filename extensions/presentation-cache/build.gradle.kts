@@ -0,0 +1,20 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    implementation(libs.edc.core.runtime)
+    implementation(libs.edc.web.spi)
+    implementation(libs.edc.ih.spi)
+    implementation(libs.edc.ih.spi.credentials)
+    implementation(libs.edc.bom.identityhub)
+
+    implementation(project(":services"))
+
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly(libs.junit.jupiter.engine)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.mockito.core)
+    testImplementation(libs.mockito.junit.jupiter)
+    testImplementation(libs.assertj.core)
+}
@@ -0,0 +1,130 @@
+package com.nttdata.dataspace.ih.presentationcache;
+
+import org.eclipse.edc.iam.decentralizedclaims.spi.model.PresentationQueryMessage;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.resolution.CredentialQueryResolver;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.resolution.QueryResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the credential selection of scope-based presentation queries per participant context and scope set.
+ * <p>
+ * Only the selection is cached: the presentation built from it is still signed per request, bound to the nonce and
+ * audience of that request. Queries with a presentation definition are passed through. Entries expire after the TTL or
+ * when the first of the selected credentials expires, whichever comes first, and are dropped when the credentials of
+ * the participant change, see {@link #invalidate(String)}.
+ * </p>
+ * <p>
+ * Every participant has a generation counter that is bumped on invalidation. A selection is stored with the generation
+ * that was current before the delegate was queried, so a result that raced with a change is never served.
+ * </p>
+ */
+public class CachingCredentialQueryResolver implements CredentialQueryResolver {
+
+    private final CredentialQueryResolver delegate;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingCredentialQueryResolver(CredentialQueryResolver delegate, Duration ttl, int maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public QueryResult query(String participantContextId, PresentationQueryMessage query, List<String> issuerScopes) {
+        if (query.getPresentationDefinition() != null || query.getScopes() == null || query.getScopes().isEmpty()) {
+            return delegate.query(participantContextId, query, issuerScopes);
+        }
+
+        var key = new CacheKey(participantContextId, new TreeSet<>(query.getScopes()),
+                issuerScopes == null ? new TreeSet<>() : new TreeSet<>(issuerScopes));
+        var generation = generation(participantContextId);
+        var now = clock.instant();
+
+        var entry = entries.get(key);
+        if (entry != null && entry.generation() == generation && now.isBefore(entry.expiresAt())) {
+            hits.incrementAndGet();
+            return QueryResult.success(entry.credentials().stream());
+        }
+        misses.incrementAndGet();
+
+        var result = delegate.query(participantContextId, query, issuerScopes);
+        if (result.failed()) {
+            return result;
+        }
+        var credentials = result.getContent().toList();
+        store(key, new CacheEntry(credentials, expiresAt(credentials, now), generation));
+        return QueryResult.success(credentials.stream());
+    }
+
+    /**
+     * Drops all cached selections of a participant context, e.g. because a credential was stored, updated or deleted.
+     */
+    public void invalidate(String participantContextId) {
+        generations.computeIfAbsent(participantContextId, id -> new AtomicLong()).incrementAndGet();
+        entries.keySet().removeIf(key -> key.participantContextId().equals(participantContextId));
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private long generation(String participantContextId) {
+        var generation = generations.get(participantContextId);
+        return generation == null ? 0 : generation.get();
+    }
+
+    private void store(CacheKey key, CacheEntry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            var now = clock.instant();
+            entries.values().removeIf(existing -> !now.isBefore(existing.expiresAt()));
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, entry);
+    }
+
+    private Instant expiresAt(List<VerifiableCredentialContainer> credentials, Instant now) {
+        return credentials.stream()
+                .map(VerifiableCredentialContainer::credential)
+                .filter(Objects::nonNull)
+                .map(VerifiableCredential::getExpirationDate)
+                .filter(Objects::nonNull)
+                .min(Instant::compareTo)
+                .filter(earliest -> earliest.isBefore(now.plus(ttl)))
+                .orElse(now.plus(ttl));
+    }
+
+    private record CacheKey(String participantContextId, SortedSet<String> scopes, SortedSet<String> issuerScopes) {
+    }
+
+    private record CacheEntry(List<VerifiableCredentialContainer> credentials, Instant expiresAt, long generation) {
+    }
+}
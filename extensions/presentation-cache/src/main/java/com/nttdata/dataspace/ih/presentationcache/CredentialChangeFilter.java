@@ -0,0 +1,37 @@
+package com.nttdata.dataspace.ih.presentationcache;
+
+import com.nttdata.dataspace.ih.services.CredentialPaths;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.PathSegment;
+
+import java.util.Set;
+
+/**
+ * Invalidates the cached credential selections of a participant after a successful write to its credentials.
+ * <p>
+ * Credentials are written through {@code .../participants/{participantContextId}/credentials[/...]}, by operators on
+ * the identity API and by issuers on the credentials (storage) API, see {@link CredentialPaths}.
+ * </p>
+ */
+public class CredentialChangeFilter implements ContainerResponseFilter {
+
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final CachingCredentialQueryResolver resolver;
+
+    public CredentialChangeFilter(CachingCredentialQueryResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (READ_METHODS.contains(requestContext.getMethod()) || responseContext.getStatus() >= 300) {
+            return;
+        }
+        var segments = requestContext.getUriInfo().getPathSegments().stream().map(PathSegment::getPath).toList();
+        CredentialPaths.owners(segments).forEach(resolver::invalidate);
+    }
+}
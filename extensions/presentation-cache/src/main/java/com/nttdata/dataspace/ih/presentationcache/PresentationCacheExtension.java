@@ -0,0 +1,114 @@
+package com.nttdata.dataspace.ih.presentationcache;
+
+import com.nttdata.dataspace.ih.services.CredentialChangeListener;
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.generator.VerifiablePresentationService;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.resolution.CredentialQueryResolver;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Requires;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Decorates the {@link CredentialQueryResolver} used by the presentation query endpoint
+ * ({@code /v1/participants/{id}/presentations/query}) with a per-participant cache of the credential selection.
+ * <p>
+ * The cache is invalidated by writes to the credentials of a participant on the identity and credentials API, by
+ * participant context events and through the {@link CredentialChangeListener} it provides, e.g. by the bulk import. Revocation is only re-checked when an entry expires, so the TTL bounds how long a
+ * revoked credential can still be presented. With a {@link ResourceChangeFeed}, changes made by other replicas
+ * invalidate the cache as well. The cache is disabled by default; the default resolver is then registered again
+ * undecorated and the change listener does nothing.
+ * </p>
+ * <p>
+ * The default resolver is provided by the same core extension as the {@link VerifiablePresentationService}, which is
+ * why that service is required: it orders this extension after the one whose resolver it decorates.
+ * </p>
+ */
+@Extension(value = PresentationCacheExtension.NAME)
+@Provides({CredentialQueryResolver.class, CredentialChangeListener.class})
+@Requires(VerifiablePresentationService.class)
+public class PresentationCacheExtension implements ServiceExtension {
+
+    public static final String NAME = "Presentation Query Cache Extension";
+    public static final int DEFAULT_TTL_SECONDS = 60;
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    @Setting(description = "Cache the credential selection of presentation queries per participant and scope set", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.ih.presentation.cache.enabled";
+
+    @Setting(description = "Time in seconds a cached credential selection is used before the credential store is queried again", defaultValue = "60")
+    public static final String TTL_SETTING = "edc.ih.presentation.cache.ttl.seconds";
+
+    @Setting(description = "Maximum number of cached credential selections", defaultValue = "10000")
+    public static final String MAX_ENTRIES_SETTING = "edc.ih.presentation.cache.max.entries";
+
+    private static final String IDENTITY_CONTEXT = "identity";
+    private static final String CREDENTIALS_CONTEXT = "credentials";
+
+    @Inject
+    private WebService webService;
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject(required = false)
+    private ResourceChangeFeed changeFeed;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("PresentationCache");
+        var config = context.getConfig();
+        var defaultResolver = context.getService(CredentialQueryResolver.class);
+        if (!config.getBoolean(ENABLED_SETTING, false)) {
+            context.registerService(CredentialQueryResolver.class, defaultResolver);
+            context.registerService(CredentialChangeListener.class, participantContextId -> {
+            });
+            return;
+        }
+
+        var ttl = Duration.ofSeconds(config.getInteger(TTL_SETTING, DEFAULT_TTL_SECONDS));
+        int maxEntries = config.getInteger(MAX_ENTRIES_SETTING, DEFAULT_MAX_ENTRIES);
+        var resolver = new CachingCredentialQueryResolver(defaultResolver, ttl, maxEntries, Clock.systemUTC());
+        context.registerService(CredentialQueryResolver.class, resolver);
+        context.registerService(CredentialChangeListener.class, resolver::invalidate);
+
+        var filter = new CredentialChangeFilter(resolver);
+        webService.registerResource(IDENTITY_CONTEXT, filter);
+        webService.registerResource(CREDENTIALS_CONTEXT, filter);
+        eventRouter.registerSync(ParticipantContextEvent.class, new EventSubscriber() {
+            @Override
+            public <E extends Event> void on(EventEnvelope<E> event) {
+                if (event.getPayload() instanceof ParticipantContextEvent participantEvent) {
+                    resolver.invalidate(participantEvent.getParticipantContextId());
+                }
+            }
+        });
+        if (changeFeed != null) {
+            changeFeed.subscribe(change -> {
+                if (change.type() == ResourceChange.Type.CREDENTIALS || change.type() == ResourceChange.Type.PARTICIPANT_CONTEXT) {
+                    resolver.invalidate(change.participantContextId());
+                }
+            });
+        }
+
+        monitor.info("Presentation query cache ENABLED (ttl %s, max %d entries)".formatted(ttl, maxEntries));
+    }
+}
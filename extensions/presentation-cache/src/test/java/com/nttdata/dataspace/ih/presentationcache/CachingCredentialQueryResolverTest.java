@@ -0,0 +1,151 @@
+package com.nttdata.dataspace.ih.presentationcache;
+
+import org.eclipse.edc.iam.decentralizedclaims.spi.model.PresentationQueryMessage;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.resolution.CredentialQueryResolver;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.resolution.QueryResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingCredentialQueryResolverTest {
+
+    private static final String PARTICIPANT = "did:web:participant";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofSeconds(60);
+
+    @Mock
+    private CredentialQueryResolver delegate;
+
+    @Mock
+    private Clock clock;
+
+    private CachingCredentialQueryResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.instant()).thenReturn(NOW);
+        lenient().when(delegate.query(any(), any(), anyList()))
+                .thenAnswer(i -> QueryResult.success(List.of(credential(null)).stream()));
+        resolver = new CachingCredentialQueryResolver(delegate, TTL, 100, clock);
+    }
+
+    @Test
+    void query_shouldServeSelectionFromCache_forSameScopeSet() {
+        var first = resolver.query(PARTICIPANT, scopeQuery("a", "b"), List.of("a", "b"));
+        var second = resolver.query(PARTICIPANT, scopeQuery("b", "a"), List.of("b", "a"));
+
+        assertThat(first.getContent().toList()).hasSize(1);
+        assertThat(second.getContent().toList()).hasSize(1);
+        verify(delegate, times(1)).query(any(), any(), anyList());
+        assertThat(resolver.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void query_shouldNotShareEntries_acrossParticipantsOrScopes() {
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+        resolver.query("did:web:other", scopeQuery("a"), List.of("a"));
+        resolver.query(PARTICIPANT, scopeQuery("a", "b"), List.of("a", "b"));
+
+        verify(delegate, times(3)).query(any(), any(), anyList());
+    }
+
+    @Test
+    void query_shouldQueryDelegate_afterInvalidation() {
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+        resolver.invalidate(PARTICIPANT);
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+
+        verify(delegate, times(2)).query(any(), any(), anyList());
+    }
+
+    @Test
+    void query_shouldNotServeResult_thatRacedWithInvalidation() {
+        when(delegate.query(any(), any(), anyList())).thenAnswer(i -> {
+            resolver.invalidate(PARTICIPANT);
+            return QueryResult.success(List.of(credential(null)).stream());
+        });
+
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+
+        verify(delegate, times(2)).query(any(), any(), anyList());
+    }
+
+    @Test
+    void query_shouldExpireEntry_afterTtl() {
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+
+        verify(delegate, times(2)).query(any(), any(), anyList());
+    }
+
+    @Test
+    void query_shouldExpireEntry_whenCredentialExpiresBeforeTtl() {
+        when(delegate.query(any(), any(), anyList()))
+                .thenAnswer(i -> QueryResult.success(List.of(credential(NOW.plusSeconds(10))).stream()));
+
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+        when(clock.instant()).thenReturn(NOW.plusSeconds(10));
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of("a"));
+
+        verify(delegate, times(2)).query(any(), any(), anyList());
+    }
+
+    @Test
+    void query_shouldNotCacheFailures() {
+        when(delegate.query(any(), any(), anyList())).thenReturn(QueryResult.unauthorized("scope not granted"));
+
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of());
+        resolver.query(PARTICIPANT, scopeQuery("a"), List.of());
+
+        verify(delegate, times(2)).query(any(), any(), anyList());
+        assertThat(resolver.size()).isZero();
+    }
+
+    @Test
+    void query_shouldPassThrough_whenPresentationDefinitionIsUsed() {
+        var query = mock(PresentationQueryMessage.class);
+        when(query.getPresentationDefinition()).thenReturn(mock());
+
+        resolver.query(PARTICIPANT, query, List.of("a"));
+        resolver.query(PARTICIPANT, query, List.of("a"));
+
+        verify(delegate, times(2)).query(eq(PARTICIPANT), eq(query), anyList());
+        assertThat(resolver.size()).isZero();
+    }
+
+    private static PresentationQueryMessage scopeQuery(String... scopes) {
+        var query = mock(PresentationQueryMessage.class);
+        lenient().when(query.getScopes()).thenReturn(List.of(scopes));
+        return query;
+    }
+
+    private static VerifiableCredentialContainer credential(Instant expirationDate) {
+        var credential = mock(VerifiableCredential.class);
+        lenient().when(credential.getExpirationDate()).thenReturn(expirationDate);
+        var container = mock(VerifiableCredentialContainer.class);
+        lenient().when(container.credential()).thenReturn(credential);
+        return container;
+    }
+}
@@ -0,0 +1,37 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+/**
+ * Lets {@code findById} and {@code queryDocuments} of the DID document service read from the replica, see
+ * {@link ParticipantContextReadRoutingExtension}.
+ */
+@Extension(value = DidDocumentReadRoutingExtension.NAME)
+@Provides(DidDocumentService.class)
+public class DidDocumentReadRoutingExtension implements ServiceExtension {
+
+    public static final String NAME = "DID Document Read Routing Extension";
+
+    @Inject(required = false)
+    private ReadRouting readRouting;
+
+    @Inject
+    private DidDocumentService didDocumentService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (readRouting != null) {
+            context.registerService(DidDocumentService.class, readRouting.wrap(DidDocumentService.class, didDocumentService));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+/**
+ * Lets {@code getParticipantContext} and {@code query} of the participant context service read from the replica. The
+ * service runs its store calls in a transaction of its own, which only reaches the replica if the whole service call
+ * is routed. Kept apart from the DID document service, so that neither provider has to be initialized before the
+ * other.
+ */
+@Extension(value = ParticipantContextReadRoutingExtension.NAME)
+@Provides(ParticipantContextService.class)
+public class ParticipantContextReadRoutingExtension implements ServiceExtension {
+
+    public static final String NAME = "Participant Context Read Routing Extension";
+
+    @Inject(required = false)
+    private ReadRouting readRouting;
+
+    @Inject
+    private ParticipantContextService participantContextService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (readRouting != null) {
+            context.registerService(ParticipantContextService.class, readRouting.wrap(ParticipantContextService.class, participantContextService));
+        }
+    }
+}
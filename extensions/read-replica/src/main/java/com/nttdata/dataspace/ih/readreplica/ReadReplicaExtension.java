@@ -0,0 +1,126 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import com.nttdata.dataspace.ih.services.DataSourceDecorator;
+import com.nttdata.dataspace.ih.services.StoreDecorator;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes read-only store queries to a Postgres read replica.
+ * <p>
+ * The replica is a second datasource ({@code edc.datasource.replica.*}). The primary datasource is replaced by a
+ * {@link RoutingDataSource}, applied through the {@link DataSourceDecorator} hook of the SQL metrics extension. The
+ * participant context, DID resource and credential stores are decorated through the {@link StoreDecorator} hook of
+ * the traced stores extension, and the participant context and DID document services by
+ * {@link ParticipantContextReadRoutingExtension} and {@link DidDocumentReadRoutingExtension}, so that their read
+ * methods may read from the replica; see {@link ReadRouting} and {@link ReplicaRouting} for when they do. Whether a
+ * read starts in a transaction is told by the {@link TransactionScope} of {@link TransactionScopeExtension}. All of
+ * them provide the types they decorate, so every consumer is initialized after the decoration.
+ * </p>
+ */
+@Extension(value = ReadReplicaExtension.NAME)
+@Provides({ DataSourceDecorator.class, StoreDecorator.class, ReadRouting.class })
+public class ReadReplicaExtension implements ServiceExtension {
+
+    public static final String NAME = "Read Replica Extension";
+    public static final String DEFAULT_PRIMARY = "default";
+    public static final String DEFAULT_REPLICA = "replica";
+    public static final long DEFAULT_MAX_STALENESS_MILLIS = 1000;
+    public static final long DEFAULT_CHECK_PERIOD_MILLIS = 5000;
+
+    @Setting(description = "Route read-only store queries to the read replica datasource", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.ih.sql.replica.enabled";
+
+    @Setting(description = "Name of the primary datasource whose reads are routed", defaultValue = DEFAULT_PRIMARY)
+    public static final String PRIMARY_SETTING = "edc.ih.sql.replica.primary.datasource";
+
+    @Setting(description = "Name of the read replica datasource (edc.datasource.<name>.*)", defaultValue = DEFAULT_REPLICA)
+    public static final String REPLICA_SETTING = "edc.ih.sql.replica.datasource";
+
+    @Setting(description = "Maximum replication lag in milliseconds for reads from the replica, also the time after a write during which reads go to the primary", defaultValue = "1000")
+    public static final String MAX_STALENESS_SETTING = "edc.ih.sql.replica.max.staleness.millis";
+
+    @Setting(description = "Interval in milliseconds between replication lag checks", defaultValue = "5000")
+    public static final String CHECK_PERIOD_SETTING = "edc.ih.sql.replica.check.period.millis";
+
+    @Inject(required = false)
+    private TransactionScope transactionScope;
+
+    private final Map<String, DataSource> pooled = new ConcurrentHashMap<>();
+    private ReplicaRouting routing;
+    private ReplicaLagCheck lagCheck;
+    private ScheduledExecutorService checker;
+    private long checkPeriod;
+    private Monitor monitor;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("ReadReplica");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, false)) {
+            return;
+        }
+        if (transactionScope == null) {
+            throw new EdcException("Read replica routing needs the %s".formatted(TransactionScopeExtension.NAME));
+        }
+        var primary = config.getString(PRIMARY_SETTING, DEFAULT_PRIMARY);
+        var replica = config.getString(REPLICA_SETTING, DEFAULT_REPLICA);
+        var maxStaleness = Duration.ofMillis(config.getLong(MAX_STALENESS_SETTING, DEFAULT_MAX_STALENESS_MILLIS));
+        checkPeriod = config.getLong(CHECK_PERIOD_SETTING, DEFAULT_CHECK_PERIOD_MILLIS);
+
+        routing = new ReplicaRouting(maxStaleness, Clock.systemUTC());
+        context.registerService(DataSourceDecorator.class, (name, dataSource) -> {
+            pooled.put(name, dataSource);
+            return name.equals(primary) ? new RoutingDataSource(dataSource, () -> pooled.get(replica), routing, monitor) : dataSource;
+        });
+        lagCheck = new ReplicaLagCheck(() -> pooled.get(replica), routing, monitor);
+
+        var readRouting = new ReadRouting(routing, transactionScope);
+        context.registerService(StoreDecorator.class, readRouting);
+        context.registerService(ReadRouting.class, readRouting);
+        monitor.info("Read replica routing ENABLED (datasource '%s' for reads of '%s', max staleness %s)".formatted(replica, primary, maxStaleness));
+    }
+
+    @Override
+    public void start() {
+        if (routing == null) {
+            return;
+        }
+        if (pooled.isEmpty()) {
+            monitor.warning("No datasource was registered through the SQL metrics extension, reads stay on the primary");
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "read-replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(lagCheck, 0, checkPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import com.nttdata.dataspace.ih.services.StoreDecorator;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.spi.query.QuerySpec;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decorates stores and services so that their read methods ({@code find*}, {@code query*}, {@code get*}) may read from
+ * the replica, and the writes of the stores are recorded for read-your-writes.
+ * <p>
+ * A read is a read-only transaction: it may go to the replica only if no transaction is active when it starts, as told
+ * by the {@link TransactionScope}, since a caller's transaction may already hold a primary connection or write after
+ * the read. The services open their transaction inside the read, so the store calls of a service read go to the
+ * replica together with the service call.
+ * </p>
+ * <p>
+ * The scope of a read are its ID arguments and the participant context, resource and DID IDs its query filters on; the
+ * scope of a write are the participant context ID and the ID of the resource it saves. Services write through the
+ * decorated stores, so only the stores record writes.
+ * </p>
+ */
+class ReadRouting implements StoreDecorator {
+
+    static final Set<Class<?>> ROUTED_STORES = Set.of(ParticipantContextStore.class, DidResourceStore.class, CredentialStore.class);
+    static final Set<String> SCOPE_PROPERTIES = Set.of("participantContextId", "id", "did");
+
+    private final ReplicaRouting routing;
+    private final TransactionScope transactions;
+
+    ReadRouting(ReplicaRouting routing, TransactionScope transactions) {
+        this.routing = routing;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public <T> T decorate(Class<T> storeType, T store) {
+        return ROUTED_STORES.contains(storeType) ? route(storeType, store, true) : store;
+    }
+
+    /**
+     * Routes the reads of a service, whose writes are recorded by the stores it uses.
+     */
+    <T> T wrap(Class<T> type, T target) {
+        return route(type, target, false);
+    }
+
+    /**
+     * @param recordWrites whether the calls of other than read methods are recorded as writes
+     */
+    <T> T route(Class<T> type, T target, boolean recordWrites) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invoke(target, method, args);
+            }
+            if (isRead(method)) {
+                if (routing.inReadScope()) {
+                    return invoke(target, method, args);
+                }
+                if (transactions.active() || !routing.isReplicaUsable(readScopes(args))) {
+                    return invoke(target, method, args);
+                }
+                return routing.readFromReplica(() -> {
+                    try {
+                        return invoke(target, method, args);
+                    } catch (Exception | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            try {
+                return invoke(target, method, args);
+            } finally {
+                if (recordWrites) {
+                    routing.recordWrite(writeScopes(args));
+                }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, handler));
+    }
+
+    static boolean isRead(Method method) {
+        var name = method.getName();
+        return name.startsWith("find") || name.startsWith("query") || name.startsWith("get");
+    }
+
+    /**
+     * The ID arguments of a read and the values its query filters on with {@code =} or {@code in}, empty if the read is
+     * not limited to known IDs.
+     */
+    static List<String> readScopes(Object[] args) {
+        var scopes = new ArrayList<String>();
+        if (args == null) {
+            return scopes;
+        }
+        for (var arg : args) {
+            if (arg instanceof String id) {
+                scopes.add(id);
+            } else if (arg instanceof QuerySpec query) {
+                for (var criterion : query.getFilterExpression()) {
+                    if (!SCOPE_PROPERTIES.contains(String.valueOf(criterion.getOperandLeft()))) {
+                        continue;
+                    }
+                    var operator = criterion.getOperator().trim().toLowerCase(Locale.ROOT);
+                    if ("=".equals(operator)) {
+                        scopes.add(String.valueOf(criterion.getOperandRight()));
+                    } else if ("in".equals(operator) && criterion.getOperandRight() instanceof Collection<?> values) {
+                        values.forEach(value -> scopes.add(String.valueOf(value)));
+                    }
+                }
+            }
+        }
+        return scopes;
+    }
+
+    /**
+     * The participant context ID and resource ID of the saved resources, empty for other writes, e.g. deletes by ID.
+     */
+    static List<String> writeScopes(Object[] args) {
+        var scopes = new ArrayList<String>();
+        if (args == null) {
+            return scopes;
+        }
+        for (var arg : args) {
+            if (arg instanceof ParticipantContext participantContext) {
+                scopes.add(participantContext.getParticipantContextId());
+            } else if (arg instanceof DidResource didResource) {
+                scopes.add(didResource.getParticipantContextId());
+                scopes.add(didResource.getDid());
+            } else if (arg instanceof VerifiableCredentialResource credential) {
+                scopes.add(credential.getParticipantContextId());
+                scopes.add(credential.getId());
+            }
+        }
+        scopes.removeIf(Objects::isNull);
+        return scopes;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Measures the replication lag of the Postgres replica and hands it to {@link ReplicaRouting}. A replica that has
+ * replayed everything it received has no lag, even if the primary has not written for a while. Each check also prunes
+ * the writes tracked for read-your-writes.
+ */
+class ReplicaLagCheck implements Runnable {
+
+    static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, -1) END";
+
+    private final Supplier<DataSource> replica;
+    private final ReplicaRouting routing;
+    private final Monitor monitor;
+    private volatile boolean available = true;
+
+    ReplicaLagCheck(Supplier<DataSource> replica, ReplicaRouting routing, Monitor monitor) {
+        this.replica = replica;
+        this.routing = routing;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void run() {
+        routing.prune();
+        var dataSource = replica.get();
+        if (dataSource == null) {
+            routing.replicaUnavailable();
+            return;
+        }
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement();
+             var result = statement.executeQuery(LAG_QUERY)) {
+            var lagMillis = result.next() ? result.getLong(1) : -1;
+            if (lagMillis < 0) {
+                // not a replica (no WAL receiver), or nothing replayed yet: its staleness is unknown
+                unavailable("lag unknown", null);
+                return;
+            }
+            routing.replicaLag(Duration.ofMillis(lagMillis));
+            if (!available) {
+                available = true;
+                monitor.info("Read replica available again (lag %d ms)".formatted(lagMillis));
+            }
+        } catch (SQLException | RuntimeException e) {
+            unavailable("lag check failed", e);
+        }
+    }
+
+    private void unavailable(String reason, Exception cause) {
+        routing.replicaUnavailable();
+        if (available) {
+            available = false;
+            var message = "Read replica not used, %s".formatted(reason);
+            if (cause != null) {
+                monitor.warning(message, cause);
+            } else {
+                monitor.warning(message);
+            }
+        }
+    }
+}
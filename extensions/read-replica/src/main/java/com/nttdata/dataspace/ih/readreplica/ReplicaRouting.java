@@ -0,0 +1,135 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether a connection may come from the read replica.
+ * <p>
+ * Only connections opened inside {@link #readFromReplica(Callable)} are candidates, and only while the last measured
+ * lag of the replica is within the staleness tolerance. Until the lag has been measured, or after the replica failed,
+ * every read goes to the primary.
+ * </p>
+ * <p>
+ * Writes are tracked per scope, the participant context IDs and resource IDs they touch, so that a client reads its
+ * own writes from the primary without sending the reads of other participants there: a read of a scope may use the
+ * replica if no write of that scope went through this runtime within the tolerance. Writes without a known scope
+ * (e.g. deletes by ID) and reads without one (e.g. listing all participants) fall back to any write of the runtime.
+ * </p>
+ */
+class ReplicaRouting {
+
+    private final Duration maxStaleness;
+    private final Clock clock;
+    private final ThreadLocal<Boolean> readScope = new ThreadLocal<>();
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+    private volatile Instant lastWrite = Instant.EPOCH;
+    private volatile Instant lastUnscopedWrite = Instant.EPOCH;
+    private volatile Duration lag;
+
+    ReplicaRouting(Duration maxStaleness, Clock clock) {
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs a read-only operation; connections it opens may come from the replica.
+     */
+    <T> T readFromReplica(Callable<T> read) throws Exception {
+        if (inReadScope()) {
+            return read.call();
+        }
+        readScope.set(Boolean.TRUE);
+        try {
+            return read.call();
+        } finally {
+            readScope.remove();
+        }
+    }
+
+    /**
+     * Whether the calling thread runs inside {@link #readFromReplica(Callable)}.
+     */
+    boolean inReadScope() {
+        return Boolean.TRUE.equals(readScope.get());
+    }
+
+    /**
+     * Whether the connection opened now should come from the replica.
+     */
+    boolean useReplica() {
+        return inReadScope() && isReplicaUsable();
+    }
+
+    /**
+     * Whether the replica is caught up within the tolerance.
+     */
+    boolean isReplicaUsable() {
+        var currentLag = lag;
+        return currentLag != null && currentLag.compareTo(maxStaleness) <= 0;
+    }
+
+    /**
+     * Whether a read of the given scopes may use the replica.
+     *
+     * @param scopes the participant context and resource IDs the read is limited to, empty if unknown
+     */
+    boolean isReplicaUsable(Collection<String> scopes) {
+        if (!isReplicaUsable()) {
+            return false;
+        }
+        var horizon = horizon();
+        if (scopes.isEmpty()) {
+            return lastWrite.isBefore(horizon);
+        }
+        if (!lastUnscopedWrite.isBefore(horizon)) {
+            return false;
+        }
+        for (var scope : scopes) {
+            var written = lastWrites.get(scope);
+            if (written != null && !written.isBefore(horizon)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param scopes the participant context and resource IDs the write touched, empty if unknown
+     */
+    void recordWrite(Collection<String> scopes) {
+        var now = clock.instant();
+        lastWrite = now;
+        if (scopes.isEmpty()) {
+            lastUnscopedWrite = now;
+        }
+        for (var scope : scopes) {
+            lastWrites.put(scope, now);
+        }
+    }
+
+    /**
+     * Forgets the writes that no longer keep reads on the primary.
+     */
+    void prune() {
+        var horizon = horizon();
+        lastWrites.values().removeIf(written -> written.isBefore(horizon));
+    }
+
+    void replicaLag(Duration measured) {
+        lag = measured;
+    }
+
+    void replicaUnavailable() {
+        lag = null;
+    }
+
+    private Instant horizon() {
+        return clock.instant().minus(maxStaleness);
+    }
+}
@@ -0,0 +1,88 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Hands out connections of the primary, or of the replica for reads allowed by {@link ReplicaRouting}. If the replica
+ * cannot be reached, the connection comes from the primary and the replica is not used until the next lag check
+ * succeeds.
+ */
+class RoutingDataSource implements DataSource {
+
+    private final DataSource primary;
+    private final Supplier<DataSource> replica;
+    private final ReplicaRouting routing;
+    private final Monitor monitor;
+
+    /**
+     * @param replica the replica datasource, or null while it is not registered
+     */
+    RoutingDataSource(DataSource primary, Supplier<DataSource> replica, ReplicaRouting routing, Monitor monitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routing = routing;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var replicaDataSource = routing.useReplica() ? replica.get() : null;
+        if (replicaDataSource != null) {
+            try {
+                return replicaDataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                routing.replicaUnavailable();
+                monitor.warning("Read replica unavailable, reading from the primary until it recovers", e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        return type.isInstance(primary) ? type.cast(primary) : primary.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(primary) || primary.isWrapperFor(type);
+    }
+}
@@ -0,0 +1,49 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Tells whether the calling thread runs in a transaction. {@link TransactionContext} has no query for an active
+ * transaction, so the transaction context is decorated (see {@link TransactionScopeExtension}) and counts the nested
+ * {@code execute} calls of each thread.
+ */
+class TransactionScope {
+
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    boolean active() {
+        return depth.get()[0] > 0;
+    }
+
+    TransactionContext track(TransactionContext transactionContext) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!"execute".equals(method.getName())) {
+                return invoke(transactionContext, method, args);
+            }
+            var current = depth.get();
+            current[0]++;
+            try {
+                return invoke(transactionContext, method, args);
+            } finally {
+                if (--current[0] == 0) {
+                    depth.remove();
+                }
+            }
+        };
+        return (TransactionContext) Proxy.newProxyInstance(TransactionContext.class.getClassLoader(),
+                new Class<?>[]{ TransactionContext.class }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+/**
+ * With read-replica routing enabled, replaces the transaction context with one that tracks the transactions of each
+ * thread in a {@link TransactionScope}, so that a read started in a caller's transaction stays on the primary. Kept
+ * apart from {@link ReadReplicaExtension}: providing the transaction context makes every extension that injects it
+ * depend on this one, which therefore injects nothing else.
+ */
+@Extension(value = TransactionScopeExtension.NAME)
+@Provides({ TransactionContext.class, TransactionScope.class })
+public class TransactionScopeExtension implements ServiceExtension {
+
+    public static final String NAME = "Transaction Scope Extension";
+
+    @Inject
+    private TransactionContext transactionContext;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (!context.getConfig().getBoolean(ReadReplicaExtension.ENABLED_SETTING, false)) {
+            return;
+        }
+        var scope = new TransactionScope();
+        context.registerService(TransactionContext.class, scope.track(transactionContext));
+        context.registerService(TransactionScope.class, scope);
+    }
+}
@@ -0,0 +1,259 @@
+package com.nttdata.dataspace.ih.readreplica;
+
+import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.transaction.spi.NoopTransactionContext;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private Monitor monitor;
+
+    private final TransactionScope transactionScope = new TransactionScope();
+    private final TransactionContext transactionContext = transactionScope.track(new NoopTransactionContext());
+    private ReplicaRouting routing;
+    private RoutingDataSource dataSource;
+
+    /**
+     * Stand-in for a store: reads and writes open a connection like the SQL stores do.
+     */
+    interface Store {
+        Connection findById(String id);
+
+        Connection query(QuerySpec query);
+
+        Connection update(ParticipantContext participantContext);
+
+        Connection deleteById(String id);
+    }
+
+    /**
+     * Stand-in for a service: runs the store call in a transaction of its own.
+     */
+    interface Service {
+        Connection getById(String id);
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(clock.instant()).thenReturn(NOW);
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReplicaRouting(Duration.ofSeconds(1), clock);
+        routing.replicaLag(Duration.ofMillis(100));
+        dataSource = new RoutingDataSource(primary, () -> replica, routing, monitor);
+    }
+
+    @Test
+    void read_shouldUseReplica_whenLagWithinTolerance() {
+        assertThat(store().findById("id")).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void connectionOutsideReadScope_shouldUsePrimary() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void read_shouldUsePrimary_rightAfterWriteOfSameParticipant() {
+        var store = store();
+
+        store.update(participant("participant-1"));
+
+        assertThat(store.findById("participant-1")).isSameAs(primaryConnection);
+        assertThat(store.query(filter("participantContextId", "=", "participant-1"))).isSameAs(primaryConnection);
+        assertThat(store.findById("participant-2")).isSameAs(replicaConnection);
+        assertThat(store.query(filter("participantContextId", "in", List.of("participant-2", "participant-3")))).isSameAs(replicaConnection);
+        when(clock.instant()).thenReturn(NOW.plusSeconds(2));
+        assertThat(store.findById("participant-1")).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void unscopedRead_shouldUsePrimary_afterAnyWrite() {
+        var store = store();
+
+        store.update(participant("participant-1"));
+
+        assertThat(store.query(QuerySpec.none())).isSameAs(primaryConnection);
+        assertThat(store.query(filter("state", "=", "ACTIVATED"))).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void unscopedWrite_shouldSendAllReadsToPrimary() {
+        var store = store();
+
+        store.deleteById("credential-1");
+
+        assertThat(store.findById("participant-2")).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void prune_shouldForgetExpiredWrites() {
+        routing.recordWrite(List.of("participant-1"));
+        when(clock.instant()).thenReturn(NOW.plusMillis(500));
+        routing.recordWrite(List.of("participant-2"));
+        when(clock.instant()).thenReturn(NOW.plusMillis(1200));
+
+        routing.prune();
+
+        assertThat(routing.isReplicaUsable(List.of("participant-1"))).isTrue();
+        assertThat(routing.isReplicaUsable(List.of("participant-2"))).isFalse();
+    }
+
+    @Test
+    void read_shouldUsePrimary_whenReplicaLagsTooMuch() {
+        routing.replicaLag(Duration.ofSeconds(5));
+
+        assertThat(store().findById("id")).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void read_shouldUsePrimary_insideCallerTransaction() {
+        var store = store();
+
+        assertThat(transactionContext.execute(() -> store.findById("id"))).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void serviceRead_shouldRouteStoreCallsOfItsOwnTransaction() {
+        var store = store();
+        Service service = id -> transactionContext.execute(() -> store.findById(id));
+
+        assertThat(readRouting().wrap(Service.class, service).getById("id")).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void serviceRead_shouldUsePrimary_insideCallerTransaction() {
+        var store = store();
+        Service service = store::findById;
+        var routed = readRouting().wrap(Service.class, service);
+
+        assertThat(transactionContext.execute(() -> routed.getById("id"))).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void decorate_shouldOnlyRouteReadReplicaStores() {
+        var keyPairs = mock(KeyPairResourceStore.class);
+
+        assertThat(readRouting().decorate(KeyPairResourceStore.class, keyPairs)).isSameAs(keyPairs);
+    }
+
+    @Test
+    void transactionScope_shouldTrackNestedTransactionsOfThread() {
+        assertThat(transactionScope.active()).isFalse();
+
+        transactionContext.execute(() -> {
+            transactionContext.execute(() -> assertThat(transactionScope.active()).isTrue());
+            assertThat(transactionScope.active()).isTrue();
+        });
+        assertThatThrownBy(() -> transactionContext.execute(() -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(transactionScope.active()).isFalse();
+    }
+
+    @Test
+    void read_shouldFallBackToPrimary_whenReplicaFails() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        var store = store();
+
+        assertThat(store.findById("id")).isSameAs(primaryConnection);
+        assertThat(routing.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void read_shouldUsePrimary_untilLagIsKnown() {
+        routing.replicaUnavailable();
+
+        assertThat(store().findById("id")).isSameAs(primaryConnection);
+    }
+
+    private ReadRouting readRouting() {
+        return new ReadRouting(routing, transactionScope);
+    }
+
+    private Store store() {
+        Store store = new Store() {
+            @Override
+            public Connection findById(String id) {
+                return connection();
+            }
+
+            @Override
+            public Connection query(QuerySpec query) {
+                return connection();
+            }
+
+            @Override
+            public Connection update(ParticipantContext participantContext) {
+                return connection();
+            }
+
+            @Override
+            public Connection deleteById(String id) {
+                return connection();
+            }
+        };
+        return readRouting().route(Store.class, store, true);
+    }
+
+    private Connection connection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ParticipantContext participant(String participantContextId) {
+        var participantContext = mock(ParticipantContext.class);
+        when(participantContext.getParticipantContextId()).thenReturn(participantContextId);
+        return participantContext;
+    }
+
+    private static QuerySpec filter(String property, String operator, Object value) {
+        return QuerySpec.Builder.newInstance().filter(new Criterion(property, operator, value)).build();
+    }
+}
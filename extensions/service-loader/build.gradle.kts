@@ -6,9 +6,18 @@ plugins {
 dependencies {
 
     implementation(libs.edc.core.runtime)
+    implementation(libs.edc.web.spi)
+    implementation(libs.edc.spi.transaction.datasource)
+    implementation(libs.edc.ih.spi)
+    implementation(libs.edc.ih.spi.credentials)
+    implementation(libs.edc.ih.spi.did)
+    implementation(libs.edc.bom.identityhub)
+    implementation(libs.edc.ih.participant.validator)
+    implementation(libs.edc.pc.core)
 
     implementation(project(":services"))
     implementation(project(":spi"))
     implementation(project(":spi:manage-participant"))
+    implementation(project(":spi:import-credentials"))
 }
 
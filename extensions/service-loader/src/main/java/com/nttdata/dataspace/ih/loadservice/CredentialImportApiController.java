@@ -0,0 +1,91 @@
+package com.nttdata.dataspace.ih.loadservice;
+
+import com.nttdata.dataspace.ih.services.CredentialImportService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Bulk import of verifiable credentials on the identity API.
+ * <p>
+ * The request body is an NDJSON stream of credential manifests (the body of the single-credential endpoint, including
+ * {@code participantContextId}). The response is streamed as well: one NDJSON result line per input line, written as
+ * each batch is committed, and a final summary line. Restricted to the super-user, as lines may target any participant.
+ * </p>
+ * <p>
+ * An import that fails before the first result is written is answered with an error status. Once results have been
+ * streamed the status is already sent, so a later failure ends the stream with an error line instead of the summary.
+ * </p>
+ */
+@Path("/v1alpha/credentials/import")
+public class CredentialImportApiController {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final CredentialImportService importService;
+
+    public CredentialImportApiController(CredentialImportService importService) {
+        this.importService = importService;
+    }
+
+    @POST
+    @Consumes({APPLICATION_NDJSON, MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN})
+    @Produces(APPLICATION_NDJSON)
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response importCredentials(InputStream body) {
+        StreamingOutput results = output -> {
+            var tracked = new TrackingOutputStream(output);
+            var result = importService.importCredentials(body, tracked);
+            if (result.failed() && !tracked.written) {
+                // nothing is committed yet, so the failure can still replace the 200
+                throw new WebApplicationException(failure(result));
+            }
+        };
+        return Response.ok(results, APPLICATION_NDJSON).build();
+    }
+
+    private static Response failure(ServiceResult<?> result) {
+        var status = switch (result.reason()) {
+            case BAD_REQUEST -> Response.Status.BAD_REQUEST;
+            default -> Response.Status.INTERNAL_SERVER_ERROR;
+        };
+        return Response.status(status)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of("message", result.getFailureDetail()))
+                .build();
+    }
+
+    private static final class TrackingOutputStream extends FilterOutputStream {
+        private boolean written;
+
+        private TrackingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            written = true;
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            written = true;
+            out.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.nttdata.dataspace.ih.loadservice;
+
+import com.nttdata.dataspace.ih.services.KeyRotationRequest;
+import com.nttdata.dataspace.ih.services.KeyRotationService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.util.Map;
+
+/**
+ * Throttled bulk rotation of participant keys on the identity API.
+ * <p>
+ * {@code POST} starts a rotation and answers {@code 202 Accepted} with the job and its location; {@code GET} on that
+ * location returns the progress and checkpoint, {@code DELETE} cancels the job. Restricted to the super-user.
+ * </p>
+ */
+@Path("/v1alpha/key-rotation-jobs")
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+public class KeyRotationApiController {
+
+    private final KeyRotationService keyRotationService;
+
+    public KeyRotationApiController(KeyRotationService keyRotationService) {
+        this.keyRotationService = keyRotationService;
+    }
+
+    @POST
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response submitJob(KeyRotationRequest request, @Context UriInfo uriInfo) {
+        var result = keyRotationService.submit(request);
+        if (result.failed()) {
+            return failure(result);
+        }
+        var job = result.getContent();
+        return Response.accepted(job)
+                .location(uriInfo.getAbsolutePathBuilder().path(job.id()).build())
+                .build();
+    }
+
+    @GET
+    @Path("/{jobId}")
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response getJob(@PathParam("jobId") String jobId) {
+        var result = keyRotationService.getJob(jobId);
+        return result.succeeded() ? Response.ok(result.getContent()).build() : failure(result);
+    }
+
+    @DELETE
+    @Path("/{jobId}")
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response cancelJob(@PathParam("jobId") String jobId) {
+        var result = keyRotationService.cancel(jobId);
+        return result.succeeded() ? Response.ok(result.getContent()).build() : failure(result);
+    }
+
+    private static Response failure(ServiceResult<?> result) {
+        var status = switch (result.reason()) {
+            case NOT_FOUND -> Response.Status.NOT_FOUND;
+            case BAD_REQUEST -> Response.Status.BAD_REQUEST;
+            // another rotation is running
+            case CONFLICT -> Response.Status.CONFLICT;
+            default -> Response.Status.INTERNAL_SERVER_ERROR;
+        };
+        return Response.status(status)
+                .entity(Map.of("message", result.getFailureDetail()))
+                .build();
+    }
+}
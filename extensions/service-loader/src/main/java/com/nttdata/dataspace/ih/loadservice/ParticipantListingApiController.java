@@ -0,0 +1,88 @@
+package com.nttdata.dataspace.ih.loadservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.dataspace.ih.services.ParticipantListingService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
+import org.eclipse.edc.spi.result.ServiceFailure;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Cursor-paginated and streaming listing of all participant contexts on the identity API, for operations tooling and
+ * reconciliation jobs. Restricted to the super-user.
+ */
+@Path("/v1alpha/participant-contexts")
+public class ParticipantListingApiController {
+
+    private final ParticipantListingService listingService;
+    private final ObjectMapper mapper;
+
+    public ParticipantListingApiController(ParticipantListingService listingService, ObjectMapper mapper) {
+        this.listingService = listingService;
+        this.mapper = mapper;
+    }
+
+    /**
+     * One page of participant contexts ordered by ID. Pass the returned {@code nextCursor} to get the next page.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response list(@QueryParam("cursor") String cursor, @QueryParam("limit") @DefaultValue("100") int limit) {
+        var result = listingService.list(cursor, limit);
+        if (result.failed()) {
+            return failure(result);
+        }
+        return Response.ok(result.getContent()).build();
+    }
+
+    /**
+     * All participant contexts after the optional cursor as NDJSON, written while they are read from the store.
+     */
+    @GET
+    @Path("/stream")
+    @Produces(CredentialImportApiController.APPLICATION_NDJSON)
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response stream(@QueryParam("cursor") String cursor) {
+        var result = listingService.stream(cursor);
+        if (result.failed()) {
+            return failure(result);
+        }
+        StreamingOutput output = out -> {
+            var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (var participants = result.getContent()) {
+                var iterator = participants.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(mapper.writeValueAsString(iterator.next()));
+                    writer.newLine();
+                }
+            }
+            writer.flush();
+        };
+        return Response.ok(output, CredentialImportApiController.APPLICATION_NDJSON).build();
+    }
+
+    private static Response failure(ServiceResult<?> result) {
+        // an invalid cursor or limit, anything else failed reading the store
+        var status = result.reason() == ServiceFailure.Reason.BAD_REQUEST
+                ? Response.Status.BAD_REQUEST
+                : Response.Status.INTERNAL_SERVER_ERROR;
+        return Response.status(status)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of("message", result.getFailureDetail()))
+                .build();
+    }
+}
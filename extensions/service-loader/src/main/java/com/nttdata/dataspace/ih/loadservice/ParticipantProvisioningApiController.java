@@ -0,0 +1,84 @@
+package com.nttdata.dataspace.ih.loadservice;
+
+import com.nttdata.dataspace.ih.services.ParticipantProvisioningService;
+import com.nttdata.dataspace.ih.services.ProvisioningJob;
+import com.nttdata.dataspace.ih.services.ProvisioningQueueFullException;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantManifest;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asynchronous bulk provisioning of participants on the identity API.
+ * <p>
+ * {@code POST} queues a batch of participant manifests and answers {@code 202 Accepted} with the job and its location;
+ * {@code GET} on that location returns the progress and per-participant results. A batch that does not fit into the
+ * provisioning queue is rejected with {@code 429 Too Many Requests}. Restricted to the super-user.
+ * </p>
+ */
+@Path("/v1alpha/provisioning-jobs")
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+public class ParticipantProvisioningApiController {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final ParticipantProvisioningService provisioningService;
+
+    public ParticipantProvisioningApiController(ParticipantProvisioningService provisioningService) {
+        this.provisioningService = provisioningService;
+    }
+
+    @POST
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response submitJob(List<ParticipantManifest> manifests, @Context UriInfo uriInfo) {
+        ServiceResult<ProvisioningJob> result;
+        try {
+            result = provisioningService.submit(manifests);
+        } catch (ProvisioningQueueFullException e) {
+            return Response.status(TOO_MANY_REQUESTS)
+                    .entity(Map.of("message", e.getMessage()))
+                    .build();
+        }
+        if (result.failed()) {
+            return failure(result);
+        }
+        var job = result.getContent();
+        return Response.accepted(job)
+                .location(uriInfo.getAbsolutePathBuilder().path(job.id()).build())
+                .build();
+    }
+
+    @GET
+    @Path("/{jobId}")
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public Response getJob(@PathParam("jobId") String jobId) {
+        var result = provisioningService.getJob(jobId);
+        return result.succeeded() ? Response.ok(result.getContent()).build() : failure(result);
+    }
+
+    private static Response failure(ServiceResult<?> result) {
+        var status = switch (result.reason()) {
+            case NOT_FOUND -> Response.Status.NOT_FOUND.getStatusCode();
+            case BAD_REQUEST -> Response.Status.BAD_REQUEST.getStatusCode();
+            case CONFLICT -> Response.Status.CONFLICT.getStatusCode();
+            default -> Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+        };
+        return Response.status(status)
+                .entity(Map.of("message", result.getFailureDetail()))
+                .build();
+    }
+}
@@ -1,19 +1,215 @@
 package com.nttdata.dataspace.ih.loadservice;
 
+import com.nttdata.dataspace.ih.importcredentials.CredentialImportServiceImpl;
+import com.nttdata.dataspace.ih.manageparticipant.KeyRotationServiceImpl;
+import com.nttdata.dataspace.ih.manageparticipant.ParticipantConstants;
+import com.nttdata.dataspace.ih.manageparticipant.ParticipantListingServiceImpl;
+import com.nttdata.dataspace.ih.manageparticipant.ParticipantProvisioningServiceImpl;
+import com.nttdata.dataspace.ih.manageparticipant.ParticipantServiceImpl;
+import com.nttdata.dataspace.ih.manageparticipant.SqlKeyRotationCheckpointStore;
+import com.nttdata.dataspace.ih.services.CredentialChangeListener;
+import com.nttdata.dataspace.ih.services.CredentialVerifier;
+import org.eclipse.edc.identityhub.api.verifiablecredential.validation.ParticipantManifestValidator;
+import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.participantcontext.spi.config.service.ParticipantContextConfigService;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.eclipse.edc.web.spi.WebService;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 
 
 public class ServiceLoaderExtension implements ServiceExtension {
 
+    @Setting(description = "Number of credentials stored per transaction by the bulk import", defaultValue = "500")
+    public static final String IMPORT_BATCH_SIZE_PROPERTY = "edc.ih.credentials.import.batch.size";
+
+    @Setting(description = "Verify signature, issuer key, validity, status and holder of imported credentials before they are stored", defaultValue = "false")
+    public static final String IMPORT_VERIFY_PROPERTY = "edc.ih.credentials.import.verify";
+
+    @Setting(description = "Number of worker threads creating participants of provisioning jobs", defaultValue = "4")
+    public static final String PROVISIONING_WORKERS_PROPERTY = "edc.ih.provisioning.workers";
+
+    @Setting(description = "Maximum number of participants queued for provisioning across all jobs", defaultValue = "10000")
+    public static final String PROVISIONING_QUEUE_CAPACITY_PROPERTY = "edc.ih.provisioning.queue.capacity";
+
+    @Setting(description = "Number of provisioning jobs kept for status queries", defaultValue = "100")
+    public static final String PROVISIONING_RETAINED_JOBS_PROPERTY = "edc.ih.provisioning.jobs.retained";
+
+    @Setting(description = "Maximum number of participants whose keys are rotated per second by key rotation jobs, fractions allowed", defaultValue = "5")
+    public static final String KEY_ROTATION_RATE_PROPERTY = "edc.ih.keys.rotation.rate";
+
+    @Setting(description = "Number of worker threads rotating keys", defaultValue = "2")
+    public static final String KEY_ROTATION_CONCURRENCY_PROPERTY = "edc.ih.keys.rotation.concurrency";
+
+    @Setting(description = "Number of participants per key rotation batch, DID documents are republished and the checkpoint is set after each batch", defaultValue = "100")
+    public static final String KEY_ROTATION_BATCH_SIZE_PROPERTY = "edc.ih.keys.rotation.batch.size";
+
+    @Setting(description = "Seconds the previous key pair stays valid for verification after a rotation", defaultValue = "86400")
+    public static final String KEY_ROTATION_OVERLAP_PROPERTY = "edc.ih.keys.rotation.overlap.seconds";
+
+    @Setting(description = "Name of the datasource holding the key rotation checkpoints, must be the Postgres primary", defaultValue = "default")
+    public static final String KEY_ROTATION_DATASOURCE_PROPERTY = "edc.ih.keys.rotation.datasource";
+
+    @Setting(description = "Resume a key rotation job that did not finish before the last shutdown at start, instead of only reporting it", defaultValue = "true")
+    public static final String KEY_ROTATION_RESUME_PROPERTY = "edc.ih.keys.rotation.resume";
+
+    public static final String KEY_ROTATION_OBJECT_NAME = "com.nttdata.dataspace.ih:type=KeyRotation";
+
+    private static final String IDENTITY_CONTEXT = "identity";
+
     @Inject
     private Monitor monitor;
 
+    @Inject
+    private WebService webService;
+
+    @Inject
+    private CredentialStore credentialStore;
+
+    @Inject
+    private ParticipantContextService participantContextService;
+
+    @Inject
+    private ParticipantContextConfigService participantContextConfigService;
+
+    @Inject
+    private TransactionContext transactionContext;
+
+    @Inject
+    private KeyPairService keyPairService;
+
+    @Inject
+    private DidDocumentService didDocumentService;
+
+    @Inject
+    private TypeManager typeManager;
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Inject(required = false)
+    private CredentialChangeListener credentialChangeListener;
+
+    @Inject(required = false)
+    private CredentialVerifier credentialVerifier;
+
+    private ExecutorService provisioningWorkers;
+    private ExecutorService keyRotationCoordinator;
+    private ExecutorService keyRotationWorkers;
+    private ObjectName keyRotationObjectName;
+    private KeyRotationServiceImpl keyRotationService;
+    private SqlKeyRotationCheckpointStore keyRotationCheckpoints;
+    private String keyRotationDataSource;
+    private boolean resumeKeyRotation;
+
     @Override
     public void initialize(ServiceExtensionContext context) {
         // Register the services which offer rest apis
+        var importService = new CredentialImportServiceImpl(credentialStore, participantContextService, transactionContext,
+                typeManager.getMapper(), monitor.withPrefix("CredentialImport"),
+                context.getConfig().getInteger(IMPORT_BATCH_SIZE_PROPERTY, CredentialImportServiceImpl.DEFAULT_BATCH_SIZE),
+                credentialChangeListener, importVerifier(context));
+        webService.registerResource(IDENTITY_CONTEXT, new CredentialImportApiController(importService));
+
+        var config = context.getConfig();
+        provisioningWorkers = ParticipantProvisioningServiceImpl.newWorkerPool(
+                config.getInteger(PROVISIONING_WORKERS_PROPERTY, ParticipantProvisioningServiceImpl.DEFAULT_WORKERS));
+        var provisioningMonitor = monitor.withPrefix("ParticipantProvisioning");
+        var provisioningService = new ParticipantProvisioningServiceImpl(new ParticipantServiceImpl(), participantContextService,
+                participantContextConfigService, new ParticipantManifestValidator(provisioningMonitor), provisioningMonitor,
+                provisioningWorkers,
+                config.getInteger(PROVISIONING_QUEUE_CAPACITY_PROPERTY, ParticipantProvisioningServiceImpl.DEFAULT_QUEUE_CAPACITY),
+                config.getInteger(PROVISIONING_RETAINED_JOBS_PROPERTY, ParticipantProvisioningServiceImpl.DEFAULT_RETAINED_JOBS),
+                Clock.systemUTC());
+        webService.registerResource(IDENTITY_CONTEXT, new ParticipantProvisioningApiController(provisioningService));
+
+        var listingService = new ParticipantListingServiceImpl(participantContextService);
+        webService.registerResource(IDENTITY_CONTEXT, new ParticipantListingApiController(listingService, typeManager.getMapper()));
+
+        keyRotationCoordinator = KeyRotationServiceImpl.newCoordinator();
+        keyRotationWorkers = KeyRotationServiceImpl.newWorkerPool(
+                config.getInteger(KEY_ROTATION_CONCURRENCY_PROPERTY, KeyRotationServiceImpl.DEFAULT_CONCURRENCY));
+        // new key pairs are generated like the ones of the initial participant seed
+        var keyGeneratorParams = Map.<String, Object>of(
+                ParticipantConstants.KEY_ALGO_STRING, config.getString(ParticipantConstants.SIGN_PC_ALGO_KEY, ParticipantConstants.SIGN_SCHEME_EDDSA),
+                ParticipantConstants.KEY_CURVE_STRING, config.getString(ParticipantConstants.SIGN_PC_CURVE_KEY, ParticipantConstants.SIGN_SCHEME_ED25519));
+        keyRotationDataSource = config.getString(KEY_ROTATION_DATASOURCE_PROPERTY, "default");
+        resumeKeyRotation = config.getBoolean(KEY_ROTATION_RESUME_PROPERTY, true);
+        keyRotationCheckpoints = new SqlKeyRotationCheckpointStore(() -> dataSourceRegistry.resolve(keyRotationDataSource),
+                transactionContext, UUID.randomUUID().toString());
+        keyRotationService = new KeyRotationServiceImpl(listingService, keyPairService, didDocumentService,
+                keyRotationCheckpoints, monitor.withPrefix("KeyRotation"), keyRotationCoordinator, keyRotationWorkers,
+                Double.parseDouble(config.getString(KEY_ROTATION_RATE_PROPERTY, String.valueOf(KeyRotationServiceImpl.DEFAULT_RATE_PER_SECOND))),
+                config.getInteger(KEY_ROTATION_BATCH_SIZE_PROPERTY, KeyRotationServiceImpl.DEFAULT_BATCH_SIZE),
+                Duration.ofSeconds(config.getLong(KEY_ROTATION_OVERLAP_PROPERTY, KeyRotationServiceImpl.DEFAULT_OVERLAP_SECONDS)),
+                keyGeneratorParams, Clock.systemUTC());
+        webService.registerResource(IDENTITY_CONTEXT, new KeyRotationApiController(keyRotationService));
+        try {
+            keyRotationObjectName = new ObjectName(KEY_ROTATION_OBJECT_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(keyRotationService, keyRotationObjectName);
+        } catch (JMException e) {
+            keyRotationObjectName = null;
+            monitor.warning("Failed to register key rotation metrics over JMX", e);
+        }
+    }
+
+    private CredentialVerifier importVerifier(ServiceExtensionContext context) {
+        if (!context.getConfig().getBoolean(IMPORT_VERIFY_PROPERTY, false)) {
+            return null;
+        }
+        if (credentialVerifier == null) {
+            throw new EdcException("%s is enabled, but no CredentialVerifier is available".formatted(IMPORT_VERIFY_PROPERTY));
+        }
+        return credentialVerifier;
+    }
+
+    @Override
+    public void prepare() {
+        if (dataSourceRegistry.resolve(keyRotationDataSource) == null) {
+            throw new EdcException("No datasource '%s' for the key rotation checkpoints".formatted(keyRotationDataSource));
+        }
+        keyRotationCheckpoints.createTable();
+    }
+
+    @Override
+    public void start() {
+        keyRotationService.resumeUnfinished(resumeKeyRotation);
+    }
+
+    @Override
+    public void shutdown() {
+        if (provisioningWorkers != null) {
+            provisioningWorkers.shutdownNow();
+        }
+        if (keyRotationCoordinator != null) {
+            keyRotationCoordinator.shutdownNow();
+            keyRotationWorkers.shutdownNow();
+        }
+        if (keyRotationObjectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(keyRotationObjectName);
+            } catch (JMException e) {
+                monitor.warning("Failed to unregister key rotation metrics", e);
+            }
+        }
     }
 
 }
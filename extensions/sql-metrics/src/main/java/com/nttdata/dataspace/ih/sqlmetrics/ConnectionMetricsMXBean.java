@@ -0,0 +1,20 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+/**
+ * JMX view of the physical database connections of all pools, registered as
+ * {@code com.nttdata.dataspace.ih:type=SqlConnections}. Idle connections are the open ones not held by a caller.
+ */
+public interface ConnectionMetricsMXBean {
+
+    int getOpen();
+
+    int getIdle();
+
+    long getConnects();
+
+    long getConnectErrors();
+
+    double getMeanConnectMillis();
+
+    double getMaxConnectMillis();
+}
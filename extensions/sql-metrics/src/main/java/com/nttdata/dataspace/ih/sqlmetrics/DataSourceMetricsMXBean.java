@@ -0,0 +1,34 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+/**
+ * JMX view of one datasource, registered as {@code com.nttdata.dataspace.ih:type=DataSource,name=<datasource>}.
+ * Acquire time is the time spent waiting for the pool, usage time the time a connection is held before it is returned.
+ * Idle, max-total and waiters are read from the commons pool behind the datasource, or {@code -1} for other pools.
+ */
+public interface DataSourceMetricsMXBean {
+
+    int getActive();
+
+    int getIdle();
+
+    int getMaxTotal();
+
+    /**
+     * Callers currently blocked waiting for a connection of the exhausted pool.
+     */
+    int getWaiters();
+
+    long getAcquires();
+
+    long getAcquireErrors();
+
+    long getSlowAcquires();
+
+    double getMeanAcquireMillis();
+
+    double getMaxAcquireMillis();
+
+    double getMeanUsageMillis();
+
+    double getMaxUsageMillis();
+}
@@ -0,0 +1,34 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+
+import javax.sql.DataSource;
+import java.util.function.BiFunction;
+
+/**
+ * Wraps every datasource registered by the connection pools before handing it to the transactional registry, so
+ * decorators and the instrumentation sit between the transaction context and the pool.
+ */
+class DecoratingDataSourceRegistry implements DataSourceRegistry {
+
+    private final DataSourceRegistry delegate;
+    private final BiFunction<String, DataSource, DataSource> instrumentation;
+
+    /**
+     * @param instrumentation wraps a datasource, given its name
+     */
+    DecoratingDataSourceRegistry(DataSourceRegistry delegate, BiFunction<String, DataSource, DataSource> instrumentation) {
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public void register(String name, DataSource dataSource) {
+        delegate.register(name, instrumentation.apply(name, dataSource));
+    }
+
+    @Override
+    public DataSource resolve(String name) {
+        return delegate.resolve(name);
+    }
+}
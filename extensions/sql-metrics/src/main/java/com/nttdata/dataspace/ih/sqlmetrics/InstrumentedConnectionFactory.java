@@ -0,0 +1,36 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import org.eclipse.edc.sql.ConnectionFactory;
+
+import java.sql.Connection;
+import java.util.Properties;
+
+/**
+ * Times the creation of physical connections by the pools and counts the open ones.
+ */
+class InstrumentedConnectionFactory implements ConnectionFactory {
+
+    private final ConnectionFactory delegate;
+    private final SqlMetrics.Connections stats;
+
+    InstrumentedConnectionFactory(ConnectionFactory delegate, SqlMetrics metrics) {
+        this.delegate = delegate;
+        this.stats = metrics.connections();
+    }
+
+    @Override
+    public Connection create(String jdbcUrl, Properties properties) {
+        var start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = delegate.create(jdbcUrl, properties);
+        } catch (RuntimeException e) {
+            stats.connects.record(System.nanoTime() - start, true);
+            throw e;
+        }
+        stats.connects.record(System.nanoTime() - start, false);
+        stats.open.incrementAndGet();
+        // statements are timed on the pooled connections handed out by InstrumentedDataSource
+        return InstrumentedJdbc.connection(connection, null, stats.open::decrementAndGet);
+    }
+}
@@ -0,0 +1,109 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Measures how long callers wait for a connection of the wrapped pool and how long they hold it, and times the
+ * statements of the connections it hands out.
+ */
+class InstrumentedDataSource implements DataSource {
+
+    private final DataSource delegate;
+    private final SqlMetrics metrics;
+    private final SqlMetrics.DataSourceStats stats;
+    private final long slowAcquireNanos;
+    private final Consumer<Long> onSlowAcquire;
+
+    /**
+     * @param slowAcquireNanos acquire time above which {@code onSlowAcquire} is called with the time in nanoseconds
+     */
+    InstrumentedDataSource(String name, DataSource delegate, SqlMetrics metrics, long slowAcquireNanos, Consumer<Long> onSlowAcquire) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.stats = metrics.dataSource(name);
+        this.slowAcquireNanos = slowAcquireNanos;
+        this.onSlowAcquire = onSlowAcquire;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = delegate.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            stats.acquire.record(System.nanoTime() - start, true);
+            throw e;
+        }
+        return acquired(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        var start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = delegate.getConnection(username, password);
+        } catch (SQLException | RuntimeException e) {
+            stats.acquire.record(System.nanoTime() - start, true);
+            throw e;
+        }
+        return acquired(connection, start);
+    }
+
+    private Connection acquired(Connection connection, long start) {
+        var acquiredAt = System.nanoTime();
+        var waited = acquiredAt - start;
+        stats.acquire.record(waited, false);
+        if (waited > slowAcquireNanos) {
+            stats.slowAcquires.increment();
+            onSlowAcquire.accept(waited);
+        }
+        stats.active.incrementAndGet();
+        return InstrumentedJdbc.connection(connection, metrics, () -> {
+            stats.active.decrementAndGet();
+            stats.usage.record(System.nanoTime() - acquiredAt, false);
+        });
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        return type.isInstance(delegate) ? type.cast(delegate) : delegate.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(delegate) || delegate.isWrapperFor(type);
+    }
+}
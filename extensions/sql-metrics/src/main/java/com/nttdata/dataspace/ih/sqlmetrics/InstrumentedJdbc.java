@@ -0,0 +1,105 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dynamic proxies for JDBC connections and statements, so that only the timed methods need to be handled instead of
+ * the full JDBC interfaces. Every other call goes straight to the driver object.
+ */
+final class InstrumentedJdbc {
+
+    private InstrumentedJdbc() {
+    }
+
+    /**
+     * Wraps a connection: statements it creates are timed per store unless {@code metrics} is null, and {@code onClose}
+     * runs once when the connection is closed (returned to the pool, for pooled connections).
+     */
+    static Connection connection(Connection connection, SqlMetrics metrics, Runnable onClose) {
+        var closed = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            var name = method.getName();
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            if (name.equals("close")) {
+                try {
+                    return invoke(connection, method, args);
+                } finally {
+                    if (closed.compareAndSet(false, true)) {
+                        onClose.run();
+                    }
+                }
+            }
+            var result = invoke(connection, method, args);
+            if (metrics == null) {
+                return result;
+            }
+            if (result instanceof CallableStatement statement) {
+                return statement(statement, CallableStatement.class, metrics.storeFor((String) args[0]), metrics);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return statement(statement, PreparedStatement.class, metrics.storeFor((String) args[0]), metrics);
+            }
+            if (result instanceof Statement statement) {
+                return statement(statement, Statement.class, null, metrics);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(), new Class<?>[]{ Connection.class }, handler);
+    }
+
+    /**
+     * Wraps a statement so that its {@code execute*} calls are timed for the store of its SQL. Prepared statements are
+     * attributed once when they are prepared; for plain statements the SQL is the argument of the execute call.
+     */
+    static <T extends Statement> T statement(T statement, Class<T> type, SqlMetrics.StoreStats preparedStore, SqlMetrics metrics) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            var store = args != null && args.length > 0 && args[0] instanceof String sql ? metrics.storeFor(sql)
+                    : preparedStore != null ? preparedStore : metrics.storeFor(null);
+            var start = System.nanoTime();
+            var failed = true;
+            try {
+                var result = invoke(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                store.statements.record(System.nanoTime() - start, failed);
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(), new Class<?>[]{ type }, handler));
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    /**
+     * The proxy is its own identity, so that callers keeping connections in maps find them again.
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
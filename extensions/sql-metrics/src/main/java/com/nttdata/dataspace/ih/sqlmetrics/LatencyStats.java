@@ -0,0 +1,43 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count, error count, mean and maximum of a timed operation since start. Cheap enough to record on every statement.
+ */
+class LatencyStats {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos, boolean failed) {
+        count.increment();
+        if (failed) {
+            errors.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double meanMillis() {
+        var n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / NANOS_PER_MILLI / n;
+    }
+
+    double maxMillis() {
+        return maxNanos.get() / NANOS_PER_MILLI;
+    }
+}
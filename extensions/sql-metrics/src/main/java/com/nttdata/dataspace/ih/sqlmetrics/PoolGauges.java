@@ -0,0 +1,128 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Reads idle, max-total and waiter counts from the object pool behind a pooled datasource.
+ * <p>
+ * The EDC commons pool keeps its {@code GenericObjectPool} in private fields of the datasource it registers and does
+ * not expose it, so the pool is found by walking the fields of the datasource for an object with the commons-pool
+ * getters. Without a commons-pool dependency, the getters are called reflectively. When no pool is found (another pool
+ * implementation), every gauge reports {@value #UNKNOWN}.
+ * </p>
+ */
+final class PoolGauges {
+
+    static final int UNKNOWN = -1;
+    static final PoolGauges NONE = new PoolGauges(null, null, null, null);
+
+    private static final int MAX_DEPTH = 3;
+
+    private final Object pool;
+    private final Method idle;
+    private final Method maxTotal;
+    private final Method waiters;
+
+    private PoolGauges(Object pool, Method idle, Method maxTotal, Method waiters) {
+        this.pool = pool;
+        this.idle = idle;
+        this.maxTotal = maxTotal;
+        this.waiters = waiters;
+    }
+
+    /**
+     * Finds the object pool reachable from the given datasource within a few fields.
+     */
+    static PoolGauges of(Object dataSource) {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        var level = new ArrayDeque<>();
+        level.add(dataSource);
+        for (var depth = 0; depth <= MAX_DEPTH && !level.isEmpty(); depth++) {
+            var next = new ArrayDeque<>();
+            for (var candidate : level) {
+                if (!seen.add(candidate)) {
+                    continue;
+                }
+                var gauges = gaugesOf(candidate);
+                if (gauges != null) {
+                    return gauges;
+                }
+                next.addAll(fieldValues(candidate));
+            }
+            level = next;
+        }
+        return NONE;
+    }
+
+    int idle() {
+        return read(idle);
+    }
+
+    int maxTotal() {
+        return read(maxTotal);
+    }
+
+    int waiters() {
+        return read(waiters);
+    }
+
+    private int read(Method getter) {
+        if (pool == null) {
+            return UNKNOWN;
+        }
+        try {
+            return ((Number) getter.invoke(pool)).intValue();
+        } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static PoolGauges gaugesOf(Object candidate) {
+        try {
+            var type = candidate.getClass();
+            var idle = type.getMethod("getNumIdle");
+            var maxTotal = type.getMethod("getMaxTotal");
+            var waiters = type.getMethod("getNumWaiters");
+            if (!idle.trySetAccessible() || !maxTotal.trySetAccessible() || !waiters.trySetAccessible()) {
+                return null;
+            }
+            var gauges = new PoolGauges(candidate, idle, maxTotal, waiters);
+            return gauges.maxTotal() != UNKNOWN || gauges.idle() != UNKNOWN ? gauges : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ArrayDeque<Object> fieldValues(Object candidate) {
+        var values = new ArrayDeque<>();
+        for (var type = candidate.getClass(); type != null && !isPlatform(type); type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive() || field.getType().isArray()) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    var value = field.get(candidate);
+                    if (value != null && !isPlatform(value.getClass())) {
+                        values.add(value);
+                    }
+                } catch (RuntimeException | IllegalAccessException e) {
+                    // inaccessible field, e.g. of a named module
+                }
+            }
+        }
+        return values;
+    }
+
+    private static boolean isPlatform(Class<?> type) {
+        var name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+}
@@ -0,0 +1,256 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Metrics of the SQL persistence: physical connections, one entry per datasource and one per store. Entries are
+ * created on first use and exported over JMX under {@value #DOMAIN}.
+ * <p>
+ * Statements are attributed to a store by the first table they name; the tables of the Identity Hub stores are mapped
+ * to the store names, any other table is reported under its own name.
+ * </p>
+ */
+class SqlMetrics {
+
+    static final String DOMAIN = "com.nttdata.dataspace.ih";
+    static final String UNKNOWN_STORE = "other";
+    // the stores prepare a bounded set of statements, anything beyond this is resolved without caching
+    static final int MAX_CACHED_STATEMENTS = 1024;
+
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update|join)\\s+\"?([a-z_][a-z0-9_]*)", Pattern.CASE_INSENSITIVE);
+    private static final Map<String, String> STORES = Map.of(
+            "participant_context", "participantcontext",
+            "participant_context_config", "participantcontextconfig",
+            "keypair_resource", "keypair",
+            "did_resources", "didresource",
+            "credential_resource", "credentials");
+
+    private final MBeanServer mBeanServer;
+    private final Consumer<JMException> onRegistrationFailure;
+    private final Connections connections = new Connections();
+    private final Map<String, DataSourceStats> dataSources = new ConcurrentHashMap<>();
+    private final Map<String, StoreStats> stores = new ConcurrentHashMap<>();
+    private final Map<String, StoreStats> statementStores = new ConcurrentHashMap<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    SqlMetrics(MBeanServer mBeanServer, Consumer<JMException> onRegistrationFailure) {
+        this.mBeanServer = mBeanServer;
+        this.onRegistrationFailure = onRegistrationFailure;
+        register("type=SqlConnections", connections);
+    }
+
+    Connections connections() {
+        return connections;
+    }
+
+    DataSourceStats dataSource(String name) {
+        return dataSources.computeIfAbsent(name, n -> {
+            var stats = new DataSourceStats();
+            register("type=DataSource,name=" + ObjectName.quote(n), stats);
+            return stats;
+        });
+    }
+
+    StoreStats store(String name) {
+        return stores.computeIfAbsent(name, n -> {
+            var stats = new StoreStats();
+            register("type=SqlStore,name=" + ObjectName.quote(n), stats);
+            return stats;
+        });
+    }
+
+    /**
+     * Returns the stats of the store a statement belongs to. The store is resolved once per distinct SQL text.
+     */
+    StoreStats storeFor(String sql) {
+        if (sql == null) {
+            return store(UNKNOWN_STORE);
+        }
+        var stats = statementStores.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        stats = store(storeOf(sql));
+        if (statementStores.size() < MAX_CACHED_STATEMENTS) {
+            statementStores.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the store a statement belongs to, see the class comment.
+     */
+    static String storeOf(String sql) {
+        if (sql == null) {
+            return UNKNOWN_STORE;
+        }
+        var matcher = TABLE.matcher(sql);
+        if (!matcher.find()) {
+            return UNKNOWN_STORE;
+        }
+        var table = matcher.group(1).toLowerCase(Locale.ROOT);
+        return STORES.getOrDefault(table, table);
+    }
+
+    void unregisterAll() {
+        synchronized (registered) {
+            for (var name : registered) {
+                try {
+                    mBeanServer.unregisterMBean(name);
+                } catch (JMException e) {
+                    onRegistrationFailure.accept(e);
+                }
+            }
+            registered.clear();
+        }
+    }
+
+    private void register(String properties, Object mBean) {
+        try {
+            var name = new ObjectName(DOMAIN + ":" + properties);
+            mBeanServer.registerMBean(mBean, name);
+            synchronized (registered) {
+                registered.add(name);
+            }
+        } catch (JMException e) {
+            onRegistrationFailure.accept(e);
+        }
+    }
+
+    private int totalActive() {
+        return dataSources.values().stream().mapToInt(DataSourceStats::getActive).sum();
+    }
+
+    class Connections implements ConnectionMetricsMXBean {
+        final LatencyStats connects = new LatencyStats();
+        final AtomicInteger open = new AtomicInteger();
+
+        @Override
+        public int getOpen() {
+            return open.get();
+        }
+
+        @Override
+        public int getIdle() {
+            return Math.max(0, open.get() - totalActive());
+        }
+
+        @Override
+        public long getConnects() {
+            return connects.count();
+        }
+
+        @Override
+        public long getConnectErrors() {
+            return connects.errors();
+        }
+
+        @Override
+        public double getMeanConnectMillis() {
+            return connects.meanMillis();
+        }
+
+        @Override
+        public double getMaxConnectMillis() {
+            return connects.maxMillis();
+        }
+    }
+
+    static class DataSourceStats implements DataSourceMetricsMXBean {
+        final LatencyStats acquire = new LatencyStats();
+        final LatencyStats usage = new LatencyStats();
+        final AtomicInteger active = new AtomicInteger();
+        final LongAdder slowAcquires = new LongAdder();
+        volatile PoolGauges pool = PoolGauges.NONE;
+
+        @Override
+        public int getActive() {
+            return active.get();
+        }
+
+        @Override
+        public int getIdle() {
+            return pool.idle();
+        }
+
+        @Override
+        public int getMaxTotal() {
+            return pool.maxTotal();
+        }
+
+        @Override
+        public int getWaiters() {
+            return pool.waiters();
+        }
+
+        @Override
+        public long getAcquires() {
+            return acquire.count();
+        }
+
+        @Override
+        public long getAcquireErrors() {
+            return acquire.errors();
+        }
+
+        @Override
+        public long getSlowAcquires() {
+            return slowAcquires.sum();
+        }
+
+        @Override
+        public double getMeanAcquireMillis() {
+            return acquire.meanMillis();
+        }
+
+        @Override
+        public double getMaxAcquireMillis() {
+            return acquire.maxMillis();
+        }
+
+        @Override
+        public double getMeanUsageMillis() {
+            return usage.meanMillis();
+        }
+
+        @Override
+        public double getMaxUsageMillis() {
+            return usage.maxMillis();
+        }
+    }
+
+    static class StoreStats implements StoreMetricsMXBean {
+        final LatencyStats statements = new LatencyStats();
+
+        @Override
+        public long getStatements() {
+            return statements.count();
+        }
+
+        @Override
+        public long getErrors() {
+            return statements.errors();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return statements.meanMillis();
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return statements.maxMillis();
+        }
+    }
+}
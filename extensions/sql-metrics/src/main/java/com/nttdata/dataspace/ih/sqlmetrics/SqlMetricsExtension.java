@@ -0,0 +1,131 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import com.nttdata.dataspace.ih.services.ConnectionObserver;
+import com.nttdata.dataspace.ih.services.DataSourceDecorator;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.sql.ConnectionFactory;
+import org.eclipse.edc.sql.DriverManagerConnectionFactory;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instruments the SQL persistence of the Identity Hub.
+ * <p>
+ * Datasources registered by the connection pool are wrapped before the transactional registry sees them: the wrapper
+ * measures the wait for a pooled connection (acquire), the time it is held (usage) and every statement, attributed to
+ * the store that issued it (participant context, key pair, DID resource, credentials, participant context config).
+ * The physical connections are counted through the {@link ConnectionFactory}. All values are exported over JMX, see
+ * {@link DataSourceMetricsMXBean}, {@link StoreMetricsMXBean} and {@link ConnectionMetricsMXBean}. Pool sizing stays
+ * with the pool settings ({@code edc.datasource.<name>.pool.*}); idle, max-total and waiting callers are read from the
+ * pool itself.
+ * </p>
+ * <p>
+ * A {@link DataSourceDecorator} provided by another extension (e.g. read-replica routing) is applied below the
+ * instrumentation, also when the metrics are disabled. Likewise, a {@link ConnectionObserver} (e.g. CRaC) is told about
+ * every physical connection.
+ * </p>
+ */
+@Extension(value = SqlMetricsExtension.NAME)
+public class SqlMetricsExtension implements ServiceExtension {
+
+    public static final String NAME = "SQL Metrics Extension";
+    public static final long DEFAULT_SLOW_ACQUIRE_MILLIS = 500;
+    public static final long SLOW_ACQUIRE_LOG_INTERVAL_MILLIS = 10_000;
+
+    @Setting(description = "Record connection pool and per-store statement metrics and export them over JMX", defaultValue = "true")
+    public static final String ENABLED_SETTING = "edc.ih.sql.metrics.enabled";
+
+    @Setting(description = "Waiting longer than this for a pooled connection is counted and logged as slow acquire", defaultValue = "500")
+    public static final String SLOW_ACQUIRE_SETTING = "edc.ih.sql.metrics.slow.acquire.millis";
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Inject(required = false)
+    private DataSourceDecorator dataSourceDecorator;
+
+    @Inject(required = false)
+    private ConnectionObserver connectionObserver;
+
+    private final AtomicLong lastSlowAcquireLog = new AtomicLong();
+    private Monitor monitor;
+    private SqlMetrics metrics;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("SqlMetrics");
+        var config = context.getConfig();
+        var enabled = config.getBoolean(ENABLED_SETTING, true);
+        if (!enabled && dataSourceDecorator == null) {
+            return;
+        }
+        var slowAcquireNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong(SLOW_ACQUIRE_SETTING, DEFAULT_SLOW_ACQUIRE_MILLIS));
+        if (enabled) {
+            metrics = new SqlMetrics(ManagementFactory.getPlatformMBeanServer(), e -> monitor.warning("Failed to (un)register SQL metrics over JMX", e));
+            monitor.info("SQL metrics ENABLED (slow acquire above %d ms)".formatted(TimeUnit.NANOSECONDS.toMillis(slowAcquireNanos)));
+        }
+
+        context.registerService(DataSourceRegistry.class, new DecoratingDataSourceRegistry(dataSourceRegistry, (name, dataSource) -> {
+            DataSource decorated = dataSourceDecorator != null ? dataSourceDecorator.decorate(name, dataSource) : dataSource;
+            if (metrics == null) {
+                return decorated;
+            }
+            metrics.dataSource(name).pool = PoolGauges.of(dataSource);
+            return new InstrumentedDataSource(name, decorated, metrics, slowAcquireNanos, waited -> slowAcquire(name, waited));
+        }));
+    }
+
+    /**
+     * Replaces the default connection factory of the SQL core. Besides counting physical connections and passing them
+     * to the {@link ConnectionObserver}, providing it makes the connection pool extension depend on this extension, so
+     * the pool registers its datasources with the instrumented registry.
+     */
+    @Provider
+    public ConnectionFactory connectionFactory() {
+        ConnectionFactory factory = new DriverManagerConnectionFactory();
+        if (metrics != null) {
+            factory = new InstrumentedConnectionFactory(factory, metrics);
+        }
+        if (connectionObserver == null) {
+            return factory;
+        }
+        var observed = factory;
+        return (jdbcUrl, properties) -> {
+            var connection = observed.create(jdbcUrl, properties);
+            connectionObserver.opened(connection);
+            return connection;
+        };
+    }
+
+    @Override
+    public void shutdown() {
+        if (metrics != null) {
+            metrics.unregisterAll();
+        }
+    }
+
+    private void slowAcquire(String dataSource, long waitedNanos) {
+        var now = System.currentTimeMillis();
+        var last = lastSlowAcquireLog.get();
+        if (now - last >= SLOW_ACQUIRE_LOG_INTERVAL_MILLIS && lastSlowAcquireLog.compareAndSet(last, now)) {
+            var stats = metrics.dataSource(dataSource);
+            monitor.warning("Waited %d ms for a connection of datasource '%s' (%d active, %d waiting, max %d, %d slow acquires so far), consider raising edc.datasource.%s.pool.connections.max-total"
+                    .formatted(TimeUnit.NANOSECONDS.toMillis(waitedNanos), dataSource, stats.getActive(), stats.getWaiters(), stats.getMaxTotal(), stats.getSlowAcquires(), dataSource));
+        }
+    }
+}
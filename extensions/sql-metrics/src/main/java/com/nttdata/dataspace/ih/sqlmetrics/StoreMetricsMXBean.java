@@ -0,0 +1,15 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+/**
+ * JMX view of the statements of one store, registered as {@code com.nttdata.dataspace.ih:type=SqlStore,name=<store>}.
+ */
+public interface StoreMetricsMXBean {
+
+    long getStatements();
+
+    long getErrors();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+}
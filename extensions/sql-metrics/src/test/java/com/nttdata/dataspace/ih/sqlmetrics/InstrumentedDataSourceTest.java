@@ -0,0 +1,178 @@
+package com.nttdata.dataspace.ih.sqlmetrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private final MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+    private final List<Long> slowAcquires = new ArrayList<>();
+    private SqlMetrics metrics;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        metrics = new SqlMetrics(mBeanServer, e -> {
+            throw new AssertionError(e);
+        });
+        lenient().when(pool.getConnection()).thenReturn(connection);
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @Test
+    void getConnection_shouldTrackActiveAndUsage_untilClosed() throws SQLException {
+        var dataSource = dataSource(Long.MAX_VALUE);
+
+        var pooled = dataSource.getConnection();
+        var stats = metrics.dataSource("default");
+        assertThat(stats.getActive()).isEqualTo(1);
+
+        pooled.close();
+        pooled.close();
+
+        assertThat(stats.getActive()).isZero();
+        assertThat(stats.getAcquires()).isEqualTo(1);
+        assertThat(stats.usage.count()).isEqualTo(1);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_shouldCountSlowAcquires() throws SQLException {
+        dataSource(0).getConnection();
+
+        assertThat(metrics.dataSource("default").getSlowAcquires()).isEqualTo(1);
+        assertThat(slowAcquires).hasSize(1);
+    }
+
+    @Test
+    void getConnection_shouldRecordAcquireError_whenPoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThatThrownBy(() -> dataSource(Long.MAX_VALUE).getConnection()).isInstanceOf(SQLException.class);
+
+        assertThat(metrics.dataSource("default").getAcquireErrors()).isEqualTo(1);
+        assertThat(metrics.dataSource("default").getActive()).isZero();
+    }
+
+    @Test
+    void statements_shouldBeTimedPerStore() throws Exception {
+        when(statement.executeUpdate()).thenReturn(1).thenThrow(new SQLException("duplicate key"));
+        var pooled = dataSource(Long.MAX_VALUE).getConnection();
+
+        pooled.prepareStatement("SELECT * FROM did_resources WHERE did = ?").executeQuery();
+        var insert = pooled.prepareStatement("INSERT INTO credential_resource (id) VALUES (?)");
+        insert.executeUpdate();
+        assertThatThrownBy(insert::executeUpdate).isInstanceOf(SQLException.class).hasMessage("duplicate key");
+
+        assertThat(metrics.store("didresource").getStatements()).isEqualTo(1);
+        assertThat(metrics.store("credentials").getStatements()).isEqualTo(2);
+        assertThat(metrics.store("credentials").getErrors()).isEqualTo(1);
+        assertThat(mBeanServer.getAttribute(new ObjectName("com.nttdata.dataspace.ih:type=SqlStore,name=\"credentials\""), "Statements"))
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void storeOf_shouldMapTablesOfIdentityHubStores() {
+        assertThat(SqlMetrics.storeOf("SELECT * FROM participant_context WHERE participant_context_id = ?")).isEqualTo("participantcontext");
+        assertThat(SqlMetrics.storeOf("UPDATE keypair_resource SET state = ?")).isEqualTo("keypair");
+        assertThat(SqlMetrics.storeOf("select count(*) from edc_lease")).isEqualTo("edc_lease");
+        assertThat(SqlMetrics.storeOf("SELECT 1")).isEqualTo(SqlMetrics.UNKNOWN_STORE);
+    }
+
+    @Test
+    void storeFor_shouldResolveStoreOncePerStatement() throws Exception {
+        var pooled = dataSource(Long.MAX_VALUE).getConnection();
+        var sql = "SELECT * FROM keypair_resource WHERE id = ?";
+
+        pooled.prepareStatement(sql).executeQuery();
+        pooled.prepareStatement(sql).executeQuery();
+
+        assertThat(metrics.storeFor(sql)).isSameAs(metrics.store("keypair"));
+        assertThat(metrics.store("keypair").getStatements()).isEqualTo(2);
+    }
+
+    @Test
+    void poolGauges_shouldReadCountsOfObjectPoolBehindDataSource() {
+        var stats = metrics.dataSource("default");
+        stats.pool = PoolGauges.of(new PoolDataSource(new ConnectionPool(new ObjectPool())));
+
+        assertThat(stats.getIdle()).isEqualTo(3);
+        assertThat(stats.getMaxTotal()).isEqualTo(8);
+        assertThat(stats.getWaiters()).isEqualTo(2);
+    }
+
+    @Test
+    void poolGauges_shouldBeUnknown_withoutObjectPool() {
+        var stats = metrics.dataSource("default");
+        stats.pool = PoolGauges.of(pool);
+
+        assertThat(stats.getIdle()).isEqualTo(PoolGauges.UNKNOWN);
+        assertThat(stats.getMaxTotal()).isEqualTo(PoolGauges.UNKNOWN);
+        assertThat(stats.getWaiters()).isEqualTo(PoolGauges.UNKNOWN);
+    }
+
+    @Test
+    void connections_shouldKeepIdentity_forPools() throws SQLException {
+        var pooled = dataSource(Long.MAX_VALUE).getConnection();
+
+        assertThat(pooled).isEqualTo(pooled);
+        assertThat(pooled.hashCode()).isEqualTo(System.identityHashCode(pooled));
+    }
+
+    private InstrumentedDataSource dataSource(long slowAcquireNanos) {
+        return new InstrumentedDataSource("default", pool, metrics, slowAcquireNanos, slowAcquires::add);
+    }
+
+    /**
+     * Shape of the EDC commons pool: the datasource holds the connection pool, which holds the object pool.
+     */
+    private record PoolDataSource(ConnectionPool connectionPool) {
+    }
+
+    private record ConnectionPool(ObjectPool objectPool) {
+    }
+
+    private static class ObjectPool {
+        public int getNumIdle() {
+            return 3;
+        }
+
+        public int getMaxTotal() {
+            return 8;
+        }
+
+        public int getNumWaiters() {
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.nttdata.dataspace.ih.sqlpartitioning;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the catalog of a Postgres table and converts it to a hash-partitioned table, see {@link PartitionPlan}. Tables
+ * are resolved through the search path, as the SQL stores do. The conversion runs on the given connection and is
+ * atomic if that connection is in a transaction.
+ */
+class HashPartitioner {
+
+    enum Outcome {
+        PARTITIONED,
+        ALREADY_PARTITIONED,
+        TABLE_MISSING,
+        KEY_MISSING
+    }
+
+    /**
+     * Result of a partitioning attempt.
+     * @param existingPartitions number of partitions of an already partitioned table, otherwise the new number
+     */
+    record Result(Outcome outcome, int existingPartitions) {
+    }
+
+    Result partition(Connection connection, String table, String key, int partitions) throws SQLException {
+        var kind = single(connection, "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", table);
+        if (kind == null) {
+            return new Result(Outcome.TABLE_MISSING, 0);
+        }
+        if ("p".equals(kind)) {
+            var count = single(connection, "SELECT count(*)::text FROM pg_inherits WHERE inhparent = ?::regclass", table);
+            return new Result(Outcome.ALREADY_PARTITIONED, Integer.parseInt(count));
+        }
+        if (single(connection, "SELECT attname::text FROM pg_attribute WHERE attrelid = ?::regclass AND attname = ? AND NOT attisdropped", table, key) == null) {
+            return new Result(Outcome.KEY_MISSING, 0);
+        }
+
+        var plan = new PartitionPlan(table, key, partitions, primaryKey(connection, table), indexes(connection, table),
+                foreignKeys(connection, "conrelid", table), foreignKeys(connection, "confrelid", table), sequences(connection, table));
+        try (var statement = connection.createStatement()) {
+            for (var sql : plan.statements()) {
+                statement.execute(sql);
+            }
+        }
+        return new Result(Outcome.PARTITIONED, partitions);
+    }
+
+    private static List<String> primaryKey(Connection connection, String table) throws SQLException {
+        return list(connection, """
+                SELECT a.attname::text FROM pg_index i
+                JOIN LATERAL unnest(i.indkey) WITH ORDINALITY AS k(attnum, ord) ON true
+                JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = k.attnum
+                WHERE i.indrelid = ?::regclass AND i.indisprimary ORDER BY k.ord""", table, 1).stream().map(row -> row[0]).toList();
+    }
+
+    private static List<PartitionPlan.Index> indexes(Connection connection, String table) throws SQLException {
+        return list(connection, """
+                SELECT ix.relname::text, pg_get_indexdef(ix.oid), i.indisunique::text FROM pg_index i
+                JOIN pg_class ix ON ix.oid = i.indexrelid
+                WHERE i.indrelid = ?::regclass AND NOT i.indisprimary ORDER BY ix.relname""", table, 3).stream()
+                .map(row -> new PartitionPlan.Index(row[0], row[1], Boolean.parseBoolean(row[2]) || "t".equals(row[2])))
+                .toList();
+    }
+
+    /**
+     * @param column {@code conrelid} for the foreign keys of the table, {@code confrelid} for those referencing it
+     */
+    private static List<PartitionPlan.ForeignKey> foreignKeys(Connection connection, String column, String table) throws SQLException {
+        return list(connection, """
+                SELECT conrelid::regclass::text, conname::text, pg_get_constraintdef(oid) FROM pg_constraint
+                WHERE contype = 'f' AND %s = ?::regclass AND conrelid <> confrelid ORDER BY conname""".formatted(column), table, 3).stream()
+                .map(row -> new PartitionPlan.ForeignKey(row[0], row[1], row[2]))
+                .toList();
+    }
+
+    private static List<PartitionPlan.OwnedSequence> sequences(Connection connection, String table) throws SQLException {
+        return list(connection, """
+                SELECT s.relname::text, a.attname::text FROM pg_depend d
+                JOIN pg_class s ON s.oid = d.objid AND s.relkind = 'S'
+                JOIN pg_attribute a ON a.attrelid = d.refobjid AND a.attnum = d.refobjsubid
+                WHERE d.refobjid = ?::regclass AND d.deptype = 'a'""", table, 2).stream()
+                .map(row -> new PartitionPlan.OwnedSequence(row[0], row[1]))
+                .toList();
+    }
+
+    private static String single(Connection connection, String sql, String... arguments) throws SQLException {
+        try (var statement = prepare(connection, sql, arguments); var result = statement.executeQuery()) {
+            return result.next() ? result.getString(1) : null;
+        }
+    }
+
+    private static List<String[]> list(Connection connection, String sql, String table, int columns) throws SQLException {
+        var rows = new ArrayList<String[]>();
+        try (var statement = prepare(connection, sql, table); var result = statement.executeQuery()) {
+            while (result.next()) {
+                var row = new String[columns];
+                for (int i = 0; i < columns; i++) {
+                    row[i] = result.getString(i + 1);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, String... arguments) throws SQLException {
+        var statement = connection.prepareStatement(sql);
+        for (int i = 0; i < arguments.length; i++) {
+            statement.setString(i + 1, arguments[i]);
+        }
+        return statement;
+    }
+}
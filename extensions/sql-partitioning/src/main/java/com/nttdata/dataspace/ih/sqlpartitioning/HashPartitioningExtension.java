@@ -0,0 +1,145 @@
+package com.nttdata.dataspace.ih.sqlpartitioning;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.sql.bootstrapper.SqlSchemaBootstrapper;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Hash-partitions the participant-scoped tables by participant context ID.
+ * <p>
+ * Every configured table is converted once to a Postgres table partitioned by hash of the key column, so the rows of a
+ * participant always live in the same partition and its indexes stay small. The stores keep using the table name, so
+ * the partitioning is transparent to them and to the services. The conversion runs in {@code prepare()}, after the
+ * schema bootstrapper created the tables and before any store is used; tables that are already partitioned are left
+ * as they are. A failed conversion fails the start. Primary keys and unique indexes stay unique across participants through guard tables, see
+ * {@link PartitionPlan}.
+ * </p>
+ */
+@Extension(value = HashPartitioningExtension.NAME)
+public class HashPartitioningExtension implements ServiceExtension {
+
+    public static final String NAME = "Hash Partitioning Extension";
+    public static final int DEFAULT_PARTITIONS = 16;
+    public static final String DEFAULT_TABLES = "participant_context,keypair_resource,did_resources,credential_resource";
+    public static final String DEFAULT_KEY = "participant_context_id";
+    public static final String DEFAULT_DATASOURCE = "default";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Setting(description = "Convert the participant-scoped tables to hash-partitioned tables on start", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.ih.sql.partitioning.enabled";
+
+    @Setting(description = "Number of hash partitions per table, only used when a table is converted", defaultValue = "16")
+    public static final String PARTITIONS_SETTING = "edc.ih.sql.partitioning.partitions";
+
+    @Setting(description = "Comma separated tables to partition", defaultValue = DEFAULT_TABLES)
+    public static final String TABLES_SETTING = "edc.ih.sql.partitioning.tables";
+
+    @Setting(description = "Partition key column, must exist in every partitioned table", defaultValue = DEFAULT_KEY)
+    public static final String KEY_SETTING = "edc.ih.sql.partitioning.key";
+
+    @Setting(description = "Name of the datasource holding the tables", defaultValue = DEFAULT_DATASOURCE)
+    public static final String DATASOURCE_SETTING = "edc.ih.sql.partitioning.datasource";
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Inject
+    private TransactionContext transactionContext;
+
+    // only for ordering: the tables have to be created before they are converted
+    @Inject(required = false)
+    private SqlSchemaBootstrapper schemaBootstrapper;
+
+    private boolean enabled;
+    private int partitions;
+    private List<String> tables;
+    private String key;
+    private String dataSourceName;
+    private Monitor monitor;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("HashPartitioning");
+        var config = context.getConfig();
+        enabled = config.getBoolean(ENABLED_SETTING, false);
+        if (!enabled) {
+            return;
+        }
+        partitions = config.getInteger(PARTITIONS_SETTING, DEFAULT_PARTITIONS);
+        key = config.getString(KEY_SETTING, DEFAULT_KEY);
+        dataSourceName = config.getString(DATASOURCE_SETTING, DEFAULT_DATASOURCE);
+        tables = Arrays.stream(config.getString(TABLES_SETTING, DEFAULT_TABLES).split(","))
+                .map(String::trim)
+                .filter(table -> !table.isEmpty())
+                .toList();
+        if (partitions < 2) {
+            throw new EdcException("%s must be at least 2, was %d".formatted(PARTITIONS_SETTING, partitions));
+        }
+        Stream.concat(tables.stream(), Stream.of(key))
+                .filter(identifier -> !IDENTIFIER.matcher(identifier).matches())
+                .findFirst()
+                .ifPresent(identifier -> {
+                    throw new EdcException("Invalid table or column name for hash partitioning: " + identifier);
+                });
+    }
+
+    @Override
+    public void prepare() {
+        if (!enabled) {
+            return;
+        }
+        var dataSource = dataSourceRegistry.resolve(dataSourceName);
+        if (dataSource == null) {
+            throw new EdcException("No datasource '%s' to partition".formatted(dataSourceName));
+        }
+        var partitioner = new HashPartitioner();
+        try {
+            // one transaction: either all tables are converted or none
+            transactionContext.execute(() -> {
+                try (var connection = dataSource.getConnection()) {
+                    for (var table : tables) {
+                        report(table, partitioner.partition(connection, table, key, partitions));
+                    }
+                } catch (SQLException e) {
+                    throw new EdcException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // partitioning was asked for, do not run on unpartitioned tables unnoticed
+            throw new EdcException("Hash partitioning failed, no table was changed", e);
+        }
+    }
+
+    private void report(String table, HashPartitioner.Result result) {
+        switch (result.outcome()) {
+            case PARTITIONED -> monitor.info("Partitioned %s into %d partitions by %s".formatted(table, partitions, key));
+            case ALREADY_PARTITIONED -> {
+                if (result.existingPartitions() != partitions) {
+                    monitor.warning("%s already has %d partitions, %s=%d is ignored; changing the partition count is not supported"
+                            .formatted(table, result.existingPartitions(), PARTITIONS_SETTING, partitions));
+                }
+            }
+            case TABLE_MISSING -> monitor.warning("Table %s does not exist, not partitioned".formatted(table));
+            case KEY_MISSING -> monitor.warning("Table %s has no column %s, not partitioned".formatted(table, key));
+        }
+    }
+}
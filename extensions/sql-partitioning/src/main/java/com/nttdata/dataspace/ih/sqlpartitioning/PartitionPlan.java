@@ -0,0 +1,167 @@
+package com.nttdata.dataspace.ih.sqlpartitioning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The statements that turn a regular table into a table hash-partitioned by a key column, keeping its data, indexes,
+ * foreign keys and owned sequences.
+ * <p>
+ * The table is renamed, recreated with the same columns as a partitioned table with {@code partitions} partitions
+ * named {@code <table>_p<n>}, and filled from the old table, which is then dropped. Postgres requires primary keys and
+ * unique indexes of a partitioned table to contain the partition key, so the key is appended to them where missing.
+ * All definitions are taken from the catalog before the rename and therefore name the original table.
+ * </p>
+ * <p>
+ * Appending the key alone would only make the columns unique per participant, e.g. the same DID or credential ID could
+ * be stored for two participants. Each such constraint therefore gets a guard: a regular, non-partitioned table
+ * {@code <constraint>_global} with a unique constraint on the original columns, kept in sync by a row trigger on the
+ * partitioned table, so a duplicate fails with a unique violation as before. The guard is not used for reads; lookups
+ * by those columns without the key still probe every partition.
+ * </p>
+ *
+ * @param table          table to partition
+ * @param key            partition key column
+ * @param partitions     number of hash partitions
+ * @param primaryKey     primary key columns, empty if there is none
+ * @param indexes        all indexes except the primary key
+ * @param foreignKeys    foreign keys of the table
+ * @param referencedBy   foreign keys of other tables referencing the table
+ * @param sequences      sequences owned by columns of the table
+ */
+record PartitionPlan(String table, String key, int partitions, List<String> primaryKey, List<Index> indexes,
+                     List<ForeignKey> foreignKeys, List<ForeignKey> referencedBy, List<OwnedSequence> sequences) {
+
+    private static final Pattern UNIQUE_INDEX_COLUMNS = Pattern.compile("^(CREATE UNIQUE INDEX .+? USING \\w+ \\()([^()]*)(\\).*)$");
+    private static final String GUARD_SUFFIX = "_global";
+
+    record Index(String name, String definition, boolean unique) {
+    }
+
+    /**
+     * @param table      table the foreign key is defined on
+     * @param name       constraint name
+     * @param definition definition as returned by {@code pg_get_constraintdef}
+     */
+    record ForeignKey(String table, String name, String definition) {
+    }
+
+    record OwnedSequence(String sequence, String column) {
+    }
+
+    String unpartitionedTable() {
+        return table + "_unpartitioned";
+    }
+
+    List<String> statements() {
+        var old = unpartitionedTable();
+        var statements = new ArrayList<String>();
+        statements.add("LOCK TABLE %s IN ACCESS EXCLUSIVE MODE".formatted(table));
+        statements.add("ALTER TABLE %s RENAME TO %s".formatted(table, old));
+        statements.add(("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING IDENTITY INCLUDING STORAGE " +
+                "INCLUDING COMMENTS) PARTITION BY HASH (%s)").formatted(table, old, key));
+        for (int i = 0; i < partitions; i++) {
+            statements.add("CREATE TABLE %s_p%d PARTITION OF %s FOR VALUES WITH (MODULUS %d, REMAINDER %d)".formatted(table, i, table, partitions, i));
+        }
+        statements.add("INSERT INTO %s OVERRIDING SYSTEM VALUE SELECT * FROM %s".formatted(table, old));
+        for (var sequence : sequences) {
+            statements.add("ALTER SEQUENCE %s OWNED BY %s.%s".formatted(sequence.sequence(), table, sequence.column()));
+        }
+        for (var foreignKey : referencedBy) {
+            statements.add("ALTER TABLE %s DROP CONSTRAINT %s".formatted(foreignKey.table(), foreignKey.name()));
+        }
+        // drops the old indexes and constraints, so they can be recreated under their names
+        statements.add("DROP TABLE %s".formatted(old));
+        if (!primaryKey.isEmpty()) {
+            statements.add("ALTER TABLE %s ADD PRIMARY KEY (%s)".formatted(table, String.join(", ", withKey(primaryKey))));
+            if (!primaryKey.contains(key)) {
+                statements.addAll(guard(table + "_pkey", primaryKey));
+            }
+        }
+        for (var index : indexes) {
+            if (!index.unique()) {
+                statements.add(index.definition());
+                continue;
+            }
+            statements.add(uniqueWithKey(index.definition(), key));
+            var columns = uniqueColumns(index.definition());
+            if (!columns.contains(key)) {
+                statements.addAll(guard(index.name(), columns));
+            }
+        }
+        for (var foreignKey : foreignKeys) {
+            statements.add("ALTER TABLE %s ADD CONSTRAINT %s %s".formatted(table, foreignKey.name(), foreignKey.definition()));
+        }
+        for (var foreignKey : referencedBy) {
+            statements.add("ALTER TABLE %s ADD CONSTRAINT %s %s".formatted(foreignKey.table(), foreignKey.name(), foreignKey.definition()));
+        }
+        statements.add("ANALYZE %s".formatted(table));
+        return statements;
+    }
+
+    private List<String> withKey(List<String> columns) {
+        if (columns.contains(key)) {
+            return columns;
+        }
+        var extended = new ArrayList<>(columns);
+        extended.add(key);
+        return extended;
+    }
+
+    /**
+     * The statements that keep {@code columns} unique across all partitions, see the class comment. The existing rows
+     * are copied into the guard before the trigger is created, while the table is locked. Rows with a {@code NULL} in
+     * the columns never conflict and are left out, so the guard is always looked up through its unique index.
+     */
+    List<String> guard(String constraint, List<String> columns) {
+        var guard = constraint + GUARD_SUFFIX;
+        var columnList = String.join(", ", columns);
+        var oldValues = String.join(", ", columns.stream().map(column -> "OLD." + column).toList());
+        var newValues = String.join(", ", columns.stream().map(column -> "NEW." + column).toList());
+        return List.of(
+                "CREATE TABLE %s AS SELECT %s FROM %s WHERE (%s) IS NOT NULL".formatted(guard, columnList, table, columnList),
+                "ALTER TABLE %1$s ADD CONSTRAINT %1$s_unique UNIQUE (%2$s)".formatted(guard, columnList),
+                """
+                CREATE FUNCTION %1$s_sync() RETURNS trigger LANGUAGE plpgsql AS $$
+                BEGIN
+                    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                        DELETE FROM %1$s WHERE (%2$s) = (%3$s);
+                    END IF;
+                    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                        IF (%4$s) IS NOT NULL THEN
+                            INSERT INTO %1$s (%2$s) VALUES (%4$s);
+                        END IF;
+                    END IF;
+                    RETURN NULL;
+                END $$""".formatted(guard, columnList, oldValues, newValues),
+                "CREATE TRIGGER %1$s_sync AFTER INSERT OR DELETE OR UPDATE OF %2$s ON %3$s FOR EACH ROW EXECUTE FUNCTION %1$s_sync()"
+                        .formatted(guard, columnList, table));
+    }
+
+    /**
+     * Appends the partition key to the column list of a unique index definition unless it is already part of it.
+     */
+    static String uniqueWithKey(String definition, String key) {
+        var matcher = uniqueIndex(definition);
+        var columns = matcher.group(2);
+        var hasKey = uniqueColumns(definition).contains(key);
+        return hasKey ? definition : matcher.group(1) + columns + ", " + key + matcher.group(3);
+    }
+
+    static List<String> uniqueColumns(String definition) {
+        return List.of(uniqueIndex(definition).group(2).split(",")).stream().map(String::trim).toList();
+    }
+
+    /**
+     * Partial unique indexes are rejected as well, since the guard could not apply their predicate.
+     */
+    private static Matcher uniqueIndex(String definition) {
+        var matcher = UNIQUE_INDEX_COLUMNS.matcher(definition);
+        if (!matcher.matches() || matcher.group(3).contains(" WHERE ")) {
+            throw new IllegalArgumentException("Unsupported unique index, add the partition key manually: " + definition);
+        }
+        return matcher;
+    }
+}
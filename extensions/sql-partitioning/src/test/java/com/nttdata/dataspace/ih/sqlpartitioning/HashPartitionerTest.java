@@ -0,0 +1,135 @@
+package com.nttdata.dataspace.ih.sqlpartitioning;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the conversion against an embedded Postgres. Every test runs in a transaction that is rolled back.
+ */
+class HashPartitionerTest {
+
+    private static final String KEY = "participant_context_id";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static EmbeddedPostgres postgres;
+
+    private final HashPartitioner partitioner = new HashPartitioner();
+    private Connection connection;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = postgres.getPostgresDatabase().getConnection();
+        connection.setAutoCommit(false);
+        execute("CREATE TABLE participant_context (participant_context_id VARCHAR PRIMARY KEY)");
+        execute("""
+                CREATE TABLE did_resources (did VARCHAR PRIMARY KEY, state INTEGER NOT NULL,
+                participant_context_id VARCHAR REFERENCES participant_context (participant_context_id))""");
+        execute("CREATE INDEX did_resources_state_idx ON did_resources (state)");
+        execute("CREATE TABLE credential_resource (id VARCHAR PRIMARY KEY, alias VARCHAR, participant_context_id VARCHAR)");
+        execute("CREATE UNIQUE INDEX credential_alias_idx ON credential_resource (alias)");
+        execute("INSERT INTO participant_context VALUES ('alice'), ('bob')");
+        execute("INSERT INTO did_resources VALUES ('did:web:alice', 1, 'alice'), ('did:web:bob', 1, 'bob')");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    void partition_shouldConvertTable_keepingRowsIndexesAndForeignKeys() throws SQLException {
+        var result = partitioner.partition(connection, "did_resources", KEY, 4);
+
+        assertThat(result).isEqualTo(new HashPartitioner.Result(HashPartitioner.Outcome.PARTITIONED, 4));
+        assertThat(single("SELECT relkind::text FROM pg_class WHERE oid = 'did_resources'::regclass")).isEqualTo("p");
+        assertThat(single("SELECT count(*)::text FROM pg_inherits WHERE inhparent = 'did_resources'::regclass")).isEqualTo("4");
+        assertThat(single("SELECT participant_context_id FROM did_resources WHERE did = 'did:web:bob'")).isEqualTo("bob");
+        assertThat(single("SELECT count(*)::text FROM pg_indexes WHERE tablename = 'did_resources' AND indexname = 'did_resources_state_idx'")).isEqualTo("1");
+        assertThat(single("SELECT count(*)::text FROM pg_constraint WHERE conrelid = 'did_resources'::regclass AND contype = 'f'")).isEqualTo("1");
+        assertThat(single("SELECT to_regclass('did_resources_unpartitioned')::text")).isNull();
+    }
+
+    @Test
+    void partition_shouldKeepPrimaryKeyUniqueAcrossParticipants() throws SQLException {
+        partitioner.partition(connection, "did_resources", KEY, 4);
+
+        assertThatThrownBy(() -> execute("INSERT INTO did_resources VALUES ('did:web:alice', 1, 'bob')"))
+                .isInstanceOfSatisfying(SQLException.class, e -> assertThat(e.getSQLState()).isEqualTo(UNIQUE_VIOLATION));
+    }
+
+    @Test
+    void partition_shouldKeepUniqueIndexUniqueAcrossParticipants() throws SQLException {
+        execute("INSERT INTO credential_resource VALUES ('c1', 'membership', 'alice')");
+        partitioner.partition(connection, "credential_resource", KEY, 4);
+
+        assertThatThrownBy(() -> execute("INSERT INTO credential_resource VALUES ('c2', 'membership', 'bob')"))
+                .isInstanceOfSatisfying(SQLException.class, e -> assertThat(e.getSQLState()).isEqualTo(UNIQUE_VIOLATION));
+    }
+
+    @Test
+    void partition_shouldReleaseValues_whenRowsAreDeletedOrUpdated() throws SQLException {
+        partitioner.partition(connection, "did_resources", KEY, 4);
+
+        execute("DELETE FROM did_resources WHERE did = 'did:web:alice'");
+        execute("INSERT INTO did_resources VALUES ('did:web:alice', 1, 'bob')");
+        execute("UPDATE did_resources SET did = 'did:web:bob2' WHERE did = 'did:web:bob'");
+        execute("INSERT INTO did_resources VALUES ('did:web:bob', 1, 'alice')");
+
+        assertThat(single("SELECT count(*)::text FROM did_resources_pkey_global")).isEqualTo("3");
+    }
+
+    @Test
+    void partition_shouldNotGuard_whenConstraintContainsKey() throws SQLException {
+        partitioner.partition(connection, "participant_context", KEY, 4);
+
+        assertThat(single("SELECT to_regclass('participant_context_pkey_global')::text")).isNull();
+    }
+
+    @Test
+    void partition_shouldLeavePartitionedTable() throws SQLException {
+        partitioner.partition(connection, "did_resources", KEY, 4);
+
+        assertThat(partitioner.partition(connection, "did_resources", KEY, 8))
+                .isEqualTo(new HashPartitioner.Result(HashPartitioner.Outcome.ALREADY_PARTITIONED, 4));
+    }
+
+    @Test
+    void partition_shouldReportMissingTableOrKey() throws SQLException {
+        assertThat(partitioner.partition(connection, "keypair_resource", KEY, 4).outcome()).isEqualTo(HashPartitioner.Outcome.TABLE_MISSING);
+        assertThat(partitioner.partition(connection, "did_resources", "tenant_id", 4).outcome()).isEqualTo(HashPartitioner.Outcome.KEY_MISSING);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private String single(String sql) throws SQLException {
+        try (var statement = connection.createStatement(); var result = statement.executeQuery(sql)) {
+            return result.next() ? result.getString(1) : null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.nttdata.dataspace.ih.sqlpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionPlanTest {
+
+    private static final String KEY = "participant_context_id";
+
+    @Test
+    void statements_shouldCreatePartitionsAndMoveRows() {
+        var statements = plan(List.of("id"), List.of(), List.of(), List.of()).statements();
+
+        assertThat(statements).startsWith(
+                "LOCK TABLE credential_resource IN ACCESS EXCLUSIVE MODE",
+                "ALTER TABLE credential_resource RENAME TO credential_resource_unpartitioned");
+        assertThat(statements.get(2)).endsWith("PARTITION BY HASH (participant_context_id)");
+        assertThat(statements).contains(
+                "CREATE TABLE credential_resource_p0 PARTITION OF credential_resource FOR VALUES WITH (MODULUS 4, REMAINDER 0)",
+                "CREATE TABLE credential_resource_p3 PARTITION OF credential_resource FOR VALUES WITH (MODULUS 4, REMAINDER 3)",
+                "INSERT INTO credential_resource OVERRIDING SYSTEM VALUE SELECT * FROM credential_resource_unpartitioned");
+        assertThat(statements).filteredOn(s -> s.contains("PARTITION OF")).hasSize(4);
+        assertThat(statements.indexOf("DROP TABLE credential_resource_unpartitioned"))
+                .isGreaterThan(statements.indexOf("INSERT INTO credential_resource OVERRIDING SYSTEM VALUE SELECT * FROM credential_resource_unpartitioned"));
+    }
+
+    @Test
+    void statements_shouldAddKeyToPrimaryKey() {
+        assertThat(plan(List.of("id"), List.of(), List.of(), List.of()).statements())
+                .contains("ALTER TABLE credential_resource ADD PRIMARY KEY (id, participant_context_id)");
+        assertThat(plan(List.of(KEY), List.of(), List.of(), List.of()).statements())
+                .contains("ALTER TABLE credential_resource ADD PRIMARY KEY (participant_context_id)");
+    }
+
+    @Test
+    void statements_shouldRecreateIndexes_withKeyInUniqueOnes() {
+        var indexes = List.of(
+                new PartitionPlan.Index("credential_issuer_idx", "CREATE INDEX credential_issuer_idx ON public.credential_resource USING btree (issuer_id)", false),
+                new PartitionPlan.Index("credential_raw_idx", "CREATE UNIQUE INDEX credential_raw_idx ON public.credential_resource USING btree (raw_vc)", true));
+
+        var statements = plan(List.of("id"), indexes, List.of(), List.of()).statements();
+
+        assertThat(statements).contains(
+                "CREATE INDEX credential_issuer_idx ON public.credential_resource USING btree (issuer_id)",
+                "CREATE UNIQUE INDEX credential_raw_idx ON public.credential_resource USING btree (raw_vc, participant_context_id)");
+    }
+
+    @Test
+    void statements_shouldGuardGlobalUniqueness_ofConstraintsWithoutKey() {
+        var indexes = List.of(new PartitionPlan.Index("credential_raw_idx", "CREATE UNIQUE INDEX credential_raw_idx ON public.credential_resource USING btree (raw_vc)", true));
+
+        var statements = plan(List.of("id"), indexes, List.of(), List.of()).statements();
+
+        assertThat(statements).contains(
+                "CREATE TABLE credential_resource_pkey_global AS SELECT id FROM credential_resource WHERE (id) IS NOT NULL",
+                "ALTER TABLE credential_resource_pkey_global ADD CONSTRAINT credential_resource_pkey_global_unique UNIQUE (id)",
+                "CREATE TRIGGER credential_resource_pkey_global_sync AFTER INSERT OR DELETE OR UPDATE OF id ON credential_resource FOR EACH ROW EXECUTE FUNCTION credential_resource_pkey_global_sync()",
+                "CREATE TABLE credential_raw_idx_global AS SELECT raw_vc FROM credential_resource WHERE (raw_vc) IS NOT NULL");
+        assertThat(statements).filteredOn(s -> s.startsWith("CREATE FUNCTION credential_resource_pkey_global_sync()")).singleElement()
+                .satisfies(function -> assertThat(function)
+                        .contains("DELETE FROM credential_resource_pkey_global WHERE (id) = (OLD.id)")
+                        .contains("INSERT INTO credential_resource_pkey_global (id) VALUES (NEW.id)"));
+        assertThat(statements.indexOf("CREATE TABLE credential_resource_pkey_global AS SELECT id FROM credential_resource WHERE (id) IS NOT NULL"))
+                .isGreaterThan(statements.indexOf("INSERT INTO credential_resource OVERRIDING SYSTEM VALUE SELECT * FROM credential_resource_unpartitioned"));
+    }
+
+    @Test
+    void statements_shouldNotGuard_constraintsContainingKey() {
+        var indexes = List.of(new PartitionPlan.Index("alias_idx", "CREATE UNIQUE INDEX alias_idx ON public.credential_resource USING btree (participant_context_id, alias)", true));
+
+        var statements = plan(List.of(KEY), indexes, List.of(), List.of()).statements();
+
+        assertThat(statements).noneMatch(s -> s.contains("_global"));
+    }
+
+    @Test
+    void statements_shouldDropAndRecreateForeignKeys() {
+        var outgoing = List.of(new PartitionPlan.ForeignKey("credential_resource", "credential_participant_fk",
+                "FOREIGN KEY (participant_context_id) REFERENCES participant_context(participant_context_id)"));
+        var incoming = List.of(new PartitionPlan.ForeignKey("credential_usage", "usage_credential_fk",
+                "FOREIGN KEY (credential_id, participant_context_id) REFERENCES credential_resource(id, participant_context_id)"));
+
+        var statements = plan(List.of("id"), List.of(), outgoing, incoming).statements();
+
+        var drop = statements.indexOf("ALTER TABLE credential_usage DROP CONSTRAINT usage_credential_fk");
+        assertThat(drop).isLessThan(statements.indexOf("DROP TABLE credential_resource_unpartitioned"));
+        assertThat(statements).contains(
+                "ALTER TABLE credential_resource ADD CONSTRAINT credential_participant_fk FOREIGN KEY (participant_context_id) REFERENCES participant_context(participant_context_id)",
+                "ALTER TABLE credential_usage ADD CONSTRAINT usage_credential_fk FOREIGN KEY (credential_id, participant_context_id) REFERENCES credential_resource(id, participant_context_id)");
+    }
+
+    @Test
+    void uniqueWithKey_shouldKeepDefinition_whenKeyIsIndexed() {
+        var definition = "CREATE UNIQUE INDEX alias_idx ON public.keypair_resource USING btree (participant_context_id, key_id)";
+
+        assertThat(PartitionPlan.uniqueWithKey(definition, KEY)).isEqualTo(definition);
+    }
+
+    @Test
+    void uniqueWithKey_shouldReject_expressionIndexes() {
+        assertThatThrownBy(() -> PartitionPlan.uniqueWithKey("CREATE UNIQUE INDEX lower_idx ON public.did_resources USING btree (lower(did))", KEY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void uniqueWithKey_shouldReject_partialIndexes() {
+        assertThatThrownBy(() -> PartitionPlan.uniqueWithKey("CREATE UNIQUE INDEX active_idx ON public.did_resources USING btree (did) WHERE (state = 1)", KEY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PartitionPlan plan(List<String> primaryKey, List<PartitionPlan.Index> indexes,
+                                      List<PartitionPlan.ForeignKey> foreignKeys, List<PartitionPlan.ForeignKey> referencedBy) {
+        return new PartitionPlan("credential_resource", KEY, 4, primaryKey, indexes, foreignKeys, referencedBy, List.of());
+    }
+}
@@ -0,0 +1,99 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialStatus;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.revocation.RevocationListService;
+import org.eclipse.edc.spi.result.Result;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Revocation checks for {@code BitstringStatusListEntry} and {@code StatusList2021Entry} credential statuses, answered
+ * from the {@link StatusListCache} instead of downloading and decoding the status list per check.
+ */
+public class CachedStatusListRevocationService implements RevocationListService {
+
+    public static final String BITSTRING_STATUS_LIST_ENTRY = "BitstringStatusListEntry";
+    public static final String STATUS_LIST_2021_ENTRY = "StatusList2021Entry";
+
+    private static final Set<String> TYPES = Set.of(BITSTRING_STATUS_LIST_ENTRY, STATUS_LIST_2021_ENTRY);
+    private static final Set<String> BLOCKING_PURPOSES = Set.of("revocation", "suspension");
+    private static final List<String> STATUS_NAMESPACES = List.of("", "https://www.w3.org/ns/credentials/status#", "https://w3id.org/vc/status-list#");
+
+    private final StatusListCache cache;
+
+    public CachedStatusListRevocationService(StatusListCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Result<Void> checkValidity(CredentialStatus credentialStatus) {
+        return status(credentialStatus).compose(purpose -> purpose != null && BLOCKING_PURPOSES.contains(purpose)
+                ? Result.failure("Credential status is '%s'".formatted(purpose))
+                : Result.success());
+    }
+
+    @Override
+    public Result<String> getStatusPurpose(VerifiableCredential credential) {
+        for (var credentialStatus : credential.getCredentialStatus()) {
+            if (!TYPES.contains(type(credentialStatus))) {
+                continue;
+            }
+            var status = status(credentialStatus);
+            if (status.failed() || status.getContent() != null) {
+                return status;
+            }
+        }
+        return Result.success(null);
+    }
+
+    /**
+     * @return the status purpose if the status of the credential is set, null otherwise
+     */
+    private Result<String> status(CredentialStatus credentialStatus) {
+        var properties = credentialStatus.additionalProperties();
+        var url = property(properties, "statusListCredential");
+        var index = property(properties, "statusListIndex");
+        var purpose = property(properties, "statusPurpose");
+        if (url == null || index == null) {
+            return Result.failure("Credential status %s has no statusListCredential or statusListIndex".formatted(credentialStatus.id()));
+        }
+        var size = property(properties, "statusSize");
+
+        return cache.get(url).compose(statusList -> {
+            if (purpose != null && statusList.statusPurpose() != null && !purpose.equals(statusList.statusPurpose())) {
+                return Result.failure("Status purpose '%s' of the credential does not match '%s' of status list %s"
+                        .formatted(purpose, statusList.statusPurpose(), url));
+            }
+            try {
+                var value = statusList.list().status(Long.parseLong(index), size == null ? 1 : Integer.parseInt(size));
+                return Result.success(value != 0 ? (purpose != null ? purpose : statusList.statusPurpose()) : null);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return Result.failure("Invalid status list entry %s of %s: %s".formatted(index, url, e.getMessage()));
+            }
+        });
+    }
+
+    private static String type(CredentialStatus credentialStatus) {
+        var type = credentialStatus.type();
+        return type != null && type.contains("#") ? type.substring(type.lastIndexOf('#') + 1) : type;
+    }
+
+    private static String property(Map<String, Object> properties, String name) {
+        for (var namespace : STATUS_NAMESPACES) {
+            var value = properties.get(namespace + name);
+            if (value instanceof List<?> list && !list.isEmpty()) {
+                value = list.get(0);
+            }
+            if (value instanceof Map<?, ?> map) {
+                value = map.containsKey("@value") ? map.get("@value") : map.get("@id");
+            }
+            if (value != null) {
+                return value.toString();
+            }
+        }
+        return null;
+    }
+}
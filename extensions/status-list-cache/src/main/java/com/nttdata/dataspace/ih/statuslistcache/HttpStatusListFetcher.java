@@ -0,0 +1,42 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import okhttp3.Request;
+import org.eclipse.edc.http.spi.EdcHttpClient;
+
+import java.io.IOException;
+
+/**
+ * Fetches status list credentials with the runtime HTTP client, sending {@code If-None-Match} and
+ * {@code If-Modified-Since} when the cached version carries validators.
+ */
+public class HttpStatusListFetcher implements StatusListFetcher {
+
+    private final EdcHttpClient httpClient;
+
+    public HttpStatusListFetcher(EdcHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public Response fetch(String url, String etag, String lastModified) throws IOException {
+        var request = new Request.Builder()
+                .url(url)
+                .header("Accept", "application/vc+jwt, application/vc+ld+json, application/json, application/jwt")
+                .get();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+        try (var response = httpClient.execute(request.build())) {
+            if (response.code() == 304) {
+                return new Response(null, etag, lastModified);
+            }
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Fetching status list %s failed with HTTP %d".formatted(url, response.code()));
+            }
+            return new Response(response.body().string(), response.header("ETag"), response.header("Last-Modified"));
+        }
+    }
+}
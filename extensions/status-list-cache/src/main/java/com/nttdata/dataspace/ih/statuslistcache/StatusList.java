@@ -0,0 +1,68 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decoded status list bitstring. Entries are read in constant time; the first index is the most significant bit of
+ * the first byte, as defined by the Bitstring Status List and Status List 2021 specifications.
+ */
+public final class StatusList {
+
+    private final byte[] bits;
+
+    StatusList(byte[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Decodes an {@code encodedList}: GZIP-compressed, base64url encoded, with the multibase prefix {@code u} for
+     * Bitstring Status List credentials and without it (or standard base64) for Status List 2021 credentials.
+     * @throws IllegalArgumentException if the value cannot be decoded
+     */
+    public static StatusList decode(String encodedList) {
+        if (encodedList == null || encodedList.isEmpty()) {
+            throw new IllegalArgumentException("encodedList is empty");
+        }
+        var value = encodedList.charAt(0) == 'u' ? encodedList.substring(1) : encodedList;
+        byte[] compressed;
+        try {
+            compressed = Base64.getUrlDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            compressed = Base64.getDecoder().decode(value);
+        }
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new StatusList(in.readAllBytes());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("encodedList is not GZIP compressed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the status of an entry.
+     * @param index the {@code statusListIndex} of the credential
+     * @param size number of bits per entry ({@code statusSize}), 1 for revocation and suspension lists
+     * @return the status value, 0 if the status is not set
+     * @throws IndexOutOfBoundsException if the entry is outside the list
+     */
+    public int status(long index, int size) {
+        var first = index * size;
+        if (index < 0 || size < 1 || size > 8 || first + size > length()) {
+            throw new IndexOutOfBoundsException("Status list index %d (size %d) outside of list of %d bits".formatted(index, size, length()));
+        }
+        int value = 0;
+        for (long bit = first; bit < first + size; bit++) {
+            value = (value << 1) | (bits[(int) (bit >>> 3)] >> (7 - (int) (bit & 7))) & 1;
+        }
+        return value;
+    }
+
+    /**
+     * Number of bits in the list.
+     */
+    public long length() {
+        return (long) bits.length * 8;
+    }
+}
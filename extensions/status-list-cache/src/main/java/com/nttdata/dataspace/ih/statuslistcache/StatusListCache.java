@@ -0,0 +1,185 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decoded status lists keyed by the URL of their status list credential.
+ * <p>
+ * A list is downloaded and decoded on its first lookup only. After that {@link #refreshDue()}, run periodically,
+ * refreshes lists in the background when the TTL or the validity of the credential ends, with a conditional request,
+ * so an unchanged list costs a {@code 304} and no decoding. Lookups keep using the current version while a refresh
+ * fails, up to the maximum staleness, after which the list is loaded again on lookup. Lists not looked up within the
+ * idle time are dropped instead of refreshed.
+ * </p>
+ * <p>
+ * A list whose credential has expired is not usable, it fails like a list that cannot be downloaded. A failed download
+ * is remembered for the failure back-off: lookups in that time fail without another request, so an issuer that is down
+ * or keeps serving an expired list is not asked again on every revocation check.
+ * </p>
+ */
+public class StatusListCache {
+
+    private final StatusListFetcher fetcher;
+    private final ObjectMapper mapper;
+    private final Duration ttl;
+    private final Duration maxStale;
+    private final Duration idle;
+    private final Duration failureBackoff;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+
+    public StatusListCache(StatusListFetcher fetcher, ObjectMapper mapper, Duration ttl, Duration maxStale, Duration idle,
+                           Duration failureBackoff, Clock clock, Monitor monitor) {
+        this.fetcher = fetcher;
+        this.mapper = mapper;
+        this.ttl = ttl;
+        this.maxStale = maxStale;
+        this.idle = idle;
+        this.failureBackoff = failureBackoff;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the status list credential at the URL, downloading it only if it is not cached or too stale.
+     */
+    public Result<StatusListCredential> get(String url) {
+        var entry = current(url);
+        if (entry == null) {
+            var failure = recentFailure(url);
+            if (failure != null) {
+                return Result.failure(failure.message());
+            }
+            // one download per list, concurrent lookups of the same list wait for it
+            synchronized (loadLocks.computeIfAbsent(url, u -> new Object())) {
+                entry = current(url);
+                if (entry == null) {
+                    failure = recentFailure(url);
+                    if (failure != null) {
+                        return Result.failure(failure.message());
+                    }
+                    try {
+                        entry = load(url, entries.get(url));
+                    } catch (IOException | IllegalArgumentException e) {
+                        return Result.failure(failed(url, e).message());
+                    } finally {
+                        loadLocks.remove(url);
+                    }
+                }
+            }
+        }
+        entry.lastAccess = clock.instant();
+        return Result.success(entry.credential);
+    }
+
+    /**
+     * Refreshes the lists that are due and drops idle ones.
+     */
+    public void refreshDue() {
+        var now = clock.instant();
+        failures.values().removeIf(failure -> !now.isBefore(failure.retryAt()));
+        entries.forEach((url, entry) -> {
+            if (now.isAfter(entry.lastAccess.plus(idle))) {
+                entries.remove(url, entry);
+            } else if (!now.isBefore(entry.refreshAt) && !failures.containsKey(url)) {
+                try {
+                    load(url, entry);
+                } catch (IOException | IllegalArgumentException e) {
+                    failed(url, e);
+                    monitor.warning("Refreshing status list %s failed, keeping the version from %s: %s".formatted(url, entry.fetchedAt, e.getMessage()));
+                }
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry current(String url) {
+        var entry = entries.get(url);
+        return entry != null && clock.instant().isBefore(entry.staleAt()) ? entry : null;
+    }
+
+    private Failure recentFailure(String url) {
+        var failure = failures.get(url);
+        return failure != null && clock.instant().isBefore(failure.retryAt()) ? failure : null;
+    }
+
+    private Failure failed(String url, Exception cause) {
+        var failure = new Failure("Status list %s is not available: %s".formatted(url, cause.getMessage()),
+                clock.instant().plus(failureBackoff));
+        failures.put(url, failure);
+        return failure;
+    }
+
+    private Entry load(String url, Entry previous) throws IOException {
+        var now = clock.instant();
+        var response = previous != null
+                ? fetcher.fetch(url, previous.etag, previous.lastModified)
+                : fetcher.fetch(url, null, null);
+
+        StatusListCredential credential;
+        if (response.notModified() && previous != null) {
+            credential = previous.credential;
+        } else if (response.notModified()) {
+            throw new IOException("Unexpected 304 for uncached status list");
+        } else {
+            credential = StatusListCredential.parse(response.body(), mapper);
+        }
+        if (credential.validUntil() != null && !now.isBefore(credential.validUntil())) {
+            throw new IOException("status list credential expired at " + credential.validUntil());
+        }
+        var refreshAt = now.plus(ttl);
+        if (credential.validUntil() != null && credential.validUntil().isBefore(refreshAt)) {
+            refreshAt = credential.validUntil();
+        }
+        var entry = new Entry(credential, response.etag(), response.lastModified(), now, refreshAt,
+                previous != null ? previous.lastAccess : now);
+        entries.put(url, entry);
+        failures.remove(url);
+        return entry;
+    }
+
+    /**
+     * A failed download, lookups fail with its message until the retry time.
+     */
+    private record Failure(String message, Instant retryAt) {
+    }
+
+    private final class Entry {
+        private final StatusListCredential credential;
+        private final String etag;
+        private final String lastModified;
+        private final Instant fetchedAt;
+        private final Instant refreshAt;
+        private volatile Instant lastAccess;
+
+        private Entry(StatusListCredential credential, String etag, String lastModified, Instant fetchedAt, Instant refreshAt, Instant lastAccess) {
+            this.credential = credential;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchedAt = fetchedAt;
+            this.refreshAt = refreshAt;
+            this.lastAccess = lastAccess;
+        }
+
+        Instant staleAt() {
+            var staleAt = fetchedAt.plus(maxStale);
+            var validUntil = credential.validUntil();
+            return validUntil != null && validUntil.isBefore(staleAt) ? validUntil : staleAt;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.RevocationServiceRegistry;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces the Bitstring Status List and Status List 2021 revocation services with {@link CachedStatusListRevocationService},
+ * which keeps decoded status lists in memory and refreshes them in the background.
+ * <p>
+ * The services are registered in {@link #prepare()}, after all extensions have registered their defaults.
+ * </p>
+ */
+@Extension(value = StatusListCacheExtension.NAME)
+public class StatusListCacheExtension implements ServiceExtension {
+
+    public static final String NAME = "Status List Cache Extension";
+    public static final int DEFAULT_TTL_SECONDS = 300;
+    public static final int DEFAULT_MAX_STALE_SECONDS = 900;
+    public static final int DEFAULT_IDLE_SECONDS = 3600;
+    public static final int DEFAULT_REFRESH_PERIOD_SECONDS = 30;
+    public static final int DEFAULT_FAILURE_BACKOFF_SECONDS = 5;
+
+    @Setting(description = "Answer revocation checks from cached, decoded status lists", defaultValue = "true")
+    public static final String ENABLED_SETTING = "edc.ih.statuslist.cache.enabled";
+
+    @Setting(description = "Seconds after which a status list is refreshed, earlier if the status list credential expires", defaultValue = "300")
+    public static final String TTL_SETTING = "edc.ih.statuslist.cache.ttl.seconds";
+
+    @Setting(description = "Seconds a status list is still used while refreshing it fails", defaultValue = "900")
+    public static final String MAX_STALE_SETTING = "edc.ih.statuslist.cache.max.stale.seconds";
+
+    @Setting(description = "Seconds without lookups after which a status list is dropped instead of refreshed", defaultValue = "3600")
+    public static final String IDLE_SETTING = "edc.ih.statuslist.cache.idle.seconds";
+
+    @Setting(description = "Interval in seconds in which status lists due for refresh are refreshed", defaultValue = "30")
+    public static final String REFRESH_PERIOD_SETTING = "edc.ih.statuslist.cache.refresh.period.seconds";
+
+    @Setting(description = "Seconds a failed status list download, or an expired status list, fails lookups without another download", defaultValue = "5")
+    public static final String FAILURE_BACKOFF_SETTING = "edc.ih.statuslist.cache.failure.backoff.seconds";
+
+    @Inject
+    private RevocationServiceRegistry revocationServiceRegistry;
+
+    @Inject
+    private EdcHttpClient httpClient;
+
+    @Inject
+    private TypeManager typeManager;
+
+    private StatusListCache cache;
+    private ScheduledExecutorService refresher;
+    private int refreshPeriod;
+    private Monitor monitor;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("StatusListCache");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, true)) {
+            monitor.info("Status list cache DISABLED");
+            return;
+        }
+
+        var ttl = Duration.ofSeconds(config.getInteger(TTL_SETTING, DEFAULT_TTL_SECONDS));
+        var maxStale = Duration.ofSeconds(config.getInteger(MAX_STALE_SETTING, DEFAULT_MAX_STALE_SECONDS));
+        var idle = Duration.ofSeconds(config.getInteger(IDLE_SETTING, DEFAULT_IDLE_SECONDS));
+        var failureBackoff = Duration.ofSeconds(config.getInteger(FAILURE_BACKOFF_SETTING, DEFAULT_FAILURE_BACKOFF_SECONDS));
+        refreshPeriod = config.getInteger(REFRESH_PERIOD_SETTING, DEFAULT_REFRESH_PERIOD_SECONDS);
+        cache = new StatusListCache(new HttpStatusListFetcher(httpClient), typeManager.getMapper(), ttl, maxStale, idle,
+                failureBackoff, Clock.systemUTC(), monitor);
+        monitor.info("Status list cache ENABLED (ttl %s, max stale %s)".formatted(ttl, maxStale));
+    }
+
+    @Override
+    public void prepare() {
+        if (cache == null) {
+            return;
+        }
+        var service = new CachedStatusListRevocationService(cache);
+        revocationServiceRegistry.addService(CachedStatusListRevocationService.BITSTRING_STATUS_LIST_ENTRY, service);
+        revocationServiceRegistry.addService(CachedStatusListRevocationService.STATUS_LIST_2021_ENTRY, service);
+    }
+
+    @Override
+    public void start() {
+        if (cache == null) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "status-list-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                cache.refreshDue();
+            } catch (RuntimeException e) {
+                monitor.warning("Status list refresh failed", e);
+            }
+        }, refreshPeriod, refreshPeriod, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+}
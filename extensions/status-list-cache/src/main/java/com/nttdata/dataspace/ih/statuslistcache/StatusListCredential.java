@@ -0,0 +1,94 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The parts of a status list credential needed for status checks: the decoded list, its purpose and the end of its
+ * validity, if any.
+ */
+public record StatusListCredential(StatusList list, String statusPurpose, Instant validUntil) {
+
+    private static final String[] STATUS_NAMESPACES = {"", "https://www.w3.org/ns/credentials/status#", "https://w3id.org/vc/status-list#"};
+
+    /**
+     * Parses a status list credential served as JSON(-LD) or as a JWT (VC 1.1 {@code vc} claim or VC 2.0 JOSE payload).
+     * @throws IllegalArgumentException if the body is not a status list credential
+     */
+    public static StatusListCredential parse(String body, ObjectMapper mapper) {
+        var text = body.trim();
+        JsonNode credential;
+        Instant expiry = null;
+        try {
+            if (text.startsWith("{")) {
+                credential = mapper.readTree(text);
+            } else {
+                var parts = text.split("\\.");
+                if (parts.length < 2) {
+                    throw new IllegalArgumentException("Status list credential is neither JSON nor a JWT");
+                }
+                var claims = mapper.readTree(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+                if (claims.hasNonNull("exp")) {
+                    expiry = Instant.ofEpochSecond(claims.get("exp").asLong());
+                }
+                credential = claims.has("vc") ? claims.get("vc") : claims;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Status list credential is not valid JSON: " + e.getMessage(), e);
+        }
+
+        var subject = credential.path("credentialSubject");
+        if (subject.isArray()) {
+            subject = subject.path(0);
+        }
+        var encodedList = property(subject, "encodedList");
+        if (encodedList == null) {
+            throw new IllegalArgumentException("Status list credential has no credentialSubject.encodedList");
+        }
+        var validUntil = instant(credential.path("validUntil").asText(null));
+        if (validUntil == null) {
+            validUntil = instant(credential.path("expirationDate").asText(null));
+        }
+        if (validUntil == null || expiry != null && expiry.isBefore(validUntil)) {
+            validUntil = expiry;
+        }
+        return new StatusListCredential(StatusList.decode(encodedList), property(subject, "statusPurpose"), validUntil);
+    }
+
+    /**
+     * Reads a status property by its term or, for expanded documents, by its IRI in either status namespace.
+     */
+    static String property(JsonNode node, String name) {
+        for (var namespace : STATUS_NAMESPACES) {
+            var value = node.get(namespace + name);
+            if (value != null && !value.isNull()) {
+                // expanded JSON-LD wraps values as [{"@value": ...}]
+                if (value.isArray()) {
+                    value = value.path(0);
+                }
+                if (value.has("@value")) {
+                    value = value.get("@value");
+                }
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    private static Instant instant(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
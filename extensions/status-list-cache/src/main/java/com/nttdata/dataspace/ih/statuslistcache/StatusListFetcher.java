@@ -0,0 +1,25 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import java.io.IOException;
+
+/**
+ * Downloads status list credentials, conditionally if validators of a previous response are known.
+ */
+@FunctionalInterface
+public interface StatusListFetcher {
+
+    /**
+     * @param etag {@code ETag} of the cached version, or null
+     * @param lastModified {@code Last-Modified} of the cached version, or null
+     * @return the response, with a null body if the cached version is still current
+     * @throws IOException if the list could not be downloaded
+     */
+    Response fetch(String url, String etag, String lastModified) throws IOException;
+
+    record Response(String body, String etag, String lastModified) {
+
+        public boolean notModified() {
+            return body == null;
+        }
+    }
+}
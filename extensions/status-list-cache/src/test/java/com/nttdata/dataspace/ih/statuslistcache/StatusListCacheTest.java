@@ -0,0 +1,185 @@
+package com.nttdata.dataspace.ih.statuslistcache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatusListCacheTest {
+
+    private static final String URL = "https://issuer.example.com/status/1";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration FAILURE_BACKOFF = Duration.ofSeconds(5);
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private Monitor monitor;
+
+    private final List<String> requests = new ArrayList<>();
+    private StatusListFetcher.Response nextResponse;
+    private StatusListCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.instant()).thenReturn(NOW);
+        StatusListFetcher fetcher = (url, etag, lastModified) -> {
+            requests.add(etag);
+            if (nextResponse == null) {
+                throw new IOException("connection refused");
+            }
+            return nextResponse;
+        };
+        cache = new StatusListCache(fetcher, new ObjectMapper(), TTL, Duration.ofMinutes(15), Duration.ofHours(1), FAILURE_BACKOFF, clock, monitor);
+    }
+
+    @Test
+    void decode_shouldReadBitsMostSignificantFirst() {
+        var list = StatusList.decode(encodedList(true, 0b1000_0001, 0b0100_0000));
+
+        assertThat(list.length()).isEqualTo(16);
+        assertThat(list.status(0, 1)).isEqualTo(1);
+        assertThat(list.status(1, 1)).isZero();
+        assertThat(list.status(7, 1)).isEqualTo(1);
+        assertThat(list.status(9, 1)).isEqualTo(1);
+        assertThat(list.status(2, 4)).isEqualTo(0b0100);
+        assertThatThrownBy(() -> list.status(16, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void decode_shouldAcceptStatusList2021Encoding() {
+        assertThat(StatusList.decode(encodedList(false, 0b0010_0000)).status(2, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldDownloadListOnce() {
+        nextResponse = new StatusListFetcher.Response(credential("revocation", null), "\"v1\"", null);
+
+        var first = cache.get(URL);
+        var second = cache.get(URL);
+
+        assertThat(first.succeeded()).isTrue();
+        assertThat(second.getContent()).isSameAs(first.getContent());
+        assertThat(first.getContent().statusPurpose()).isEqualTo("revocation");
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void refreshDue_shouldRevalidateWithEtag_andKeepDecodedList() {
+        nextResponse = new StatusListFetcher.Response(credential("revocation", null), "\"v1\"", null);
+        var before = cache.get(URL).getContent();
+
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        nextResponse = new StatusListFetcher.Response(null, "\"v1\"", null);
+        cache.refreshDue();
+
+        assertThat(requests).containsExactly(null, "\"v1\"");
+        assertThat(cache.get(URL).getContent()).isSameAs(before);
+    }
+
+    @Test
+    void refreshDue_shouldRefreshEarly_whenCredentialExpires() {
+        nextResponse = new StatusListFetcher.Response(credential("revocation", NOW.plusSeconds(60)), null, null);
+        cache.get(URL);
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        cache.refreshDue();
+
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void get_shouldServeStaleList_whileRefreshFails_untilMaxStale() {
+        nextResponse = new StatusListFetcher.Response(credential("revocation", null), null, null);
+        cache.get(URL);
+        nextResponse = null;
+
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        cache.refreshDue();
+        assertThat(cache.get(URL).succeeded()).isTrue();
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(15)));
+        assertThat(cache.get(URL).failed()).isTrue();
+    }
+
+    @Test
+    void get_shouldNotDownloadAgain_whileFailureBacksOff() {
+        assertThat(cache.get(URL).failed()).isTrue();
+        assertThat(cache.get(URL).failed()).isTrue();
+        assertThat(requests).hasSize(1);
+
+        nextResponse = new StatusListFetcher.Response(credential("revocation", null), null, null);
+        when(clock.instant()).thenReturn(NOW.plus(FAILURE_BACKOFF));
+
+        assertThat(cache.get(URL).succeeded()).isTrue();
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void get_shouldFailWithoutDownloadingOnEveryCheck_whenListHasExpired() {
+        nextResponse = new StatusListFetcher.Response(credential("revocation", NOW.minusSeconds(1)), null, null);
+
+        var first = cache.get(URL);
+        var second = cache.get(URL);
+
+        assertThat(first.failed()).isTrue();
+        assertThat(first.getFailureDetail()).contains("expired");
+        assertThat(second.failed()).isTrue();
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void refreshDue_shouldDropIdleLists() {
+        nextResponse = new StatusListFetcher.Response(credential("revocation", null), null, null);
+        cache.get(URL);
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofHours(2)));
+        cache.refreshDue();
+
+        assertThat(cache.size()).isZero();
+        assertThat(requests).hasSize(1);
+    }
+
+    private static String credential(String purpose, Instant validUntil) {
+        return """
+                {"type": ["VerifiableCredential", "BitstringStatusListCredential"],%s
+                 "credentialSubject": {"type": "BitstringStatusList", "statusPurpose": "%s", "encodedList": "%s"}}
+                """.formatted(validUntil != null ? " \"validUntil\": \"%s\",".formatted(validUntil) : "", purpose, encodedList(true, 0b1000_0000, 0));
+    }
+
+    private static String encodedList(boolean multibase, int... bytes) {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            for (var b : bytes) {
+                gzip.write(b);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return multibase
+                ? "u" + Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray())
+                : Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+}
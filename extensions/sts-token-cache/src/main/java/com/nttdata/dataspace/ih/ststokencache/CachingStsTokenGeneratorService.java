@@ -0,0 +1,134 @@
+package com.nttdata.dataspace.ih.ststokencache;
+
+import org.eclipse.edc.iam.identitytrust.sts.spi.model.StsAccount;
+import org.eclipse.edc.iam.identitytrust.sts.spi.model.StsAccountTokenAdditionalParams;
+import org.eclipse.edc.iam.identitytrust.sts.spi.service.StsClientTokenGeneratorService;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reuses self-issued tokens per STS account, audience and bearer access scope.
+ * <p>
+ * A token is served from the cache until the safety margin before its expiry, with {@code expires_in} reduced to the
+ * remaining lifetime. Requests that carry an access token to embed are passed through, as are tokens without a known
+ * lifetime. Every cached token has the same {@code jti}, so the cache must only be enabled when the verifiers do not
+ * enforce single use of self-issued tokens.
+ * </p>
+ */
+public class CachingStsTokenGeneratorService implements StsClientTokenGeneratorService, TokenCacheMXBean {
+
+    private final StsClientTokenGeneratorService delegate;
+    private final Duration margin;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingStsTokenGeneratorService(StsClientTokenGeneratorService delegate, Duration margin, int maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.margin = margin;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public ServiceResult<TokenRepresentation> tokenFor(StsAccount client, StsAccountTokenAdditionalParams additionalParams) {
+        if (additionalParams.getAccessToken() != null) {
+            return delegate.tokenFor(client, additionalParams);
+        }
+
+        var key = new CacheKey(client.getId(), additionalParams.getAudience(), scopes(additionalParams.getBearerAccessScope()));
+        var now = clock.instant();
+        var entry = entries.get(key);
+        if (entry != null && now.isBefore(entry.reuseUntil())) {
+            hits.incrementAndGet();
+            return ServiceResult.success(entry.representation(now));
+        }
+        misses.incrementAndGet();
+
+        var result = delegate.tokenFor(client, additionalParams);
+        if (result.succeeded() && result.getContent().getExpiresIn() != null) {
+            var token = result.getContent();
+            var expiresAt = now.plusSeconds(token.getExpiresIn());
+            var reuseUntil = expiresAt.minus(margin);
+            if (now.isBefore(reuseUntil)) {
+                store(key, new CacheEntry(token, expiresAt, reuseUntil));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops all tokens of an STS account, e.g. because its key was rotated.
+     */
+    public void invalidate(String accountId) {
+        entries.keySet().removeIf(key -> key.accountId().equals(accountId));
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    private void store(CacheKey key, CacheEntry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            var now = clock.instant();
+            var before = entries.size();
+            entries.values().removeIf(existing -> !now.isBefore(existing.reuseUntil()));
+            evictions.addAndGet(before - entries.size());
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, entry);
+    }
+
+    private static SortedSet<String> scopes(String bearerAccessScope) {
+        var scopes = new TreeSet<String>();
+        if (bearerAccessScope != null) {
+            Arrays.stream(bearerAccessScope.split("\\s+")).filter(scope -> !scope.isEmpty()).forEach(scopes::add);
+        }
+        return scopes;
+    }
+
+    private record CacheKey(String accountId, String audience, SortedSet<String> scopes) {
+    }
+
+    private record CacheEntry(TokenRepresentation token, Instant expiresAt, Instant reuseUntil) {
+
+        TokenRepresentation representation(Instant now) {
+            return TokenRepresentation.Builder.newInstance()
+                    .token(token.getToken())
+                    .additional(token.getAdditional())
+                    .expiresIn(Duration.between(now, expiresAt).toSeconds())
+                    .build();
+        }
+    }
+}
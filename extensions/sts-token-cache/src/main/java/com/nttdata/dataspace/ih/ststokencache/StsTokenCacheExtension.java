@@ -0,0 +1,131 @@
+package com.nttdata.dataspace.ih.ststokencache;
+
+import com.nttdata.dataspace.ih.services.ResourceChange;
+import com.nttdata.dataspace.ih.services.ResourceChangeFeed;
+import org.eclipse.edc.iam.identitytrust.sts.spi.service.StsAccountService;
+import org.eclipse.edc.iam.identitytrust.sts.spi.service.StsClientTokenGeneratorService;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairEvent;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Requires;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Decorates the {@link StsClientTokenGeneratorService} of the embedded STS with a cache of self-issued tokens per
+ * account, audience and scope, so that repeated connector-to-connector calls do not sign a new token every time.
+ * <p>
+ * Tokens of a participant are dropped on key pair and participant context events, also on those of other replicas
+ * with a {@link ResourceChangeFeed}. Hits, misses, evictions and the size are exposed over JMX. The cache is disabled
+ * by default, see {@link CachingStsTokenGeneratorService}.
+ * </p>
+ * <p>
+ * The default token generator is provided by the same core extension as the {@link StsAccountService}, which is why
+ * that service is required: it orders this extension after the one whose generator it decorates.
+ * </p>
+ */
+@Extension(value = StsTokenCacheExtension.NAME)
+@Provides(StsClientTokenGeneratorService.class)
+@Requires(StsAccountService.class)
+public class StsTokenCacheExtension implements ServiceExtension {
+
+    public static final String NAME = "STS Token Cache Extension";
+    public static final String OBJECT_NAME = "com.nttdata.dataspace.ih:type=StsTokenCache";
+    public static final int DEFAULT_MARGIN_SECONDS = 30;
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    @Setting(description = "Reuse self-issued STS tokens per participant, audience and scope until shortly before they expire", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.ih.sts.token.cache.enabled";
+
+    @Setting(description = "Seconds before expiry after which a cached token is no longer handed out", defaultValue = "30")
+    public static final String MARGIN_SETTING = "edc.ih.sts.token.cache.margin.seconds";
+
+    @Setting(description = "Maximum number of cached tokens", defaultValue = "10000")
+    public static final String MAX_ENTRIES_SETTING = "edc.ih.sts.token.cache.max.entries";
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject(required = false)
+    private ResourceChangeFeed changeFeed;
+
+    private ObjectName objectName;
+    private Monitor monitor;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("StsTokenCache");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, false)) {
+            return;
+        }
+
+        var margin = Duration.ofSeconds(config.getInteger(MARGIN_SETTING, DEFAULT_MARGIN_SECONDS));
+        int maxEntries = config.getInteger(MAX_ENTRIES_SETTING, DEFAULT_MAX_ENTRIES);
+        var cache = new CachingStsTokenGeneratorService(context.getService(StsClientTokenGeneratorService.class), margin, maxEntries, Clock.systemUTC());
+        context.registerService(StsClientTokenGeneratorService.class, cache);
+
+        eventRouter.registerSync(KeyPairEvent.class, new EventSubscriber() {
+            @Override
+            public <E extends Event> void on(EventEnvelope<E> event) {
+                if (event.getPayload() instanceof KeyPairEvent keyPairEvent) {
+                    cache.invalidate(keyPairEvent.getParticipantContextId());
+                }
+            }
+        });
+        eventRouter.registerSync(ParticipantContextEvent.class, new EventSubscriber() {
+            @Override
+            public <E extends Event> void on(EventEnvelope<E> event) {
+                if (event.getPayload() instanceof ParticipantContextEvent participantEvent) {
+                    cache.invalidate(participantEvent.getParticipantContextId());
+                }
+            }
+        });
+        if (changeFeed != null) {
+            changeFeed.subscribe(change -> {
+                if (change.type() == ResourceChange.Type.KEY_PAIR || change.type() == ResourceChange.Type.PARTICIPANT_CONTEXT) {
+                    cache.invalidate(change.participantContextId());
+                }
+            });
+        }
+
+        try {
+            objectName = new ObjectName(OBJECT_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(cache, objectName);
+        } catch (JMException e) {
+            objectName = null;
+            monitor.warning("Failed to register STS token cache metrics over JMX", e);
+        }
+        monitor.info("STS token cache ENABLED (margin %s, max %d entries)".formatted(margin, maxEntries));
+    }
+
+    @Override
+    public void shutdown() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                monitor.warning("Failed to unregister STS token cache metrics", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.nttdata.dataspace.ih.ststokencache;
+
+/**
+ * JMX view of the STS token cache, registered as {@value StsTokenCacheExtension#OBJECT_NAME}.
+ */
+public interface TokenCacheMXBean {
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    int getSize();
+}
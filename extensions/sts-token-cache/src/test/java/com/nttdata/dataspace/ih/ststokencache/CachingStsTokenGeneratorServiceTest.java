@@ -0,0 +1,136 @@
+package com.nttdata.dataspace.ih.ststokencache;
+
+import org.eclipse.edc.iam.identitytrust.sts.spi.model.StsAccount;
+import org.eclipse.edc.iam.identitytrust.sts.spi.model.StsAccountTokenAdditionalParams;
+import org.eclipse.edc.iam.identitytrust.sts.spi.service.StsClientTokenGeneratorService;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingStsTokenGeneratorServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration MARGIN = Duration.ofSeconds(30);
+
+    @Mock
+    private StsClientTokenGeneratorService delegate;
+
+    @Mock
+    private Clock clock;
+
+    private CachingStsTokenGeneratorService service;
+    private final AtomicInteger minted = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.instant()).thenReturn(NOW);
+        lenient().when(delegate.tokenFor(any(), any())).thenAnswer(i -> ServiceResult.success(TokenRepresentation.Builder.newInstance()
+                .token("token-" + minted.incrementAndGet())
+                .expiresIn(300L)
+                .build()));
+        service = new CachingStsTokenGeneratorService(delegate, MARGIN, 100, clock);
+    }
+
+    @Test
+    void tokenFor_shouldReuseToken_forSameAudienceAndScopes() {
+        var account = account("participant");
+
+        var first = service.tokenFor(account, params("did:web:verifier", "scope:a scope:b", null)).getContent();
+        when(clock.instant()).thenReturn(NOW.plusSeconds(100));
+        var second = service.tokenFor(account, params("did:web:verifier", "scope:b  scope:a", null)).getContent();
+
+        assertThat(second.getToken()).isEqualTo(first.getToken());
+        assertThat(second.getExpiresIn()).isEqualTo(200L);
+        assertThat(service.getHits()).isEqualTo(1);
+        assertThat(service.getMisses()).isEqualTo(1);
+        verify(delegate, times(1)).tokenFor(any(), any());
+    }
+
+    @Test
+    void tokenFor_shouldMintNewToken_withinSafetyMargin() {
+        var account = account("participant");
+        service.tokenFor(account, params("did:web:verifier", "scope:a", null));
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(270));
+        var token = service.tokenFor(account, params("did:web:verifier", "scope:a", null)).getContent();
+
+        assertThat(token.getToken()).isEqualTo("token-2");
+    }
+
+    @Test
+    void tokenFor_shouldKeySeparately_byAccountAudienceAndScope() {
+        service.tokenFor(account("participant"), params("did:web:verifier", "scope:a", null));
+        service.tokenFor(account("other"), params("did:web:verifier", "scope:a", null));
+        service.tokenFor(account("participant"), params("did:web:other", "scope:a", null));
+        service.tokenFor(account("participant"), params("did:web:verifier", "scope:b", null));
+
+        assertThat(minted.get()).isEqualTo(4);
+        assertThat(service.getSize()).isEqualTo(4);
+    }
+
+    @Test
+    void tokenFor_shouldPassThrough_whenAccessTokenIsEmbedded() {
+        var account = account("participant");
+
+        service.tokenFor(account, params("did:web:verifier", null, "access-token"));
+        service.tokenFor(account, params("did:web:verifier", null, "access-token"));
+
+        assertThat(minted.get()).isEqualTo(2);
+        assertThat(service.getSize()).isZero();
+    }
+
+    @Test
+    void invalidate_shouldDropTokensOfAccount() {
+        var account = account("participant");
+        service.tokenFor(account, params("did:web:verifier", "scope:a", null));
+
+        service.invalidate("participant");
+        var token = service.tokenFor(account, params("did:web:verifier", "scope:a", null)).getContent();
+
+        assertThat(token.getToken()).isEqualTo("token-2");
+    }
+
+    @Test
+    void tokenFor_shouldEvictExpiredTokens_whenFull() {
+        service = new CachingStsTokenGeneratorService(delegate, MARGIN, 1, clock);
+        service.tokenFor(account("participant"), params("did:web:verifier", "scope:a", null));
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(400));
+        service.tokenFor(account("participant"), params("did:web:other", "scope:a", null));
+
+        assertThat(service.getEvictions()).isEqualTo(1);
+        assertThat(service.getSize()).isEqualTo(1);
+    }
+
+    private static StsAccount account(String id) {
+        var account = mock(StsAccount.class);
+        lenient().when(account.getId()).thenReturn(id);
+        return account;
+    }
+
+    private static StsAccountTokenAdditionalParams params(String audience, String scope, String accessToken) {
+        var params = mock(StsAccountTokenAdditionalParams.class);
+        lenient().when(params.getAudience()).thenReturn(audience);
+        lenient().when(params.getBearerAccessScope()).thenReturn(scope);
+        lenient().when(params.getAccessToken()).thenReturn(accessToken);
+        return params;
+    }
+}
@@ -0,0 +1,28 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    implementation(libs.edc.core.runtime)
+    implementation(libs.edc.web.spi)
+    implementation(libs.edc.http.client)
+    implementation(libs.edc.ih.spi)
+    implementation(libs.edc.ih.spi.did)
+    implementation(libs.edc.ih.spi.credentials)
+    implementation(libs.edc.spi.token)
+    implementation(libs.edc.bom.identityhub)
+    implementation(project(":services"))
+
+    implementation(libs.opentelemetry.api)
+    implementation(libs.opentelemetry.sdk)
+    implementation(libs.opentelemetry.exporter.otlp)
+    implementation(libs.opentelemetry.exporter.logging.otlp)
+
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly(libs.junit.jupiter.engine)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.mockito.core)
+    testImplementation(libs.mockito.junit.jupiter)
+    testImplementation(libs.assertj.core)
+    testImplementation(libs.opentelemetry.sdk.testing)
+}
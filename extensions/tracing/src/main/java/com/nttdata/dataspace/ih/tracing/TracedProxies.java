@@ -0,0 +1,54 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import org.eclipse.edc.spi.result.AbstractResult;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Decorates a service so that every call is recorded as a span named {@code <Interface>.<method>}. Calls that throw,
+ * or return a failed EDC result, are marked as errors.
+ */
+final class TracedProxies {
+
+    private TracedProxies() {
+    }
+
+    static <T> T wrap(Class<T> type, T target, Tracer tracer) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invoke(target, method, args);
+            }
+            var span = tracer.spanBuilder(type.getSimpleName() + "." + method.getName())
+                    .setAttribute("code.namespace", type.getName())
+                    .setAttribute("code.function", method.getName())
+                    .startSpan();
+            try (var ignored = span.makeCurrent()) {
+                var result = invoke(target, method, args);
+                if (result instanceof AbstractResult<?, ?, ?> edcResult && edcResult.failed()) {
+                    span.setStatus(StatusCode.ERROR, edcResult.getFailureDetail());
+                }
+                return result;
+            } catch (Throwable e) {
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR, e.getMessage());
+                throw e;
+            } finally {
+                span.end();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
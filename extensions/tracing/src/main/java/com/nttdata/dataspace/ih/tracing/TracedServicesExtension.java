@@ -0,0 +1,50 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.util.Arrays;
+
+/**
+ * Records a server span for each request of the configured API contexts, see {@link TracingRequestFilter}. The
+ * layers below are traced by decorators of the extensions that provide them: the {@link TracedStoresExtension}, the
+ * {@link TracedVaultExtension} and the {@link TracedTokenGenerationExtension}.
+ */
+@Extension(value = TracedServicesExtension.NAME)
+public class TracedServicesExtension implements ServiceExtension {
+
+    public static final String NAME = "Traced Services Extension";
+    public static final String DEFAULT_CONTEXTS = "identity,credentials,did";
+
+    @Setting(description = "Comma separated list of web contexts whose requests are traced", defaultValue = DEFAULT_CONTEXTS)
+    public static final String CONTEXTS_SETTING = "edc.ih.tracing.contexts";
+
+    @Inject(required = false)
+    private Tracing tracing;
+
+    @Inject
+    private WebService webService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (tracing == null) {
+            return;
+        }
+        var contexts = Arrays.stream(context.getConfig().getString(CONTEXTS_SETTING, DEFAULT_CONTEXTS).split(","))
+                .map(String::trim)
+                .filter(alias -> !alias.isEmpty())
+                .distinct()
+                .toList();
+        contexts.forEach(alias -> webService.registerResource(alias, new TracingRequestFilter(tracing, alias)));
+        context.getMonitor().withPrefix("Tracing").info("Tracing requests of contexts %s, stores, Vault and token signing".formatted(contexts));
+    }
+}
@@ -0,0 +1,70 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import com.nttdata.dataspace.ih.services.StoreDecorator;
+import io.opentelemetry.api.trace.Tracer;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+/**
+ * Replaces the participant context, key pair, DID resource and credential stores with traced decorators (see
+ * {@link TracedProxies}), with the {@link StoreDecorator} of another extension (e.g. read-replica routing) applied
+ * below the tracing, also when tracing is disabled.
+ * <p>
+ * The only place the stores are re-registered: two extensions that both provide and inject a store would depend on
+ * each other. Providing the stores makes every consumer depend on this extension, so all of them get the decorated
+ * stores.
+ * </p>
+ */
+@Extension(value = TracedStoresExtension.NAME)
+@Provides({ ParticipantContextStore.class, KeyPairResourceStore.class, DidResourceStore.class, CredentialStore.class })
+public class TracedStoresExtension implements ServiceExtension {
+
+    public static final String NAME = "Traced Stores Extension";
+
+    @Inject(required = false)
+    private Tracing tracing;
+
+    @Inject(required = false)
+    private StoreDecorator storeDecorator;
+
+    @Inject
+    private ParticipantContextStore participantContextStore;
+
+    @Inject
+    private KeyPairResourceStore keyPairResourceStore;
+
+    @Inject
+    private DidResourceStore didResourceStore;
+
+    @Inject
+    private CredentialStore credentialStore;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (tracing == null && storeDecorator == null) {
+            return;
+        }
+        var tracer = tracing != null ? tracing.tracer() : null;
+        context.registerService(ParticipantContextStore.class, decorate(ParticipantContextStore.class, participantContextStore, tracer));
+        context.registerService(KeyPairResourceStore.class, decorate(KeyPairResourceStore.class, keyPairResourceStore, tracer));
+        context.registerService(DidResourceStore.class, decorate(DidResourceStore.class, didResourceStore, tracer));
+        context.registerService(CredentialStore.class, decorate(CredentialStore.class, credentialStore, tracer));
+    }
+
+    private <T> T decorate(Class<T> type, T store, Tracer tracer) {
+        var decorated = storeDecorator != null ? storeDecorator.decorate(type, store) : store;
+        return tracer != null ? TracedProxies.wrap(type, decorated, tracer) : decorated;
+    }
+}
@@ -0,0 +1,38 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.token.spi.TokenGenerationService;
+
+/**
+ * Replaces the {@link TokenGenerationService} with a traced decorator (see {@link TracedProxies}). Providing the
+ * service makes every consumer, e.g. the STS and the presentation generators, depend on this extension, so all of them
+ * get the decorator.
+ */
+@Extension(value = TracedTokenGenerationExtension.NAME)
+@Provides(TokenGenerationService.class)
+public class TracedTokenGenerationExtension implements ServiceExtension {
+
+    public static final String NAME = "Traced Token Generation Extension";
+
+    @Inject(required = false)
+    private Tracing tracing;
+
+    @Inject
+    private TokenGenerationService tokenGenerationService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (tracing != null) {
+            context.registerService(TokenGenerationService.class, TracedProxies.wrap(TokenGenerationService.class, tokenGenerationService, tracing.tracer()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+/**
+ * Replaces the {@link Vault} with a traced decorator (see {@link TracedProxies}).
+ * <p>
+ * Providing the Vault makes every consumer, e.g. the private key resolver, depend on this extension, so all of them
+ * get the decorator. The token signing service is decorated by the {@link TracedTokenGenerationExtension}: it depends
+ * on the Vault through the private key resolver, one extension providing both would depend on itself.
+ * </p>
+ */
+@Extension(value = TracedVaultExtension.NAME)
+@Provides(Vault.class)
+public class TracedVaultExtension implements ServiceExtension {
+
+    public static final String NAME = "Traced Vault Extension";
+
+    @Inject(required = false)
+    private Tracing tracing;
+
+    @Inject
+    private Vault vault;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (tracing != null) {
+            context.registerService(Vault.class, TracedProxies.wrap(Vault.class, vault, tracing.tracer()));
+        }
+    }
+}
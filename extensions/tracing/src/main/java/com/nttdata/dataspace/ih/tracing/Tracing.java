@@ -0,0 +1,18 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+
+/**
+ * The tracer and the context propagator of the runtime, registered by the {@link TracingExtension} if tracing is
+ * enabled.
+ */
+public record Tracing(Tracer tracer, TextMapPropagator propagator) {
+
+    public static final String INSTRUMENTATION_SCOPE = "com.nttdata.dataspace.ih.tracing";
+
+    public static Tracing of(OpenTelemetry openTelemetry) {
+        return new Tracing(openTelemetry.getTracer(INSTRUMENTATION_SCOPE), openTelemetry.getPropagators().getTextMapPropagator());
+    }
+}
@@ -0,0 +1,168 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import com.nttdata.dataspace.ih.services.HttpClientDecorator;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Sets up OpenTelemetry tracing and exports the spans with OTLP, to a collector over HTTP or as OTLP JSON lines to a
+ * file.
+ * <p>
+ * The SDK is registered as the global OpenTelemetry instance, which code without access to the service registry uses,
+ * e.g. participant seeding. The outbound HTTP client gets a {@link TracingInterceptor} through the
+ * {@link HttpClientDecorator} hook. The {@link TracedServicesExtension} instruments the APIs; the stores, the Vault
+ * and signing are instrumented by the {@link TracedStoresExtension}, {@link TracedVaultExtension} and
+ * {@link TracedTokenGenerationExtension}. This extension injects nothing, so that the HTTP client, and everything
+ * using it, can depend on it.
+ * </p>
+ */
+@Extension(value = TracingExtension.NAME)
+@Provides({ Tracing.class, HttpClientDecorator.class })
+public class TracingExtension implements ServiceExtension {
+
+    public static final String NAME = "Tracing Extension";
+    public static final String EXPORTER_OTLP = "otlp";
+    public static final String EXPORTER_FILE = "file";
+    public static final String DEFAULT_ENDPOINT = "http://localhost:4318/v1/traces";
+    public static final String DEFAULT_FILE = "traces.jsonl";
+    public static final String DEFAULT_SERVICE_NAME = "identity-hub";
+
+    @Setting(description = "Record and export traces", defaultValue = "false")
+    public static final String ENABLED_SETTING = "edc.ih.tracing.enabled";
+
+    @Setting(description = "Span exporter: otlp (OTLP/HTTP to a collector) or file (OTLP JSON lines)", defaultValue = EXPORTER_OTLP)
+    public static final String EXPORTER_SETTING = "edc.ih.tracing.exporter";
+
+    @Setting(description = "OTLP/HTTP traces endpoint of the collector", defaultValue = DEFAULT_ENDPOINT)
+    public static final String ENDPOINT_SETTING = "edc.ih.tracing.otlp.endpoint";
+
+    @Setting(description = "File the spans are appended to with the file exporter", defaultValue = DEFAULT_FILE)
+    public static final String FILE_SETTING = "edc.ih.tracing.file";
+
+    @Setting(description = "Share of traces that are sampled, between 0 and 1; a sampled caller is always followed", defaultValue = "1.0")
+    public static final String SAMPLE_RATIO_SETTING = "edc.ih.tracing.sample.ratio";
+
+    @Setting(description = "Service name of the exported spans", defaultValue = DEFAULT_SERVICE_NAME)
+    public static final String SERVICE_NAME_SETTING = "edc.ih.tracing.service.name";
+
+    private OpenTelemetrySdk sdk;
+    // strong reference, JDK loggers are only weakly held by their manager and would lose the handler
+    private Logger fileLogger;
+    private FileHandler fileHandler;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("Tracing");
+        var config = context.getConfig();
+        if (!config.getBoolean(ENABLED_SETTING, false)) {
+            return;
+        }
+        var ratio = Double.parseDouble(config.getString(SAMPLE_RATIO_SETTING, "1.0"));
+        var exporterName = config.getString(EXPORTER_SETTING, EXPORTER_OTLP);
+        var exporter = switch (exporterName) {
+            case EXPORTER_OTLP -> OtlpHttpSpanExporter.builder().setEndpoint(config.getString(ENDPOINT_SETTING, DEFAULT_ENDPOINT)).build();
+            case EXPORTER_FILE -> fileExporter(Path.of(config.getString(FILE_SETTING, DEFAULT_FILE)));
+            default -> throw new EdcException("Unknown %s: %s".formatted(EXPORTER_SETTING, exporterName));
+        };
+
+        var resource = Resource.getDefault().merge(Resource.create(Attributes.of(
+                AttributeKey.stringKey("service.name"), config.getString(SERVICE_NAME_SETTING, DEFAULT_SERVICE_NAME))));
+        sdk = OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .setResource(resource)
+                        .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(ratio)))
+                        .addSpanProcessor(BatchSpanProcessor.builder(exporter).build())
+                        .build())
+                .setPropagators(ContextPropagators.create(TextMapPropagator.composite(
+                        W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance())))
+                .build();
+        registerGlobal(monitor);
+
+        var tracing = Tracing.of(sdk);
+        context.registerService(Tracing.class, tracing);
+        context.registerService(HttpClientDecorator.class, client -> {
+            var builder = client.newBuilder();
+            builder.interceptors().add(0, new TracingInterceptor(tracing));
+            return builder.build();
+        });
+        monitor.info("Tracing ENABLED (exporter %s, sample ratio %s)".formatted(exporterName, ratio));
+    }
+
+    @Override
+    public void shutdown() {
+        if (sdk != null) {
+            // flushes the spans still queued in the batch processor
+            sdk.shutdown().join(10, TimeUnit.SECONDS);
+        }
+        if (fileHandler != null) {
+            fileHandler.close();
+        }
+    }
+
+    private void registerGlobal(Monitor monitor) {
+        try {
+            GlobalOpenTelemetry.set(sdk);
+        } catch (IllegalStateException e) {
+            monitor.warning("A global OpenTelemetry instance was already set, participant seeding is not traced: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends every exported batch as one line of OTLP JSON, the format read by the collector's {@code otlpjsonfile}
+     * receiver. The exporter writes to a JDK logger, which gets a file handler and stops forwarding to the console.
+     */
+    private SpanExporter fileExporter(Path file) {
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            fileHandler = new FileHandler(file.toString(), true);
+            fileHandler.setFormatter(new Formatter() {
+                @Override
+                public String format(LogRecord record) {
+                    return record.getMessage() + System.lineSeparator();
+                }
+            });
+            fileLogger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+            fileLogger.setUseParentHandlers(false);
+            fileLogger.addHandler(fileHandler);
+            return OtlpJsonLoggingSpanExporter.create();
+        } catch (IOException e) {
+            throw new EdcException("Cannot open trace file " + file, e);
+        }
+    }
+}
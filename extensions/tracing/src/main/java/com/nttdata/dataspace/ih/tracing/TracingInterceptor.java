@@ -0,0 +1,64 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Creates a client span for every outbound call and propagates the trace context in its headers
+ * ({@code traceparent}, {@code tracestate}, {@code baggage}).
+ * <p>
+ * The interceptor is the first one of the client, so the span covers retries and hedged attempts of the call. It ends
+ * when the response headers are received; reading the body is part of the caller's span. The query string is left
+ * out of the recorded URL, it may carry credentials.
+ * </p>
+ */
+public class TracingInterceptor implements Interceptor {
+
+    private static final TextMapSetter<Request.Builder> SETTER = (builder, key, value) -> {
+        if (builder != null) {
+            builder.header(key, value);
+        }
+    };
+
+    private final Tracing tracing;
+
+    public TracingInterceptor(Tracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var request = chain.request();
+        var url = request.url();
+        var span = tracing.tracer().spanBuilder(request.method())
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("http.request.method", request.method())
+                .setAttribute("url.full", url.newBuilder().query(null).build().toString())
+                .setAttribute("server.address", url.host())
+                .setAttribute("server.port", url.port())
+                .startSpan();
+        try (var ignored = span.makeCurrent()) {
+            var traced = request.newBuilder();
+            tracing.propagator().inject(Context.current(), traced, SETTER);
+            var response = chain.proceed(traced.build());
+            span.setAttribute("http.response.status_code", response.code());
+            if (response.code() >= 400) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
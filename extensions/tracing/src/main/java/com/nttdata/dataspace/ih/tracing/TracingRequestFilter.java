@@ -0,0 +1,81 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+
+/**
+ * Creates a server span for every request of a web context, continuing the trace of the caller if the request carries
+ * a trace context.
+ * <p>
+ * The filter runs before resource matching and thus before the authentication filters, so the span covers the whole
+ * request handling in Jersey up to the response filters. The span is current while the request is handled, so the
+ * spans of the stores, the Vault, signing and outbound calls become its children.
+ * </p>
+ */
+@PreMatching
+public class TracingRequestFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String SPAN_PROPERTY = TracingRequestFilter.class.getName() + ".span";
+    static final String SCOPE_PROPERTY = TracingRequestFilter.class.getName() + ".scope";
+
+    private static final TextMapGetter<ContainerRequestContext> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(ContainerRequestContext carrier) {
+            return carrier.getHeaders().keySet();
+        }
+
+        @Override
+        public String get(ContainerRequestContext carrier, String key) {
+            return carrier != null ? carrier.getHeaderString(key) : null;
+        }
+    };
+
+    private final Tracing tracing;
+    private final String contextAlias;
+
+    public TracingRequestFilter(Tracing tracing, String contextAlias) {
+        this.tracing = tracing;
+        this.contextAlias = contextAlias;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        var parent = tracing.propagator().extract(Context.current(), requestContext, GETTER);
+        var method = requestContext.getMethod();
+        var span = tracing.tracer().spanBuilder("%s %s".formatted(method, contextAlias))
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .setAttribute("http.request.method", method)
+                .setAttribute("url.path", requestContext.getUriInfo().getRequestUri().getPath())
+                .setAttribute("edc.web.context", contextAlias)
+                .startSpan();
+        requestContext.setProperty(SPAN_PROPERTY, span);
+        requestContext.setProperty(SCOPE_PROPERTY, span.makeCurrent());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (requestContext.getProperty(SCOPE_PROPERTY) instanceof Scope scope) {
+            scope.close();
+            requestContext.removeProperty(SCOPE_PROPERTY);
+        }
+        if (requestContext.getProperty(SPAN_PROPERTY) instanceof Span span) {
+            var status = responseContext.getStatus();
+            span.setAttribute("http.response.status_code", status);
+            if (status >= 500) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+            requestContext.removeProperty(SPAN_PROPERTY);
+        }
+    }
+}
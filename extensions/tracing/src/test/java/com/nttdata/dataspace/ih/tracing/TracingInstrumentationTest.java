@@ -0,0 +1,117 @@
+package com.nttdata.dataspace.ih.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TracingInstrumentationTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private SdkTracerProvider tracerProvider;
+    private Tracing tracing;
+
+    interface Store {
+        ServiceResult<String> find(String id);
+    }
+
+    @BeforeEach
+    void setUp() {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        tracing = new Tracing(tracerProvider.get("test"), W3CTraceContextPropagator.getInstance());
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void wrap_shouldRecordSpan_perCall() {
+        var store = TracedProxies.wrap(Store.class, ServiceResult::success, tracing.tracer());
+
+        assertThat(store.find("a").getContent()).isEqualTo("a");
+
+        assertThat(exporter.getFinishedSpanItems()).singleElement().satisfies(span -> {
+            assertThat(span.getName()).isEqualTo("Store.find");
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.UNSET);
+        });
+    }
+
+    @Test
+    void wrap_shouldMarkError_whenResultFailed() {
+        var store = TracedProxies.wrap(Store.class, id -> ServiceResult.notFound("no " + id), tracing.tracer());
+
+        store.find("a");
+
+        assertThat(exporter.getFinishedSpanItems()).singleElement()
+                .satisfies(span -> assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR));
+    }
+
+    @Test
+    void wrap_shouldRethrowAndMarkError_whenCallThrows() {
+        Store failing = id -> {
+            throw new IllegalStateException("boom");
+        };
+        var store = TracedProxies.wrap(Store.class, failing, tracing.tracer());
+
+        assertThatThrownBy(() -> store.find("a")).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(exporter.getFinishedSpanItems()).singleElement().satisfies(span -> {
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+            assertThat(span.getEvents()).anyMatch(event -> event.getName().equals("exception"));
+        });
+    }
+
+    @Test
+    void intercept_shouldPropagateTraceContext_andRecordStatus() throws IOException {
+        var request = new Request.Builder().url("https://issuer.example.com/api/credentials?token=secret").build();
+        var chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any())).thenAnswer(i -> response(i.getArgument(0), 503));
+
+        new TracingInterceptor(tracing).intercept(chain);
+
+        var sent = ArgumentCaptor.forClass(Request.class);
+        verify(chain).proceed(sent.capture());
+        var span = exporter.getFinishedSpanItems().get(0);
+        assertThat(sent.getValue().header("traceparent")).contains(span.getTraceId()).contains(span.getSpanId());
+        assertThat(span.getKind()).isEqualTo(SpanKind.CLIENT);
+        assertThat(span.getAttributes().get(longKey("http.response.status_code"))).isEqualTo(503);
+        assertThat(span.getAttributes().get(stringKey("url.full"))).isEqualTo("https://issuer.example.com/api/credentials");
+        assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    }
+
+    private static Response response(Request request, int code) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("status " + code)
+                .build();
+    }
+}
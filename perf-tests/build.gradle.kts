@@ -0,0 +1,61 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    // the whole Identity Hub runtime, booted in-process
+    testImplementation(project(":"))
+    testImplementation(libs.edc.boot)
+    // mints the tokens of the presentation scenario through the embedded STS
+    testImplementation(libs.edc.ih.spi.sts)
+    // fixed-concurrency load driver and latency report
+    testImplementation(testFixtures(project(":extensions:common:http:client")))
+    testImplementation(libs.embedded.postgres)
+
+    testImplementation(libs.junit.jupiter.api)
+    testRuntimeOnly(libs.junit.jupiter.engine)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.assertj.core)
+}
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("performance")
+    }
+}
+
+// Boots the runtime against embedded Postgres and a Vault stand-in, drives its APIs and compares the results with
+// baseline.properties, e.g. ./gradlew :perf-tests:perfTest -Dperf.participants=500 -Dperf.concurrency=32
+// -Dperf.baseline.update=true rewrites baseline.properties with the measured values.
+tasks.register<Test>("perfTest") {
+    group = "verification"
+    description = "Runs the in-process performance suite and fails on regressions against the baseline."
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("performance")
+    }
+    maxHeapSize = "2g"
+    systemProperty("perf.baseline.file", file("baseline.properties").path)
+    systemProperty("perf.report.file", layout.buildDirectory.file("perf/report.properties").get().asFile.path)
+    // perf.* configure the suite, edc.* and web.* override the runtime configuration
+    systemProperties(System.getProperties()
+            .filterKeys { it.toString().startsWith("perf.") || it.toString().startsWith("edc.") || it.toString().startsWith("web.") }
+            .mapKeys { it.key.toString() })
+    outputs.upToDateWhen { false }
+}
+
+// Collects TrainingBackends with the embedded Postgres and the Vault stand-in, which train the AppCDS archive of the
+// image in the JVM of the runtime image, see Dockerfile. Run it with
+// java -cp "build/training-backends/classes:build/training-backends/lib/*" com.nttdata.dataspace.ih.perf.TrainingBackends <jar> <archive>
+tasks.register<Sync>("trainingBackends") {
+    group = "distribution"
+    description = "Assembles the backends of the AppCDS training run."
+    into(layout.buildDirectory.dir("training-backends"))
+    from(sourceSets["test"].output) {
+        into("classes")
+    }
+    from(sourceSets["test"].runtimeClasspath.filter { it.isFile }) {
+        into("lib")
+    }
+}
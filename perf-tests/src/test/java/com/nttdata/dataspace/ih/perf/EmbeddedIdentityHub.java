@@ -0,0 +1,224 @@
+package com.nttdata.dataspace.ih.perf;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.eclipse.edc.boot.system.runtime.BaseRuntime;
+import org.eclipse.edc.iam.identitytrust.sts.spi.model.StsAccountTokenAdditionalParams;
+import org.eclipse.edc.iam.identitytrust.sts.spi.service.StsAccountService;
+import org.eclipse.edc.iam.identitytrust.sts.spi.service.StsClientTokenGeneratorService;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.configuration.Config;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * The complete Identity Hub runtime booted in this JVM, with an embedded Postgres and a {@link VaultStandInServer}
+ * instead of external services. All APIs listen on free ports of {@code localhost}.
+ * <p>
+ * The runtime reads its configuration from system properties, as with {@code java -D... -jar}. Properties that are
+ * already set when the hub is started win over the ones set here, so every runtime setting can be changed for a run.
+ * The properties set here are removed again on {@link #close()}, so that test classes can each start a hub in one JVM.
+ * The participants are created by the initial participant seed ({@code edc.participant.id}).
+ * </p>
+ */
+public class EmbeddedIdentityHub implements AutoCloseable {
+
+    public static final String SUPER_USER = "super-user";
+
+    private static final Pattern ACCESS_TOKEN_CLAIM = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final EmbeddedPostgres postgres;
+    private final VaultStandInServer vault;
+    private final InProcessRuntime runtime = new InProcessRuntime();
+    private final List<String> participants;
+    private final List<String> properties = new ArrayList<>();
+    private final int apiPort = freePort();
+    private final int identityPort = freePort();
+    private final int credentialsPort = freePort();
+    private final int didPort = freePort();
+
+    private EmbeddedIdentityHub(EmbeddedPostgres postgres, VaultStandInServer vault, int participants) {
+        this.postgres = postgres;
+        this.vault = vault;
+        this.participants = IntStream.range(0, participants)
+                .mapToObj(i -> "did:web:localhost%%3A%d:perf-%05d".formatted(didPort, i))
+                .toList();
+    }
+
+    /**
+     * Starts the backing services and boots the runtime, which returns once all participants are seeded.
+     * @param participants number of participants to seed
+     */
+    public static EmbeddedIdentityHub start(int participants) throws IOException {
+        return start(participants, settings -> {
+        });
+    }
+
+    /**
+     * @param participants number of participants to seed
+     * @param customizer   changes the configuration of the runtime, given the settings of this class
+     */
+    public static EmbeddedIdentityHub start(int participants, Consumer<Map<String, String>> customizer) throws IOException {
+        var postgres = EmbeddedPostgres.builder().start();
+        var vault = VaultStandInServer.start();
+        var hub = new EmbeddedIdentityHub(postgres, vault, participants);
+        var settings = hub.configuration();
+        customizer.accept(settings);
+        settings.forEach((name, value) -> {
+            if (System.getProperties().putIfAbsent(name, value) == null) {
+                hub.properties.add(name);
+            }
+        });
+        hub.runtime.start();
+        return hub;
+    }
+
+    public List<String> participants() {
+        return participants;
+    }
+
+    /**
+     * JDBC URL of the embedded Postgres, user and password {@code postgres}.
+     */
+    public String jdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    public String identityApiUrl() {
+        return "http://localhost:%s%s".formatted(System.getProperty("web.http.identity.port"), System.getProperty("web.http.identity.path"));
+    }
+
+    public String credentialsApiUrl() {
+        return "http://localhost:%s%s".formatted(System.getProperty("web.http.credentials.port"), System.getProperty("web.http.credentials.path"));
+    }
+
+    /**
+     * URL of the DID document of a participant, {@code did:web:localhost%3A<port>:<name>} is served as {@code /<name>/did.json}.
+     */
+    public String didDocumentUrl(String participant) {
+        var path = participant.substring(participant.lastIndexOf(':') + 1);
+        return "http://localhost:%s/%s/did.json".formatted(System.getProperty("web.http.did.port"), path);
+    }
+
+    /**
+     * The API key of the super-user, as generated by the super-user seed and stored in the Vault.
+     */
+    public String superUserApiKey() {
+        return vault.secret(SUPER_USER + "-apikey")
+                .orElseThrow(() -> new IllegalStateException("No API key of %s in the Vault stand-in".formatted(SUPER_USER)));
+    }
+
+    /**
+     * Mints the token a verifier presents to the credentials API of a holder, as in a DCP exchange between the two:
+     * the embedded STS of the holder issues an access token for {@code scope} to the verifier, which the STS of the
+     * verifier then wraps in a self-issued ID token for the holder.
+     */
+    public String presentationToken(String holder, String verifier, String scope) {
+        var holderToken = token(holder, StsAccountTokenAdditionalParams.Builder.newInstance()
+                .audience(verifier)
+                .bearerAccessScope(scope)
+                .build());
+        var claims = new String(Base64.getUrlDecoder().decode(holderToken.split("\\.")[1]), StandardCharsets.UTF_8);
+        var accessToken = ACCESS_TOKEN_CLAIM.matcher(claims);
+        if (!accessToken.find()) {
+            throw new IllegalStateException("STS token of %s holds no access token".formatted(holder));
+        }
+        return token(verifier, StsAccountTokenAdditionalParams.Builder.newInstance()
+                .audience(holder)
+                .accessToken(accessToken.group(1))
+                .build());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            runtime.shutdown();
+        } finally {
+            properties.forEach(System::clearProperty);
+            vault.close();
+            postgres.close();
+        }
+    }
+
+    private Map<String, String> configuration() {
+        var settings = new LinkedHashMap<String, String>();
+        settings.put("web.http.port", String.valueOf(apiPort));
+        settings.put("web.http.path", "/api");
+        settings.put("web.http.identity.port", String.valueOf(identityPort));
+        settings.put("web.http.identity.path", "/api/identity");
+        settings.put("web.http.credentials.port", String.valueOf(credentialsPort));
+        settings.put("web.http.credentials.path", "/api/credentials");
+        settings.put("web.http.did.port", String.valueOf(didPort));
+        settings.put("web.http.did.path", "/");
+
+        settings.put("edc.datasource.default.url", postgres.getJdbcUrl("postgres", "postgres"));
+        settings.put("edc.datasource.default.user", "postgres");
+        settings.put("edc.datasource.default.password", "postgres");
+        settings.put("edc.sql.schema.autocreate", "true");
+
+        settings.put("edc.vault.hashicorp.url", vault.url());
+        settings.put("edc.vault.hashicorp.token", VaultStandInServer.TOKEN);
+        settings.put("edc.vault.hashicorp.health.check.enabled", "false");
+        settings.put("edc.vault.hashicorp.token.scheduled-renew-enabled", "false");
+
+        settings.put("edc.ih.iam.id", "perf-test");
+        settings.put("edc.participant.id", String.join(",", participants));
+        settings.put("edc.ih.credential.service.url", "http://localhost:%d/api/credentials/v1/participants".formatted(credentialsPort));
+        settings.put("edc.dsp.callback.address", "http://localhost:%d/api/dsp".formatted(apiPort));
+        // the DID documents are served over plain HTTP by the DID API of this runtime
+        settings.put("edc.iam.did.web.use.https", "false");
+        return settings;
+    }
+
+    private String token(String participant, StsAccountTokenAdditionalParams params) {
+        var account = runtime.service(StsAccountService.class).findById(participant)
+                .orElseThrow(failure -> new IllegalStateException("No STS account of %s: %s".formatted(participant, failure.getFailureDetail())));
+        return runtime.service(StsClientTokenGeneratorService.class).tokenFor(account, params)
+                .orElseThrow(failure -> new IllegalStateException("STS token of %s failed: %s".formatted(participant, failure.getFailureDetail())))
+                .getToken();
+    }
+
+    private static int freePort() {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("No free port", e);
+        }
+    }
+
+    /**
+     * Boots like {@code BaseRuntime.main}, but without a shutdown hook and failing instead of exiting on errors.
+     */
+    private static final class InProcessRuntime extends BaseRuntime {
+
+        private ServiceExtensionContext context;
+
+        void start() {
+            boot(false);
+        }
+
+        <T> T service(Class<T> type) {
+            return context.getService(type);
+        }
+
+        @Override
+        protected ServiceExtensionContext createServiceExtensionContext(Config config) {
+            context = super.createServiceExtensionContext(config);
+            return context;
+        }
+
+        @Override
+        protected void onError(Throwable e) {
+            throw new IllegalStateException("Identity Hub runtime failed to start", e);
+        }
+    }
+}
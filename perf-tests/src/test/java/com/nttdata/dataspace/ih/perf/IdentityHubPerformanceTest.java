@@ -0,0 +1,155 @@
+package com.nttdata.dataspace.ih.perf;
+
+import com.nttdata.dataspace.edc.fc.web.http.client.fixtures.LoadReport;
+import com.nttdata.dataspace.edc.fc.web.http.client.fixtures.OutboundLoadDriver;
+import okhttp3.ConnectionPool;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * In-process performance suite: boots the runtime with {@link EmbeddedIdentityHub}, drives each scenario at a fixed
+ * concurrency and compares throughput and latency percentiles with the committed baseline. Run through
+ * {@code ./gradlew :perf-tests:perfTest}, which sets the baseline and report files.
+ * <p>
+ * Configured with:
+ * <ul>
+ *     <li>{@code perf.participants} (default 200), {@code perf.concurrency} (default 16)</li>
+ *     <li>{@code perf.requests} (default 5000) and {@code perf.warmup} (default 1000) per scenario</li>
+ *     <li>{@code perf.tolerance} - allowed relative change against the baseline (default 0.25)</li>
+ *     <li>{@code perf.min.delta.ms} - latency increases below this are ignored (default 1)</li>
+ *     <li>{@code perf.baseline.update} - write the results to the baseline file instead of comparing (default false)</li>
+ * </ul>
+ * A run without a baseline file fails, so that a missing baseline does not silently turn the suite into a no-op; the
+ * first baseline is written with {@code perf.baseline.update} on the reference machine and committed.
+ * </p>
+ */
+@Tag("performance")
+class IdentityHubPerformanceTest {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final String PRESENTATION_SCOPE = "org.eclipse.edc.vc.type:MembershipCredential:read";
+    private static final String PRESENTATION_QUERY = """
+            {"@context":["https://w3id.org/dspace-dcp/v1.0/dcp.jsonld"],"@type":"PresentationQueryMessage",\
+            "scope":["%s"]}""".formatted(PRESENTATION_SCOPE);
+
+    private static final int PARTICIPANTS = Integer.getInteger("perf.participants", 200);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 16);
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 5000);
+    private static final int WARMUP = Integer.getInteger("perf.warmup", 1000);
+
+    private static EmbeddedIdentityHub hub;
+    private static OkHttpClient client;
+
+    @BeforeAll
+    static void startHub() throws IOException {
+        var started = System.nanoTime();
+        hub = EmbeddedIdentityHub.start(PARTICIPANTS);
+        System.out.printf("Identity Hub with %d participants started in %d ms%n", PARTICIPANTS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(CONCURRENCY, 5, TimeUnit.MINUTES))
+                .build();
+        client.dispatcher().setMaxRequestsPerHost(CONCURRENCY);
+    }
+
+    @AfterAll
+    static void stopHub() throws IOException {
+        if (client != null) {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+        if (hub != null) {
+            hub.close();
+        }
+    }
+
+    @Test
+    void apis_shouldNotRegress_againstBaseline() throws Exception {
+        var apiKey = hub.superUserApiKey();
+        var participants = hub.participants();
+
+        var results = new LinkedHashMap<String, PerformanceBaseline.Result>();
+        run(results, "identity.participant", i -> identityRequest(apiKey,
+                "/v1alpha/participants/" + encode(participants.get(i % participants.size()))));
+        run(results, "identity.participant.credentials", i -> identityRequest(apiKey,
+                "/v1alpha/participants/%s/credentials".formatted(encode(participants.get(i % participants.size())))));
+        run(results, "identity.participant.contexts.page", i -> identityRequest(apiKey, "/v1alpha/participant-contexts?limit=100"));
+        run(results, "did.document", i -> new Request.Builder()
+                .url(hub.didDocumentUrl(participants.get(i % participants.size())))
+                .get()
+                .build());
+        // minted before the scenario so that it does not measure the STS, and only now so that they do not expire during it
+        var presentationTokens = IntStream.range(0, participants.size())
+                .mapToObj(i -> hub.presentationToken(participants.get(i), participants.get((i + 1) % participants.size()), PRESENTATION_SCOPE))
+                .toList();
+        // token verification with DID resolution of the verifier, credential query and signing of the presentation
+        run(results, "credentials.presentation", i -> {
+            var holder = i % participants.size();
+            return new Request.Builder()
+                    .url("%s/v1/participants/%s/presentations/query".formatted(hub.credentialsApiUrl(), encode(participants.get(holder))))
+                    .header("Authorization", "Bearer " + presentationTokens.get(holder))
+                    .post(RequestBody.create(PRESENTATION_QUERY, JSON))
+                    .build();
+        });
+
+        var current = new PerformanceBaseline(Map.of(
+                "participants", String.valueOf(PARTICIPANTS),
+                "concurrency", String.valueOf(CONCURRENCY),
+                "requests", String.valueOf(REQUESTS)), results);
+        current.write(Path.of(System.getProperty("perf.report.file", "build/perf/report.properties")));
+
+        var baselineFile = Path.of(System.getProperty("perf.baseline.file", "baseline.properties"));
+        if (Boolean.getBoolean("perf.baseline.update")) {
+            current.write(baselineFile);
+            System.out.println("Baseline written to " + baselineFile + ", commit it to compare future runs");
+            return;
+        }
+        var baseline = PerformanceBaseline.read(baselineFile);
+        assertThat(baseline.isEmpty())
+                .as("No baseline in %s, write one on the reference machine with -Dperf.baseline.update=true and commit it", baselineFile)
+                .isFalse();
+        var tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.25"));
+        var minDelta = Double.parseDouble(System.getProperty("perf.min.delta.ms", "1"));
+        assertThat(baseline.regressions(current, tolerance, minDelta))
+                .as("Regressions against %s (tolerance %.0f%%), update the baseline with -Dperf.baseline.update=true if intended",
+                        baselineFile, tolerance * 100)
+                .isEmpty();
+    }
+
+    private static void run(Map<String, PerformanceBaseline.Result> results, String scenario, IntFunction<Request> requests) throws InterruptedException {
+        LoadReport report = new OutboundLoadDriver(client, CONCURRENCY).run(WARMUP, REQUESTS, requests, status -> status >= 200 && status < 300);
+        System.out.printf("%-40s %s%n", scenario, report);
+        assertThat(report.errors()).as("%s: requests with an unexpected status or failure", scenario).isZero();
+        results.put(scenario, PerformanceBaseline.Result.of(report));
+    }
+
+    private static Request identityRequest(String apiKey, String path) {
+        return new Request.Builder()
+                .url(hub.identityApiUrl() + path)
+                .header("x-api-key", apiKey)
+                .get()
+                .build();
+    }
+
+    private static String encode(String participantContextId) {
+        return Base64.getUrlEncoder().encodeToString(participantContextId.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,132 @@
+package com.nttdata.dataspace.ih.perf;
+
+import com.nttdata.dataspace.edc.fc.web.http.client.fixtures.LoadReport;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Throughput and latency percentiles per scenario, stored as a sorted properties file so that changes show up as a
+ * readable diff in review. The run parameters are stored along, results are only compared when they match.
+ *
+ * @param parameters run parameters such as the number of participants and the concurrency
+ * @param scenarios  results per scenario name
+ */
+public record PerformanceBaseline(Map<String, String> parameters, Map<String, Result> scenarios) {
+
+    private static final String PARAMETER_PREFIX = "run.";
+
+    /**
+     * @param throughput requests per second
+     */
+    public record Result(double throughput, double p50Millis, double p95Millis, double p99Millis) {
+
+        public static Result of(LoadReport report) {
+            return new Result(report.throughput(), report.p50() / 1000.0, report.p95() / 1000.0, report.p99() / 1000.0);
+        }
+    }
+
+    public PerformanceBaseline {
+        parameters = new TreeMap<>(parameters);
+        scenarios = new TreeMap<>(scenarios);
+    }
+
+    /**
+     * Reads a baseline file, an empty baseline if there is none.
+     */
+    public static PerformanceBaseline read(Path file) throws IOException {
+        var properties = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        var parameters = new TreeMap<String, String>();
+        var values = new TreeMap<String, Map<String, Double>>();
+        for (var name : properties.stringPropertyNames()) {
+            var value = properties.getProperty(name);
+            if (name.startsWith(PARAMETER_PREFIX)) {
+                parameters.put(name.substring(PARAMETER_PREFIX.length()), value);
+                continue;
+            }
+            var separator = name.lastIndexOf('.');
+            values.computeIfAbsent(name.substring(0, separator), scenario -> new TreeMap<>())
+                    .put(name.substring(separator + 1), Double.parseDouble(value));
+        }
+        var scenarios = new TreeMap<String, Result>();
+        values.forEach((scenario, metrics) -> scenarios.put(scenario, new Result(
+                metrics.getOrDefault("throughput", 0.0), metrics.getOrDefault("p50", 0.0),
+                metrics.getOrDefault("p95", 0.0), metrics.getOrDefault("p99", 0.0))));
+        return new PerformanceBaseline(parameters, scenarios);
+    }
+
+    public boolean isEmpty() {
+        return scenarios.isEmpty();
+    }
+
+    public void write(Path file) throws IOException {
+        var lines = new ArrayList<String>();
+        lines.add("# Performance baseline of the in-process suite, see perf-tests/build.gradle.kts. Latencies in ms.");
+        parameters.forEach((name, value) -> lines.add(PARAMETER_PREFIX + name + "=" + value));
+        scenarios.forEach((scenario, result) -> {
+            lines.add(line(scenario, "p50", result.p50Millis()));
+            lines.add(line(scenario, "p95", result.p95Millis()));
+            lines.add(line(scenario, "p99", result.p99Millis()));
+            lines.add(line(scenario, "throughput", result.throughput()));
+        });
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a run with this baseline.
+     *
+     * @param current         results of the run
+     * @param tolerance       allowed relative change, e.g. 0.25 for 25%
+     * @param minDeltaMillis  latency increases below this are ignored, they are noise at sub-millisecond latencies
+     * @return one message per regression, empty if there is none
+     * @throws IllegalArgumentException if the run parameters differ from those of the baseline
+     */
+    public List<String> regressions(PerformanceBaseline current, double tolerance, double minDeltaMillis) {
+        if (!parameters.equals(current.parameters())) {
+            throw new IllegalArgumentException("Run parameters %s differ from the baseline parameters %s".formatted(current.parameters(), parameters));
+        }
+        var regressions = new ArrayList<String>();
+        scenarios.forEach((scenario, expected) -> {
+            var actual = current.scenarios().get(scenario);
+            if (actual == null) {
+                regressions.add("%s: scenario was not run".formatted(scenario));
+                return;
+            }
+            if (actual.throughput() < expected.throughput() * (1 - tolerance)) {
+                regressions.add("%s: throughput %.1f req/s is below the baseline %.1f req/s".formatted(scenario, actual.throughput(), expected.throughput()));
+            }
+            latency(scenario, "p50", expected.p50Millis(), actual.p50Millis(), tolerance, minDeltaMillis, regressions);
+            latency(scenario, "p95", expected.p95Millis(), actual.p95Millis(), tolerance, minDeltaMillis, regressions);
+            latency(scenario, "p99", expected.p99Millis(), actual.p99Millis(), tolerance, minDeltaMillis, regressions);
+        });
+        return regressions;
+    }
+
+    private static void latency(String scenario, String percentile, double expected, double actual, double tolerance,
+                                double minDeltaMillis, List<String> regressions) {
+        if (actual > expected * (1 + tolerance) && actual - expected >= minDeltaMillis) {
+            regressions.add("%s: %s %.2f ms is above the baseline %.2f ms".formatted(scenario, percentile, actual, expected));
+        }
+    }
+
+    private static String line(String scenario, String metric, double value) {
+        return "%s.%s=%s".formatted(scenario, metric, String.format(Locale.ROOT, "%.2f", value));
+    }
+}
@@ -0,0 +1,81 @@
+package com.nttdata.dataspace.ih.perf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PerformanceBaselineTest {
+
+    private static final Map<String, String> PARAMETERS = Map.of("participants", "200", "concurrency", "16");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void write_shouldRoundTrip() throws IOException {
+        var baseline = baseline(new PerformanceBaseline.Result(1234.5, 1.5, 4.25, 9.0));
+        var file = directory.resolve("baseline.properties");
+
+        baseline.write(file);
+
+        assertThat(PerformanceBaseline.read(file)).isEqualTo(baseline);
+    }
+
+    @Test
+    void read_shouldReturnEmptyBaseline_whenFileIsMissing() throws IOException {
+        assertThat(PerformanceBaseline.read(directory.resolve("missing.properties")).isEmpty()).isTrue();
+    }
+
+    @Test
+    void regressions_shouldBeEmpty_withinTolerance() {
+        var baseline = baseline(new PerformanceBaseline.Result(1000, 2, 10, 20));
+        var current = baseline(new PerformanceBaseline.Result(800, 2.4, 12, 24));
+
+        assertThat(baseline.regressions(current, 0.25, 1)).isEmpty();
+    }
+
+    @Test
+    void regressions_shouldReportSlowerScenarios() {
+        var baseline = baseline(new PerformanceBaseline.Result(1000, 2, 10, 20));
+        var current = baseline(new PerformanceBaseline.Result(700, 2, 15, 20));
+
+        assertThat(baseline.regressions(current, 0.25, 1))
+                .hasSize(2)
+                .anySatisfy(message -> assertThat(message).startsWith("did.document: throughput"))
+                .anySatisfy(message -> assertThat(message).startsWith("did.document: p95"));
+    }
+
+    @Test
+    void regressions_shouldIgnoreSmallAbsoluteIncreases() {
+        var baseline = baseline(new PerformanceBaseline.Result(1000, 0.2, 0.4, 0.8));
+        var current = baseline(new PerformanceBaseline.Result(1000, 0.4, 0.8, 1.6));
+
+        assertThat(baseline.regressions(current, 0.25, 1)).isEmpty();
+    }
+
+    @Test
+    void regressions_shouldReportMissingScenario() {
+        var baseline = baseline(new PerformanceBaseline.Result(1000, 2, 10, 20));
+
+        assertThat(baseline.regressions(new PerformanceBaseline(PARAMETERS, Map.of()), 0.25, 1))
+                .containsExactly("did.document: scenario was not run");
+    }
+
+    @Test
+    void regressions_shouldReject_differentRunParameters() {
+        var baseline = baseline(new PerformanceBaseline.Result(1000, 2, 10, 20));
+        var current = new PerformanceBaseline(Map.of("participants", "10"), baseline.scenarios());
+
+        assertThatThrownBy(() -> baseline.regressions(current, 0.25, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PerformanceBaseline baseline(PerformanceBaseline.Result result) {
+        return new PerformanceBaseline(PARAMETERS, Map.of("did.document", result));
+    }
+}
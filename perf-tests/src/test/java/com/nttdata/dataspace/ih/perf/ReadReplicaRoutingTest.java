@@ -0,0 +1,133 @@
+package com.nttdata.dataspace.ih.perf;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-replica routing in the assembled runtime: the identity API reads of a participant context and of the DIDs of a
+ * participant are served by the replica datasource.
+ * <p>
+ * The "replica" is the embedded Postgres itself, connected with a search path that starts at a copy of the tables in
+ * the schema {@value #REPLICA_SCHEMA}. The copy differs from the primary, so a response tells which datasource served
+ * it, and shadows the WAL functions of the lag check to report a replica that has replayed everything.
+ * </p>
+ */
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_SCHEMA = "replica_copy";
+    private static final String REPLICA_ONLY_PARTICIPANT = "replica-only";
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private static EmbeddedIdentityHub hub;
+    private static OkHttpClient client;
+
+    @BeforeAll
+    static void startHub() throws IOException, SQLException, InterruptedException {
+        hub = EmbeddedIdentityHub.start(2, settings -> {
+            var primaryUrl = settings.get("edc.datasource.default.url");
+            settings.put("edc.datasource.replica.url", primaryUrl + "&currentSchema=%s,pg_catalog,public".formatted(REPLICA_SCHEMA));
+            settings.put("edc.datasource.replica.user", "postgres");
+            settings.put("edc.datasource.replica.password", "postgres");
+            settings.put("edc.ih.sql.replica.enabled", "true");
+            settings.put("edc.ih.sql.replica.max.staleness.millis", "200");
+            settings.put("edc.ih.sql.replica.check.period.millis", "100");
+        });
+        client = new OkHttpClient();
+        copyTablesToReplica();
+        // the lag check needs a round to see the copy as replica
+        for (var attempt = 0; attempt < 100 && participantStatus(REPLICA_ONLY_PARTICIPANT) != 200; attempt++) {
+            Thread.sleep(100);
+        }
+    }
+
+    @AfterAll
+    static void stopHub() throws IOException {
+        if (client != null) {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+        if (hub != null) {
+            hub.close();
+        }
+    }
+
+    @Test
+    void getParticipantContext_shouldReadFromReplica() throws IOException {
+        // renamed in the replica copy: found only there
+        assertThat(participantStatus(REPLICA_ONLY_PARTICIPANT)).isEqualTo(200);
+        assertThat(participantStatus(hub.participants().get(0))).isEqualTo(404);
+    }
+
+    @Test
+    void didQuery_shouldReadFromReplica() throws IOException {
+        var participant = hub.participants().get(1);
+        var request = new Request.Builder()
+                .url(hub.identityApiUrl() + "/v1alpha/participants/%s/dids/query".formatted(encode(participant)))
+                .header("x-api-key", hub.superUserApiKey())
+                .post(RequestBody.create("{\"offset\":0,\"limit\":50}", JSON))
+                .build();
+
+        try (var response = client.newCall(request).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+            // the primary holds the DID of the participant, the replica copy does not
+            assertThat(response.body().string()).isEqualToIgnoringWhitespace("[]");
+        }
+    }
+
+    /**
+     * Copies the tables after seeding, then removes the DIDs of the second participant from the copy and renames the
+     * first participant.
+     */
+    private static void copyTablesToReplica() throws SQLException {
+        try (var connection = DriverManager.getConnection(hub.jdbcUrl());
+             var statement = connection.createStatement()) {
+            var tables = new ArrayList<String>();
+            try (var result = statement.executeQuery("SELECT tablename FROM pg_tables WHERE schemaname = 'public'")) {
+                while (result.next()) {
+                    tables.add(result.getString(1));
+                }
+            }
+            statement.execute("CREATE SCHEMA " + REPLICA_SCHEMA);
+            for (var table : tables) {
+                statement.execute("CREATE TABLE %1$s.%2$s (LIKE public.%2$s INCLUDING ALL)".formatted(REPLICA_SCHEMA, table));
+                statement.execute("INSERT INTO %1$s.%2$s SELECT * FROM public.%2$s".formatted(REPLICA_SCHEMA, table));
+            }
+            for (var function : new String[]{ "pg_last_wal_receive_lsn", "pg_last_wal_replay_lsn" }) {
+                statement.execute("CREATE FUNCTION %s.%s() RETURNS pg_lsn AS $$ SELECT '0/0'::pg_lsn $$ LANGUAGE sql".formatted(REPLICA_SCHEMA, function));
+            }
+            statement.execute("UPDATE %s.participant_context SET participant_context_id = '%s' WHERE participant_context_id = '%s'"
+                    .formatted(REPLICA_SCHEMA, REPLICA_ONLY_PARTICIPANT, hub.participants().get(0)));
+            statement.execute("DELETE FROM %s.did_resources WHERE participant_context_id = '%s'"
+                    .formatted(REPLICA_SCHEMA, hub.participants().get(1)));
+        }
+    }
+
+    private static int participantStatus(String participantContextId) throws IOException {
+        var request = new Request.Builder()
+                .url(hub.identityApiUrl() + "/v1alpha/participants/" + encode(participantContextId))
+                .header("x-api-key", hub.superUserApiKey())
+                .get()
+                .build();
+        try (var response = client.newCall(request).execute()) {
+            return response.code();
+        }
+    }
+
+    private static String encode(String participantContextId) {
+        return Base64.getUrlEncoder().encodeToString(participantContextId.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,163 @@
+package com.nttdata.dataspace.ih.perf;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tracing in the assembled runtime: the store, Vault and signing decorators are the instances the API controllers and
+ * the presentation generator actually use, so their spans are children of the server span of a request.
+ * <p>
+ * The spans are read back from the file exporter, one OTLP JSON document per exported batch.
+ * </p>
+ */
+class TracingRuntimeTest {
+
+    private static final String SCOPE = "org.eclipse.edc.vc.type:MembershipCredential:read";
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final Pattern SPAN_START = Pattern.compile("\"traceId\":\"");
+    private static final Pattern SPAN_ID = Pattern.compile("\"spanId\":\"(\\w+)\"");
+    private static final Pattern PARENT_SPAN_ID = Pattern.compile("\"parentSpanId\":\"(\\w*)\"");
+    private static final Pattern NAME = Pattern.compile("\"name\":\"([^\"]+)\"");
+
+    @TempDir
+    static Path traces;
+
+    private static EmbeddedIdentityHub hub;
+    private static OkHttpClient client;
+
+    record ExportedSpan(String spanId, String parentSpanId, String name) {
+    }
+
+    @BeforeAll
+    static void startHub() throws IOException {
+        hub = EmbeddedIdentityHub.start(2, settings -> {
+            settings.put("edc.ih.tracing.enabled", "true");
+            settings.put("edc.ih.tracing.exporter", "file");
+            settings.put("edc.ih.tracing.file", traces.resolve("traces.jsonl").toString());
+            // every request reaches the stores
+            settings.put("edc.ih.did.cache.enabled", "false");
+            settings.put("edc.ih.presentation.cache.enabled", "false");
+        });
+        client = new OkHttpClient();
+    }
+
+    @AfterAll
+    static void stopHub() throws IOException {
+        if (client != null) {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+        if (hub != null) {
+            hub.close();
+        }
+    }
+
+    @Test
+    void didDocument_shouldRecordStoreSpans_belowServerSpan() throws Exception {
+        var request = new Request.Builder().url(hub.didDocumentUrl(hub.participants().get(0))).get().build();
+        try (var response = client.newCall(request).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+
+        var below = spansBelow(name -> name.equals("GET did"), name -> name.startsWith("DidResourceStore."));
+
+        assertThat(below).extracting(ExportedSpan::name).anyMatch(name -> name.startsWith("DidResourceStore."));
+    }
+
+    @Test
+    void presentationQuery_shouldRecordStoreVaultAndSigningSpans_belowServerSpan() throws Exception {
+        var holder = hub.participants().get(0);
+        var token = hub.presentationToken(holder, hub.participants().get(1), SCOPE);
+        var request = new Request.Builder()
+                .url("%s/v1/participants/%s/presentations/query".formatted(hub.credentialsApiUrl(),
+                        Base64.getUrlEncoder().encodeToString(holder.getBytes(StandardCharsets.UTF_8))))
+                .header("Authorization", "Bearer " + token)
+                .post(RequestBody.create("""
+                        {"@context":["https://w3id.org/dspace-dcp/v1.0/dcp.jsonld"],"@type":"PresentationQueryMessage",\
+                        "scope":["%s"]}""".formatted(SCOPE), JSON))
+                .build();
+        try (var response = client.newCall(request).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+
+        var below = spansBelow(name -> name.equals("POST credentials"), name -> name.startsWith("Vault."));
+
+        assertThat(below).extracting(ExportedSpan::name)
+                .anyMatch(name -> name.startsWith("CredentialStore."))
+                .anyMatch(name -> name.startsWith("Vault."))
+                .anyMatch(name -> name.startsWith("TokenGenerationService."));
+    }
+
+    /**
+     * Waits for the batch processor to export a server span with a descendant matching {@code expected}, then returns
+     * all descendants of that server span.
+     */
+    private static List<ExportedSpan> spansBelow(Predicate<String> server, Predicate<String> expected) throws IOException, InterruptedException {
+        var below = List.<ExportedSpan>of();
+        for (var attempt = 0; attempt < 150 && below.stream().map(ExportedSpan::name).noneMatch(expected); attempt++) {
+            Thread.sleep(100);
+            var spans = exportedSpans();
+            below = spans.stream()
+                    .filter(span -> server.test(span.name()))
+                    .map(root -> descendants(spans, root.spanId()))
+                    .filter(descendants -> descendants.stream().map(ExportedSpan::name).anyMatch(expected))
+                    .findFirst()
+                    .orElse(List.of());
+        }
+        return below;
+    }
+
+    private static List<ExportedSpan> descendants(List<ExportedSpan> spans, String spanId) {
+        var descendants = new ArrayList<ExportedSpan>();
+        for (var span : spans) {
+            if (spanId.equals(span.parentSpanId())) {
+                descendants.add(span);
+                descendants.addAll(descendants(spans, span.spanId()));
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * Cuts each line at the start of every span object; the first {@code name} after it is the span name, the scope
+     * name precedes the spans and attributes are named by {@code key}.
+     */
+    private static List<ExportedSpan> exportedSpans() throws IOException {
+        var file = traces.resolve("traces.jsonl");
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        var spans = new ArrayList<ExportedSpan>();
+        for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            var starts = SPAN_START.matcher(line).results().map(result -> result.start()).toList();
+            for (var i = 0; i < starts.size(); i++) {
+                var span = line.substring(starts.get(i), i + 1 < starts.size() ? starts.get(i + 1) : line.length());
+                var spanId = SPAN_ID.matcher(span);
+                var name = NAME.matcher(span);
+                if (spanId.find() && name.find()) {
+                    var parent = PARENT_SPAN_ID.matcher(span);
+                    spans.add(new ExportedSpan(spanId.group(1), parent.find() ? parent.group(1) : "", name.group(1)));
+                }
+            }
+        }
+        return spans;
+    }
+}
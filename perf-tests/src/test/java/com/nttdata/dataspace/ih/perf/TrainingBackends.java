@@ -0,0 +1,95 @@
+package com.nttdata.dataspace.ih.perf;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trains the AppCDS archive of the image (see Dockerfile) against an embedded Postgres and a
+ * {@link VaultStandInServer}: boots the fat jar in training mode ({@code edc.runtime.training.enabled}) with
+ * {@code -XX:ArchiveClassesAtExit}, so the archive covers the schema bootstrap, the seeds and the training requests.
+ * <p>
+ * Usage: {@code TrainingBackends <jar> <archive> [JVM options]}. The jar runs in a JVM of its own, started from the
+ * Java installation of this one, since an archive only works with the JVM that wrote it. Exits with an error if the
+ * training run fails or writes no archive, so that an image build never ships a partial archive.
+ * </p>
+ */
+public final class TrainingBackends {
+
+    private TrainingBackends() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: TrainingBackends <jar> <archive> [JVM options]");
+            System.exit(2);
+        }
+        var jar = Path.of(args[0]);
+        var archive = Path.of(args[1]);
+        Files.deleteIfExists(archive);
+
+        int exitCode;
+        try (var postgres = EmbeddedPostgres.builder().start(); var vault = VaultStandInServer.start()) {
+            var command = new ArrayList<String>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-XX:ArchiveClassesAtExit=" + archive);
+            configuration(postgres, vault).forEach((name, value) -> command.add("-D%s=%s".formatted(name, value)));
+            command.addAll(Arrays.asList(args).subList(2, args.length));
+            command.addAll(List.of("-jar", jar.toString(), "--log-level=warning"));
+            exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        }
+
+        if (exitCode != 0) {
+            System.err.printf("CDS training run failed with exit code %d%n", exitCode);
+            System.exit(1);
+        }
+        if (!Files.isRegularFile(archive) || Files.size(archive) == 0) {
+            System.err.printf("CDS training run wrote no archive to %s%n", archive);
+            System.exit(1);
+        }
+        System.out.printf("CDS archive written to %s (%d bytes)%n", archive, Files.size(archive));
+    }
+
+    /**
+     * The settings of {@link EmbeddedIdentityHub} on the ports of the image, with one participant whose DID document
+     * is served at {@code /training/did.json}, one of the default training URLs.
+     */
+    private static Map<String, String> configuration(EmbeddedPostgres postgres, VaultStandInServer vault) {
+        var settings = new LinkedHashMap<String, String>();
+        settings.put("edc.runtime.training.enabled", "true");
+        settings.put("edc.runtime.training.timeout.seconds", "180");
+
+        settings.put("web.http.port", "8181");
+        settings.put("web.http.path", "/api");
+        settings.put("web.http.identity.port", "8182");
+        settings.put("web.http.identity.path", "/api/identity");
+        settings.put("web.http.credentials.port", "8183");
+        settings.put("web.http.credentials.path", "/api/credentials");
+        settings.put("web.http.did.port", "8184");
+        settings.put("web.http.did.path", "/");
+
+        settings.put("edc.datasource.default.url", postgres.getJdbcUrl("postgres", "postgres"));
+        settings.put("edc.datasource.default.user", "postgres");
+        settings.put("edc.datasource.default.password", "postgres");
+        settings.put("edc.sql.schema.autocreate", "true");
+
+        settings.put("edc.vault.hashicorp.url", vault.url());
+        settings.put("edc.vault.hashicorp.token", VaultStandInServer.TOKEN);
+        settings.put("edc.vault.hashicorp.health.check.enabled", "false");
+        settings.put("edc.vault.hashicorp.token.scheduled-renew-enabled", "false");
+
+        settings.put("edc.ih.iam.id", "training");
+        settings.put("edc.participant.id", "did:web:localhost%3A8184:training");
+        settings.put("edc.ih.credential.service.url", "http://localhost:8183/api/credentials/v1/participants");
+        settings.put("edc.dsp.callback.address", "http://localhost:8181/api/dsp");
+        settings.put("edc.iam.did.web.use.https", "false");
+        return settings;
+    }
+}
@@ -0,0 +1,189 @@
+package com.nttdata.dataspace.ih.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory stand-in for the HashiCorp Vault KV v2 API, so the runtime can be booted with its regular Vault extension
+ * but without a Vault server.
+ * <p>
+ * Served endpoints (any token is accepted):
+ * <ul>
+ *     <li>{@code GET|POST /v1/secret/data/{key}} - read and write a secret</li>
+ *     <li>{@code DELETE /v1/secret/metadata/{key}} - delete a secret</li>
+ *     <li>{@code GET /v1/sys/health}, {@code GET /v1/auth/token/lookup-self} - health and a non-renewable token</li>
+ * </ul>
+ * </p>
+ */
+public class VaultStandInServer implements AutoCloseable {
+
+    public static final String TOKEN = "perf-test-token";
+
+    private static final String DATA_PATH = "/v1/secret/data/";
+    private static final String METADATA_PATH = "/v1/secret/metadata/";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, String> secrets = new ConcurrentHashMap<>();
+
+    private VaultStandInServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a stand-in on a free port of the loopback interface.
+     */
+    public static VaultStandInServer start() throws IOException {
+        var server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        var executor = Executors.newFixedThreadPool(8);
+        server.setExecutor(executor);
+        var standIn = new VaultStandInServer(server, executor);
+        server.createContext("/", standIn::handle);
+        server.start();
+        return standIn;
+    }
+
+    public String url() {
+        return "http://localhost:%d".formatted(server.getAddress().getPort());
+    }
+
+    /**
+     * Returns a stored secret. Keys may be stored below a folder, so a secret also matches on its last path segments.
+     */
+    public Optional<String> secret(String key) {
+        var value = secrets.get(key);
+        if (value != null) {
+            return Optional.of(value);
+        }
+        return secrets.entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith("/" + key))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+
+    public int size() {
+        return secrets.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var method = exchange.getRequestMethod();
+            var path = exchange.getRequestURI().getPath();
+            if (path.startsWith(DATA_PATH) && "GET".equals(method)) {
+                var value = secrets.get(key(path, DATA_PATH));
+                if (value == null) {
+                    send(exchange, 404, "{\"errors\":[]}");
+                } else {
+                    send(exchange, 200, "{\"data\":{\"data\":{\"content\":%s},\"metadata\":%s}}".formatted(quote(value), metadata()));
+                }
+            } else if (path.startsWith(DATA_PATH) && ("POST".equals(method) || "PUT".equals(method))) {
+                var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                secrets.put(key(path, DATA_PATH), content(body));
+                send(exchange, 200, "{\"data\":%s}".formatted(metadata()));
+            } else if (path.startsWith(METADATA_PATH) && "DELETE".equals(method)) {
+                secrets.remove(key(path, METADATA_PATH));
+                send(exchange, 204, null);
+            } else if (path.equals("/v1/sys/health")) {
+                send(exchange, 200, "{\"initialized\":true,\"sealed\":false,\"standby\":false}");
+            } else if (path.equals("/v1/auth/token/lookup-self")) {
+                send(exchange, 200, "{\"data\":{\"renewable\":false,\"ttl\":0,\"policies\":[\"root\"]}}");
+            } else {
+                send(exchange, 404, "{\"errors\":[]}");
+            }
+        }
+    }
+
+    private static String key(String path, String prefix) {
+        return URLDecoder.decode(path.substring(prefix.length()), StandardCharsets.UTF_8);
+    }
+
+    private static String metadata() {
+        return "{\"created_time\":\"2024-01-01T00:00:00Z\",\"deletion_time\":\"\",\"destroyed\":false,\"version\":1}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Extracts the string value of {@code content} from a write request, {@code {"data":{"content":"..."}}}.
+     */
+    static String content(String json) {
+        var field = json.indexOf("\"content\"");
+        if (field < 0) {
+            throw new IllegalArgumentException("No content in secret: " + json);
+        }
+        var start = json.indexOf('"', json.indexOf(':', field) + 1);
+        var value = new StringBuilder();
+        for (int i = start + 1; i < json.length(); i++) {
+            var c = json.charAt(i);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            var escaped = json.charAt(++i);
+            switch (escaped) {
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    value.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> value.append(escaped);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated content in secret: " + json);
+    }
+
+    static String quote(String value) {
+        var quoted = new StringBuilder("\"");
+        for (var c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append("\\u%04x".formatted((int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
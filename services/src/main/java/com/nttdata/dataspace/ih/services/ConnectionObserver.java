@@ -0,0 +1,16 @@
+package com.nttdata.dataspace.ih.services;
+
+import java.sql.Connection;
+
+/**
+ * Notified of every physical database connection the connection pools open, e.g. to close them before a checkpoint.
+ * Called by the connection factory of the SQL metrics extension, also when the metrics are disabled.
+ */
+@FunctionalInterface
+public interface ConnectionObserver {
+
+    /**
+     * @param connection the connection just opened, as it is handed to the pool
+     */
+    void opened(Connection connection);
+}
@@ -0,0 +1,14 @@
+package com.nttdata.dataspace.ih.services;
+
+/**
+ * Notified when credentials of a participant context are written outside the Identity Hub APIs, e.g. by the bulk
+ * import, so that caches of credential selections can be dropped.
+ */
+@FunctionalInterface
+public interface CredentialChangeListener {
+
+    /**
+     * @param participantContextId the participant context whose credentials changed
+     */
+    void credentialsChanged(String participantContextId);
+}
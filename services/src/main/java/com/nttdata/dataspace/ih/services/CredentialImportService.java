@@ -0,0 +1,25 @@
+package com.nttdata.dataspace.ih.services;
+
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface CredentialImportService {
+
+    /**
+     * Imports verifiable credentials from an NDJSON stream, one credential manifest per line.
+     * <p>
+     * Lines are read, validated and persisted in batches, and a result line is written for every input line as soon as
+     * its batch is committed, followed by a summary line. Memory use does not depend on the size of the stream.
+     * </p>
+     * <p>
+     * If the import fails after results were written, an error line with the summary so far is written instead of the
+     * summary line. If it fails before any result was written, nothing is written and only the failure is returned.
+     * </p>
+     * @param ndjson the input stream, one {@code VerifiableCredentialManifest} per line
+     * @param results the output stream the per-line results are written to
+     * @return the import summary, or a failure if the streams could not be read or written
+     */
+    ServiceResult<CredentialImportSummary> importCredentials(InputStream ndjson, OutputStream results);
+}
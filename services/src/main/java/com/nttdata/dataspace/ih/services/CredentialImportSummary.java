@@ -0,0 +1,10 @@
+package com.nttdata.dataspace.ih.services;
+
+/**
+ * Counts of a bulk credential import.
+ * @param lines number of non-empty input lines
+ * @param created number of credentials stored
+ * @param failed number of lines that were rejected or could not be stored
+ */
+public record CredentialImportSummary(long lines, long created, long failed) {
+}
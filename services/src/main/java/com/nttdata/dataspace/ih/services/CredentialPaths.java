@@ -0,0 +1,46 @@
+package com.nttdata.dataspace.ih.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Recognizes writes to the credentials of a participant on the identity and credentials (storage) API, which use
+ * {@code .../participants/{participantContextId}/credentials[/...]}. The participant context ID in these paths is
+ * base64url encoded.
+ */
+public final class CredentialPaths {
+
+    private static final String PARTICIPANTS_SEGMENT = "participants";
+    private static final String CREDENTIALS_SEGMENT = "credentials";
+
+    private CredentialPaths() {
+    }
+
+    /**
+     * Returns the participant context IDs the credentials of a request path may belong to: the path segment and, if it
+     * is valid base64url, the decoded segment. A plain ID can happen to be valid base64, so both have to be treated as
+     * changed.
+     *
+     * @param pathSegments the decoded path segments of the request
+     * @return the candidate IDs, empty if the path does not address credentials of a participant
+     */
+    public static List<String> owners(List<String> pathSegments) {
+        for (int i = 0; i + 2 < pathSegments.size(); i++) {
+            if (PARTICIPANTS_SEGMENT.equals(pathSegments.get(i)) && CREDENTIALS_SEGMENT.equals(pathSegments.get(i + 2))) {
+                var participant = pathSegments.get(i + 1);
+                var decoded = decode(participant);
+                return decoded == null ? List.of(participant) : List.of(participant, decoded);
+            }
+        }
+        return List.of();
+    }
+
+    private static String decode(String participant) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(participant), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
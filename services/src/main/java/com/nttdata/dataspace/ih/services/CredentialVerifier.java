@@ -0,0 +1,29 @@
+package com.nttdata.dataspace.ih.services;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.spi.result.Result;
+
+import java.util.List;
+
+/**
+ * Verifies credentials that enter the Identity Hub from outside its issuance flow, e.g. through the bulk import,
+ * before they are stored.
+ */
+@FunctionalInterface
+public interface CredentialVerifier {
+
+    /**
+     * Verifies credentials independently of each other: signature and issuer key, validity period, status and that
+     * each credential is issued to its holder. A failure of one credential does not affect the others.
+     * @param credentials the credentials, each with the DID of the holder it must be issued to
+     * @return one result per credential, in the same order
+     */
+    List<Result<Void>> verifyEach(List<HeldCredential> credentials);
+
+    /**
+     * @param credential the credential to verify
+     * @param holder the DID the credential subject must be, or {@code null} to not check it
+     */
+    record HeldCredential(VerifiableCredentialContainer credential, String holder) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.nttdata.dataspace.ih.services;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the datasources of the connection pool before they are registered for use by the SQL stores, e.g. to route
+ * connections. Applied by the SQL metrics extension, below its own instrumentation and the transaction handling.
+ */
+@FunctionalInterface
+public interface DataSourceDecorator {
+
+    /**
+     * @param name       name of the datasource ({@code edc.datasource.<name>})
+     * @param dataSource the pooled datasource
+     * @return the datasource to register, or {@code dataSource} itself
+     */
+    DataSource decorate(String name, DataSource dataSource);
+}
@@ -0,0 +1,17 @@
+package com.nttdata.dataspace.ih.services;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Wraps the outbound HTTP client before it is provided to the runtime, e.g. to add interceptors. Applied by the HTTP
+ * client extension to the fully configured client.
+ */
+@FunctionalInterface
+public interface HttpClientDecorator {
+
+    /**
+     * @param client the configured client
+     * @return the client to provide, or {@code client} itself
+     */
+    OkHttpClient decorate(OkHttpClient client);
+}
@@ -0,0 +1,36 @@
+package com.nttdata.dataspace.ih.services;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of a bulk key rotation job.
+ * @param id the job ID
+ * @param rotationId suffix of the key IDs and private key aliases created by this rotation
+ * @param state RUNNING while participants are rotated, then COMPLETED, CANCELLED or FAILED
+ * @param processed number of participants processed so far
+ * @param rotated number of participants whose default key pair was rotated
+ * @param skipped number of participants already rotated or without an active default key pair
+ * @param failed number of participants whose rotation failed
+ * @param republished number of DID documents republished after their batch
+ * @param checkpoint the last participant context ID of the last completed batch, every participant up to it is
+ *                   processed; null before the first batch completes
+ * @param submittedAt when the job was accepted
+ * @param completedAt when the job ended, null while running
+ * @param failures the first failures, with the participant and the failure detail
+ */
+public record KeyRotationJob(String id, String rotationId, State state, long processed, long rotated, long skipped,
+                             long failed, long republished, String checkpoint, Instant submittedAt,
+                             Instant completedAt, List<Failure> failures) {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * @param participantContextId the participant, or null if the participants could not be listed
+     * @param error the failure detail
+     */
+    public record Failure(String participantContextId, String error) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.nttdata.dataspace.ih.services;
+
+import java.util.List;
+
+/**
+ * Selection of a bulk key rotation.
+ * @param participantContextIds the participants whose default key pair is rotated, all participants if null or empty
+ * @param startAfter only rotate participants ordered after this participant context ID, e.g. the checkpoint of an
+ *                   interrupted job; null to start at the first participant
+ * @param rotationId suffix of the new key IDs and private key aliases, generated if null. Participants whose default
+ *                   key already carries it are skipped, so passing the rotation ID of an interrupted job resumes it
+ */
+public record KeyRotationRequest(List<String> participantContextIds, String startAfter, String rotationId) {
+}
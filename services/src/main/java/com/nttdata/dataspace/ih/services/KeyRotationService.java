@@ -0,0 +1,27 @@
+package com.nttdata.dataspace.ih.services;
+
+import org.eclipse.edc.spi.result.ServiceResult;
+
+public interface KeyRotationService {
+
+    /**
+     * Start rotating the default key pairs of a selection of participants in the background and return immediately.
+     * @param request the participants to rotate
+     * @return the new job, bad request for an invalid selection, or a conflict if another rotation is running
+     */
+    ServiceResult<KeyRotationJob> submit(KeyRotationRequest request);
+
+    /**
+     * Current progress of a job.
+     * @param jobId the ID returned by {@link #submit(KeyRotationRequest)}
+     * @return the job, or not found if it is unknown or has been evicted
+     */
+    ServiceResult<KeyRotationJob> getJob(String jobId);
+
+    /**
+     * Stop a running job after the rotations in progress. Its checkpoint stays at the last completed batch.
+     * @param jobId the ID returned by {@link #submit(KeyRotationRequest)}
+     * @return the job, or not found if it is unknown or has been evicted
+     */
+    ServiceResult<KeyRotationJob> cancel(String jobId);
+}
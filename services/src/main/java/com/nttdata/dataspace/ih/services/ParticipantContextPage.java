@@ -0,0 +1,13 @@
+package com.nttdata.dataspace.ih.services;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated participant context listing.
+ * @param items the participant contexts of this page
+ * @param nextCursor opaque cursor of the next page, null if this is the last page
+ */
+public record ParticipantContextPage(List<ParticipantContext> items, String nextCursor) {
+}
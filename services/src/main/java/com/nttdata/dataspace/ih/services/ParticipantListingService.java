@@ -0,0 +1,25 @@
+package com.nttdata.dataspace.ih.services;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.util.stream.Stream;
+
+public interface ParticipantListingService {
+
+    /**
+     * List one page of participant contexts ordered by participant context ID.
+     * @param cursor the {@code nextCursor} of the previous page, null for the first page
+     * @param limit the page size, capped by the implementation
+     * @return the page, or bad request if the cursor is invalid
+     */
+    ServiceResult<ParticipantContextPage> list(String cursor, int limit);
+
+    /**
+     * Lazily walk all participant contexts after the cursor, ordered by participant context ID. Pages are only read
+     * from the store while the stream is consumed, so memory use does not depend on the number of participants.
+     * @param cursor a page cursor to resume from, null to start at the beginning
+     * @return the stream, or bad request if the cursor is invalid
+     */
+    ServiceResult<Stream<ParticipantContext>> stream(String cursor);
+}
@@ -0,0 +1,24 @@
+package com.nttdata.dataspace.ih.services;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantManifest;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.util.List;
+
+public interface ParticipantProvisioningService {
+
+    /**
+     * Queue a batch of participants for creation and return immediately.
+     * @param manifests the participants to create
+     * @return the new job, or bad request if no manifest is given
+     * @throws ProvisioningQueueFullException if the provisioning queue cannot take the whole batch
+     */
+    ServiceResult<ProvisioningJob> submit(List<ParticipantManifest> manifests);
+
+    /**
+     * Current progress and per-item results of a job.
+     * @param jobId the ID returned by {@link #submit(List)}
+     * @return the job, or not found if it is unknown or has been evicted
+     */
+    ServiceResult<ProvisioningJob> getJob(String jobId);
+}
@@ -0,0 +1,35 @@
+package com.nttdata.dataspace.ih.services;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of a bulk participant provisioning job.
+ * @param id the job ID
+ * @param state RUNNING until every item has been processed, COMPLETED afterwards
+ * @param total number of participants in the batch
+ * @param created number of participants created so far
+ * @param failed number of participants that could not be created so far
+ * @param submittedAt when the job was accepted
+ * @param completedAt when the last item was processed, null while running
+ * @param items per-participant results, in the order of the batch
+ */
+public record ProvisioningJob(String id, State state, int total, int created, int failed,
+                              Instant submittedAt, Instant completedAt, List<Item> items) {
+
+    public enum State {
+        RUNNING, COMPLETED
+    }
+
+    public enum ItemStatus {
+        PENDING, CREATED, CONFLICT, FAILED
+    }
+
+    /**
+     * @param participantContextId the participant of this item
+     * @param status the outcome, PENDING until a worker has processed it
+     * @param error failure detail for CONFLICT and FAILED
+     */
+    public record Item(String participantContextId, ItemStatus status, String error) {
+    }
+}
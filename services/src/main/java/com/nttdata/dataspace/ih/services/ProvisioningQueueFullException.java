@@ -0,0 +1,14 @@
+package com.nttdata.dataspace.ih.services;
+
+import org.eclipse.edc.spi.EdcException;
+
+/**
+ * Thrown when the provisioning queue cannot take a batch as a whole. The batch was not queued and may be retried once
+ * the queued participants have been processed.
+ */
+public class ProvisioningQueueFullException extends EdcException {
+
+    public ProvisioningQueueFullException(String message) {
+        super(message);
+    }
+}
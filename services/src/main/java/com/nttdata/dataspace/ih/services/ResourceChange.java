@@ -0,0 +1,34 @@
+package com.nttdata.dataspace.ih.services;
+
+/**
+ * A change of a participant context or of one of its resources.
+ *
+ * @param type                 what changed
+ * @param participantContextId the participant context the resource belongs to
+ * @param resourceId           the DID of a DID document or the ID of a key pair; {@code null} otherwise
+ */
+public record ResourceChange(Type type, String participantContextId, String resourceId) {
+
+    public enum Type {
+        PARTICIPANT_CONTEXT,
+        DID_DOCUMENT,
+        KEY_PAIR,
+        CREDENTIALS
+    }
+
+    public static ResourceChange participantContext(String participantContextId) {
+        return new ResourceChange(Type.PARTICIPANT_CONTEXT, participantContextId, null);
+    }
+
+    public static ResourceChange didDocument(String participantContextId, String did) {
+        return new ResourceChange(Type.DID_DOCUMENT, participantContextId, did);
+    }
+
+    public static ResourceChange keyPair(String participantContextId, String keyPairId) {
+        return new ResourceChange(Type.KEY_PAIR, participantContextId, keyPairId);
+    }
+
+    public static ResourceChange credentials(String participantContextId) {
+        return new ResourceChange(Type.CREDENTIALS, participantContextId, null);
+    }
+}
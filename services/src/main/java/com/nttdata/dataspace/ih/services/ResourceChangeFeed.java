@@ -0,0 +1,24 @@
+package com.nttdata.dataspace.ih.services;
+
+/**
+ * Shares changes of participant contexts, DID documents, key pairs and credentials between the replicas of the
+ * Identity Hub, so that their local caches can drop what another replica changed.
+ * <p>
+ * Changes made through the Identity Hub services and writes to the credential store are published by the feed itself.
+ * Other changes, e.g. made with SQL outside the stores, have to be published by the code making them.
+ * </p>
+ */
+public interface ResourceChangeFeed {
+
+    /**
+     * Publishes a change made by this runtime to the other replicas. Inside a transaction, the change is only
+     * published if the transaction commits.
+     */
+    void publish(ResourceChange change);
+
+    /**
+     * Registers a listener for changes made by other replicas. Changes made by this runtime are not passed to it,
+     * they are signalled locally by the EDC events and the {@link CredentialChangeListener}.
+     */
+    void subscribe(ResourceChangeListener listener);
+}
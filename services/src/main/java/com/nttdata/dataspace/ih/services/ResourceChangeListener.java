@@ -0,0 +1,10 @@
+package com.nttdata.dataspace.ih.services;
+
+/**
+ * Notified of a change made by another replica of the Identity Hub, see {@link ResourceChangeFeed}.
+ */
+@FunctionalInterface
+public interface ResourceChangeListener {
+
+    void changed(ResourceChange change);
+}
@@ -0,0 +1,16 @@
+package com.nttdata.dataspace.ih.services;
+
+/**
+ * Wraps the participant context, key pair, DID resource and credential stores before they are registered for the
+ * services, e.g. to route reads. Applied by the traced stores extension of the tracing module, below the tracing and
+ * also when tracing is disabled.
+ */
+public interface StoreDecorator {
+
+    /**
+     * @param storeType the store interface the store is registered as
+     * @param store     the store
+     * @return the store to register, or {@code store} itself
+     */
+    <T> T decorate(Class<T> storeType, T store);
+}
@@ -1,21 +1,59 @@
 rootProject.name = "edc-identityhub"
 
 include("extensions")
+include("extensions:change-outbox")
+include("extensions:common:crac")
+include("extensions:common:single-port")
+include("extensions:common:training-run")
+include("extensions:did-cache")
+include("extensions:jsonld-contexts")
+include("extensions:local-did-resolver")
+include("extensions:parallel-verification")
+include("extensions:presentation-cache")
+include("extensions:read-replica")
+include("extensions:sql-metrics")
+include("extensions:sql-partitioning")
+include("extensions:status-list-cache")
+include("extensions:sts-token-cache")
 include("extensions:superuser-seed")
+include("extensions:tracing")
 include("extensions:user-seeding")
 include("extensions:service-loader")
 include("extensions:common")
 include("extensions:common:http")
 include("extensions:common:http:client")
+include("extensions:common:http:compression")
+include("extensions:common:virtual-threads")
+
+include("perf-tests")
 
 include("services")
 
 include("spi")
+include("spi:import-credentials")
 include("spi:manage-participant")
 
+findProject(":extensions:change-outbox")?.name = "change-outbox"
+findProject(":extensions:common:crac")?.name = "crac"
+findProject(":extensions:common:single-port")?.name = "single-port"
+findProject(":extensions:common:training-run")?.name = "training-run"
+findProject(":extensions:did-cache")?.name = "did-cache"
+findProject(":extensions:jsonld-contexts")?.name = "jsonld-contexts"
+findProject(":extensions:local-did-resolver")?.name = "local-did-resolver"
+findProject(":extensions:parallel-verification")?.name = "parallel-verification"
+findProject(":extensions:presentation-cache")?.name = "presentation-cache"
+findProject(":extensions:read-replica")?.name = "read-replica"
+findProject(":extensions:sql-metrics")?.name = "sql-metrics"
+findProject(":extensions:sql-partitioning")?.name = "sql-partitioning"
+findProject(":extensions:status-list-cache")?.name = "status-list-cache"
+findProject(":extensions:sts-token-cache")?.name = "sts-token-cache"
+findProject(":extensions:tracing")?.name = "tracing"
 findProject(":extensions:user-seeding")?.name = "user-seeding"
 findProject(":extensions:superuser-seed")?.name = "superuser-seed"
 findProject(":extensions:service-loader")?.name = "service-loader"
 findProject(":extensions:common:http:client")?.name = "client"
+findProject(":extensions:common:http:compression")?.name = "compression"
+findProject(":extensions:common:virtual-threads")?.name = "virtual-threads"
+findProject(":spi:import-credentials")?.name = "import-credentials"
 findProject(":spi:manage-participant")?.name = "manage-participant"
 
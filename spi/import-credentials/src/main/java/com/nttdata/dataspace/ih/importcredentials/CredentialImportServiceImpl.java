@@ -0,0 +1,325 @@
+package com.nttdata.dataspace.ih.importcredentials;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.dataspace.ih.services.CredentialChangeListener;
+import com.nttdata.dataspace.ih.services.CredentialImportService;
+import com.nttdata.dataspace.ih.services.CredentialImportSummary;
+import com.nttdata.dataspace.ih.services.CredentialVerifier;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialManifest;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.eclipse.edc.spi.result.StoreFailure;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Implementation of CredentialImportService interface.
+ * <p>
+ * The import is fully streaming: at most one batch of parsed credentials is held in memory. A batch is stored in one
+ * transaction; if that transaction fails, its lines are retried one by one so a single bad line does not reject its
+ * neighbours. Reading the next batch only starts once the results of the current one have been written, so a slow
+ * database or a client that does not read its results slows down the upload instead of filling up memory.
+ * </p>
+ * <p>
+ * With a {@link CredentialVerifier}, the credentials of a batch are verified before they are stored, each against the
+ * DID of the participant it is imported for; credentials that fail are rejected as invalid.
+ * </p>
+ */
+public class CredentialImportServiceImpl implements CredentialImportService {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final int KNOWN_PARTICIPANTS_SIZE = 1024;
+
+    private final CredentialStore credentialStore;
+    private final ParticipantContextService participantContextService;
+    private final TransactionContext transactionContext;
+    private final ObjectMapper mapper;
+    private final Monitor monitor;
+    private final int batchSize;
+    private final CredentialChangeListener changeListener;
+    private final CredentialVerifier verifier;
+
+    /**
+     * @param verifier verifies the credentials before they are stored, or {@code null} to store them as they are
+     */
+    public CredentialImportServiceImpl(CredentialStore credentialStore, ParticipantContextService participantContextService,
+                                       TransactionContext transactionContext, ObjectMapper mapper, Monitor monitor,
+                                       int batchSize, CredentialChangeListener changeListener, CredentialVerifier verifier) {
+        this.credentialStore = credentialStore;
+        this.participantContextService = participantContextService;
+        this.transactionContext = transactionContext;
+        this.mapper = mapper;
+        this.monitor = monitor;
+        this.batchSize = Math.max(1, batchSize);
+        this.changeListener = changeListener;
+        this.verifier = verifier;
+    }
+
+    @Override
+    public ServiceResult<CredentialImportSummary> importCredentials(InputStream ndjson, OutputStream results) {
+        var reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        var writer = new BufferedWriter(new OutputStreamWriter(results, StandardCharsets.UTF_8));
+        var knownParticipants = new KnownParticipants();
+        var batch = new ArrayList<ImportLine>(batchSize);
+        var counts = new Counts();
+
+        try {
+            long lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                batch.add(parse(lineNumber, text, knownParticipants));
+                if (batch.size() >= batchSize) {
+                    flush(batch, writer, counts);
+                }
+            }
+            flush(batch, writer, counts);
+
+            var summary = new CredentialImportSummary(counts.lines, counts.created, counts.failed);
+            writer.write(mapper.writeValueAsString(Map.of("summary", summary)));
+            writer.newLine();
+            writer.flush();
+            monitor.info("Credential import finished: %d lines, %d created, %d failed".formatted(summary.lines(), summary.created(), summary.failed()));
+            return ServiceResult.success(summary);
+        } catch (IOException | RuntimeException e) {
+            var message = "Credential import aborted after %d lines: %s".formatted(counts.lines, e.getMessage());
+            monitor.warning(message);
+            if (counts.lines > 0) {
+                reportFailure(writer, message, counts);
+            }
+            return ServiceResult.unexpected(message);
+        }
+    }
+
+    /**
+     * Ends a stream that already holds results with an error line instead of the summary, so the client can tell an
+     * aborted import from a complete one. Nothing can be reported if the output itself failed.
+     */
+    private void reportFailure(Writer writer, String message, Counts counts) {
+        var summary = new CredentialImportSummary(counts.lines, counts.created, counts.failed);
+        try {
+            writer.write(mapper.writeValueAsString(Map.of("error", message, "summary", summary)));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            monitor.debug("Could not report the import failure to the client: " + e.getMessage());
+        }
+    }
+
+    private ImportLine parse(long lineNumber, String text, KnownParticipants knownParticipants) {
+        VerifiableCredentialManifest manifest;
+        try {
+            manifest = mapper.readValue(text, VerifiableCredentialManifest.class);
+        } catch (JsonProcessingException e) {
+            return ImportLine.rejected(lineNumber, null, null, Status.INVALID, "Malformed JSON: " + e.getOriginalMessage());
+        }
+
+        var participantContextId = manifest.getParticipantContextId();
+        var container = manifest.getVerifiableCredentialContainer();
+        if (participantContextId == null || participantContextId.isBlank()) {
+            return ImportLine.rejected(lineNumber, manifest.getId(), null, Status.INVALID, "participantContextId is missing");
+        }
+        if (container == null || container.rawVc() == null || container.format() == null || container.credential() == null) {
+            return ImportLine.rejected(lineNumber, manifest.getId(), participantContextId, Status.INVALID, "verifiableCredentialContainer must contain rawVc, format and credential");
+        }
+        var participant = knownParticipants.find(participantContextId);
+        if (participant.isEmpty()) {
+            return ImportLine.rejected(lineNumber, manifest.getId(), participantContextId, Status.INVALID, "No participant context with ID " + participantContextId);
+        }
+
+        var credential = container.credential();
+        var resource = VerifiableCredentialResource.Builder.newInstance()
+                .id(manifest.getId())
+                .participantContextId(participantContextId)
+                .issuerId(credential.getIssuer() != null ? credential.getIssuer().id() : null)
+                .holderId(credential.getCredentialSubject().stream().map(CredentialSubject::getId).filter(Objects::nonNull).findFirst().orElse(null))
+                .state(VcStatus.ISSUED)
+                .credential(container)
+                .issuancePolicy(manifest.getIssuancePolicy())
+                .reissuancePolicy(manifest.getReissuancePolicy())
+                .build();
+        return new ImportLine(lineNumber, resource.getId(), participantContextId, participant.get().getDid(), resource);
+    }
+
+    private void flush(List<ImportLine> batch, Writer writer, Counts counts) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var pending = batch.stream().filter(line -> line.resource != null).toList();
+        if (verifier != null && !pending.isEmpty()) {
+            pending = verify(pending);
+        }
+        if (!pending.isEmpty()) {
+            store(pending);
+        }
+
+        var changedParticipants = new LinkedHashSet<String>();
+        for (var line : batch) {
+            counts.lines++;
+            if (line.status == Status.CREATED) {
+                counts.created++;
+                changedParticipants.add(line.participantContextId);
+            } else {
+                counts.failed++;
+            }
+            writer.write(mapper.writeValueAsString(line.toResult()));
+            writer.newLine();
+        }
+        writer.flush();
+        batch.clear();
+
+        if (changeListener != null) {
+            changedParticipants.forEach(changeListener::credentialsChanged);
+        }
+    }
+
+    /**
+     * Rejects the lines whose credential fails verification.
+     * @return the lines to store
+     */
+    private List<ImportLine> verify(List<ImportLine> pending) {
+        var results = verifier.verifyEach(pending.stream()
+                .map(line -> new CredentialVerifier.HeldCredential(line.resource.getVerifiableCredential(), line.holder))
+                .toList());
+        var verified = new ArrayList<ImportLine>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            var result = results.get(i);
+            if (result.succeeded()) {
+                verified.add(pending.get(i));
+            } else {
+                pending.get(i).reject(Status.INVALID, "Credential verification failed: " + result.getFailureDetail());
+            }
+        }
+        return verified;
+    }
+
+    private void store(List<ImportLine> pending) {
+        try {
+            transactionContext.execute(() -> pending.forEach(this::create));
+        } catch (RuntimeException e) {
+            // the whole batch was rolled back, retry line by line to isolate the failing credential
+            monitor.debug("Batch of %d credentials failed, retrying one by one: %s".formatted(pending.size(), e.getMessage()));
+            for (var line : pending) {
+                try {
+                    transactionContext.execute(() -> create(line));
+                } catch (RuntimeException lineFailure) {
+                    line.reject(Status.ERROR, lineFailure.getMessage());
+                }
+            }
+        }
+    }
+
+    private void create(ImportLine line) {
+        var result = credentialStore.create(line.resource);
+        if (result.succeeded()) {
+            line.status = Status.CREATED;
+            line.error = null;
+        } else if (result.reason() == StoreFailure.Reason.ALREADY_EXISTS) {
+            line.reject(Status.CONFLICT, result.getFailureDetail());
+        } else {
+            line.reject(Status.ERROR, result.getFailureDetail());
+        }
+    }
+
+    enum Status {
+        CREATED, CONFLICT, INVALID, ERROR
+    }
+
+    private static final class ImportLine {
+        private final long line;
+        private final String id;
+        private final String participantContextId;
+        private final String holder;
+        private final VerifiableCredentialResource resource;
+        private Status status;
+        private String error;
+
+        private ImportLine(long line, String id, String participantContextId, String holder, VerifiableCredentialResource resource) {
+            this.line = line;
+            this.id = id;
+            this.participantContextId = participantContextId;
+            this.holder = holder;
+            this.resource = resource;
+        }
+
+        static ImportLine rejected(long line, String id, String participantContextId, Status status, String error) {
+            var importLine = new ImportLine(line, id, participantContextId, null, null);
+            importLine.reject(status, error);
+            return importLine;
+        }
+
+        void reject(Status status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        Map<String, Object> toResult() {
+            var result = new LinkedHashMap<String, Object>();
+            result.put("line", line);
+            if (id != null) {
+                result.put("id", id);
+            }
+            if (participantContextId != null) {
+                result.put("participantContextId", participantContextId);
+            }
+            result.put("status", status);
+            if (error != null) {
+                result.put("error", error);
+            }
+            return result;
+        }
+    }
+
+    private static final class Counts {
+        private long lines;
+        private long created;
+        private long failed;
+    }
+
+    /**
+     * Remembers the most recently looked up participant contexts of one import, so that a stream sorted by participant
+     * looks each one up only once.
+     */
+    private final class KnownParticipants {
+        private final Map<String, Optional<ParticipantContext>> participants = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<ParticipantContext>> eldest) {
+                return size() > KNOWN_PARTICIPANTS_SIZE;
+            }
+        };
+
+        Optional<ParticipantContext> find(String participantContextId) {
+            return participants.computeIfAbsent(participantContextId, id -> {
+                var result = participantContextService.getParticipantContext(id);
+                return result.succeeded() ? Optional.of(result.getContent()) : Optional.empty();
+            });
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.nttdata.dataspace.ih.importcredentials;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.dataspace.ih.services.CredentialChangeListener;
+import com.nttdata.dataspace.ih.services.CredentialVerifier;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.Issuer;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialManifest;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.eclipse.edc.transaction.spi.NoopTransactionContext;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CredentialImportServiceImplTest {
+
+    private static final String PARTICIPANT = "did:web:participant";
+
+    @Mock
+    private CredentialStore credentialStore;
+
+    @Mock
+    private ParticipantContextService participantContextService;
+
+    @Mock
+    private Monitor monitor;
+
+    @Mock
+    private CredentialChangeListener changeListener;
+
+    private final ObjectMapper mapper = spy(new ObjectMapper());
+    private final Map<String, VerifiableCredentialManifest> manifests = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        lenient().when(participantContextService.getParticipantContext(anyString())).thenReturn(ServiceResult.notFound("not found"));
+        lenient().when(participantContextService.getParticipantContext(PARTICIPANT)).thenReturn(ServiceResult.success(mock(ParticipantContext.class)));
+        lenient().when(credentialStore.create(any())).thenReturn(StoreResult.success());
+        // lines are keyed manifests, the credential model itself is covered by the Identity Hub
+        lenient().doAnswer(i -> {
+            var manifest = manifests.get(i.<String>getArgument(0));
+            return manifest != null ? manifest : i.callRealMethod();
+        }).when(mapper).readValue(anyString(), eq(VerifiableCredentialManifest.class));
+    }
+
+    @Test
+    void importCredentials_shouldStoreAllLines_inBatches() throws IOException {
+        var lines = IntStream.range(0, 7).mapToObj(i -> line("cred-" + i, PARTICIPANT)).toList();
+        var transactionContext = spy(new NoopTransactionContext());
+
+        var result = service(transactionContext, 3).importCredentials(input(lines), new ByteArrayOutputStream());
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent().created()).isEqualTo(7);
+        assertThat(result.getContent().failed()).isZero();
+        verify(credentialStore, times(7)).create(any());
+        verify(transactionContext, times(3)).execute(any(TransactionContext.TransactionBlock.class));
+        verify(changeListener, times(3)).credentialsChanged(PARTICIPANT);
+    }
+
+    @Test
+    void importCredentials_shouldWriteResultPerLine_andSummary() throws IOException {
+        when(credentialStore.create(argThat(resource -> resource != null && "cred-dup".equals(resource.getId()))))
+                .thenReturn(StoreResult.alreadyExists("exists"));
+        var lines = List.of(line("cred-1", PARTICIPANT), "{not json", "", line("cred-dup", PARTICIPANT), line("cred-2", "did:web:unknown"));
+        var output = new ByteArrayOutputStream();
+
+        var result = service(new NoopTransactionContext(), 10).importCredentials(input(lines), output);
+
+        var results = output(output);
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+        assertThat(results.get(1).get("status").asText()).isEqualTo("INVALID");
+        assertThat(results.get(1).get("line").asLong()).isEqualTo(2);
+        assertThat(results.get(2).get("status").asText()).isEqualTo("CONFLICT");
+        assertThat(results.get(2).get("line").asLong()).isEqualTo(4);
+        assertThat(results.get(3).get("status").asText()).isEqualTo("INVALID");
+        assertThat(results.get(4).get("summary").get("created").asLong()).isEqualTo(1);
+        assertThat(result.getContent().lines()).isEqualTo(4);
+        assertThat(result.getContent().failed()).isEqualTo(3);
+    }
+
+    @Test
+    void importCredentials_shouldIsolateFailingLine_whenBatchTransactionFails() throws IOException {
+        when(credentialStore.create(argThat(resource -> resource != null && "cred-bad".equals(resource.getId()))))
+                .thenThrow(new IllegalStateException("constraint violation"));
+        var lines = List.of(line("cred-1", PARTICIPANT), line("cred-bad", PARTICIPANT), line("cred-2", PARTICIPANT));
+
+        var result = service(new NoopTransactionContext(), 10).importCredentials(input(lines), new ByteArrayOutputStream());
+
+        assertThat(result.getContent().created()).isEqualTo(2);
+        assertThat(result.getContent().failed()).isEqualTo(1);
+    }
+
+    @Test
+    void importCredentials_shouldLookUpParticipantOnce() throws IOException {
+        var lines = IntStream.range(0, 5).mapToObj(i -> line("cred-" + i, PARTICIPANT)).toList();
+
+        service(new NoopTransactionContext(), 2).importCredentials(input(lines), new ByteArrayOutputStream());
+
+        verify(participantContextService, times(1)).getParticipantContext(PARTICIPANT);
+    }
+
+    @Test
+    void importCredentials_shouldReportFailure_inStream_whenResultsWereWritten() throws IOException {
+        var output = new ByteArrayOutputStream();
+
+        var result = service(new NoopTransactionContext(), 1).importCredentials(failingInput(List.of(line("cred-1", PARTICIPANT))), output);
+
+        assertThat(result.failed()).isTrue();
+        var results = output(output);
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+        assertThat(results.get(1).get("error").asText()).contains("connection reset");
+        assertThat(results.get(1).get("summary").get("created").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void importCredentials_shouldWriteNothing_whenFailingBeforeFirstResult() {
+        var output = new ByteArrayOutputStream();
+
+        var result = service(new NoopTransactionContext(), 10).importCredentials(failingInput(List.of(line("cred-1", PARTICIPANT))), output);
+
+        assertThat(result.failed()).isTrue();
+        assertThat(output.size()).isZero();
+    }
+
+    @Test
+    void importCredentials_shouldRejectLines_failingVerification() throws IOException {
+        var participant = mock(ParticipantContext.class);
+        when(participant.getDid()).thenReturn("did:web:holder");
+        when(participantContextService.getParticipantContext(PARTICIPANT)).thenReturn(ServiceResult.success(participant));
+        var verified = new ArrayList<CredentialVerifier.HeldCredential>();
+        CredentialVerifier verifier = credentials -> {
+            verified.addAll(credentials);
+            return credentials.stream()
+                    .map(credential -> credential.credential().rawVc().equals("raw-cred-bad") ? Result.<Void>failure("revoked") : Result.<Void>success())
+                    .toList();
+        };
+        var lines = List.of(line("cred-1", PARTICIPANT), line("cred-bad", PARTICIPANT), "{not json");
+        var output = new ByteArrayOutputStream();
+
+        var result = new CredentialImportServiceImpl(credentialStore, participantContextService, new NoopTransactionContext(), mapper, monitor, 10, changeListener, verifier)
+                .importCredentials(input(lines), output);
+
+        assertThat(result.getContent().created()).isEqualTo(1);
+        assertThat(verified).extracting(CredentialVerifier.HeldCredential::holder).containsExactly("did:web:holder", "did:web:holder");
+        var results = output(output);
+        assertThat(results.get(1).get("status").asText()).isEqualTo("INVALID");
+        assertThat(results.get(1).get("error").asText()).contains("revoked");
+        verify(credentialStore, times(1)).create(any());
+    }
+
+    private CredentialImportServiceImpl service(TransactionContext transactionContext, int batchSize) {
+        return new CredentialImportServiceImpl(credentialStore, participantContextService, transactionContext, mapper, monitor, batchSize, changeListener, null);
+    }
+
+    private String line(String id, String participantContextId) {
+        var subject = mock(CredentialSubject.class);
+        lenient().when(subject.getId()).thenReturn("did:web:holder");
+        var credential = mock(VerifiableCredential.class);
+        lenient().when(credential.getIssuer()).thenReturn(new Issuer("did:web:issuer", Map.of()));
+        lenient().when(credential.getCredentialSubject()).thenReturn(List.of(subject));
+        var manifest = mock(VerifiableCredentialManifest.class);
+        lenient().when(manifest.getId()).thenReturn(id);
+        lenient().when(manifest.getParticipantContextId()).thenReturn(participantContextId);
+        lenient().when(manifest.getVerifiableCredentialContainer())
+                .thenReturn(new VerifiableCredentialContainer("raw-" + id, CredentialFormat.VC1_0_JWT, credential));
+        var text = "{\"id\":\"%s\"}".formatted(id);
+        manifests.put(text, manifest);
+        return text;
+    }
+
+    private static ByteArrayInputStream input(List<String> lines) {
+        return new ByteArrayInputStream(lines.stream().collect(Collectors.joining("\n")).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // the given lines, then a broken connection
+    private static InputStream failingInput(List<String> lines) {
+        return new SequenceInputStream(input(lines.stream().map(line -> line + "\n").toList()), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+    }
+
+    private List<JsonNode> output(ByteArrayOutputStream output) throws IOException {
+        var nodes = new ArrayList<JsonNode>();
+        for (var text : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            nodes.add(new ObjectMapper().readTree(text));
+        }
+        return nodes;
+    }
+}
@@ -6,6 +6,7 @@ plugins {
 dependencies {
     implementation(libs.edc.ih.spi.credentials)
     implementation(libs.edc.ih.spi)
+    implementation(libs.edc.ih.spi.did)
     implementation(libs.edc.ih.core.participant)
     implementation(libs.edc.bom.identityhub)
     implementation(libs.edc.bom.identityhub.sql)
@@ -13,6 +14,7 @@ dependencies {
     implementation(libs.edc.http.client)
     implementation(libs.edc.pc.config.store)
     implementation(libs.edc.pc.core)
+    implementation(libs.opentelemetry.api)
     
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
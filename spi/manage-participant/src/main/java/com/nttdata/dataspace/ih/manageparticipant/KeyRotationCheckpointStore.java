@@ -0,0 +1,51 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import java.util.List;
+
+/**
+ * Keeps the checkpoints of the key rotation jobs that did not finish yet, so that a job interrupted by a restart is
+ * resumed or reported when the runtime starts again.
+ * <p>
+ * Each job belongs to the runtime that runs it. A runtime that claims the job of another one takes it over: the
+ * checkpoints of the previous owner are no longer accepted, so it stops after its current batch.
+ * </p>
+ */
+public interface KeyRotationCheckpointStore {
+
+    /**
+     * A job that did not finish, e.g. because its runtime was stopped.
+     * @param participantContextIds the selected participants, null if the job walks all participants
+     * @param checkpoint the last participant of the last completed batch, null before the first batch completed
+     * @param owner the runtime that ran the job
+     */
+    record UnfinishedJob(String jobId, String rotationId, List<String> participantContextIds, String checkpoint,
+                         String owner) {
+    }
+
+    /**
+     * Records a job accepted by this runtime.
+     */
+    void started(String jobId, String rotationId, List<String> participantContextIds);
+
+    /**
+     * Moves the checkpoint of a job of this runtime.
+     * @return false if the job was taken over by another runtime
+     */
+    boolean checkpoint(String jobId, String checkpoint);
+
+    /**
+     * Forgets a job of this runtime that completed, was cancelled or failed.
+     */
+    void finished(String jobId);
+
+    /**
+     * The jobs of other runtimes that did not finish, the least recently updated first.
+     */
+    List<UnfinishedJob> unfinished();
+
+    /**
+     * Takes over an unfinished job.
+     * @return false if another runtime claimed it first
+     */
+    boolean claim(UnfinishedJob job);
+}
@@ -0,0 +1,24 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+/**
+ * JMX view of the bulk key rotation, totals across all jobs since start.
+ */
+public interface KeyRotationMXBean {
+
+    int getRunningJobs();
+
+    long getProcessed();
+
+    long getRotated();
+
+    long getSkipped();
+
+    long getFailed();
+
+    long getRepublished();
+
+    /**
+     * @return the checkpoint of the running job, or null if none is running
+     */
+    String getCheckpoint();
+}
@@ -0,0 +1,537 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import com.nttdata.dataspace.ih.services.KeyRotationJob;
+import com.nttdata.dataspace.ih.services.KeyRotationJob.Failure;
+import com.nttdata.dataspace.ih.services.KeyRotationRequest;
+import com.nttdata.dataspace.ih.services.KeyRotationService;
+import com.nttdata.dataspace.ih.services.ParticipantListingService;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
+import org.eclipse.edc.identityhub.spi.did.model.DidState;
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairState;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.KeyDescriptor;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of KeyRotationService interface.
+ * <p>
+ * A single coordinator thread walks the selected participants in ID order, in batches. Each participant is handed to a
+ * small worker pool at the configured rate, which rotates its default key pair to {@code <id>#key-<rotationId>} with
+ * the private key alias {@code <id>-alias-<rotationId>}, the naming of the initial participant seed. Once a batch is
+ * done, the published DID documents of its rotated participants are republished with one query, and the checkpoint
+ * moves to the last participant of the batch. Only one job runs at a time, so the rate is a global limit.
+ * </p>
+ * <p>
+ * The checkpoints are kept in a {@link KeyRotationCheckpointStore} until the job ends. A job that is interrupted by a
+ * shutdown keeps its checkpoint and is resumed or reported at the next start, see {@link #resumeUnfinished(boolean)}.
+ * </p>
+ */
+public class KeyRotationServiceImpl implements KeyRotationService, KeyRotationMXBean {
+
+    public static final double DEFAULT_RATE_PER_SECOND = 5;
+    public static final int DEFAULT_CONCURRENCY = 2;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final long DEFAULT_OVERLAP_SECONDS = 86_400;
+
+    private static final int RETAINED_JOBS = 20;
+    private static final int MAX_FAILURES = 100;
+    private static final String PARTICIPANT_PROPERTY = "participantContextId";
+    private static final Pattern ROTATION_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final DateTimeFormatter ROTATION_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final ParticipantListingService listingService;
+    private final KeyPairService keyPairService;
+    private final DidDocumentService didDocumentService;
+    private final KeyRotationCheckpointStore checkpoints;
+    private final Monitor monitor;
+    private final Executor coordinator;
+    private final Executor workers;
+    private final RateLimiter rateLimiter;
+    private final int batchSize;
+    private final Duration overlap;
+    private final Map<String, Object> keyGeneratorParams;
+    private final Clock clock;
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong rotated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong republished = new AtomicLong();
+
+    /**
+     * @param checkpoints keeps the checkpoints of the unfinished jobs
+     * @param coordinator runs the jobs, one thread is enough
+     * @param workers rotates the key pairs, its size is the rotation concurrency
+     * @param ratePerSecond maximum number of participants rotated per second, unlimited if zero or negative
+     * @param batchSize number of participants between DID document republication and checkpoints
+     * @param overlap how long the previous key pair stays valid for verification
+     * @param keyGeneratorParams algorithm and curve of the new key pairs
+     */
+    public KeyRotationServiceImpl(ParticipantListingService listingService, KeyPairService keyPairService,
+                                  DidDocumentService didDocumentService, KeyRotationCheckpointStore checkpoints, Monitor monitor, Executor coordinator, Executor workers,
+                                  double ratePerSecond, int batchSize, Duration overlap, Map<String, Object> keyGeneratorParams, Clock clock) {
+        this.listingService = listingService;
+        this.keyPairService = keyPairService;
+        this.didDocumentService = didDocumentService;
+        this.checkpoints = checkpoints;
+        this.monitor = monitor;
+        this.coordinator = coordinator;
+        this.workers = workers;
+        this.rateLimiter = new RateLimiter(ratePerSecond);
+        this.batchSize = batchSize;
+        this.overlap = overlap;
+        this.keyGeneratorParams = keyGeneratorParams;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates the worker pool for key rotation.
+     * @param size number of worker threads, the rotation concurrency
+     */
+    public static ExecutorService newWorkerPool(int size) {
+        return newPool("key-rotation-", size);
+    }
+
+    /**
+     * Creates the single thread that runs the key rotation jobs.
+     */
+    public static ExecutorService newCoordinator() {
+        return newPool("key-rotation-coordinator-", 1);
+    }
+
+    private static ExecutorService newPool(String namePrefix, int size) {
+        var threadNumber = new AtomicInteger();
+        var pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            var thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    public ServiceResult<KeyRotationJob> submit(KeyRotationRequest request) {
+        var selection = request != null ? request : new KeyRotationRequest(null, null, null);
+        var rotationId = selection.rotationId() != null ? selection.rotationId() : ROTATION_ID_FORMAT.format(clock.instant());
+        if (!ROTATION_ID.matcher(rotationId).matches()) {
+            return ServiceResult.badRequest("Invalid rotation ID %s, expected up to 32 letters, digits, '-' or '_'".formatted(rotationId));
+        }
+        var participantIds = selection.participantContextIds();
+        if (participantIds != null && participantIds.stream().anyMatch(id -> id == null || id.isBlank())) {
+            return ServiceResult.badRequest("Participant context IDs must not be blank");
+        }
+
+        Job job;
+        synchronized (jobs) {
+            var running = jobs.values().stream().filter(j -> !j.isCompleted()).findFirst();
+            if (running.isPresent()) {
+                return ServiceResult.conflict("Key rotation job %s is still running".formatted(running.get().id));
+            }
+            job = new Job(UUID.randomUUID().toString(), rotationId, clock.instant());
+            jobs.put(job.id, job);
+            evictCompletedJobs();
+        }
+        try {
+            checkpoints.started(job.id, rotationId, participantIds == null || participantIds.isEmpty() ? null : participantIds);
+        } catch (EdcException e) {
+            monitor.severe("Key rotation job %s could not be recorded".formatted(job.id), e);
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            return ServiceResult.unexpected("Recording key rotation job failed: " + e.getMessage());
+        }
+        monitor.info("Key rotation job %s accepted, rotation %s of %s".formatted(job.id, rotationId,
+                participantIds == null || participantIds.isEmpty() ? "all participants" : participantIds.size() + " participants"));
+
+        start(job, participantIds, selection.startAfter());
+        return ServiceResult.success(job.snapshot());
+    }
+
+    /**
+     * Resumes or reports the jobs that did not finish before the last shutdown of this or another runtime, e.g. a
+     * job interrupted by a rolling update. Resuming takes the job over from its previous runtime, which stops after its
+     * current batch if it is still running. Only one job runs at a time, the others are reported.
+     * @param resume whether to resume a job, or only report the unfinished ones
+     */
+    public void resumeUnfinished(boolean resume) {
+        List<KeyRotationCheckpointStore.UnfinishedJob> unfinished;
+        try {
+            unfinished = checkpoints.unfinished();
+        } catch (EdcException e) {
+            monitor.warning("Reading unfinished key rotation jobs failed", e);
+            return;
+        }
+        for (var previous : unfinished) {
+            try {
+                if (resume && getRunningJobs() == 0 && checkpoints.claim(previous)) {
+                    var job = new Job(previous.jobId(), previous.rotationId(), clock.instant());
+                    job.checkpoint = previous.checkpoint();
+                    synchronized (jobs) {
+                        jobs.put(job.id, job);
+                        evictCompletedJobs();
+                    }
+                    monitor.info("Key rotation job %s of rotation %s resumed after checkpoint %s".formatted(
+                            job.id, job.rotationId, job.checkpoint));
+                    start(job, previous.participantContextIds(), previous.checkpoint());
+                    continue;
+                }
+            } catch (EdcException e) {
+                monitor.warning("Resuming key rotation job %s failed".formatted(previous.jobId()), e);
+            }
+            monitor.warning(("Key rotation job %s of rotation %s did not finish, checkpoint %s. Submit rotation %s with " +
+                    "startAfter %s to resume it").formatted(previous.jobId(), previous.rotationId(), previous.checkpoint(),
+                    previous.rotationId(), previous.checkpoint()));
+        }
+    }
+
+    private void start(Job job, List<String> participantIds, String startAfter) {
+        try {
+            coordinator.execute(() -> run(job, participantIds, startAfter));
+        } catch (RejectedExecutionException e) {
+            // the checkpoint is kept, the job is resumed at the next start
+            job.fail(null, "Key rotation is shutting down");
+            job.finish(KeyRotationJob.State.FAILED, clock);
+        }
+    }
+
+    @Override
+    public ServiceResult<KeyRotationJob> getJob(String jobId) {
+        var job = job(jobId);
+        return job == null
+                ? ServiceResult.notFound("No key rotation job with ID " + jobId)
+                : ServiceResult.success(job.snapshot());
+    }
+
+    @Override
+    public ServiceResult<KeyRotationJob> cancel(String jobId) {
+        var job = job(jobId);
+        if (job == null) {
+            return ServiceResult.notFound("No key rotation job with ID " + jobId);
+        }
+        job.cancelled = true;
+        return ServiceResult.success(job.snapshot());
+    }
+
+    @Override
+    public int getRunningJobs() {
+        synchronized (jobs) {
+            return (int) jobs.values().stream().filter(j -> !j.isCompleted()).count();
+        }
+    }
+
+    @Override
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    @Override
+    public long getRotated() {
+        return rotated.get();
+    }
+
+    @Override
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public long getRepublished() {
+        return republished.get();
+    }
+
+    @Override
+    public String getCheckpoint() {
+        synchronized (jobs) {
+            return jobs.values().stream().filter(j -> !j.isCompleted()).map(j -> j.checkpoint).filter(Objects::nonNull).findFirst().orElse(null);
+        }
+    }
+
+    private Job job(String jobId) {
+        synchronized (jobs) {
+            return jobs.get(jobId);
+        }
+    }
+
+    private void run(Job job, List<String> participantIds, String startAfter) {
+        try {
+            if (participantIds != null && !participantIds.isEmpty()) {
+                var selected = participantIds.stream()
+                        .distinct()
+                        .sorted()
+                        .filter(id -> startAfter == null || id.compareTo(startAfter) > 0)
+                        .toList();
+                for (int from = 0; from < selected.size() && !job.cancelled; from += batchSize) {
+                    rotateBatch(job, selected.subList(from, Math.min(from + batchSize, selected.size())));
+                }
+            } else {
+                var cursor = startAfter != null ? ParticipantListingServiceImpl.encodeCursor(startAfter) : null;
+                do {
+                    var page = listingService.list(cursor, batchSize);
+                    if (page.failed()) {
+                        job.fail(null, "Listing participants failed: " + page.getFailureDetail());
+                        finish(job, KeyRotationJob.State.FAILED);
+                        return;
+                    }
+                    rotateBatch(job, page.getContent().items().stream().map(ParticipantContext::getParticipantContextId).toList());
+                    cursor = page.getContent().nextCursor();
+                } while (cursor != null && !job.cancelled);
+            }
+            finish(job, job.cancelled ? KeyRotationJob.State.CANCELLED : KeyRotationJob.State.COMPLETED);
+        } catch (RuntimeException e) {
+            monitor.severe("Key rotation job %s failed after checkpoint %s".formatted(job.id, job.checkpoint), e);
+            job.fail(null, e.getMessage());
+            finish(job, KeyRotationJob.State.FAILED);
+        }
+    }
+
+    private void rotateBatch(Job job, List<String> participantIds) {
+        var done = new Semaphore(0);
+        Set<String> rotatedParticipants = ConcurrentHashMap.newKeySet();
+        int submitted = 0;
+        String last = null;
+        for (var participantId : participantIds) {
+            if (job.cancelled || !rateLimiter.acquire()) {
+                job.cancelled = true;
+                break;
+            }
+            try {
+                workers.execute(() -> {
+                    try {
+                        if (rotate(job, participantId)) {
+                            rotatedParticipants.add(participantId);
+                        }
+                    } finally {
+                        done.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                job.cancelled = true;
+                break;
+            }
+            submitted++;
+            last = participantId;
+        }
+        try {
+            done.acquire(submitted);
+        } catch (InterruptedException e) {
+            job.cancelled = true;
+            // the keys rotated so far are only resolvable once their documents are republished; the checkpoint stays,
+            // since rotations of this batch may still be running
+            republish(job, Set.copyOf(rotatedParticipants));
+            Thread.currentThread().interrupt();
+            return;
+        }
+        republish(job, rotatedParticipants);
+        if (last != null) {
+            job.checkpoint = last;
+            saveCheckpoint(job, last);
+        }
+    }
+
+    private void saveCheckpoint(Job job, String checkpoint) {
+        try {
+            if (!checkpoints.checkpoint(job.id, checkpoint)) {
+                job.cancelled = true;
+                job.fail(null, "Key rotation job was taken over by another runtime");
+            }
+        } catch (EdcException e) {
+            // a resumed job repeats the participants after the persisted checkpoint, they are skipped
+            monitor.warning("Key rotation job %s: saving checkpoint %s failed".formatted(job.id, checkpoint), e);
+        }
+    }
+
+    /**
+     * Rotates the default key pair of a participant, unless it is already a key pair of this rotation.
+     * @return true if the key pair was rotated
+     */
+    private boolean rotate(Job job, String participantId) {
+        processed.incrementAndGet();
+        job.processed.incrementAndGet();
+        try {
+            var keyPairs = keyPairService.query(QuerySpec.Builder.newInstance()
+                    .filter(new Criterion(PARTICIPANT_PROPERTY, "=", participantId))
+                    .build());
+            if (keyPairs.failed()) {
+                fail(job, participantId, keyPairs.getFailureDetail());
+                return false;
+            }
+            var suffix = "-" + job.rotationId;
+            var current = keyPairs.getContent().stream()
+                    .filter(KeyPairResource::isDefaultPair)
+                    .filter(keyPair -> keyPair.getState() == KeyPairState.ACTIVATED.code())
+                    .findFirst();
+            if (current.isEmpty() || current.get().getKeyId().endsWith(suffix)) {
+                skipped.incrementAndGet();
+                job.skipped.incrementAndGet();
+                return false;
+            }
+            var descriptor = KeyDescriptor.Builder.newInstance()
+                    .keyId(ParticipantConstants.PARTICIPANT_PUBLIC_KEY_ALIAS_FORMAT.formatted(participantId) + suffix)
+                    .privateKeyAlias(ParticipantConstants.PARTICIPANT_PRIVATE_KEY_ALIAS.formatted(participantId) + suffix)
+                    .keyGeneratorParams(keyGeneratorParams)
+                    .build();
+            var result = keyPairService.rotateKeyPair(current.get().getId(), descriptor, overlap.toMillis());
+            if (result.failed()) {
+                fail(job, participantId, result.getFailureDetail());
+                return false;
+            }
+            rotated.incrementAndGet();
+            job.rotated.incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            monitor.warning("Key rotation job %s: participant %s failed".formatted(job.id, participantId), e);
+            fail(job, participantId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Republishes the published DID documents of the participants rotated in a batch, one query for the whole batch.
+     */
+    private void republish(Job job, Collection<String> participantIds) {
+        if (participantIds.isEmpty()) {
+            return;
+        }
+        var documents = didDocumentService.queryDocuments(QuerySpec.Builder.newInstance()
+                .filter(new Criterion(PARTICIPANT_PROPERTY, "in", List.copyOf(participantIds)))
+                .filter(new Criterion("state", "=", DidState.PUBLISHED.code()))
+                .limit(Integer.MAX_VALUE)
+                .build());
+        if (documents.failed()) {
+            job.fail(null, "Querying DID documents failed: " + documents.getFailureDetail());
+            return;
+        }
+        for (DidDocument document : documents.getContent()) {
+            var result = didDocumentService.publish(document.getId());
+            if (result.succeeded()) {
+                republished.incrementAndGet();
+                job.republished.incrementAndGet();
+            } else {
+                job.fail(null, "Republishing %s failed: %s".formatted(document.getId(), result.getFailureDetail()));
+            }
+        }
+    }
+
+    private void fail(Job job, String participantId, String error) {
+        failed.incrementAndGet();
+        job.failed.incrementAndGet();
+        job.fail(participantId, error);
+    }
+
+    private void finish(Job job, KeyRotationJob.State state) {
+        job.finish(state, clock);
+        if (Thread.currentThread().isInterrupted()) {
+            // interrupted by the shutdown, the checkpoint is kept for the next start
+            monitor.info("Key rotation job %s interrupted, it is resumed at the next start".formatted(job.id));
+        } else {
+            try {
+                checkpoints.finished(job.id);
+            } catch (EdcException e) {
+                monitor.warning("Key rotation job %s: removing its checkpoint failed".formatted(job.id), e);
+            }
+        }
+        var snapshot = job.snapshot();
+        monitor.info("Key rotation job %s %s: %d rotated, %d skipped, %d failed, %d DID documents republished, checkpoint %s".formatted(
+                job.id, state.name().toLowerCase(), snapshot.rotated(), snapshot.skipped(), snapshot.failed(),
+                snapshot.republished(), snapshot.checkpoint()));
+    }
+
+    private void evictCompletedJobs() {
+        var iterator = jobs.values().iterator();
+        while (jobs.size() > RETAINED_JOBS && iterator.hasNext()) {
+            if (iterator.next().isCompleted()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String rotationId;
+        private final Instant submittedAt;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong rotated = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong republished = new AtomicLong();
+        private final List<Failure> failures = new ArrayList<>();
+        private volatile boolean cancelled;
+        private volatile String checkpoint;
+        private volatile KeyRotationJob.State state = KeyRotationJob.State.RUNNING;
+        private volatile Instant completedAt;
+
+        private Job(String id, String rotationId, Instant submittedAt) {
+            this.id = id;
+            this.rotationId = rotationId;
+            this.submittedAt = submittedAt;
+        }
+
+        /**
+         * Records a failure detail, only the first ones are kept.
+         */
+        void fail(String participantId, String error) {
+            synchronized (failures) {
+                if (failures.size() < MAX_FAILURES) {
+                    failures.add(new Failure(participantId, error));
+                }
+            }
+        }
+
+        void finish(KeyRotationJob.State finalState, Clock clock) {
+            completedAt = clock.instant();
+            state = finalState;
+        }
+
+        boolean isCompleted() {
+            return state != KeyRotationJob.State.RUNNING;
+        }
+
+        KeyRotationJob snapshot() {
+            List<Failure> failureList;
+            synchronized (failures) {
+                failureList = List.copyOf(failures);
+            }
+            return new KeyRotationJob(id, rotationId, state, processed.get(), rotated.get(), skipped.get(), failed.get(),
+                    republished.get(), checkpoint, submittedAt, completedAt, failureList);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import com.nttdata.dataspace.ih.services.ParticipantContextPage;
+import com.nttdata.dataspace.ih.services.ParticipantListingService;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of ParticipantListingService interface.
+ * <p>
+ * Uses keyset pagination: every page is a query for the participant contexts whose ID is greater than the last ID of
+ * the previous page, sorted by ID. The SQL store runs this as a range scan on the primary key, so deep pages cost the
+ * same as the first one, unlike offset pagination. The cursor is the base64url encoded last ID.
+ * </p>
+ */
+public class ParticipantListingServiceImpl implements ParticipantListingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int STREAM_PAGE_SIZE = 500;
+
+    private static final String ID_PROPERTY = "participantContextId";
+
+    private final ParticipantContextService participantContextService;
+    private final int streamPageSize;
+
+    public ParticipantListingServiceImpl(ParticipantContextService participantContextService) {
+        this(participantContextService, STREAM_PAGE_SIZE);
+    }
+
+    public ParticipantListingServiceImpl(ParticipantContextService participantContextService, int streamPageSize) {
+        this.participantContextService = participantContextService;
+        this.streamPageSize = streamPageSize;
+    }
+
+    @Override
+    public ServiceResult<ParticipantContextPage> list(String cursor, int limit) {
+        String afterId;
+        try {
+            afterId = decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ServiceResult.badRequest("Invalid cursor: " + cursor);
+        }
+        var pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        // one extra item tells whether there is a next page without a count query
+        return page(afterId, pageSize + 1).map(items -> {
+            if (items.size() <= pageSize) {
+                return new ParticipantContextPage(items, null);
+            }
+            var pageItems = items.subList(0, pageSize);
+            return new ParticipantContextPage(pageItems, encodeCursor(pageItems.get(pageSize - 1).getParticipantContextId()));
+        });
+    }
+
+    @Override
+    public ServiceResult<Stream<ParticipantContext>> stream(String cursor) {
+        String afterId;
+        try {
+            afterId = decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ServiceResult.badRequest("Invalid cursor: " + cursor);
+        }
+        return page(afterId, streamPageSize).map(first -> Stream.iterate(first, page -> !page.isEmpty(), this::nextPage)
+                .flatMap(List::stream));
+    }
+
+    private List<ParticipantContext> nextPage(List<ParticipantContext> page) {
+        if (page.size() < streamPageSize) {
+            return List.of();
+        }
+        var lastId = page.get(page.size() - 1).getParticipantContextId();
+        return page(lastId, streamPageSize)
+                .orElseThrow(failure -> new EdcException("Failed to read participant contexts after %s: %s".formatted(lastId, failure.getFailureDetail())));
+    }
+
+    private ServiceResult<List<ParticipantContext>> page(String afterId, int size) {
+        var query = QuerySpec.Builder.newInstance()
+                .sortField(ID_PROPERTY)
+                .sortOrder(SortOrder.ASC)
+                .offset(0)
+                .limit(size);
+        if (afterId != null) {
+            query.filter(new Criterion(ID_PROPERTY, ">", afterId));
+        }
+        return participantContextService.query(query.build()).map(ArrayList::new);
+    }
+
+    static String encodeCursor(String participantContextId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(participantContextId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
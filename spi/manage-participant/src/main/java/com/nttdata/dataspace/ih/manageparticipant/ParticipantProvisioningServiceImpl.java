@@ -0,0 +1,231 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import com.nttdata.dataspace.ih.services.ParticipantProvisioningService;
+import com.nttdata.dataspace.ih.services.ParticipantService;
+import com.nttdata.dataspace.ih.services.ProvisioningQueueFullException;
+import com.nttdata.dataspace.ih.services.ProvisioningJob;
+import com.nttdata.dataspace.ih.services.ProvisioningJob.Item;
+import com.nttdata.dataspace.ih.services.ProvisioningJob.ItemStatus;
+
+import org.eclipse.edc.identityhub.api.verifiablecredential.validation.ParticipantManifestValidator;
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantManifest;
+import org.eclipse.edc.participantcontext.spi.config.service.ParticipantContextConfigService;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.ServiceFailure;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Implementation of ParticipantProvisioningService interface.
+ * <p>
+ * Every participant of a batch is created by {@link ParticipantService} on a fixed pool of worker threads, so request
+ * threads only queue the batch. The number of queued participants is bounded; a batch that does not fit as a whole is
+ * rejected with a {@link ProvisioningQueueFullException}. Jobs are kept in memory, the oldest completed ones are evicted once more than the configured number is kept.
+ * </p>
+ */
+public class ParticipantProvisioningServiceImpl implements ParticipantProvisioningService {
+
+    public static final int DEFAULT_WORKERS = 4;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    public static final int DEFAULT_RETAINED_JOBS = 100;
+
+    private final ParticipantService participantService;
+    private final ParticipantContextService participantContextService;
+    private final ParticipantContextConfigService participantContextConfigService;
+    private final ParticipantManifestValidator validator;
+    private final Monitor monitor;
+    private final Executor workers;
+    private final int queueCapacity;
+    private final int retainedJobs;
+    private final Clock clock;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public ParticipantProvisioningServiceImpl(ParticipantService participantService, ParticipantContextService participantContextService,
+                                              ParticipantContextConfigService participantContextConfigService, ParticipantManifestValidator validator,
+                                              Monitor monitor, Executor workers, int queueCapacity, int retainedJobs, Clock clock) {
+        this.participantService = participantService;
+        this.participantContextService = participantContextService;
+        this.participantContextConfigService = participantContextConfigService;
+        this.validator = validator;
+        this.monitor = monitor;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.retainedJobs = retainedJobs;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates the bounded worker pool for provisioning jobs. Capacity is enforced by the service, not by the queue.
+     * @param size number of worker threads
+     */
+    public static ExecutorService newWorkerPool(int size) {
+        var threadNumber = new AtomicInteger();
+        var pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            var thread = new Thread(runnable, "participant-provisioning-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    public ServiceResult<ProvisioningJob> submit(List<ParticipantManifest> manifests) {
+        if (manifests == null || manifests.isEmpty()) {
+            return ServiceResult.badRequest("At least one participant manifest is required");
+        }
+        if (!reserve(manifests.size())) {
+            throw new ProvisioningQueueFullException("Provisioning queue is full (%d of %d participants queued), retry later".formatted(queued.get(), queueCapacity));
+        }
+
+        var job = new Job(UUID.randomUUID().toString(), manifests, clock.instant());
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            evictCompletedJobs();
+        }
+        monitor.info("Provisioning job %s accepted with %d participants".formatted(job.id, manifests.size()));
+
+        for (int i = 0; i < manifests.size(); i++) {
+            var index = i;
+            var manifest = manifests.get(i);
+            try {
+                workers.execute(() -> provision(job, index, manifest));
+            } catch (RejectedExecutionException e) {
+                queued.decrementAndGet();
+                job.complete(index, new Item(participantId(manifest), ItemStatus.FAILED, "Provisioning is shutting down"), clock);
+            }
+        }
+        return ServiceResult.success(job.snapshot());
+    }
+
+    @Override
+    public ServiceResult<ProvisioningJob> getJob(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        return job == null
+                ? ServiceResult.notFound("No provisioning job with ID " + jobId)
+                : ServiceResult.success(job.snapshot());
+    }
+
+    private boolean reserve(int count) {
+        while (true) {
+            var current = queued.get();
+            if (current + count > queueCapacity) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + count)) {
+                return true;
+            }
+        }
+    }
+
+    private void provision(Job job, int index, ParticipantManifest manifest) {
+        var participantId = participantId(manifest);
+        Item item;
+        try {
+            var result = participantService.createParticipant(manifest, participantContextService, monitor, validator, participantContextConfigService);
+            if (result == null) {
+                item = new Item(participantId, ItemStatus.FAILED, "No result");
+            } else if (result.succeeded()) {
+                item = new Item(participantId, ItemStatus.CREATED, null);
+            } else if (result.reason() == ServiceFailure.Reason.CONFLICT) {
+                item = new Item(participantId, ItemStatus.CONFLICT, result.getFailureDetail());
+            } else {
+                item = new Item(participantId, ItemStatus.FAILED, result.getFailureDetail());
+            }
+        } catch (RuntimeException e) {
+            monitor.warning("Provisioning job %s: participant %s failed".formatted(job.id, participantId), e);
+            item = new Item(participantId, ItemStatus.FAILED, e.getMessage());
+        } finally {
+            queued.decrementAndGet();
+        }
+        if (job.complete(index, item, clock)) {
+            var snapshot = job.snapshot();
+            monitor.info("Provisioning job %s completed: %d created, %d failed".formatted(job.id, snapshot.created(), snapshot.failed()));
+        }
+    }
+
+    private void evictCompletedJobs() {
+        var iterator = jobs.values().iterator();
+        while (jobs.size() > retainedJobs && iterator.hasNext()) {
+            if (iterator.next().isCompleted()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String participantId(ParticipantManifest manifest) {
+        return manifest != null ? manifest.getParticipantContextId() : null;
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Instant submittedAt;
+        private final AtomicReferenceArray<Item> items;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private volatile Instant completedAt;
+
+        private Job(String id, List<ParticipantManifest> manifests, Instant submittedAt) {
+            this.id = id;
+            this.submittedAt = submittedAt;
+            this.items = new AtomicReferenceArray<>(manifests.size());
+            for (int i = 0; i < manifests.size(); i++) {
+                items.set(i, new Item(participantId(manifests.get(i)), ItemStatus.PENDING, null));
+            }
+            this.remaining = new AtomicInteger(manifests.size());
+        }
+
+        /**
+         * Records the result of one item.
+         * @return true if this was the last item of the job
+         */
+        boolean complete(int index, Item item, Clock clock) {
+            items.set(index, item);
+            if (item.status() == ItemStatus.CREATED) {
+                created.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+            if (remaining.decrementAndGet() == 0) {
+                completedAt = clock.instant();
+                return true;
+            }
+            return false;
+        }
+
+        boolean isCompleted() {
+            return completedAt != null;
+        }
+
+        ProvisioningJob snapshot() {
+            var completed = completedAt;
+            var itemList = new ArrayList<Item>(items.length());
+            for (int i = 0; i < items.length(); i++) {
+                itemList.add(items.get(i));
+            }
+            return new ProvisioningJob(id, completed != null ? ProvisioningJob.State.COMPLETED : ProvisioningJob.State.RUNNING,
+                    items.length(), created.get(), failed.get(), submittedAt, completed, itemList);
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.nttdata.dataspace.ih.manageparticipant;
 
 import com.nttdata.dataspace.ih.services.ParticipantService;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
 import org.eclipse.edc.identityhub.api.verifiablecredential.validation.ParticipantManifestValidator;
 import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.CreateParticipantContextResponse;
@@ -20,6 +23,8 @@ import org.eclipse.edc.http.spi.EdcHttpClient;
  */
 public class ParticipantServiceImpl implements ParticipantService {
 
+    private static final String INSTRUMENTATION_SCOPE = "com.nttdata.dataspace.ih.manageparticipant";
+
     /**
      * Create a new participant in the system.
      * @param participantData
@@ -47,6 +52,28 @@ public class ParticipantServiceImpl implements ParticipantService {
      */
     @Override
     public ServiceResult<CreateParticipantContextResponse> createParticipant(ParticipantManifest participantData, ParticipantContextService participantContextService, Monitor monitor, ParticipantManifestValidator validator, ParticipantContextConfigService participantContextConfigService) {
+        // one span per participant, so a slow seed shows which participant and which store or Vault call it spent its time in.
+        // The global instance is a no-op unless the tracing extension is enabled.
+        Tracer tracer = GlobalOpenTelemetry.getTracer(INSTRUMENTATION_SCOPE);
+        var span = tracer.spanBuilder("ParticipantService.createParticipant")
+                .setAttribute("participant.context.id", String.valueOf(participantData.getParticipantContextId()))
+                .startSpan();
+        try (var ignored = span.makeCurrent()) {
+            var result = create(participantData, participantContextService, monitor, validator, participantContextConfigService);
+            if (result.failed()) {
+                span.setStatus(StatusCode.ERROR, result.getFailureDetail());
+            }
+            return result;
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private ServiceResult<CreateParticipantContextResponse> create(ParticipantManifest participantData, ParticipantContextService participantContextService, Monitor monitor, ParticipantManifestValidator validator, ParticipantContextConfigService participantContextConfigService) {
 
         String participantId = participantData.getParticipantContextId();
 
@@ -0,0 +1,42 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces permits evenly at a fixed rate, without bursts. Not meant for request paths: {@link #acquire()} sleeps.
+ */
+class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextPermitNanos;
+
+    /**
+     * @param permitsPerSecond the rate, unlimited if zero or negative
+     */
+    RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextPermitNanos = System.nanoTime();
+    }
+
+    /**
+     * Waits for the next permit.
+     * @return false if the thread was interrupted while waiting, with its interrupt flag set
+     */
+    synchronized boolean acquire() {
+        if (intervalNanos == 0) {
+            return true;
+        }
+        var now = System.nanoTime();
+        var wait = nextPermitNanos - now;
+        nextPermitNanos = Math.max(now, nextPermitNanos) + intervalNanos;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
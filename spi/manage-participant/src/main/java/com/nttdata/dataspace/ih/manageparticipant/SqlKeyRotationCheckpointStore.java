@@ -0,0 +1,148 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the key rotation checkpoints in a table of the Postgres primary, one row per job that did not finish. The row
+ * is written when the job is accepted, updated after every batch and deleted when the job ends.
+ */
+public class SqlKeyRotationCheckpointStore implements KeyRotationCheckpointStore {
+
+    static final String TABLE = "edc_ih_key_rotation_checkpoint";
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+            "job_id VARCHAR PRIMARY KEY, " +
+            "rotation_id VARCHAR NOT NULL, " +
+            "participant_context_ids VARCHAR[], " +
+            "checkpoint VARCHAR, " +
+            "owner VARCHAR NOT NULL, " +
+            "updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now())";
+
+    private static final String INSERT = "INSERT INTO " + TABLE +
+            " (job_id, rotation_id, participant_context_ids, owner) VALUES (?, ?, ?, ?)";
+    private static final String CHECKPOINT = "UPDATE " + TABLE +
+            " SET checkpoint = ?, updated_at = now() WHERE job_id = ? AND owner = ?";
+    private static final String DELETE = "DELETE FROM " + TABLE + " WHERE job_id = ? AND owner = ?";
+    private static final String UNFINISHED = "SELECT job_id, rotation_id, participant_context_ids, checkpoint, owner FROM " +
+            TABLE + " WHERE owner <> ? ORDER BY updated_at";
+    private static final String CLAIM = "UPDATE " + TABLE +
+            " SET owner = ?, updated_at = now() WHERE job_id = ? AND owner = ?";
+
+    private final Supplier<DataSource> dataSource;
+    private final TransactionContext transactionContext;
+    private final String owner;
+
+    /**
+     * @param owner identifies this runtime, unique per start
+     */
+    public SqlKeyRotationCheckpointStore(Supplier<DataSource> dataSource, TransactionContext transactionContext, String owner) {
+        this.dataSource = dataSource;
+        this.transactionContext = transactionContext;
+        this.owner = owner;
+    }
+
+    public void createTable() {
+        execute(connection -> {
+            try (var statement = connection.createStatement()) {
+                statement.execute(CREATE_TABLE);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void started(String jobId, String rotationId, List<String> participantContextIds) {
+        execute(connection -> {
+            try (var insert = connection.prepareStatement(INSERT)) {
+                insert.setString(1, jobId);
+                insert.setString(2, rotationId);
+                insert.setArray(3, participantContextIds == null ? null
+                        : connection.createArrayOf("varchar", participantContextIds.toArray()));
+                insert.setString(4, owner);
+                return insert.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public boolean checkpoint(String jobId, String checkpoint) {
+        return execute(connection -> {
+            try (var update = connection.prepareStatement(CHECKPOINT)) {
+                update.setString(1, checkpoint);
+                update.setString(2, jobId);
+                update.setString(3, owner);
+                return update.executeUpdate() == 1;
+            }
+        });
+    }
+
+    @Override
+    public void finished(String jobId) {
+        execute(connection -> {
+            try (var delete = connection.prepareStatement(DELETE)) {
+                delete.setString(1, jobId);
+                delete.setString(2, owner);
+                return delete.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public List<UnfinishedJob> unfinished() {
+        return execute(connection -> {
+            try (var query = connection.prepareStatement(UNFINISHED)) {
+                query.setString(1, owner);
+                try (var result = query.executeQuery()) {
+                    var jobs = new ArrayList<UnfinishedJob>();
+                    while (result.next()) {
+                        var participantIds = result.getArray("participant_context_ids");
+                        jobs.add(new UnfinishedJob(result.getString("job_id"), result.getString("rotation_id"),
+                                participantIds == null ? null : Arrays.asList((String[]) participantIds.getArray()),
+                                result.getString("checkpoint"), result.getString("owner")));
+                    }
+                    return jobs;
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean claim(UnfinishedJob job) {
+        return execute(connection -> {
+            try (var update = connection.prepareStatement(CLAIM)) {
+                update.setString(1, owner);
+                update.setString(2, job.jobId());
+                update.setString(3, job.owner());
+                return update.executeUpdate() == 1;
+            }
+        });
+    }
+
+    private <T> T execute(SqlFunction<T> function) {
+        return transactionContext.execute(() -> {
+            var source = dataSource.get();
+            if (source == null) {
+                throw new EdcException("No datasource for the key rotation checkpoints");
+            }
+            try (var connection = source.getConnection()) {
+                return function.apply(connection);
+            } catch (SQLException e) {
+                throw new EdcException("Key rotation checkpoint table %s: %s".formatted(TABLE, e.getMessage()), e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface SqlFunction<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+}
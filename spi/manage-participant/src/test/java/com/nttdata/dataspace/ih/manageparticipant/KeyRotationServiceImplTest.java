@@ -0,0 +1,318 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import com.nttdata.dataspace.ih.services.KeyRotationJob;
+import com.nttdata.dataspace.ih.services.KeyRotationRequest;
+import com.nttdata.dataspace.ih.services.ParticipantContextPage;
+import com.nttdata.dataspace.ih.services.ParticipantListingService;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairState;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.KeyDescriptor;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.ServiceFailure;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KeyRotationServiceImplTest {
+
+    private static final Map<String, Object> KEY_PARAMS = Map.of(ParticipantConstants.KEY_ALGO_STRING, "EdDSA",
+            ParticipantConstants.KEY_CURVE_STRING, "Ed25519");
+
+    @Mock
+    private ParticipantListingService listingService;
+
+    @Mock
+    private KeyPairService keyPairService;
+
+    @Mock
+    private DidDocumentService didDocumentService;
+
+    @Mock
+    private KeyRotationCheckpointStore checkpoints;
+
+    @Mock
+    private Monitor monitor;
+
+    private final Executor direct = Runnable::run;
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+    private final Executor deferred = queuedTasks::add;
+    // default key ID per participant, updated by the rotations
+    private final Map<String, String> defaultKeys = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        List.of("p1", "p2", "p3", "p4", "p5").forEach(id -> defaultKeys.put(id, id + "#key"));
+        lenient().when(keyPairService.query(any())).thenAnswer(i -> {
+            QuerySpec query = i.getArgument(0);
+            var participantId = (String) query.getFilterExpression().get(0).getOperandRight();
+            var keyId = defaultKeys.get(participantId);
+            return ServiceResult.success(keyId == null ? List.of() : List.of(keyPair(keyId)));
+        });
+        lenient().when(keyPairService.rotateKeyPair(anyString(), any(), anyLong())).thenAnswer(i -> {
+            KeyDescriptor descriptor = i.getArgument(1);
+            defaultKeys.put(descriptor.getKeyId().substring(0, descriptor.getKeyId().indexOf('#')), descriptor.getKeyId());
+            return ServiceResult.success();
+        });
+        lenient().when(didDocumentService.queryDocuments(any())).thenAnswer(i -> {
+            QuerySpec query = i.getArgument(0);
+            @SuppressWarnings("unchecked")
+            var participantIds = (Collection<String>) query.getFilterExpression().get(0).getOperandRight();
+            return ServiceResult.success(participantIds.stream().map(KeyRotationServiceImplTest::document).toList());
+        });
+        lenient().when(didDocumentService.publish(anyString())).thenReturn(ServiceResult.success());
+        lenient().when(checkpoints.checkpoint(anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    void submit_shouldRotateDefaultKeys_withSeedNaming() {
+        var job = service(direct, 10).submit(new KeyRotationRequest(List.of("p2", "p1"), null, "r1")).getContent();
+
+        var descriptor = ArgumentCaptor.forClass(KeyDescriptor.class);
+        verify(keyPairService).rotateKeyPair(eq("p1#key"), descriptor.capture(), eq(Duration.ofHours(1).toMillis()));
+        assertThat(descriptor.getValue().getKeyId()).isEqualTo("p1#key-r1");
+        assertThat(descriptor.getValue().getPrivateKeyAlias()).isEqualTo("p1-alias-r1");
+        assertThat(descriptor.getValue().getKeyGeneratorParams()).isEqualTo(KEY_PARAMS);
+        assertThat(job.state()).isEqualTo(KeyRotationJob.State.COMPLETED);
+        assertThat(job.rotated()).isEqualTo(2);
+        assertThat(job.checkpoint()).isEqualTo("p2");
+    }
+
+    @Test
+    void submit_shouldRepublishDidDocuments_oncePerBatch() {
+        var service = service(direct, 2);
+
+        var job = service.submit(new KeyRotationRequest(List.of("p1", "p2", "p3", "p4", "p5"), null, "r1")).getContent();
+
+        verify(didDocumentService, times(3)).queryDocuments(any());
+        verify(didDocumentService, times(5)).publish(anyString());
+        assertThat(job.republished()).isEqualTo(5);
+        assertThat(service.getRepublished()).isEqualTo(5);
+        assertThat(service.getRotated()).isEqualTo(5);
+    }
+
+    @Test
+    void submit_shouldSkipParticipants_alreadyRotated() {
+        var service = service(direct, 10);
+        service.submit(new KeyRotationRequest(List.of("p1", "p2"), null, "r1"));
+
+        var job = service.submit(new KeyRotationRequest(List.of("p1", "p2", "p3"), null, "r1")).getContent();
+
+        assertThat(job.rotated()).isEqualTo(1);
+        assertThat(job.skipped()).isEqualTo(2);
+        verify(keyPairService, times(3)).rotateKeyPair(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void submit_shouldResume_afterCheckpoint() {
+        var job = service(direct, 10).submit(new KeyRotationRequest(List.of("p1", "p2", "p3", "p4"), "p2", "r1")).getContent();
+
+        assertThat(job.processed()).isEqualTo(2);
+        verify(keyPairService, never()).rotateKeyPair(eq("p1#key"), any(), anyLong());
+        verify(keyPairService, never()).rotateKeyPair(eq("p2#key"), any(), anyLong());
+    }
+
+    @Test
+    void submit_shouldWalkAllParticipants_whenNoneSelected() {
+        when(listingService.list(any(), eq(3)))
+                .thenReturn(ServiceResult.success(new ParticipantContextPage(participants("p1", "p2", "p3"), "cursor")))
+                .thenReturn(ServiceResult.success(new ParticipantContextPage(participants("p4", "p5"), null)));
+
+        var job = service(direct, 3).submit(new KeyRotationRequest(null, null, "r1")).getContent();
+
+        assertThat(job.state()).isEqualTo(KeyRotationJob.State.COMPLETED);
+        assertThat(job.rotated()).isEqualTo(5);
+        assertThat(job.checkpoint()).isEqualTo("p5");
+        verify(listingService).list(null, 3);
+        verify(listingService).list("cursor", 3);
+    }
+
+    @Test
+    void submit_shouldRecordFailures_andContinue() {
+        when(keyPairService.rotateKeyPair(eq("p2#key"), any(), anyLong())).thenReturn(ServiceResult.badRequest("vault down"));
+
+        var job = service(direct, 10).submit(new KeyRotationRequest(List.of("p1", "p2", "p3"), null, "r1")).getContent();
+
+        assertThat(job.state()).isEqualTo(KeyRotationJob.State.COMPLETED);
+        assertThat(job.rotated()).isEqualTo(2);
+        assertThat(job.failed()).isEqualTo(1);
+        assertThat(job.failures()).containsExactly(new KeyRotationJob.Failure("p2", "vault down"));
+    }
+
+    @Test
+    void submit_shouldConflict_whileJobIsRunning() {
+        var service = service(deferred, 10);
+        service.submit(new KeyRotationRequest(List.of("p1"), null, "r1"));
+
+        var result = service.submit(new KeyRotationRequest(List.of("p2"), null, "r2"));
+
+        assertThat(result.reason()).isEqualTo(ServiceFailure.Reason.CONFLICT);
+        assertThat(service.getRunningJobs()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_shouldRejectInvalidRotationId() {
+        var result = service(direct, 10).submit(new KeyRotationRequest(List.of("p1"), null, "r1/../x"));
+
+        assertThat(result.reason()).isEqualTo(ServiceFailure.Reason.BAD_REQUEST);
+    }
+
+    @Test
+    void cancel_shouldStopJob_beforeNextParticipant() {
+        var service = service(deferred, 10);
+        var job = service.submit(new KeyRotationRequest(List.of("p1", "p2"), null, "r1")).getContent();
+
+        service.cancel(job.id());
+        queuedTasks.forEach(Runnable::run);
+
+        var cancelled = service.getJob(job.id()).getContent();
+        assertThat(cancelled.state()).isEqualTo(KeyRotationJob.State.CANCELLED);
+        assertThat(cancelled.processed()).isZero();
+        assertThat(cancelled.checkpoint()).isNull();
+        verify(keyPairService, never()).rotateKeyPair(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void submit_shouldRepublishRotatedParticipants_whenInterruptedWaitingForBatch() {
+        var service = service(direct, 10);
+
+        Thread.currentThread().interrupt();
+        KeyRotationJob job;
+        try {
+            job = service.submit(new KeyRotationRequest(List.of("p1", "p2"), null, "r1")).getContent();
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+
+        assertThat(job.state()).isEqualTo(KeyRotationJob.State.CANCELLED);
+        assertThat(job.rotated()).isEqualTo(2);
+        assertThat(job.republished()).isEqualTo(2);
+        assertThat(job.checkpoint()).isNull();
+        verify(didDocumentService, times(2)).publish(anyString());
+        verify(checkpoints, never()).finished(anyString());
+    }
+
+    @Test
+    void submit_shouldPersistCheckpoints_untilJobEnds() {
+        var job = service(direct, 2).submit(new KeyRotationRequest(List.of("p3", "p2", "p1"), null, "r1")).getContent();
+
+        verify(checkpoints).started(job.id(), "r1", List.of("p3", "p2", "p1"));
+        verify(checkpoints).checkpoint(job.id(), "p2");
+        verify(checkpoints).checkpoint(job.id(), "p3");
+        verify(checkpoints).finished(job.id());
+    }
+
+    @Test
+    void submit_shouldFail_whenJobCannotBeRecorded() {
+        doThrow(new EdcException("primary down")).when(checkpoints).started(anyString(), anyString(), any());
+        var service = service(direct, 10);
+
+        var result = service.submit(new KeyRotationRequest(List.of("p1"), null, "r1"));
+
+        assertThat(result.reason()).isEqualTo(ServiceFailure.Reason.UNEXPECTED);
+        assertThat(service.getRunningJobs()).isZero();
+        verify(keyPairService, never()).rotateKeyPair(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void submit_shouldStop_whenJobWasTakenOver() {
+        when(checkpoints.checkpoint(anyString(), eq("p2"))).thenReturn(false);
+
+        var job = service(direct, 2).submit(new KeyRotationRequest(List.of("p1", "p2", "p3"), null, "r1")).getContent();
+
+        assertThat(job.state()).isEqualTo(KeyRotationJob.State.CANCELLED);
+        assertThat(job.processed()).isEqualTo(2);
+        verify(keyPairService, never()).rotateKeyPair(eq("p3#key"), any(), anyLong());
+    }
+
+    @Test
+    void resumeUnfinished_shouldClaimJob_andContinueAfterCheckpoint() {
+        var previous = new KeyRotationCheckpointStore.UnfinishedJob("job-1", "r1", List.of("p1", "p2", "p3"), "p2", "runtime-1");
+        when(checkpoints.unfinished()).thenReturn(List.of(previous));
+        when(checkpoints.claim(previous)).thenReturn(true);
+        var service = service(direct, 10);
+
+        service.resumeUnfinished(true);
+
+        var job = service.getJob("job-1").getContent();
+        assertThat(job.state()).isEqualTo(KeyRotationJob.State.COMPLETED);
+        assertThat(job.processed()).isEqualTo(1);
+        assertThat(job.checkpoint()).isEqualTo("p3");
+        verify(keyPairService).rotateKeyPair(eq("p3#key"), any(), anyLong());
+        verify(checkpoints).finished("job-1");
+    }
+
+    @Test
+    void resumeUnfinished_shouldOnlyReport_whenResumeDisabled() {
+        var previous = new KeyRotationCheckpointStore.UnfinishedJob("job-1", "r1", null, "p2", "runtime-1");
+        when(checkpoints.unfinished()).thenReturn(List.of(previous));
+        var service = service(direct, 10);
+
+        service.resumeUnfinished(false);
+
+        assertThat(service.getJob("job-1").failed()).isTrue();
+        verify(checkpoints, never()).claim(any());
+        verify(monitor).warning(contains("startAfter p2"));
+    }
+
+    private KeyRotationServiceImpl service(Executor coordinator, int batchSize) {
+        return new KeyRotationServiceImpl(listingService, keyPairService, didDocumentService, checkpoints, monitor, coordinator, direct,
+                0, batchSize, Duration.ofHours(1), KEY_PARAMS, Clock.systemUTC());
+    }
+
+    private static KeyPairResource keyPair(String keyId) {
+        var keyPair = mock(KeyPairResource.class);
+        lenient().when(keyPair.getId()).thenReturn(keyId);
+        lenient().when(keyPair.getKeyId()).thenReturn(keyId);
+        lenient().when(keyPair.isDefaultPair()).thenReturn(true);
+        lenient().when(keyPair.getState()).thenReturn(KeyPairState.ACTIVATED.code());
+        return keyPair;
+    }
+
+    private static DidDocument document(String participantId) {
+        var document = mock(DidDocument.class);
+        lenient().when(document.getId()).thenReturn(participantId);
+        return document;
+    }
+
+    private static List<ParticipantContext> participants(String... ids) {
+        return List.of(ids).stream().map(id -> {
+            var participant = mock(ParticipantContext.class);
+            lenient().when(participant.getParticipantContextId()).thenReturn(id);
+            return participant;
+        }).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.spi.result.ServiceFailure;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipantListingServiceImplTest {
+
+    @Mock
+    private ParticipantContextService participantContextService;
+
+    private final List<QuerySpec> queries = new ArrayList<>();
+    private List<ParticipantContext> participants;
+
+    @BeforeEach
+    void setUp() {
+        participants = IntStream.range(0, 25).mapToObj(i -> participant("participant-%03d".formatted(i))).toList();
+        // emulates the store: filter by the keyset criterion, sort by ID, apply the limit
+        lenient().when(participantContextService.query(any())).thenAnswer(i -> {
+            QuerySpec query = i.getArgument(0);
+            queries.add(query);
+            var afterId = query.getFilterExpression().stream()
+                    .filter(c -> ">".equals(c.getOperator()))
+                    .map(c -> (String) c.getOperandRight())
+                    .findFirst().orElse("");
+            return ServiceResult.success(participants.stream()
+                    .filter(p -> p.getParticipantContextId().compareTo(afterId) > 0)
+                    .sorted(Comparator.comparing(ParticipantContext::getParticipantContextId))
+                    .limit(query.getLimit())
+                    .toList());
+        });
+    }
+
+    @Test
+    void list_shouldWalkAllPages_withCursor() {
+        var service = new ParticipantListingServiceImpl(participantContextService);
+        var seen = new ArrayList<String>();
+
+        String cursor = null;
+        int pages = 0;
+        do {
+            var page = service.list(cursor, 10).getContent();
+            page.items().forEach(p -> seen.add(p.getParticipantContextId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(25).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void list_shouldQueryByKeyset_notByOffset() {
+        var service = new ParticipantListingServiceImpl(participantContextService);
+
+        var first = service.list(null, 10).getContent();
+        service.list(first.nextCursor(), 10);
+
+        var second = queries.get(1);
+        assertThat(second.getOffset()).isZero();
+        assertThat(second.getLimit()).isEqualTo(11);
+        assertThat(second.getSortField()).isEqualTo("participantContextId");
+        assertThat(second.getSortOrder()).isEqualTo(SortOrder.ASC);
+        assertThat(second.getFilterExpression()).containsExactly(new Criterion("participantContextId", ">", "participant-009"));
+    }
+
+    @Test
+    void list_shouldReturnNoCursor_onLastPage() {
+        var page = new ParticipantListingServiceImpl(participantContextService).list(null, 25).getContent();
+
+        assertThat(page.items()).hasSize(25);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void list_shouldRejectInvalidCursor() {
+        var result = new ParticipantListingServiceImpl(participantContextService).list("not base64!", 10);
+
+        assertThat(result.reason()).isEqualTo(ServiceFailure.Reason.BAD_REQUEST);
+    }
+
+    @Test
+    void stream_shouldReadPagesLazily() {
+        var service = new ParticipantListingServiceImpl(participantContextService, 10);
+
+        var stream = service.stream(null).getContent();
+        verify(participantContextService, times(1)).query(any());
+
+        assertThat(stream.limit(15).map(ParticipantContext::getParticipantContextId).toList())
+                .hasSize(15).last().isEqualTo("participant-014");
+        verify(participantContextService, times(2)).query(any());
+    }
+
+    @Test
+    void stream_shouldReturnAllParticipants_afterCursor() {
+        var service = new ParticipantListingServiceImpl(participantContextService, 10);
+        var cursor = ParticipantListingServiceImpl.encodeCursor("participant-004");
+
+        var ids = service.stream(cursor).getContent().map(ParticipantContext::getParticipantContextId).toList();
+
+        assertThat(ids).hasSize(20).first().isEqualTo("participant-005");
+    }
+
+    private static ParticipantContext participant(String id) {
+        var participant = mock(ParticipantContext.class);
+        lenient().when(participant.getParticipantContextId()).thenReturn(id);
+        return participant;
+    }
+}
@@ -0,0 +1,163 @@
+package com.nttdata.dataspace.ih.manageparticipant;
+
+import com.nttdata.dataspace.ih.services.ParticipantService;
+import com.nttdata.dataspace.ih.services.ProvisioningJob;
+import com.nttdata.dataspace.ih.services.ProvisioningJob.ItemStatus;
+import com.nttdata.dataspace.ih.services.ProvisioningQueueFullException;
+import org.eclipse.edc.identityhub.api.verifiablecredential.validation.ParticipantManifestValidator;
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantManifest;
+import org.eclipse.edc.participantcontext.spi.config.service.ParticipantContextConfigService;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.ServiceFailure;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipantProvisioningServiceImplTest {
+
+    @Mock
+    private ParticipantService participantService;
+
+    @Mock
+    private ParticipantContextService participantContextService;
+
+    @Mock
+    private ParticipantContextConfigService participantContextConfigService;
+
+    @Mock
+    private ParticipantManifestValidator validator;
+
+    @Mock
+    private Monitor monitor;
+
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+    private final Executor deferredExecutor = queuedTasks::add;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(participantService.createParticipant(any(), any(), any(), any(ParticipantManifestValidator.class), any()))
+                .thenReturn(ServiceResult.success(null));
+    }
+
+    @Test
+    void submit_shouldReturnRunningJob_withoutProcessingOnCallerThread() {
+        var service = service(deferredExecutor, 100);
+
+        var result = service.submit(manifests(3));
+
+        assertThat(result.succeeded()).isTrue();
+        var job = result.getContent();
+        assertThat(job.state()).isEqualTo(ProvisioningJob.State.RUNNING);
+        assertThat(job.items()).extracting(ProvisioningJob.Item::status).containsOnly(ItemStatus.PENDING);
+        assertThat(queuedTasks).hasSize(3);
+    }
+
+    @Test
+    void getJob_shouldReportProgressAndPerItemResults() {
+        when(participantService.createParticipant(argThat(m -> m != null && "participant-1".equals(m.getParticipantContextId())), any(), any(), any(ParticipantManifestValidator.class), any()))
+                .thenReturn(ServiceResult.conflict("Participant already exist: participant-1"));
+        when(participantService.createParticipant(argThat(m -> m != null && "participant-2".equals(m.getParticipantContextId())), any(), any(), any(ParticipantManifestValidator.class), any()))
+                .thenThrow(new EdcException("vault unavailable"));
+        var service = service(deferredExecutor, 100);
+        var jobId = service.submit(manifests(4)).getContent().id();
+
+        queuedTasks.get(0).run();
+        var running = service.getJob(jobId).getContent();
+        queuedTasks.subList(1, 4).forEach(Runnable::run);
+        var completed = service.getJob(jobId).getContent();
+
+        assertThat(running.state()).isEqualTo(ProvisioningJob.State.RUNNING);
+        assertThat(running.created()).isEqualTo(1);
+        assertThat(completed.state()).isEqualTo(ProvisioningJob.State.COMPLETED);
+        assertThat(completed.completedAt()).isNotNull();
+        assertThat(completed.created()).isEqualTo(2);
+        assertThat(completed.failed()).isEqualTo(2);
+        assertThat(completed.items()).extracting(ProvisioningJob.Item::status)
+                .containsExactly(ItemStatus.CREATED, ItemStatus.CONFLICT, ItemStatus.FAILED, ItemStatus.CREATED);
+        assertThat(completed.items().get(2).error()).isEqualTo("vault unavailable");
+    }
+
+    @Test
+    void getJob_shouldReportFailed_forOtherFailuresThanConflict() {
+        when(participantService.createParticipant(argThat(m -> m != null && "participant-0".equals(m.getParticipantContextId())), any(), any(), any(ParticipantManifestValidator.class), any()))
+                .thenReturn(ServiceResult.badRequest("invalid manifest"));
+        when(participantService.createParticipant(argThat(m -> m != null && "participant-1".equals(m.getParticipantContextId())), any(), any(), any(ParticipantManifestValidator.class), any()))
+                .thenReturn(null);
+        var service = service(deferredExecutor, 100);
+        var jobId = service.submit(manifests(2)).getContent().id();
+
+        queuedTasks.forEach(Runnable::run);
+
+        var completed = service.getJob(jobId).getContent();
+        assertThat(completed.items()).extracting(ProvisioningJob.Item::status).containsExactly(ItemStatus.FAILED, ItemStatus.FAILED);
+        assertThat(completed.items().get(0).error()).isEqualTo("invalid manifest");
+    }
+
+    @Test
+    void submit_shouldRejectBatch_whenQueueIsFull() {
+        var service = service(deferredExecutor, 5);
+        service.submit(manifests(4));
+
+        assertThatThrownBy(() -> service.submit(manifests(2))).isInstanceOf(ProvisioningQueueFullException.class);
+
+        queuedTasks.forEach(Runnable::run);
+        assertThat(service.submit(manifests(5)).succeeded()).isTrue();
+    }
+
+    @Test
+    void submit_shouldRejectEmptyBatch() {
+        var result = service(deferredExecutor, 5).submit(List.of());
+
+        assertThat(result.reason()).isEqualTo(ServiceFailure.Reason.BAD_REQUEST);
+    }
+
+    @Test
+    void getJob_shouldReturnNotFound_forUnknownJob() {
+        assertThat(service(deferredExecutor, 5).getJob("unknown").reason()).isEqualTo(ServiceFailure.Reason.NOT_FOUND);
+    }
+
+    @Test
+    void submit_shouldEvictOldestCompletedJobs() {
+        var service = new ParticipantProvisioningServiceImpl(participantService, participantContextService, participantContextConfigService,
+                validator, monitor, Runnable::run, 100, 2, Clock.systemUTC());
+
+        var first = service.submit(manifests(1)).getContent().id();
+        service.submit(manifests(1));
+        service.submit(manifests(1));
+
+        assertThat(service.getJob(first).failed()).isTrue();
+    }
+
+    private ParticipantProvisioningServiceImpl service(Executor executor, int queueCapacity) {
+        return new ParticipantProvisioningServiceImpl(participantService, participantContextService, participantContextConfigService,
+                validator, monitor, executor, queueCapacity, 100, Clock.systemUTC());
+    }
+
+    private static List<ParticipantManifest> manifests(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            var manifest = mock(ParticipantManifest.class);
+            lenient().when(manifest.getParticipantContextId()).thenReturn("participant-" + i);
+            return manifest;
+        }).toList();
+    }
+}